@@ -20,6 +20,7 @@ import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import io.swagger.annotations.ApiOperation;
 import java.io.IOException;
+import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -75,10 +76,9 @@ public class RestVNFPackage {
 
     log.debug("Onboarding");
     if (file == null || file.isEmpty()) throw new BadRequestException("File is null or empty!");
-    byte[] bytes = file.getBytes();
     VirtualNetworkFunctionDescriptor virtualNetworkFunctionDescriptor = null;
-    try {
-      virtualNetworkFunctionDescriptor = vnfPackageManagement.add(bytes, false, projectId, false);
+    try (InputStream pack = file.getInputStream()) {
+      virtualNetworkFunctionDescriptor = vnfPackageManagement.add(pack, false, projectId, false);
     } catch (ExecutionException
         | ExistingVNFPackage
         | DescriptorWrongFormat
@@ -219,12 +219,12 @@ public class RestVNFPackage {
       @PathVariable("id") String id,
       @PathVariable("scriptId") String scriptId,
       @RequestHeader(value = "project-id") String projectId)
-      throws NotFoundException {
+      throws NotFoundException, IOException {
     VNFPackage vnfPackage = vnfPackageManagement.query(id, projectId);
     if (vnfPackage == null) throw new NotFoundException("No VNFPackage found with ID " + id);
     for (Script script : vnfPackage.getScripts()) {
       if (script.getId().equals(scriptId)) {
-        return new String(script.getPayload());
+        return new String(vnfPackageManagement.getScriptPayload(script));
       }
     }
     throw new NotFoundException(
@@ -246,7 +246,8 @@ public class RestVNFPackage {
       @PathVariable("scriptId") String scriptId,
       @RequestBody String scriptNew,
       @RequestHeader(value = "project-id") String projectId)
-      throws NotFoundException, BadFormatException, ExecutionException, InterruptedException {
+      throws NotFoundException, BadFormatException, ExecutionException, InterruptedException,
+          IOException {
     VNFPackage vnfPackage = vnfPackageManagement.query(vnfPackageId, projectId);
     if (vnfPackage == null)
       throw new NotFoundException("No VNFPackage found with ID " + vnfPackageId);
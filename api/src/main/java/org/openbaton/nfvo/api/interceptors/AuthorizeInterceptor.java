@@ -17,6 +17,7 @@
 package org.openbaton.nfvo.api.interceptors;
 
 import java.io.IOException;
+import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.openbaton.catalogue.security.BaseUser;
@@ -24,9 +25,7 @@ import org.openbaton.catalogue.security.Project;
 import org.openbaton.catalogue.security.Role;
 import org.openbaton.exceptions.NotAllowedException;
 import org.openbaton.exceptions.NotFoundException;
-import org.openbaton.nfvo.core.interfaces.ProjectManagement;
-import org.openbaton.nfvo.core.interfaces.UserManagement;
-import org.openbaton.nfvo.repositories.ServiceRepository;
+import org.openbaton.nfvo.core.interfaces.AuthorizationCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,9 +41,7 @@ public class AuthorizeInterceptor extends HandlerInterceptorAdapter {
 
   private Logger log = LoggerFactory.getLogger(this.getClass());
 
-  @Autowired private UserManagement userManagement;
-  @Autowired private ProjectManagement projectManagement;
-  @Autowired private ServiceRepository serviceRepository;
+  @Autowired private AuthorizationCache authorizationCache;
 
   @Override
   public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
@@ -111,23 +108,12 @@ public class AuthorizeInterceptor extends HandlerInterceptorAdapter {
     log.trace("Current User: " + currentUserName);
     log.trace("projectId: \"" + projectId + "\"");
     log.trace(request.getMethod() + " on URI: " + request.getRequestURI());
-    log.trace("UserManagement: " + userManagement);
-    BaseUser baseUser;
-    try {
-      baseUser = userManagement.queryByName(currentUserName);
-    } catch (NotFoundException e) {
-      log.trace("User not found for name: " + currentUserName + " maybe a service?");
-      baseUser = serviceRepository.findByName(currentUserName);
-      if (baseUser != null) {
-        log.trace(currentUserName + " is a service");
-      } else {
-        throw e;
-      }
-    }
+    BaseUser baseUser = authorizationCache.queryPrincipal(currentUserName);
 
     if (projectId != null) {
 
-      if (projectIsNecessary(request) && !projectManagement.exist(projectId)) {
+      Project project = authorizationCache.queryProject(projectId);
+      if (projectIsNecessary(request) && project == null) {
         throw new NotFoundException("Project with id '" + projectId + "' was not found");
       }
       for (Role role : baseUser.getRoles()) {
@@ -136,7 +122,10 @@ public class AuthorizeInterceptor extends HandlerInterceptorAdapter {
         }
       }
       for (Role role : baseUser.getRoles()) {
-        String pjName = projectManagement.query(projectId).getName();
+        if (project == null) {
+          throw new NotFoundException("Not found project with id " + projectId);
+        }
+        String pjName = project.getName();
         log.trace(role.getProject() + " == " + pjName);
         if (role.getProject().equals(pjName)) {
           if (role.getRole().ordinal() == Role.RoleEnum.GUEST.ordinal()
@@ -149,10 +138,9 @@ public class AuthorizeInterceptor extends HandlerInterceptorAdapter {
         }
       }
     } else {
-      Iterable<Project> userProjects = projectManagement.query(baseUser);
-      if (userProjects.iterator().hasNext()) {
-        return checkAuthorization(
-            userProjects.iterator().next().getId(), request, currentUserName, response);
+      Project userProject = getFirstProject(baseUser);
+      if (userProject != null) {
+        return checkAuthorization(userProject.getId(), request, currentUserName, response);
       }
       throw new NotFoundException(
           "Not Found any project you are assigned to. Please ask an admin to assign a project to you.");
@@ -160,6 +148,18 @@ public class AuthorizeInterceptor extends HandlerInterceptorAdapter {
     return sendError(request, response);
   }
 
+  /** Returns the first project the user is assigned to, any project if the user is an admin. */
+  private Project getFirstProject(BaseUser baseUser) {
+    for (Role role : baseUser.getRoles()) {
+      if (role.getRole().equals(Role.RoleEnum.ADMIN)) {
+        List<Project> projects = authorizationCache.queryProjects();
+        return projects.isEmpty() ? null : projects.get(0);
+      }
+      return authorizationCache.queryProjectByName(role.getProject());
+    }
+    return null;
+  }
+
   //TODO realize this configurable
   private boolean alwaysAllowedPath(HttpServletRequest request) {
     return (request.getMethod().equalsIgnoreCase("post")
@@ -17,12 +17,7 @@
 package org.openbaton.nfvo.api.interceptors;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonSyntaxException;
-import com.google.gson.stream.MalformedJsonException;
-import com.kjetland.jackson.jsonSchema.JsonSchemaGenerator;
 import com.networknt.schema.ValidationMessage;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
@@ -39,17 +34,21 @@ import org.openbaton.nfvo.api.configuration.CustomHttpServletRequestWrapper;
 import org.openbaton.nfvo.common.utils.schema.SchemaValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 
+/**
+ * Validates the body of a request against the schema of the class it is bound to. The body is
+ * parsed once into a Jackson tree for all the validations; the tree is not reused for the binding
+ * because the request bodies are bound by the Gson message converter, which cannot read a Jackson
+ * tree and would need it serialized again.
+ */
 @Service
 public class SchemaValidatorInterceptor extends HandlerInterceptorAdapter {
 
   private Logger log = LoggerFactory.getLogger(this.getClass());
-  @Autowired private Gson gson;
 
   @Override
   public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
@@ -65,9 +64,13 @@ public class SchemaValidatorInterceptor extends HandlerInterceptorAdapter {
     if (request.getRequestURI().contains("/datacenters") && requestMethod.equalsIgnoreCase("put")) {
       return true;
     }
-    CustomHttpServletRequestWrapper wrapper = new CustomHttpServletRequestWrapper(request);
+    // the dispatcher servlet buffered the body already, it is not copied again
+    CustomHttpServletRequestWrapper wrapper =
+        request instanceof CustomHttpServletRequestWrapper
+            ? (CustomHttpServletRequestWrapper) request
+            : new CustomHttpServletRequestWrapper(request);
     String requestBody = wrapper.getBody();
-    String classSchema = null;
+    Class<?> schemaClass = null;
     Class<?> parameterClass = null;
     if (handler instanceof org.springframework.web.method.HandlerMethod) {
       org.springframework.web.method.HandlerMethod handlerMethod =
@@ -83,74 +86,41 @@ public class SchemaValidatorInterceptor extends HandlerInterceptorAdapter {
                 && !parameterClass.isPrimitive()
                 && !Modifier.isAbstract(parameterClass.getModifiers())
                 && !parameterClass.getCanonicalName().equals(String.class.getCanonicalName())) {
-              classSchema = getJsonSchemaFromClass(parameterClass);
+              schemaClass = parameterClass;
             }
           }
         }
       }
     }
 
-    if (classSchema != null) {
+    if (schemaClass != null) {
       log.trace("Request Body is : " + requestBody);
       log.trace("Request url is : " + requestURL);
       Set<ValidationMessage> validationMessages;
       try {
+        JsonNode body = SchemaValidator.parse(requestBody);
         if (parameterClass
-            .getCanonicalName()
-            .equals(NetworkServiceDescriptor.class.getCanonicalName())) {
-          NetworkServiceDescriptor networkServiceDescriptor =
-              gson.fromJson(requestBody, NetworkServiceDescriptor.class);
-          if (networkServiceDescriptor
-                  .getVnfd()
-                  .stream()
-                  .filter(vnfd -> vnfd.getId() != null)
-                  .count()
-              > 0) {
-            Set<ValidationMessage> errors = new HashSet<>();
-            //Validating VLDs
-            networkServiceDescriptor
-                .getVld()
-                .forEach(
-                    vld -> {
-                      try {
-                        errors.addAll(
-                            SchemaValidator.validateSchema(
-                                getJsonSchemaFromClass(VirtualLinkDescriptor.class),
-                                gson.toJson(vld)));
-                      } catch (BadRequestException | IOException e) {
-                        e.printStackTrace();
-                      }
-                    });
-            //Validating VNFDeps
-            networkServiceDescriptor
-                .getVnf_dependency()
-                .forEach(
-                    vnfDependency -> {
-                      try {
-                        errors.addAll(
-                            SchemaValidator.validateSchema(
-                                getJsonSchemaFromClass(VNFDependency.class),
-                                gson.toJson(vnfDependency)));
-                      } catch (BadRequestException | IOException e) {
-                        e.printStackTrace();
-                      }
-                    });
-            if (!errors.isEmpty()) {
-              handleErrorMessages(request, response, errors);
-              return false;
-            }
-            return true;
+                .getCanonicalName()
+                .equals(NetworkServiceDescriptor.class.getCanonicalName())
+            && referencesVnfds(body)) {
+          // the VNFDs are onboarded already, only VLDs and VNF dependencies are validated
+          Set<ValidationMessage> errors = new HashSet<>();
+          for (JsonNode vld : body.path("vld")) {
+            errors.addAll(SchemaValidator.validateSchema(VirtualLinkDescriptor.class, vld));
+          }
+          for (JsonNode vnfDependency : body.path("vnf_dependency")) {
+            errors.addAll(SchemaValidator.validateSchema(VNFDependency.class, vnfDependency));
+          }
+          if (!errors.isEmpty()) {
+            handleErrorMessages(request, response, errors);
+            return false;
           }
+          return true;
         }
-        validationMessages = SchemaValidator.validateSchema(classSchema, requestBody);
+        validationMessages = SchemaValidator.validateSchema(schemaClass, body);
       } catch (BadRequestException e) {
         response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         return false;
-      } catch (JsonSyntaxException | MalformedJsonException e) {
-        response.sendError(
-            HttpServletResponse.SC_BAD_REQUEST,
-            e.getMessage().split(":")[1].replace("$.", " ").replaceAll("\\[[0-9]\\]", ""));
-        return false;
       }
       if (validationMessages.size() > 0) {
         handleErrorMessages(request, response, validationMessages);
@@ -170,6 +140,19 @@ public class SchemaValidatorInterceptor extends HandlerInterceptorAdapter {
     return super.preHandle(wrapper, response, handler);
   }
 
+  /** Returns true if the VNFDs of the NSD are given by id. */
+  private boolean referencesVnfds(JsonNode networkServiceDescriptor) {
+    if (networkServiceDescriptor == null) {
+      return false;
+    }
+    for (JsonNode vnfd : networkServiceDescriptor.path("vnfd")) {
+      if (vnfd.hasNonNull("id")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void handleErrorMessages(
       HttpServletRequest request,
       HttpServletResponse response,
@@ -191,15 +174,4 @@ public class SchemaValidatorInterceptor extends HandlerInterceptorAdapter {
           HttpServletResponse.SC_BAD_REQUEST, validationResult.toString().replace("$.", " "));
     }
   }
-
-  @SuppressWarnings("unchecked")
-  private String getJsonSchemaFromClass(Class javaClass) throws IOException {
-
-    ObjectMapper mapper = new ObjectMapper();
-    JsonSchemaGenerator schemaGen = new JsonSchemaGenerator(mapper);
-    JsonNode jsonSchema = schemaGen.generateJsonSchema(javaClass);
-    String jsonSchemaAsString = mapper.writeValueAsString(jsonSchema);
-    log.trace("The schema is: " + jsonSchemaAsString);
-    return jsonSchemaAsString;
-  }
 }
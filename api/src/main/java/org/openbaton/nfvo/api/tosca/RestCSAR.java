@@ -20,7 +20,6 @@ import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import io.swagger.annotations.ApiOperation;
 import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
@@ -80,9 +79,10 @@ public class RestCSAR {
 
     log.debug("Onboarding");
     if (!file.isEmpty()) {
-      byte[] bytes = file.getBytes();
-
-      NetworkServiceDescriptor nsd = csarParser.onboardNSD(bytes, projectId);
+      NetworkServiceDescriptor nsd;
+      try (InputStream input = file.getInputStream()) {
+        nsd = csarParser.onboardNSD(input, projectId);
+      }
       return networkServiceDescriptorManagement.onboard(nsd, projectId);
     } else throw new BadRequestException("File is empty!");
   }
@@ -97,9 +97,10 @@ public class RestCSAR {
 
     log.debug("Onboarding");
     if (!file.isEmpty()) {
-      byte[] bytes = file.getBytes();
-
-      VirtualNetworkFunctionDescriptor vnfd = csarParser.onboardVNFD(bytes, projectId);
+      VirtualNetworkFunctionDescriptor vnfd;
+      try (InputStream input = file.getInputStream()) {
+        vnfd = csarParser.onboardVNFD(input, projectId);
+      }
 
       return "{ \"id\": \"" + vnfd.getVnfPackageLocation() + "\"}";
     } else throw new BadRequestException("File is empty!");
@@ -138,22 +139,10 @@ public class RestCSAR {
       throw new BadFormatException("The provided link " + link + " is not a valid URL.");
     }
 
-    InputStream in = new BufferedInputStream(packageLink.openStream());
-    ByteArrayOutputStream out = new ByteArrayOutputStream();
-    byte[] bytes = new byte[1024];
-    int n = in.read(bytes);
-    while (n != 1) {
-      out.write(bytes, 0, n);
+    VirtualNetworkFunctionDescriptor virtualNetworkFunctionDescriptor;
+    try (InputStream in = new BufferedInputStream(packageLink.openStream())) {
+      virtualNetworkFunctionDescriptor = csarParser.onboardVNFD(in, projectId);
     }
-
-    byte[] csarOnboard = out.toByteArray();
-    out.close();
-    in.close();
-
-    log.debug(String.valueOf(csarOnboard.length));
-
-    VirtualNetworkFunctionDescriptor virtualNetworkFunctionDescriptor =
-        csarParser.onboardVNFD(csarOnboard, projectId);
     return "{ \"id\": \"" + virtualNetworkFunctionDescriptor.getVnfPackageLocation() + "\"}";
   }
 
@@ -195,21 +184,10 @@ public class RestCSAR {
       throw new BadFormatException("The provided link " + link + " is not a valid URL.");
     }
 
-    InputStream in = new BufferedInputStream(packageLink.openStream());
-    ByteArrayOutputStream out = new ByteArrayOutputStream();
-    byte[] bytes = new byte[1024];
-    int n;
-    while (-1 != (n = in.read(bytes))) {
-      out.write(bytes, 0, n);
+    NetworkServiceDescriptor networkServiceDescriptor;
+    try (InputStream in = new BufferedInputStream(packageLink.openStream())) {
+      networkServiceDescriptor = csarParser.onboardNSD(in, projectId);
     }
-    out.close();
-    in.close();
-    byte[] csarOnboard = out.toByteArray();
-
-    log.debug(String.valueOf(csarOnboard.length));
-
-    NetworkServiceDescriptor networkServiceDescriptor =
-        csarParser.onboardNSD(csarOnboard, projectId);
     networkServiceDescriptorManagement.onboard(networkServiceDescriptor, projectId);
     return "{ \"id\": \"" + networkServiceDescriptor.getId() + "\"}";
   }
@@ -47,10 +47,10 @@ public abstract class NFVEntityDescriptor extends BaseEntity {
    * User plane traffic itself could have multiple NFPs based on the QOS etc. The traffic is steered
    * amongst 1 of these NFPs based on the policy decisions.
    */
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   protected Set<VNFForwardingGraphDescriptor> vnffgd;
 
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   protected Set<VirtualLinkDescriptor> vld;
 
   /**
@@ -64,7 +64,7 @@ public abstract class NFVEntityDescriptor extends BaseEntity {
    *
    * <p>TODO: check if the String is the appropriate type for this field
    */
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
   protected Set<String> monitoring_parameter;
   /**
    * Represents the service KPI parameters and its requirement for each deployment flavour of the NS
@@ -72,17 +72,17 @@ public abstract class NFVEntityDescriptor extends BaseEntity {
    * requirements to support a vEPC with 300k calls per second. There could be another flavour
    * describing the requirements to support a vEPC with 500k calls per second.
    */
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   protected Set<DeploymentFlavour> service_deployment_flavour;
 
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   protected Set<AutoScalePolicy> auto_scale_policy;
 
   /**
    * This element describes a Connection Point which acts as an endpoint of the Network Service, see
    * clause 6.2.1.2. This can, for example, be referenced by other elements as an endpoint.
    */
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   protected Set<ConnectionPoint> connection_point;
 
   public String getName() {
@@ -50,7 +50,7 @@ public class NetworkServiceDescriptor extends NFVEntityDescriptor {
       CascadeType.PERSIST,
       CascadeType.DETACH /*CascadeType.REMOVE*/
     },
-    fetch = FetchType.EAGER
+    fetch = FetchType.LAZY
   )
   @NotNull
   @Size(min = 1)
@@ -64,11 +64,11 @@ public class NetworkServiceDescriptor extends NFVEntityDescriptor {
    */
   @OneToMany(
     cascade = {CascadeType.ALL /*CascadeType.REFRESH*/},
-    fetch = FetchType.EAGER
+    fetch = FetchType.LAZY
   )
   private Set<VNFDependency> vnf_dependency;
   /* See PhysicalNetworkFunctionDescriptor class for description */
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<PhysicalNetworkFunctionDescriptor> pnfd;
   /*
    * This is a signature of nsd to prevent tampering. The particular hash
@@ -25,6 +25,9 @@ import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedEntityGraphs;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.validation.constraints.NotNull;
@@ -42,18 +45,31 @@ import org.openbaton.catalogue.nfvo.RequiresParameters;
  * Created by lto on 05/02/15.
  *
  * <p>Based on ETSI GS NFV-MAN 001 V1.1.1 (2014-12)
+ *
+ * <p>The collections are loaded lazily, the named entity graphs fetch the VDUs for the checks of
+ * the VIM instances in use and the deployment flavours for the allocation of the resources.
  */
 @Entity
+@NamedEntityGraphs({
+  @NamedEntityGraph(
+    name = "VirtualNetworkFunctionDescriptor.vdu",
+    attributeNodes = @NamedAttributeNode("vdu")
+  ),
+  @NamedEntityGraph(
+    name = "VirtualNetworkFunctionDescriptor.allocate",
+    attributeNodes = @NamedAttributeNode("deployment_flavour")
+  )
+})
 public class VirtualNetworkFunctionDescriptor extends NFVEntityDescriptor {
   /** Version of the VNF Descriptor. */
   //private String descriptor_version;
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<LifecycleEvent> lifecycle_event;
 
   @OneToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
   private Configuration configurations;
   /** This describes a set of elements related to a particular VDU */
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   @NotNull
   @Size(min = 1)
   private Set<VirtualDeploymentUnit> vdu;
@@ -61,14 +77,14 @@ public class VirtualNetworkFunctionDescriptor extends NFVEntityDescriptor {
    * Represents the type of network connectivity mandated by the VNF vendor between two or more
    * Connection Point
    */
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<InternalVirtualLink> virtual_link;
   /**
    * Describe dependencies between VDUs. Defined in terms of source and target VDU, i.e. target VDU
    * "depends on" source VDU. In other words sources VDU shall exists before target VDU can be
    * initiated/deployed.
    */
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<VDUDependency> vdu_dependency;
   /**
    * Represents the assurance parameter(s) and its requirement for each deployment flavour of the
@@ -79,7 +95,7 @@ public class VirtualNetworkFunctionDescriptor extends NFVEntityDescriptor {
       /*CascadeType.PERSIST, CascadeType.MERGE*/
       CascadeType.ALL
     },
-    fetch = FetchType.EAGER
+    fetch = FetchType.LAZY
   )
   private Set<VNFDeploymentFlavour> deployment_flavour;
   /**
@@ -99,7 +115,7 @@ public class VirtualNetworkFunctionDescriptor extends NFVEntityDescriptor {
    * as part of the VNF package, the digest information can be used to help ensure the contents of
    * the VNF package have not been tampered with.
    */
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<Security> manifest_file_security;
 
   @Column(nullable = false)
@@ -108,10 +124,10 @@ public class VirtualNetworkFunctionDescriptor extends NFVEntityDescriptor {
   private String endpoint;
   private String vnfPackageLocation;
 
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Map<String, RequiresParameters> requires;
 
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
   private Set<String> provides;
 
   private Boolean cyclicDependency = false;
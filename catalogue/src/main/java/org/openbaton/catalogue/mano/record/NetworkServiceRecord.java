@@ -24,6 +24,9 @@ import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedEntityGraphs;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import org.openbaton.catalogue.mano.common.AutoScalePolicy;
@@ -37,17 +40,40 @@ import org.openbaton.catalogue.util.BaseEntity;
  * Created by lto on 06/02/15.
  *
  * <p>Based on ETSI GS NFV-MAN 001 V1.1.1 (2014-12)
+ *
+ * <p>The components are loaded lazily, the named entity graphs fetch together with the NSR only
+ * what a use case reads: the VNFRs for the status aggregation, the VNFRs and VLRs for the detail
+ * view, the VNFRs and their dependencies for the dependency management, the key names for the
+ * allocation of the resources.
  */
 @Entity
+@NamedEntityGraphs({
+  @NamedEntityGraph(
+    name = "NetworkServiceRecord.vnfr",
+    attributeNodes = @NamedAttributeNode("vnfr")
+  ),
+  @NamedEntityGraph(
+    name = "NetworkServiceRecord.details",
+    attributeNodes = {@NamedAttributeNode("vnfr"), @NamedAttributeNode("vlr")}
+  ),
+  @NamedEntityGraph(
+    name = "NetworkServiceRecord.dependencies",
+    attributeNodes = {@NamedAttributeNode("vnfr"), @NamedAttributeNode("vnf_dependency")}
+  ),
+  @NamedEntityGraph(
+    name = "NetworkServiceRecord.allocate",
+    attributeNodes = @NamedAttributeNode("keyNames")
+  )
+})
 public class NetworkServiceRecord extends BaseEntity {
 
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<AutoScalePolicy> auto_scale_policy;
 
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<ConnectionPoint> connection_point;
   /** Monitoring parameter used in this instance. */
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
   private Set<String> monitoring_parameter;
   /**
    * References the nsd:service_deployment_flavour used to instantiate this Network Service
@@ -61,14 +87,14 @@ public class NetworkServiceRecord extends BaseEntity {
 
   private String version;
 
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
   private Set<VirtualLinkRecord> vlr;
 
   @OneToMany(
     cascade = {CascadeType.PERSIST, CascadeType.REMOVE, CascadeType.REFRESH
       //      CascadeType.ALL
     },
-    fetch = FetchType.EAGER,
+    fetch = FetchType.LAZY,
     orphanRemoval = true
   )
   private Set<VirtualNetworkFunctionRecord> vnfr;
@@ -78,20 +104,20 @@ public class NetworkServiceRecord extends BaseEntity {
       /*CascadeType.PERSIST, CascadeType.MERGE*/
       CascadeType.ALL
     },
-    fetch = FetchType.EAGER
+    fetch = FetchType.LAZY
   )
   private Set<VNFRecordDependency> vnf_dependency;
 
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<LifecycleEvent> lifecycle_event;
 
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<VNFForwardingGraphRecord> vnffgr;
   /** At least one */
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<PhysicalNetworkFunctionRecord> pnfr;
 
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<FaultManagementPolicy> faultManagementPolicy;
 
   /** The reference to the Network Service Descriptor used to instantiate this Network Service. */
@@ -126,7 +152,7 @@ public class NetworkServiceRecord extends BaseEntity {
   /** System that has registered to received notifications of status changes */
   private String notification;
   /** Record of significant Network Service lifecycle events. */
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<LifecycleEvent> lifecycle_event_history;
   /** Record of detailed operational events. TODO: maybe a pointer to a file? */
   private String audit_log;
@@ -159,7 +185,7 @@ public class NetworkServiceRecord extends BaseEntity {
     this.keyNames = keyNames;
   }
 
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
   private Set<String> keyNames;
 
   private String name;
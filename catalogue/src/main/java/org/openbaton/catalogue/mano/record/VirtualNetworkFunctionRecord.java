@@ -26,6 +26,8 @@ import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import org.openbaton.catalogue.mano.common.AutoScalePolicy;
@@ -37,14 +39,23 @@ import org.openbaton.catalogue.nfvo.Configuration;
 import org.openbaton.catalogue.nfvo.HistoryLifecycleEvent;
 import org.openbaton.catalogue.util.BaseEntity;
 
-/** Created by lto on 06/02/15. Based on ETSI GS NFV-MAN 001 V1.1.1 (2014-12) */
+/**
+ * Created by lto on 06/02/15. Based on ETSI GS NFV-MAN 001 V1.1.1 (2014-12)
+ *
+ * <p>The collections are loaded lazily, the granting and allocation of the resources fetch the VDUs
+ * together with the VNFR through the "VirtualNetworkFunctionRecord.vdu" entity graph.
+ */
 @Entity
+@NamedEntityGraph(
+  name = "VirtualNetworkFunctionRecord.vdu",
+  attributeNodes = @NamedAttributeNode("vdu")
+)
 public class VirtualNetworkFunctionRecord extends BaseEntity {
 
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<AutoScalePolicy> auto_scale_policy;
 
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<ConnectionPoint> connection_point;
 
   /** Reference to selected deployment flavour (vnfd:deployment_flavour_key:id) */
@@ -57,32 +68,32 @@ public class VirtualNetworkFunctionRecord extends BaseEntity {
    */
   @OneToMany(
     cascade = {CascadeType.ALL},
-    fetch = FetchType.EAGER,
+    fetch = FetchType.LAZY,
     orphanRemoval = true
   )
   private Set<LifecycleEvent> lifecycle_event;
 
   @OneToMany(
     cascade = {CascadeType.ALL},
-    fetch = FetchType.EAGER
+    fetch = FetchType.LAZY
   )
   private Set<HistoryLifecycleEvent> lifecycle_event_history;
   /** A language attribute may be specified to identify default localisation/language */
   private String localization;
   /** Active monitoring parameters */
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
   private Set<String> monitoring_parameter;
   /**
    * VDU elements describing the VNFC-related relevant information, see
    * clause @VirtualDeploymentUnit
    */
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
   private Set<VirtualDeploymentUnit> vdu;
 
   private String vendor;
   private String version;
   /** Internal Virtual Links instances used in this VNF */
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<InternalVirtualLink> virtual_link;
   /** The nsr id */
   private String parent_ns_id;
@@ -97,13 +108,13 @@ public class VirtualNetworkFunctionRecord extends BaseEntity {
    * Reference to a VLR (vlr:id) used for the management access path or other internal and external
    * connection interface configured for use by this VNF instance
    */
-  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private Set<VirtualLinkRecord> connected_external_virtual_link;
   /**
    * A network address (e.g. VLAN, IP) configured for the management access or other internal and
    * external connection interface on this VNF
    */
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
   private Set<String> vnf_address;
   /**
    * Flag to report status of the VNF (e.g. 0=Failed, 1= normal operation, 2= degraded operation, 3=
@@ -125,7 +136,7 @@ public class VirtualNetworkFunctionRecord extends BaseEntity {
    * Listing of systems that have registered to received notifications of status changes TODO maybe
    * passing to a notification framework
    */
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
   private Set<String> notification;
   /** Record of detailed operational event, (e.g. VNF boot, operator logins, alarms sent) */
   private String audit_log;
@@ -133,7 +144,7 @@ public class VirtualNetworkFunctionRecord extends BaseEntity {
    * Generic placeholder for input information related to VNF orchestration and management policies
    * to be applied during runtime of a specific VNF instance (e.g. for VNF prioritization, etc.)
    */
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
   private Set<String> runtime_policy_info;
 
   private String name;
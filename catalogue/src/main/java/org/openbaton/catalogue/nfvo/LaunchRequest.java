@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.catalogue.nfvo;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+import org.openbaton.catalogue.mano.descriptor.VNFDConnectionPoint;
+
+/** The parameters of one of the instances launched together by a vim driver. */
+public class LaunchRequest implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private String hostname;
+  private String image;
+  private String flavor;
+  private String keyPair;
+  private Set<VNFDConnectionPoint> networks;
+  private Set<String> securityGroups;
+  private String userData;
+  private Map<String, String> floatingIps;
+
+  public String getHostname() {
+    return hostname;
+  }
+
+  public void setHostname(String hostname) {
+    this.hostname = hostname;
+  }
+
+  public String getImage() {
+    return image;
+  }
+
+  public void setImage(String image) {
+    this.image = image;
+  }
+
+  public String getFlavor() {
+    return flavor;
+  }
+
+  public void setFlavor(String flavor) {
+    this.flavor = flavor;
+  }
+
+  public String getKeyPair() {
+    return keyPair;
+  }
+
+  public void setKeyPair(String keyPair) {
+    this.keyPair = keyPair;
+  }
+
+  public Set<VNFDConnectionPoint> getNetworks() {
+    return networks;
+  }
+
+  public void setNetworks(Set<VNFDConnectionPoint> networks) {
+    this.networks = networks;
+  }
+
+  public Set<String> getSecurityGroups() {
+    return securityGroups;
+  }
+
+  public void setSecurityGroups(Set<String> securityGroups) {
+    this.securityGroups = securityGroups;
+  }
+
+  public String getUserData() {
+    return userData;
+  }
+
+  public void setUserData(String userData) {
+    this.userData = userData;
+  }
+
+  public Map<String, String> getFloatingIps() {
+    return floatingIps;
+  }
+
+  public void setFloatingIps(Map<String, String> floatingIps) {
+    this.floatingIps = floatingIps;
+  }
+
+  @Override
+  public String toString() {
+    return "LaunchRequest{"
+        + "hostname='"
+        + hostname
+        + '\''
+        + ", image='"
+        + image
+        + '\''
+        + ", flavor='"
+        + flavor
+        + '\''
+        + ", keyPair='"
+        + keyPair
+        + '\''
+        + ", networks="
+        + networks
+        + ", securityGroups="
+        + securityGroups
+        + ", floatingIps="
+        + floatingIps
+        + '}';
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.catalogue.nfvo;
+
+import java.io.Serializable;
+
+/**
+ * The outcome of one {@link LaunchRequest}: the launched server or, if the launch failed, the
+ * error and the server as far as it was created.
+ */
+public class LaunchResult implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private Server server;
+  private String error;
+
+  public LaunchResult() {}
+
+  public LaunchResult(Server server, String error) {
+    this.server = server;
+    this.error = error;
+  }
+
+  public Server getServer() {
+    return server;
+  }
+
+  public void setServer(Server server) {
+    this.server = server;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public void setError(String error) {
+    this.error = error;
+  }
+
+  public boolean isFailed() {
+    return error != null;
+  }
+
+  @Override
+  public String toString() {
+    return "LaunchResult{" + "server=" + server + ", error='" + error + '\'' + '}';
+  }
+}
@@ -18,7 +18,7 @@
 package org.openbaton.catalogue.nfvo;
 
 import javax.persistence.Entity;
-import javax.persistence.Lob;
+import javax.persistence.Transient;
 import org.openbaton.catalogue.util.BaseEntity;
 
 /** Created by lto on 23/07/15. */
@@ -26,7 +26,14 @@ import org.openbaton.catalogue.util.BaseEntity;
 public class Script extends BaseEntity {
   private String name;
 
-  @Lob private byte[] payload;
+  /** SHA-256 digest of the payload, the key of the payload in the blob store. */
+  private String payloadChecksum;
+
+  /**
+   * Not stored in the database but in the blob store, filled in only where the content is needed,
+   * e.g. in the messages sent to the VNFMs.
+   */
+  @Transient private byte[] payload;
 
   public Script() {}
 
@@ -43,6 +50,14 @@ public class Script extends BaseEntity {
     this.name = name;
   }
 
+  public String getPayloadChecksum() {
+    return payloadChecksum;
+  }
+
+  public void setPayloadChecksum(String payloadChecksum) {
+    this.payloadChecksum = payloadChecksum;
+  }
+
   public byte[] getPayload() {
     return payload;
   }
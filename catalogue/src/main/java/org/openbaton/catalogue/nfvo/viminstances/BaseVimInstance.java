@@ -66,6 +66,9 @@ public abstract class BaseVimInstance extends BaseEntity {
 
   private Boolean active = true;
 
+  /** Incremented every time the refresh of the vim instance finds its resources changed. */
+  private Long inventoryVersion = 0L;
+
   public BaseVimInstance() {}
 
   public String getName() {
@@ -92,6 +95,14 @@ public abstract class BaseVimInstance extends BaseEntity {
     this.type = type;
   }
 
+  public Long getInventoryVersion() {
+    return inventoryVersion;
+  }
+
+  public void setInventoryVersion(Long inventoryVersion) {
+    this.inventoryVersion = inventoryVersion;
+  }
+
   @Override
   public String toString() {
     return "BaseVimInstance{"
@@ -105,6 +116,8 @@ public abstract class BaseVimInstance extends BaseEntity {
         + '\''
         + ", active="
         + active
+        + ", inventoryVersion="
+        + inventoryVersion
         + "} "
         + super.toString();
   }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.common.utils.blob;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stores binary content addressed by the SHA-256 digest of the content, so that the same content
+ * is stored only once however many entities reference it.
+ */
+public interface BlobStore {
+
+  /**
+   * Stores the content read from the stream, which is not closed.
+   *
+   * @return the hex encoded SHA-256 digest of the content, used as key to read it again
+   */
+  String put(InputStream content) throws IOException;
+
+  /** Like {@link #put(InputStream)}, for content already in memory. */
+  String put(byte[] content) throws IOException;
+
+  /**
+   * Reads the content from the stream, which is not closed, without making it readable yet. The
+   * content is stored once it is committed and dropped if it is discarded instead.
+   */
+  StagedBlob stage(InputStream content) throws IOException;
+
+  /** Opens the content with the given key, the caller has to close the stream. */
+  InputStream open(String key) throws IOException;
+
+  /** Reads the whole content with the given key. */
+  byte[] get(String key) throws IOException;
+
+  boolean exists(String key);
+
+  /** Deletes the content with the given key, the caller has to make sure it is not referenced. */
+  void delete(String key) throws IOException;
+
+  /** Content read by {@link #stage(InputStream)}, not yet readable under its key. */
+  interface StagedBlob {
+
+    /** The hex encoded SHA-256 digest of the content. */
+    String getKey();
+
+    /** Makes the content readable under its key, keeping the existing content with that key. */
+    void commit() throws IOException;
+
+    /** Drops the content if it was not committed, does nothing otherwise. */
+    void discard();
+  }
+}
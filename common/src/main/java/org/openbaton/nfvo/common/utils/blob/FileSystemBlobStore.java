@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.common.utils.blob;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Default {@link BlobStore}, keeping every blob in a file named after its digest. The files are
+ * spread over 256 subdirectories by the first two characters of the digest. A blob is written to a
+ * temporary file first and then moved in place, so a blob file is always complete. By default the
+ * blobs are kept in the data directory of the NFVO.
+ */
+@Service
+public class FileSystemBlobStore implements BlobStore {
+
+  private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+  private static final String TMP_PREFIX = "blob-";
+  private static final String TMP_SUFFIX = ".tmp";
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  @Value("${nfvo.blob.dir:${nfvo.data.dir:/tmp/openbaton}/blobs}")
+  private String blobDir;
+
+  private Path root;
+
+  @PostConstruct
+  private void init() throws IOException {
+    root = Paths.get(blobDir).toAbsolutePath();
+    Files.createDirectories(root);
+    // blobs staged when the NFVO stopped were never committed
+    try (DirectoryStream<Path> leftovers =
+        Files.newDirectoryStream(root, TMP_PREFIX + "*" + TMP_SUFFIX)) {
+      for (Path leftover : leftovers) {
+        Files.deleteIfExists(leftover);
+      }
+    }
+    log.debug("Storing blobs in " + root);
+  }
+
+  @Override
+  public String put(InputStream content) throws IOException {
+    StagedBlob blob = stage(content);
+    try {
+      blob.commit();
+      return blob.getKey();
+    } finally {
+      blob.discard();
+    }
+  }
+
+  @Override
+  public String put(byte[] content) throws IOException {
+    return put(new ByteArrayInputStream(content));
+  }
+
+  @Override
+  public StagedBlob stage(InputStream content) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    Path tmp = Files.createTempFile(root, TMP_PREFIX, TMP_SUFFIX);
+    try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+      byte[] buffer = new byte[8192];
+      int n;
+      while ((n = content.read(buffer)) != -1) {
+        out.write(buffer, 0, n);
+      }
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(tmp);
+      throw e;
+    }
+    return new TmpFileBlob(toHex(digest.digest()), tmp);
+  }
+
+  @Override
+  public InputStream open(String key) throws IOException {
+    return Files.newInputStream(getPath(key));
+  }
+
+  @Override
+  public byte[] get(String key) throws IOException {
+    return Files.readAllBytes(getPath(key));
+  }
+
+  @Override
+  public boolean exists(String key) {
+    return key != null && KEY.matcher(key).matches() && Files.exists(getPath(key));
+  }
+
+  @Override
+  public void delete(String key) throws IOException {
+    Files.deleteIfExists(getPath(key));
+  }
+
+  /** A blob kept in a temporary file in the root directory until it is committed. */
+  private class TmpFileBlob implements StagedBlob {
+
+    private final String key;
+    private final Path tmp;
+
+    private TmpFileBlob(String key, Path tmp) {
+      this.key = key;
+      this.tmp = tmp;
+    }
+
+    @Override
+    public String getKey() {
+      return key;
+    }
+
+    @Override
+    public void commit() throws IOException {
+      Path target = getPath(key);
+      if (!Files.exists(target)) {
+        Files.createDirectories(target.getParent());
+        try {
+          Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+          // the same content was stored concurrently
+          log.trace("Blob " + key + " already exists");
+        }
+      }
+      discard();
+    }
+
+    @Override
+    public void discard() {
+      try {
+        Files.deleteIfExists(tmp);
+      } catch (IOException e) {
+        log.warn("Not able to remove temporary blob " + tmp + ": " + e.getMessage());
+      }
+    }
+  }
+
+  private Path getPath(String key) {
+    if (key == null || !KEY.matcher(key).matches()) {
+      throw new IllegalArgumentException("Invalid blob key: " + key);
+    }
+    return root.resolve(key.substring(0, 2)).resolve(key);
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.common.utils.blob;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
+import org.openbaton.catalogue.nfvo.Script;
+import org.openbaton.catalogue.nfvo.VNFPackage;
+import org.openbaton.nfvo.common.utils.blob.BlobStore.StagedBlob;
+import org.openbaton.nfvo.common.utils.lock.StripedLockManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves the payloads of the scripts between the scripts and the {@link BlobStore}. Only the digest
+ * of a payload is stored with the script, the payload itself is read when it is needed.
+ *
+ * <p>A payload is written and removed only under the lock of its digest. A payload written for
+ * scripts not saved yet is pinned until they are, so that it is not removed as unreferenced in the
+ * meantime.
+ */
+@Service
+public class ScriptStore {
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  @Autowired private BlobStore blobStore;
+  @Autowired private StripedLockManager stripedLockManager;
+
+  private final Map<String, Integer> pinned = new ConcurrentHashMap<>();
+
+  /**
+   * Starts storing the payloads of scripts to be saved, the payloads are removed again when the
+   * staging is closed before the scripts were saved.
+   *
+   * @param referenced tells whether a saved script references the payload with the given digest
+   */
+  public Staging stage(Predicate<String> referenced) {
+    return new Staging(referenced);
+  }
+
+  /** Removes the payload if it is neither referenced nor pinned by a staging. */
+  public void release(String payloadChecksum, Predicate<String> referenced) {
+    Lock blobLock = stripedLockManager.lock(getLockKey(payloadChecksum));
+    try {
+      if (!pinned.containsKey(payloadChecksum) && !referenced.test(payloadChecksum)) {
+        log.debug("Removing unreferenced script payload " + payloadChecksum);
+        blobStore.delete(payloadChecksum);
+      }
+    } catch (IOException e) {
+      log.warn("Not able to remove script payload " + payloadChecksum + ": " + e.getMessage());
+    } finally {
+      blobLock.unlock();
+    }
+  }
+
+  /** Sets the payloads of the scripts of the package, before it is sent to a VNFM. */
+  public VNFPackage load(VNFPackage vnfPackage) throws IOException {
+    if (vnfPackage != null && vnfPackage.getScripts() != null) {
+      for (Script script : vnfPackage.getScripts()) {
+        if (script.getPayload() == null && script.getPayloadChecksum() != null) {
+          script.setPayload(blobStore.get(script.getPayloadChecksum()));
+        }
+      }
+    }
+    return vnfPackage;
+  }
+
+  public byte[] read(Script script) throws IOException {
+    return blobStore.get(script.getPayloadChecksum());
+  }
+
+  /** Opens the payload of the script, the caller has to close the stream. */
+  public InputStream open(Script script) throws IOException {
+    return blobStore.open(script.getPayloadChecksum());
+  }
+
+  private static String getLockKey(String payloadChecksum) {
+    return "blob:" + payloadChecksum;
+  }
+
+  /**
+   * The payloads of scripts being onboarded. They are read when the scripts are added, written
+   * once the scripts are about to be saved and kept only if the scripts were saved.
+   */
+  public class Staging implements AutoCloseable {
+
+    private final Predicate<String> referenced;
+    private final Map<String, StagedBlob> staged = new HashMap<>();
+    private final Set<String> committed = new HashSet<>();
+    private boolean saved;
+
+    private Staging(Predicate<String> referenced) {
+      this.referenced = referenced;
+    }
+
+    /** Reads the content from the stream as payload of the script, without reading it all. */
+    public void add(Script script, InputStream content) throws IOException {
+      StagedBlob blob = blobStore.stage(content);
+      script.setPayloadChecksum(blob.getKey());
+      if (staged.putIfAbsent(blob.getKey(), blob) != null) {
+        blob.discard();
+      }
+    }
+
+    /** Reads the payload set on the script, if any. */
+    public void add(Script script) throws IOException {
+      if (script.getPayload() != null) {
+        add(script, new ByteArrayInputStream(script.getPayload()));
+      }
+    }
+
+    /**
+     * Writes the payloads of the scripts to the blob store, to be called right before the scripts
+     * are saved. The payloads of scripts not passed here are dropped.
+     */
+    public void commit(Collection<Script> scripts) throws IOException {
+      if (scripts == null) {
+        return;
+      }
+      for (Script script : scripts) {
+        String key = script.getPayloadChecksum();
+        StagedBlob blob = staged.get(key);
+        if (blob == null || !committed.add(key)) {
+          continue;
+        }
+        Lock blobLock = stripedLockManager.lock(getLockKey(key));
+        try {
+          pinned.merge(key, 1, Integer::sum);
+          blob.commit();
+        } finally {
+          blobLock.unlock();
+        }
+      }
+    }
+
+    /** Marks the scripts as saved, so that their payloads are kept when the staging is closed. */
+    public void saved() {
+      saved = true;
+    }
+
+    @Override
+    public void close() {
+      for (StagedBlob blob : staged.values()) {
+        blob.discard();
+      }
+      for (String key : committed) {
+        pinned.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+        if (!saved) {
+          release(key, referenced);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.common.utils.lock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hands out locks keyed by record id (usually the id of the NSR a VNFR belongs to). The keys are
+ * hashed onto a fixed number of stripes, so work on unrelated records proceeds in parallel while
+ * the memory used does not grow with the number of records.
+ */
+@Service
+public class StripedLockManager implements PublicMetrics {
+
+  @Value("${nfvo.lock.stripes:1024}")
+  private int stripes;
+
+  private ReentrantLock[] locks;
+
+  private final AtomicLong acquisitions = new AtomicLong();
+  private final AtomicLong contended = new AtomicLong();
+  private final AtomicLong waitNanos = new AtomicLong();
+
+  @PostConstruct
+  private void init() {
+    if (stripes <= 0) {
+      stripes = 1024;
+    }
+    locks = new ReentrantLock[stripes];
+    for (int i = 0; i < stripes; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Acquires the lock for the given key and returns it, the caller has to release it with {@link
+   * Lock#unlock()}.
+   */
+  public Lock lock(String key) {
+    ReentrantLock lock = getStripe(key);
+    acquisitions.incrementAndGet();
+    if (!lock.tryLock()) {
+      contended.incrementAndGet();
+      long start = System.nanoTime();
+      lock.lock();
+      waitNanos.addAndGet(System.nanoTime() - start);
+    }
+    return lock;
+  }
+
+  private ReentrantLock getStripe(String key) {
+    int hash = key == null ? 0 : key.hashCode();
+    // spread the hash bits, as done by java.util.HashMap
+    hash ^= (hash >>> 16);
+    return locks[Math.abs(hash % locks.length)];
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    Collection<Metric<?>> metrics = new ArrayList<>();
+    metrics.add(new Metric<>("nfvo.lock.acquisitions", acquisitions.get()));
+    metrics.add(new Metric<>("nfvo.lock.contended", contended.get()));
+    metrics.add(new Metric<>("nfvo.lock.wait.millis", waitNanos.get() / 1000000));
+    return metrics;
+  }
+}
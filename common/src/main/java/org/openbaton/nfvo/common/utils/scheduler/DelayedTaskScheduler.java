@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.common.utils.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs delayed actions (timeouts, deferred clean ups, polling) on a few shared threads. Nothing
+ * sleeps while waiting: the tasks sit in a delay queue until they are due, so thousands of pending
+ * actions cost no more threads than one.
+ *
+ * <p>The scheduler threads must not block. Tasks that do real work (calls to plugins, VNFMs or the
+ * database) should be scheduled with an {@link Executor} they are handed over to when due.
+ */
+@Service
+public class DelayedTaskScheduler implements PublicMetrics {
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  @Value("${nfvo.scheduler.threads:2}")
+  private int threads;
+
+  private ScheduledThreadPoolExecutor scheduler;
+
+  private final AtomicLong scheduled = new AtomicLong();
+
+  @PostConstruct
+  private void init() {
+    if (threads <= 0) {
+      threads = 2;
+    }
+    AtomicInteger count = new AtomicInteger();
+    scheduler =
+        new ScheduledThreadPoolExecutor(
+            threads,
+            r -> {
+              Thread thread = new Thread(r, "nfvo-scheduler-" + count.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    // cancelled timeouts are the common case, do not keep them in the queue until they are due
+    scheduler.setRemoveOnCancelPolicy(true);
+  }
+
+  @PreDestroy
+  private void destroy() {
+    scheduler.shutdownNow();
+  }
+
+  /** Runs the task on a scheduler thread after the delay, it must be short and non blocking. */
+  public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+    scheduled.incrementAndGet();
+    return scheduler.schedule(() -> run(task), delay, unit);
+  }
+
+  /** Hands the task over to the executor after the delay. */
+  public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit, Executor executor) {
+    return schedule(
+        () -> {
+          try {
+            executor.execute(() -> run(task));
+          } catch (RejectedExecutionException e) {
+            log.error("Not able to run delayed task: " + e.getMessage());
+          }
+        },
+        delay,
+        unit);
+  }
+
+  private void run(Runnable task) {
+    try {
+      task.run();
+    } catch (RuntimeException e) {
+      log.error("Delayed task failed: " + e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    Collection<Metric<?>> metrics = new ArrayList<>();
+    metrics.add(new Metric<>("nfvo.scheduler.scheduled", scheduled.get()));
+    metrics.add(new Metric<>("nfvo.scheduler.pending", scheduler.getQueue().size()));
+    return metrics;
+  }
+}
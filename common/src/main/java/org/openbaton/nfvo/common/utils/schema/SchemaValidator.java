@@ -3,22 +3,58 @@ package org.openbaton.nfvo.common.utils.schema;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kjetland.jackson.jsonSchema.JsonSchemaGenerator;
 import com.networknt.schema.JsonSchema;
 import com.networknt.schema.JsonSchemaFactory;
 import com.networknt.schema.ValidationMessage;
 import java.io.IOException;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.openbaton.exceptions.BadRequestException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Validates JSON documents against the JSON schema of a class. The schema of every class is
+ * generated and compiled once, on first use, and then shared by all the validations.
+ */
 public class SchemaValidator {
 
   private static Logger log = LoggerFactory.getLogger(SchemaValidator.class);
 
+  private static final ObjectMapper mapper = new ObjectMapper();
+  private static final JsonSchemaFactory factory = new JsonSchemaFactory(mapper);
+  private static final Map<Class<?>, JsonSchema> schemas = new ConcurrentHashMap<>();
+
+  /** Returns the compiled schema of the class, generating it the first time. */
+  public static JsonSchema getSchema(Class<?> javaClass) {
+    return schemas.computeIfAbsent(
+        javaClass,
+        c -> {
+          JsonNode jsonSchema = new JsonSchemaGenerator(mapper).generateJsonSchema(c);
+          log.trace("The schema of " + c.getSimpleName() + " is: " + jsonSchema);
+          return factory.getSchema(jsonSchema);
+        });
+  }
+
+  /** Parses the document once, so that it can be validated against more schemas. */
+  public static JsonNode parse(String content) throws BadRequestException, IOException {
+    return getJsonNodeFromStringContent(content);
+  }
+
+  /** Validates a document, or a part of it, that was parsed already. */
+  public static Set<ValidationMessage> validateSchema(Class<?> javaClass, JsonNode jsonInstance) {
+    return getSchema(javaClass).validate(jsonInstance);
+  }
+
+  public static Set<ValidationMessage> validateSchema(Class<?> javaClass, String jsonInstance)
+      throws BadRequestException, IOException {
+    return validateSchema(javaClass, getJsonNodeFromStringContent(jsonInstance));
+  }
+
   private static JsonNode getJsonNodeFromStringContent(String content)
       throws BadRequestException, IOException {
-    ObjectMapper mapper = new ObjectMapper();
     JsonNode node;
     try {
       node = mapper.readTree(content);
@@ -30,7 +66,6 @@ public class SchemaValidator {
   }
 
   private static JsonSchema getJsonSchemaFromStringContent(String schemaContent) {
-    JsonSchemaFactory factory = new JsonSchemaFactory();
     return factory.getSchema(schemaContent);
   }
 
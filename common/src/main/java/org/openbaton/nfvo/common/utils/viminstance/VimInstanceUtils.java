@@ -2,9 +2,7 @@ package org.openbaton.nfvo.common.utils.viminstance;
 
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.apache.commons.net.util.SubnetUtils;
 import org.openbaton.catalogue.mano.descriptor.InternalVirtualLink;
 import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
@@ -145,44 +143,7 @@ public class VimInstanceUtils {
 
   public static Collection<BaseNfvImage> findActiveImagesByName(
       BaseVimInstance vimInstance, String imageName) {
-    List<BaseNfvImage> stream =
-        vimInstance
-            .getImages()
-            .stream()
-            .filter(i -> i.getExtId().equals(imageName))
-            .collect(Collectors.toList());
-    if (stream.size() > 0) {
-      return stream;
-    }
-
-    if (vimInstance instanceof OpenstackVimInstance) {
-      return ((OpenstackVimInstance) vimInstance)
-          .getImages()
-          .stream()
-          .filter(
-              i ->
-                  ((NFVImage) i).getName() != null
-                      && ((NFVImage) i).getName().equals(imageName)
-                      && (((NFVImage) i).getStatus() == null
-                          || ((NFVImage) i).getStatus().ordinal() == ImageStatus.ACTIVE.ordinal()))
-          .collect(Collectors.toList());
-    } else if (vimInstance instanceof DockerVimInstance) {
-      return ((DockerVimInstance) vimInstance)
-          .getImages()
-          .stream()
-          .filter(
-              i ->
-                  ((DockerImage) i).getTags() != null
-                      && !((DockerImage) i).getTags().isEmpty()
-                      && ((DockerImage) i).getTags().contains(imageName))
-          .collect(Collectors.toList());
-    } else {
-      return vimInstance
-          .getImages()
-          .stream()
-          .filter(i -> i.getExtId().equals(imageName))
-          .collect(Collectors.toList());
-    }
+    return VimInventoryIndex.of(vimInstance).findImages(imageName);
   }
 
   public static BaseNetwork createBaseNetwork(
@@ -317,4 +278,20 @@ public class VimInstanceUtils {
           && checkNamesAndIds;
     else return checkNamesAndIds;
   }
+
+  /**
+   * Returns true if the vim instance has a network for the virtual link record, see {@link
+   * #isVLRExisting(VirtualLinkRecord, BaseNetwork, boolean)}.
+   */
+  public static boolean isVLRExisting(
+      VirtualLinkRecord virtualLinkRecord, BaseVimInstance vimInstance, boolean dedicatedNetworks) {
+    if (dedicatedNetworks
+        && (virtualLinkRecord.getExtId() == null || virtualLinkRecord.getExtId().equals(""))) {
+      return false;
+    }
+    VimInventoryIndex index = VimInventoryIndex.of(vimInstance);
+    return index.findNetworkByName(virtualLinkRecord.getName()) != null
+        || index.findNetworkByExtId(virtualLinkRecord.getName()) != null
+        || index.findNetworkByExtId(virtualLinkRecord.getExtId()) != null;
+  }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.common.utils.viminstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.openbaton.catalogue.mano.common.DeploymentFlavour;
+import org.openbaton.catalogue.nfvo.ImageStatus;
+import org.openbaton.catalogue.nfvo.images.BaseNfvImage;
+import org.openbaton.catalogue.nfvo.images.DockerImage;
+import org.openbaton.catalogue.nfvo.images.NFVImage;
+import org.openbaton.catalogue.nfvo.networks.BaseNetwork;
+import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
+import org.openbaton.catalogue.nfvo.viminstances.DockerVimInstance;
+import org.openbaton.catalogue.nfvo.viminstances.OpenstackVimInstance;
+
+/**
+ * Lookup tables over the images, networks and flavours of a vim instance, so that they can be
+ * found by name or external id without scanning the whole inventory.
+ *
+ * <p>The index of every vim instance is built once and reused as long as the vim instance has the
+ * same version, inventory version and number of resources; a refresh or any other save of the vim
+ * instance therefore makes the next lookup rebuild it.
+ */
+public class VimInventoryIndex {
+
+  private static final Map<String, VimInventoryIndex> indexes = new ConcurrentHashMap<>();
+
+  private final Object stamp;
+
+  private final Map<String, List<BaseNfvImage>> imagesByExtId = new HashMap<>();
+  private final Map<String, List<BaseNfvImage>> activeImagesByName = new HashMap<>();
+  private final Map<String, BaseNetwork> networksByExtId = new HashMap<>();
+  private final Map<String, BaseNetwork> networksByName = new HashMap<>();
+  private final Map<String, DeploymentFlavour> flavoursByKey = new HashMap<>();
+  private final Map<String, DeploymentFlavour> flavoursByExtId = new HashMap<>();
+  private final Map<String, DeploymentFlavour> flavoursById = new HashMap<>();
+
+  private VimInventoryIndex(BaseVimInstance vimInstance, Object stamp) {
+    this.stamp = stamp;
+    if (vimInstance.getImages() != null) {
+      for (BaseNfvImage image : vimInstance.getImages()) {
+        add(imagesByExtId, image.getExtId(), image);
+        if (vimInstance instanceof OpenstackVimInstance && image instanceof NFVImage) {
+          NFVImage nfvImage = (NFVImage) image;
+          if (nfvImage.getStatus() == null || nfvImage.getStatus() == ImageStatus.ACTIVE) {
+            add(activeImagesByName, nfvImage.getName(), image);
+          }
+        } else if (vimInstance instanceof DockerVimInstance
+            && image instanceof DockerImage
+            && ((DockerImage) image).getTags() != null) {
+          for (String tag : ((DockerImage) image).getTags()) {
+            add(activeImagesByName, tag, image);
+          }
+        }
+      }
+    }
+    if (vimInstance.getNetworks() != null) {
+      for (BaseNetwork network : vimInstance.getNetworks()) {
+        putFirst(networksByExtId, network.getExtId(), network);
+        putFirst(networksByName, network.getName(), network);
+      }
+    }
+    if (vimInstance instanceof OpenstackVimInstance
+        && ((OpenstackVimInstance) vimInstance).getFlavours() != null) {
+      for (DeploymentFlavour flavour : ((OpenstackVimInstance) vimInstance).getFlavours()) {
+        putFirst(flavoursByKey, flavour.getFlavour_key(), flavour);
+        putFirst(flavoursByExtId, flavour.getExtId(), flavour);
+        putFirst(flavoursById, flavour.getId(), flavour);
+      }
+    }
+  }
+
+  /** Returns the index of the vim instance, building it if it is missing or outdated. */
+  public static VimInventoryIndex of(BaseVimInstance vimInstance) {
+    Object stamp = stampOf(vimInstance);
+    if (vimInstance.getId() == null) {
+      return new VimInventoryIndex(vimInstance, stamp);
+    }
+    VimInventoryIndex index = indexes.get(vimInstance.getId());
+    if (index == null || !index.stamp.equals(stamp)) {
+      index = new VimInventoryIndex(vimInstance, stamp);
+      indexes.put(vimInstance.getId(), index);
+    }
+    return index;
+  }
+
+  /** Drops the index of the vim instance, used when it is refreshed or deleted. */
+  public static void invalidate(String vimInstanceId) {
+    if (vimInstanceId != null) {
+      indexes.remove(vimInstanceId);
+    }
+  }
+
+  /**
+   * Returns the images with the given external id or, if there is none, the active images with the
+   * given name (or tag for docker images).
+   */
+  public List<BaseNfvImage> findImages(String nameOrExtId) {
+    List<BaseNfvImage> images = imagesByExtId.get(nameOrExtId);
+    if (images == null) {
+      images = activeImagesByName.get(nameOrExtId);
+    }
+    return images != null ? images : Collections.emptyList();
+  }
+
+  public BaseNetwork findNetworkByExtId(String extId) {
+    return extId != null ? networksByExtId.get(extId) : null;
+  }
+
+  public BaseNetwork findNetworkByName(String name) {
+    return name != null ? networksByName.get(name) : null;
+  }
+
+  /** Returns the flavour with the given flavour key, external id or id, in this order. */
+  public DeploymentFlavour findFlavour(String key) {
+    if (key == null) {
+      return null;
+    }
+    DeploymentFlavour flavour = flavoursByKey.get(key);
+    if (flavour == null) {
+      flavour = flavoursByExtId.get(key);
+    }
+    if (flavour == null) {
+      flavour = flavoursById.get(key);
+    }
+    return flavour;
+  }
+
+  private static Object stampOf(BaseVimInstance vimInstance) {
+    return Arrays.asList(
+        vimInstance.getHbVersion(),
+        vimInstance.getInventoryVersion(),
+        vimInstance.getImages() != null ? vimInstance.getImages().size() : -1,
+        vimInstance.getNetworks() != null ? vimInstance.getNetworks().size() : -1,
+        vimInstance instanceof OpenstackVimInstance
+                && ((OpenstackVimInstance) vimInstance).getFlavours() != null
+            ? ((OpenstackVimInstance) vimInstance).getFlavours().size()
+            : -1);
+  }
+
+  private static <T> void add(Map<String, List<T>> map, String key, T value) {
+    if (key != null) {
+      map.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+    }
+  }
+
+  private static <T> void putFirst(Map<String, T> map, String key, T value) {
+    if (key != null) {
+      map.putIfAbsent(key, value);
+    }
+  }
+}
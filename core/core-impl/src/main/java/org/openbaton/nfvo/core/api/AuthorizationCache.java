@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.core.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openbaton.catalogue.security.BaseUser;
+import org.openbaton.catalogue.security.Project;
+import org.openbaton.exceptions.NotFoundException;
+import org.openbaton.nfvo.repositories.ProjectRepository;
+import org.openbaton.nfvo.repositories.ServiceRepository;
+import org.openbaton.nfvo.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caches the users and services by name and all the projects, which are few. Entries are dropped
+ * when the management classes change them, and in any case after nfvo.security.cache.ttl seconds
+ * to pick up changes made directly in the database.
+ */
+@Service
+public class AuthorizationCache implements org.openbaton.nfvo.core.interfaces.AuthorizationCache {
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  @Value("${nfvo.security.cache.ttl:300}")
+  private int ttl;
+
+  @Autowired private UserRepository userRepository;
+  @Autowired private ServiceRepository serviceRepository;
+  @Autowired private ProjectRepository projectRepository;
+
+  private final Map<String, Cached<BaseUser>> principals = new ConcurrentHashMap<>();
+  private volatile Cached<Projects> projects;
+
+  /** Increased on every invalidation, so that a value loaded meanwhile is not cached. */
+  private final AtomicLong principalsGeneration = new AtomicLong();
+
+  private final AtomicLong projectsGeneration = new AtomicLong();
+
+  @Override
+  public BaseUser queryPrincipal(String name) throws NotFoundException {
+    Cached<BaseUser> cached = principals.get(name);
+    if (cached != null && !cached.isExpired()) {
+      return cached.value;
+    }
+    long generation = principalsGeneration.get();
+    BaseUser principal = userRepository.findFirstByUsername(name);
+    if (principal == null) {
+      log.trace("User not found for name: " + name + " maybe a service?");
+      principal = serviceRepository.findByName(name);
+      if (principal == null) {
+        throw new NotFoundException("Not found user " + name);
+      }
+      log.trace(name + " is a service");
+    }
+    if (generation == principalsGeneration.get()) {
+      principals.put(name, new Cached<>(principal));
+    }
+    return principal;
+  }
+
+  @Override
+  public Project queryProject(String id) {
+    return getProjects().byId.get(id);
+  }
+
+  @Override
+  public Project queryProjectByName(String name) {
+    return getProjects().byName.get(name);
+  }
+
+  @Override
+  public List<Project> queryProjects() {
+    return getProjects().all;
+  }
+
+  @Override
+  public void invalidatePrincipal(String name) {
+    principalsGeneration.incrementAndGet();
+    principals.remove(name);
+  }
+
+  @Override
+  public void invalidatePrincipals() {
+    principalsGeneration.incrementAndGet();
+    principals.clear();
+  }
+
+  @Override
+  public void invalidateProjects() {
+    projectsGeneration.incrementAndGet();
+    projects = null;
+  }
+
+  private Projects getProjects() {
+    Cached<Projects> cached = projects;
+    if (cached != null && !cached.isExpired()) {
+      return cached.value;
+    }
+    long generation = projectsGeneration.get();
+    Projects loaded = new Projects(projectRepository.findAll());
+    if (generation == projectsGeneration.get()) {
+      projects = new Cached<>(loaded);
+    }
+    return loaded;
+  }
+
+  private class Cached<T> {
+    private final T value;
+    private final long loadedAt = System.currentTimeMillis();
+
+    private Cached(T value) {
+      this.value = value;
+    }
+
+    private boolean isExpired() {
+      return System.currentTimeMillis() - loadedAt > ttl * 1000L;
+    }
+  }
+
+  private static class Projects {
+    private final List<Project> all;
+    private final Map<String, Project> byId = new HashMap<>();
+    private final Map<String, Project> byName = new HashMap<>();
+
+    private Projects(Iterable<Project> projects) {
+      List<Project> all = new ArrayList<>();
+      for (Project project : projects) {
+        all.add(project);
+        byId.put(project.getId(), project);
+        byName.put(project.getName(), project);
+      }
+      this.all = Collections.unmodifiableList(all);
+    }
+  }
+}
@@ -13,9 +13,8 @@ import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
@@ -32,6 +31,7 @@ import org.openbaton.exceptions.NotFoundException;
 import org.openbaton.exceptions.PluginException;
 import org.openbaton.exceptions.VimException;
 import org.openbaton.nfvo.common.utils.key.KeyHelper;
+import org.openbaton.nfvo.common.utils.scheduler.DelayedTaskScheduler;
 import org.openbaton.nfvo.core.interfaces.VimManagement;
 import org.openbaton.nfvo.repositories.ManagerCredentialsRepository;
 import org.openbaton.nfvo.repositories.ProjectRepository;
@@ -39,12 +39,16 @@ import org.openbaton.nfvo.repositories.ServiceRepository;
 import org.openbaton.nfvo.repositories.VimRepository;
 import org.openbaton.nfvo.repositories.VnfmEndpointRepository;
 import org.openbaton.nfvo.security.config.OAuth2AuthorizationServerConfig;
+import org.openbaton.nfvo.vim_interfaces.vim.VimBroker;
+import org.openbaton.plugin.utils.PluginRegistry;
 import org.openbaton.vnfm.interfaces.register.VnfmRegister;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.stereotype.Service;
 
@@ -57,6 +61,7 @@ public class ComponentManager implements org.openbaton.nfvo.core.interfaces.Comp
   @Autowired private OAuth2AuthorizationServerConfig serverConfig;
   @Autowired private Gson gson;
   @Autowired private ServiceRepository serviceRepository;
+  @Autowired private org.openbaton.nfvo.core.interfaces.AuthorizationCache authorizationCache;
   @Autowired private ManagerCredentialsRepository managerCredentialsRepository;
   @Autowired private VnfmRegister vnfmRegister;
 
@@ -85,6 +90,11 @@ public class ComponentManager implements org.openbaton.nfvo.core.interfaces.Comp
   @Autowired private ProjectRepository projectRepository;
   @Autowired private VimRepository vimRepository;
   @Autowired private VimManagement vimManagement;
+  @Autowired private VimBroker vimBroker;
+  @Autowired private DelayedTaskScheduler delayedTaskScheduler;
+  @Autowired
+  @Qualifier("housekeepingExecutor")
+  private ThreadPoolTaskExecutor housekeepingExecutor;
 
   /*
    * Service related operations
@@ -147,11 +157,13 @@ public class ComponentManager implements org.openbaton.nfvo.core.interfaces.Comp
         service.setToken(KeyHelper.encryptNew(token.getValue(), service.getKeyValue()));
         service.setTokenExpirationDate(token.getExpiration().getTime());
         serviceRepository.save(service);
+        authorizationCache.invalidatePrincipal(service.getName());
         return service.getToken();
 
       case "remove":
       case "delete":
         serviceRepository.delete(service);
+        authorizationCache.invalidatePrincipal(service.getName());
         log.info("Removed service " + serviceName);
         return null;
       default:
@@ -201,6 +213,7 @@ public class ComponentManager implements org.openbaton.nfvo.core.interfaces.Comp
     serviceMetadata.setKeyValue(KeyHelper.genKey());
     log.debug("Saving ServiceMetadata: " + serviceMetadata);
     serviceRepository.save(serviceMetadata);
+    authorizationCache.invalidatePrincipal(serviceName);
     return serviceMetadata.getKeyValue();
   }
 
@@ -232,6 +245,9 @@ public class ComponentManager implements org.openbaton.nfvo.core.interfaces.Comp
     ServiceMetadata serviceMetadataToRemove = serviceRepository.findById(id);
     log.debug("Found service: " + serviceMetadataToRemove);
     serviceRepository.delete(id);
+    if (serviceMetadataToRemove != null) {
+      authorizationCache.invalidatePrincipal(serviceMetadataToRemove.getName());
+    }
   }
 
   /*
@@ -346,6 +362,8 @@ public class ComponentManager implements org.openbaton.nfvo.core.interfaces.Comp
             if (endpoint != null) vnfmManagerEndpointRepository.save(endpoint);
             log.info("Registered a new manager.");
             if (!isManager) {
+              PluginRegistry.pluginRegistered(username);
+              vimBroker.invalidateVims(username);
               this.refreshVims(username);
             }
             return gson.toJson(managerCredentials);
@@ -370,6 +388,8 @@ public class ComponentManager implements org.openbaton.nfvo.core.interfaces.Comp
             }
             if (body.get("password").getAsString().equals(managerCredentials.getRabbitPassword())) {
               managerCredentialsRepository.delete(managerCredentials);
+              PluginRegistry.pluginUnregistered(username);
+              vimBroker.invalidateVims(username);
               // if message comes from a vnfm, remove the endpoint
               if (body.has("vnfmManagerEndpoint"))
                 vnfmRegister.unregister(
@@ -395,44 +415,41 @@ public class ComponentManager implements org.openbaton.nfvo.core.interfaces.Comp
 
   private void refreshVims(String username) {
     if (delayRefresh > 0) {
-      Timer timer = new Timer();
-
-      TimerTask action =
-          new TimerTask() {
-            public void run() {
-              if (username.contains(".")) {
-                String[] pluginId = username.split(Pattern.quote("."));
-                if (pluginId.length == 3 && pluginId[0].equals("vim-drivers")) {
-                  String vimType = pluginId[1];
-                  log.debug(String.format("Refreshing vims of type %s", vimType));
-                  vimRepository
-                      .findByType(vimType)
-                      .stream()
-                      .parallel()
-                      .forEach(
-                          vim -> {
-                            try {
-                              vimManagement.refresh(vim, false).get();
-                            } catch (VimException
-                                | PluginException
-                                | IOException
-                                | AlreadyExistingException
-                                | BadRequestException
-                                | InterruptedException
-                                | ExecutionException e) {
-                              e.printStackTrace();
-                              log.warn(
-                                  String.format(
-                                      "Error while refreshing vim %s of type %s after plugin registration",
-                                      vim.getName(), vim.getType()));
-                            }
-                          });
-                }
+      delayedTaskScheduler.schedule(
+          () -> {
+            if (username.contains(".")) {
+              String[] pluginId = username.split(Pattern.quote("."));
+              if (pluginId.length == 3 && pluginId[0].equals("vim-drivers")) {
+                String vimType = pluginId[1];
+                log.debug(String.format("Refreshing vims of type %s", vimType));
+                vimRepository
+                    .findByType(vimType)
+                    .stream()
+                    .parallel()
+                    .forEach(
+                        vim -> {
+                          try {
+                            vimManagement.refresh(vim, false).get();
+                          } catch (VimException
+                              | PluginException
+                              | IOException
+                              | AlreadyExistingException
+                              | BadRequestException
+                              | InterruptedException
+                              | ExecutionException e) {
+                            e.printStackTrace();
+                            log.warn(
+                                String.format(
+                                    "Error while refreshing vim %s of type %s after plugin registration",
+                                    vim.getName(), vim.getType()));
+                          }
+                        });
               }
             }
-          };
-
-      timer.schedule(action, delayRefresh);
+          },
+          delayRefresh,
+          TimeUnit.MILLISECONDS,
+          housekeepingExecutor);
     }
   }
 
@@ -442,5 +459,6 @@ public class ComponentManager implements org.openbaton.nfvo.core.interfaces.Comp
       serviceMetadata.setToken(null);
       serviceRepository.save(serviceMetadata);
     }
+    authorizationCache.invalidatePrincipals();
   }
 }
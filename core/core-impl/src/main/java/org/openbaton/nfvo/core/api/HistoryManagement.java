@@ -17,26 +17,49 @@
 
 package org.openbaton.nfvo.core.api;
 
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import org.openbaton.catalogue.security.HistoryEntity;
 import org.openbaton.catalogue.security.User;
+import org.openbaton.nfvo.common.utils.scheduler.DelayedTaskScheduler;
 import org.openbaton.nfvo.core.interfaces.UserManagement;
 import org.openbaton.nfvo.repositories.HistoryEntityRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
-/** Created by lto on 17/10/16. */
+/**
+ * Created by lto on 17/10/16.
+ *
+ * <p>The latest actions, as many as are kept, are held in memory and served from there. New
+ * actions are written to the database in batches shortly after they happen, and the older ones are
+ * then removed with a single delete.
+ */
 @Service
 public class HistoryManagement implements org.openbaton.nfvo.core.interfaces.HistoryManagement {
 
   @Autowired private UserManagement userManagement;
   @Autowired private HistoryEntityRepository historyEntityRepository;
+  @Autowired private DelayedTaskScheduler delayedTaskScheduler;
+
+  @Autowired
+  @Qualifier("housekeepingExecutor")
+  private ThreadPoolTaskExecutor housekeepingExecutor;
 
   @Value("${nfvo.history.max-entities:250}")
   private int maxHistoryEntities;
@@ -44,17 +67,44 @@ public class HistoryManagement implements org.openbaton.nfvo.core.interfaces.His
   @Value("${nfvo.history.level:1}")
   private int historyLevel;
 
+  /** Milliseconds the new actions are collected before being written to the database. */
+  @Value("${nfvo.history.flush.delay:1000}")
+  private long flushDelay;
+
   private final Logger log = LoggerFactory.getLogger(this.getClass());
 
   @Value("${nfvo.history.clear:false}")
   private boolean clearHistory;
 
+  /** The latest actions, oldest first, guarded by itself. */
+  private final Deque<HistoryEntity> latest = new ArrayDeque<>();
+
+  private final Queue<HistoryEntity> unsaved = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
   @PostConstruct
   private void init() {
+    if (maxHistoryEntities < 1) {
+      maxHistoryEntities = 1;
+    }
     if (clearHistory) {
       log.warn("Cleaning history of actions");
       historyEntityRepository.deleteAll();
+      return;
     }
+    List<HistoryEntity> stored =
+        historyEntityRepository.findByOrderByTimestampDesc(new PageRequest(0, maxHistoryEntities));
+    synchronized (latest) {
+      for (HistoryEntity historyEntity : stored) {
+        latest.addFirst(historyEntity);
+      }
+    }
+    deleteOlderEntries();
+  }
+
+  @PreDestroy
+  private void destroy() {
+    flush();
   }
 
   @Override
@@ -81,35 +131,83 @@ public class HistoryManagement implements org.openbaton.nfvo.core.interfaces.His
       historyEntity.setResult(result);
       historyEntity.setTimestamp(new Date().getTime());
 
-      if (historyEntityRepository.count() >= maxHistoryEntities) {
-        HistoryEntity entity =
-            historyEntityRepository.findAll(
-                    new Sort(new Sort.Order(Sort.Direction.ASC, "timestamp")))[
-                0];
-        historyEntityRepository.delete(entity.getId());
+      synchronized (latest) {
+        latest.addLast(historyEntity);
+        while (latest.size() > maxHistoryEntities) {
+          latest.removeFirst();
+        }
+      }
+      unsaved.add(historyEntity);
+      if (flushScheduled.compareAndSet(false, true)) {
+        delayedTaskScheduler.schedule(
+            this::flush, flushDelay, TimeUnit.MILLISECONDS, housekeepingExecutor);
       }
-      historyEntityRepository.save(historyEntity);
+    }
+  }
+
+  /** Writes the actions not saved yet, skipping those already pushed out of the history. */
+  private synchronized void flush() {
+    flushScheduled.set(false);
+    long oldest = getOldestTimestamp();
+    List<HistoryEntity> batch = new ArrayList<>();
+    for (HistoryEntity historyEntity = unsaved.poll();
+        historyEntity != null;
+        historyEntity = unsaved.poll()) {
+      if (historyEntity.getTimestamp() >= oldest) {
+        batch.add(historyEntity);
+      }
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      historyEntityRepository.save(batch);
+      deleteOlderEntries();
+      log.trace("Saved " + batch.size() + " history entries");
+    } catch (RuntimeException e) {
+      log.error("Not able to save " + batch.size() + " history entries: " + e.getMessage());
+    }
+  }
+
+  private void deleteOlderEntries() {
+    synchronized (latest) {
+      if (latest.size() < maxHistoryEntities) {
+        return;
+      }
+    }
+    int deleted = historyEntityRepository.deleteOlderThan(getOldestTimestamp());
+    if (deleted > 0) {
+      log.trace("Deleted " + deleted + " old history entries");
+    }
+  }
+
+  private long getOldestTimestamp() {
+    synchronized (latest) {
+      return latest.isEmpty() ? Long.MAX_VALUE : latest.peekFirst().getTimestamp();
     }
   }
 
   @Override
   public HistoryEntity[] getAll() {
-    return historyEntityRepository.findAll(
-        new Sort(new Sort.Order(Sort.Direction.ASC, "timestamp")));
+    synchronized (latest) {
+      return latest.toArray(new HistoryEntity[latest.size()]);
+    }
   }
 
+  /** Returns the latest actions, at most as many as requested, oldest first. */
   @Override
   public HistoryEntity[] getAll(int actions) {
     if (actions < 0) {
       actions = 0;
     }
-    long count = historyEntityRepository.count();
-    if (actions >= count) {
-      actions = (int) (count - 1);
+    synchronized (latest) {
+      int size = Math.min(actions, latest.size());
+      HistoryEntity[] result = new HistoryEntity[size];
+      Iterator<HistoryEntity> newestFirst = latest.descendingIterator();
+      for (int i = size - 1; i >= 0; i--) {
+        result[i] = newestFirst.next();
+      }
+      return result;
     }
-    return Arrays.copyOfRange(
-        historyEntityRepository.findAll(new Sort(new Sort.Order(Sort.Direction.ASC, "timestamp"))),
-        0,
-        actions);
   }
 }
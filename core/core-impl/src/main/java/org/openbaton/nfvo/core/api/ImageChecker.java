@@ -3,6 +3,7 @@ package org.openbaton.nfvo.core.api;
 import java.io.IOException;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.openbaton.catalogue.nfvo.ImageStatus;
 import org.openbaton.catalogue.nfvo.images.BaseNfvImage;
 import org.openbaton.catalogue.nfvo.images.NFVImage;
@@ -11,20 +12,20 @@ import org.openbaton.exceptions.AlreadyExistingException;
 import org.openbaton.exceptions.BadRequestException;
 import org.openbaton.exceptions.PluginException;
 import org.openbaton.exceptions.VimException;
+import org.openbaton.nfvo.common.utils.scheduler.DelayedTaskScheduler;
 import org.openbaton.nfvo.core.interfaces.VimManagement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Scope;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 @Service
 @Scope
-@EnableAsync
 @ConfigurationProperties
 public class ImageChecker {
 
@@ -37,16 +38,29 @@ public class ImageChecker {
   private int imageStatusTimeoutDelay;
 
   @Autowired private VimManagement vimManagement;
+  @Autowired private DelayedTaskScheduler delayedTaskScheduler;
+  @Autowired
+  @Qualifier("housekeepingExecutor")
+  private ThreadPoolTaskExecutor housekeepingExecutor;
 
-  @Async
-  public void checkImageStatus(BaseVimInstance vimInstance)
-      throws InterruptedException, IOException, VimException, PluginException, ExecutionException,
-          BadRequestException, AlreadyExistingException {
-
-    for (int i = 0; i < imageStatusTimeout; i++) {
+  /**
+   * Polls the images of the vim instance until none of them is queued or saving anymore, then
+   * refreshes the vim instance. Returns immediately, no thread is held between two checks.
+   */
+  public void checkImageStatus(BaseVimInstance vimInstance) {
+    scheduleCheck(vimInstance, 1);
+  }
 
-      java.lang.Thread.sleep(imageStatusTimeoutDelay * 1000);
+  private void scheduleCheck(BaseVimInstance vimInstance, int attempt) {
+    delayedTaskScheduler.schedule(
+        () -> checkImages(vimInstance, attempt),
+        imageStatusTimeoutDelay,
+        TimeUnit.SECONDS,
+        housekeepingExecutor);
+  }
 
+  private void checkImages(BaseVimInstance vimInstance, int attempt) {
+    try {
       boolean allImagesActive = true;
       Set<BaseNfvImage> images = vimManagement.queryImagesDirectly(vimInstance);
 
@@ -67,8 +81,21 @@ public class ImageChecker {
         vimManagement.refresh(vimInstance, false).get();
         return;
       }
+      if (attempt < imageStatusTimeout) {
+        scheduleCheck(vimInstance, attempt + 1);
+        return;
+      }
+      vimManagement.refresh(vimInstance, false).get();
+      log.error("Not all images are active even after timeout!");
+    } catch (InterruptedException
+        | IOException
+        | VimException
+        | PluginException
+        | ExecutionException
+        | BadRequestException
+        | AlreadyExistingException e) {
+      log.error(
+          "Error while checking the images of vim " + vimInstance.getName() + ": " + e.getMessage());
     }
-    vimManagement.refresh(vimInstance, false).get();
-    throw new VimException("Not all images are active even after timeout!");
   }
 }
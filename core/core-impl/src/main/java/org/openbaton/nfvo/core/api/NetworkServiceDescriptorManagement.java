@@ -25,10 +25,13 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import javax.persistence.NoResultException;
 import org.openbaton.catalogue.mano.common.Security;
 import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
@@ -52,13 +55,13 @@ import org.openbaton.exceptions.NotFoundException;
 import org.openbaton.exceptions.PluginException;
 import org.openbaton.exceptions.VimException;
 import org.openbaton.exceptions.WrongStatusException;
+import org.openbaton.nfvo.core.utils.MarketplaceResolver;
 import org.openbaton.nfvo.core.utils.NSDUtils;
 import org.openbaton.nfvo.repositories.NetworkServiceDescriptorRepository;
 import org.openbaton.nfvo.repositories.NetworkServiceRecordRepository;
 import org.openbaton.nfvo.repositories.PhysicalNetworkFunctionDescriptorRepository;
 import org.openbaton.nfvo.repositories.VNFDRepository;
 import org.openbaton.nfvo.repositories.VNFDependencyRepository;
-import org.openbaton.nfvo.repositories.VnfPackageRepository;
 import org.openbaton.nfvo.repositories.VnfmEndpointRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -81,18 +84,12 @@ public class NetworkServiceDescriptorManagement
   @Value("${nfvo.vnfd.cascade.delete:false}")
   private boolean cascadeDelete;
 
-  @Value("${nfvo.marketplace.ip:marketplace.openbaton.org}")
-  private String marketIp;
-
   @Value("${nfvo.package-repository.ip:localhost}")
   private String packageRepositoryIp;
 
   @Value("${nfvo.package-repository.port:8082}")
   private String packageRepositoryPort;
 
-  @Value("${nfvo.marketplace.port:8082}")
-  private int marketPort;
-
   @Autowired private NetworkServiceDescriptorRepository nsdRepository;
   @Autowired private NetworkServiceRecordRepository nsrRepository;
   @Autowired private VNFDRepository vnfdRepository;
@@ -100,7 +97,7 @@ public class NetworkServiceDescriptorManagement
   @Autowired private VNFDependencyRepository vnfDependencyRepository;
   @Autowired private PhysicalNetworkFunctionDescriptorRepository pnfDescriptorRepository;
   @Autowired private NSDUtils nsdUtils;
-  @Autowired private VnfPackageRepository vnfPackageRepository;
+  @Autowired private MarketplaceResolver marketplaceResolver;
   @Autowired private VirtualNetworkFunctionManagement virtualNetworkFunctionManagement;
   @Autowired private VNFPackageManagement vnfPackageManagement;
   @Autowired private Gson gson;
@@ -124,12 +121,17 @@ public class NetworkServiceDescriptorManagement
       throw new BadRequestException(
           "The Network Service Descriptor has to have at least one VNFD.");
     List<String> marketIds = nsdUtils.fetchExistingVnfd(networkServiceDescriptor, projectId);
-    for (String marketId : marketIds) {
-      String link =
-          "http://" + marketIp + ":" + marketPort + "/api/v1/vnf-packages/" + marketId + "/tar";
-      VirtualNetworkFunctionDescriptor vnfd =
-          vnfPackageManagement.onboardFromMarket(link, projectId);
-      networkServiceDescriptor.getVnfd().add(vnfd);
+    if (!marketIds.isEmpty()) {
+      // the packages are downloaded in parallel, then onboarded one after the other
+      Map<String, Path> packages = marketplaceResolver.download(marketIds);
+      for (String marketId : marketIds) {
+        try (InputStream pack = Files.newInputStream(packages.get(marketId))) {
+          VirtualNetworkFunctionDescriptor vnfd =
+              vnfPackageManagement.onboardFromMarket(pack, projectId);
+          log.info("Onboarded from marketplace VNFD " + marketId + " local id is: " + vnfd.getId());
+          networkServiceDescriptor.getVnfd().add(vnfd);
+        }
+      }
     }
 
     if (networkServiceDescriptor.getVld() != null) {
@@ -224,37 +226,6 @@ public class NetworkServiceDescriptorManagement
     return onboard(nsd, projectId);
   }
 
-  private List<String> getIds(List<String> market_ids, String project_id)
-      throws NotFoundException, IOException, PluginException, VimException, IncompatibleVNFPackage,
-          AlreadyExistingException, NetworkServiceIntegrityException, BadRequestException,
-          InterruptedException, EntityUnreachableException, BadFormatException {
-    List<String> not_found_ids = new ArrayList<>();
-    not_found_ids.addAll(market_ids);
-    List<String> vnfdIds = new ArrayList<>();
-    for (String id : market_ids) {
-      for (VirtualNetworkFunctionDescriptor vnfd : vnfdRepository.findByProjectId(project_id)) {
-        String localId = vnfd.getVendor() + "/" + vnfd.getName() + "/" + vnfd.getHbVersion();
-        String vnfdId = vnfd.getId();
-        log.debug(localId);
-        if (localId.toLowerCase().equals(id.toLowerCase())) {
-          log.info("The vnfd " + localId + " was found onboarded on the same project.");
-          vnfdIds.add(vnfdId);
-          not_found_ids.remove(id);
-        }
-      }
-    }
-    log.debug("VNFDs found on the catalogue: " + vnfdIds);
-    for (String id : not_found_ids) {
-      String link = "http://" + marketIp + ":" + marketPort + "/api/v1/vnf-packages/" + id + "/tar";
-      VirtualNetworkFunctionDescriptor vnfd =
-          vnfPackageManagement.onboardFromMarket(link, project_id);
-      log.info(
-          "Onboarded from marketplace VNFD " + vnfd.getName() + " local id is: " + vnfd.getId());
-      vnfdIds.add(vnfd.getId());
-    }
-    return vnfdIds;
-  }
-
   /**
    * This operation allows disabling a Network Service Descriptor, so that it is not possible to
    * instantiate it any further.
@@ -348,7 +319,9 @@ public class NetworkServiceDescriptorManagement
     if (virtualNetworkFunctionDescriptor == null)
       throw new NotFoundException("No VNFD found with ID " + idVnfd);
     nsdRepository.deleteVnfd(idNsd, idVnfd);
-    vnfPackageRepository.delete(virtualNetworkFunctionDescriptor.getVnfPackageLocation());
+    if (virtualNetworkFunctionDescriptor.getVnfPackageLocation() != null) {
+      vnfPackageManagement.removePackage(virtualNetworkFunctionDescriptor.getVnfPackageLocation());
+    }
   }
 
   /**
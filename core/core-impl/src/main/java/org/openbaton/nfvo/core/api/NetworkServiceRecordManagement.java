@@ -29,6 +29,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import javax.persistence.EntityManager;
 import org.openbaton.catalogue.api.DeployNSRBody;
@@ -70,6 +71,7 @@ import org.openbaton.exceptions.PluginException;
 import org.openbaton.exceptions.VimException;
 import org.openbaton.exceptions.WrongStatusException;
 import org.openbaton.nfvo.common.internal.model.EventNFVO;
+import org.openbaton.nfvo.common.utils.scheduler.DelayedTaskScheduler;
 import org.openbaton.nfvo.core.interfaces.DependencyManagement;
 import org.openbaton.nfvo.core.interfaces.EventDispatcher;
 import org.openbaton.nfvo.core.interfaces.ResourceManagement;
@@ -93,6 +95,7 @@ import org.openbaton.vnfm.interfaces.state.VnfStateHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Scope;
@@ -109,7 +112,10 @@ public class NetworkServiceRecordManagement
     implements org.openbaton.nfvo.core.interfaces.NetworkServiceRecordManagement {
 
   private final Logger log = LoggerFactory.getLogger(this.getClass());
-  @Autowired private ThreadPoolTaskExecutor asyncExecutor;
+  @Autowired
+  @Qualifier("housekeepingExecutor")
+  private ThreadPoolTaskExecutor housekeepingExecutor;
+  @Autowired private DelayedTaskScheduler delayedTaskScheduler;
   @Autowired private EventDispatcher publisher;
   @Autowired private NetworkServiceRecordRepository nsrRepository;
   @Autowired private NetworkServiceDescriptorRepository nsdRepository;
@@ -326,6 +332,7 @@ public class NetworkServiceRecordManagement
     } else {
       log.warn("Parent NS does not exist anymore...");
     }
+    vnfmManager.resetNSRStatus(idNsr);
   }
 
   /**
@@ -445,6 +452,7 @@ public class NetworkServiceRecordManagement
 
     networkServiceRecord.setStatus(Status.SCALING);
     networkServiceRecord = nsrRepository.saveCascade(networkServiceRecord);
+    vnfmManager.resetNSRStatus(networkServiceRecord.getId());
     scaleOUT(
         networkServiceRecord,
         virtualNetworkFunctionRecord,
@@ -505,6 +513,7 @@ public class NetworkServiceRecordManagement
 
     networkServiceRecord.setStatus(Status.SCALING);
     networkServiceRecord = nsrRepository.saveCascade(networkServiceRecord);
+    vnfmManager.resetNSRStatus(networkServiceRecord.getId());
     scaleOUT(
         networkServiceRecord,
         virtualNetworkFunctionRecord,
@@ -632,6 +641,7 @@ public class NetworkServiceRecordManagement
 
     networkServiceRecord.setStatus(Status.SCALING);
     networkServiceRecord = nsrRepository.saveCascade(networkServiceRecord);
+    vnfmManager.resetNSRStatus(networkServiceRecord.getId());
     scaleIn(
         networkServiceRecord, virtualNetworkFunctionRecord, virtualDeploymentUnit, vnfcInstance);
   }
@@ -672,6 +682,7 @@ public class NetworkServiceRecordManagement
 
     networkServiceRecord.setStatus(Status.SCALING);
     networkServiceRecord = nsrRepository.saveCascade(networkServiceRecord);
+    vnfmManager.resetNSRStatus(networkServiceRecord.getId());
     scaleIn(
         networkServiceRecord, virtualNetworkFunctionRecord, virtualDeploymentUnit, vnfcInstance);
   }
@@ -714,6 +725,7 @@ public class NetworkServiceRecordManagement
 
     networkServiceRecord.setStatus(Status.SCALING);
     networkServiceRecord = nsrRepository.saveCascade(networkServiceRecord);
+    vnfmManager.resetNSRStatus(networkServiceRecord.getId());
     scaleIn(
         networkServiceRecord,
         virtualNetworkFunctionRecord,
@@ -986,6 +998,7 @@ public class NetworkServiceRecordManagement
       networkServiceRecord.setTask("Scaled in");
     }
     nsrRepository.saveCascade(networkServiceRecord);
+    vnfmManager.resetNSRStatus(networkServiceRecord.getId());
   }
 
   private VirtualDeploymentUnit getVirtualDeploymentUnit(
@@ -1573,7 +1586,7 @@ public class NetworkServiceRecordManagement
   public NetworkServiceRecord query(String id, String projectId) throws NotFoundException {
     log.trace("Id is: " + id);
     NetworkServiceRecord networkServiceRecord =
-        nsrRepository.findFirstByIdAndProjectId(id, projectId);
+        nsrRepository.findWithDetailsByIdAndProjectId(id, projectId);
     if (networkServiceRecord == null) {
       throw new NotFoundException("NetworkServiceRecord with ID " + id + " not found");
     }
@@ -1618,12 +1631,14 @@ public class NetworkServiceRecordManagement
         if (removeAfterTimeout) {
           VNFRTerminator terminator = new VNFRTerminator();
           terminator.setVirtualNetworkFunctionRecord(virtualNetworkFunctionRecord);
-          this.asyncExecutor.submit(terminator);
+          delayedTaskScheduler.schedule(
+              terminator, timeout, TimeUnit.SECONDS, housekeepingExecutor);
         }
         vnfmManager.release(virtualNetworkFunctionRecord);
       }
     } else {
       nsrRepository.delete(networkServiceRecord.getId());
+      vnfmManager.resetNSRStatus(networkServiceRecord.getId());
     }
   }
 
@@ -1740,6 +1755,7 @@ public class NetworkServiceRecordManagement
         vnfStateHandler.sendMessageToVNFR(failedVnfr, orVnfmGenericMessage);
       }
     }
+    vnfmManager.resetNSRStatus(networkServiceRecord.getId());
   }
 
   @ConfigurationProperties
@@ -1754,58 +1770,56 @@ public class NetworkServiceRecordManagement
 
     @Override
     public void run() {
-      try {
-        Thread.sleep(timeout * 1000);
-        if (vnfrRepository.exists(virtualNetworkFunctionRecord.getId())) {
-          virtualNetworkFunctionRecord =
-              vnfrRepository.findFirstById(virtualNetworkFunctionRecord.getId());
-          log.debug(
-              "Terminating the VNFR not yet removed: " + virtualNetworkFunctionRecord.getName());
-          //          vnfStateHandler.terminate(virtualNetworkFunctionRecord);
-          virtualNetworkFunctionRecord
-              .getVdu()
-              .stream()
-              .parallel()
-              .forEach(
-                  vdu ->
-                      vdu.getVnfc_instance()
-                          .stream()
-                          .parallel()
-                          .forEach(
-                              vnfcInstance -> {
-                                try {
-                                  resourceManagement.release(vdu, vnfcInstance);
-                                } catch (VimException
-                                    | ExecutionException
-                                    | PluginException
-                                    | InterruptedException e) {
-                                  e.printStackTrace();
-                                }
-                              }));
-          if (nsrRepository.exists(virtualNetworkFunctionRecord.getParent_ns_id())) {
-            NetworkServiceRecord nsr =
-                nsrRepository.findFirstById(virtualNetworkFunctionRecord.getParent_ns_id());
-            synchronized (NetworkServiceRecordManagement.class) {
-              try {
-                nsr.setVnfr(new HashSet<>());
-                nsrRepository.delete(nsr);
-                ApplicationEventNFVO event =
-                    new ApplicationEventNFVO(
-                        Action.RELEASE_RESOURCES_FINISH,
-                        nsr,
-                        virtualNetworkFunctionRecord.getProjectId());
-                EventNFVO eventNFVO = new EventNFVO(this);
-                eventNFVO.setEventNFVO(event);
-                log.trace("Publishing event: " + event);
-                publisher.dispatchEvent(eventNFVO);
-              } catch (Exception e) {
-                e.printStackTrace();
-              }
+      // only the VDUs and their VNFC instances are released
+      VirtualNetworkFunctionRecord stored =
+          vnfrRepository.findWithVduById(virtualNetworkFunctionRecord.getId());
+      if (stored != null) {
+        virtualNetworkFunctionRecord = stored;
+        log.debug(
+            "Terminating the VNFR not yet removed: " + virtualNetworkFunctionRecord.getName());
+        //          vnfStateHandler.terminate(virtualNetworkFunctionRecord);
+        virtualNetworkFunctionRecord
+            .getVdu()
+            .stream()
+            .parallel()
+            .forEach(
+                vdu ->
+                    vdu.getVnfc_instance()
+                        .stream()
+                        .parallel()
+                        .forEach(
+                            vnfcInstance -> {
+                              try {
+                                resourceManagement.release(vdu, vnfcInstance);
+                              } catch (VimException
+                                  | ExecutionException
+                                  | PluginException
+                                  | InterruptedException e) {
+                                e.printStackTrace();
+                              }
+                            }));
+        if (nsrRepository.exists(virtualNetworkFunctionRecord.getParent_ns_id())) {
+          NetworkServiceRecord nsr =
+              nsrRepository.findFirstById(virtualNetworkFunctionRecord.getParent_ns_id());
+          synchronized (NetworkServiceRecordManagement.class) {
+            try {
+              nsr.setVnfr(new HashSet<>());
+              nsrRepository.delete(nsr);
+              vnfmManager.resetNSRStatus(nsr.getId());
+              ApplicationEventNFVO event =
+                  new ApplicationEventNFVO(
+                      Action.RELEASE_RESOURCES_FINISH,
+                      nsr,
+                      virtualNetworkFunctionRecord.getProjectId());
+              EventNFVO eventNFVO = new EventNFVO(this);
+              eventNFVO.setEventNFVO(event);
+              log.trace("Publishing event: " + event);
+              publisher.dispatchEvent(eventNFVO);
+            } catch (Exception e) {
+              e.printStackTrace();
             }
           }
         }
-      } catch (InterruptedException e) {
-        e.printStackTrace();
       }
     }
   }
@@ -52,6 +52,7 @@ public class ProjectManagement implements org.openbaton.nfvo.core.interfaces.Pro
   @Autowired private UserManagement userManagement;
 
   @Autowired private ProjectRepository projectRepository;
+  @Autowired private org.openbaton.nfvo.core.interfaces.AuthorizationCache authorizationCache;
   @Autowired private VimRepository vimRepository;
   @Autowired private NetworkServiceDescriptorRepository networkServiceDescriptorRepository;
   @Autowired private NetworkServiceRecordRepository networkServiceRecordRepository;
@@ -78,7 +79,9 @@ public class ProjectManagement implements org.openbaton.nfvo.core.interfaces.Pro
   @Override
   public Project add(Project project) {
     log.trace("Adding new project " + project.getName());
-    return projectRepository.save(project);
+    Project saved = projectRepository.save(project);
+    authorizationCache.invalidateProjects();
+    return saved;
   }
 
   @Override
@@ -124,6 +127,8 @@ public class ProjectManagement implements org.openbaton.nfvo.core.interfaces.Pro
       }
     }
     projectRepository.delete(projectToDelete);
+    authorizationCache.invalidateProjects();
+    authorizationCache.invalidatePrincipals();
   }
 
   private boolean projectIsNotUsed(Project projectToDelete) {
@@ -144,7 +149,9 @@ public class ProjectManagement implements org.openbaton.nfvo.core.interfaces.Pro
       throw new NotAllowedException("Forbidden to change the project name");
     }
     project.setDescription(new_project.getDescription());
-    return projectRepository.save(new_project);
+    Project saved = projectRepository.save(new_project);
+    authorizationCache.invalidateProjects();
+    return saved;
   }
 
   @Override
@@ -54,6 +54,7 @@ public class UserManagement implements org.openbaton.nfvo.core.interfaces.UserMa
   private boolean checkEmail;
 
   @Autowired private UserRepository userRepository;
+  @Autowired private org.openbaton.nfvo.core.interfaces.AuthorizationCache authorizationCache;
 
   @Autowired private org.openbaton.nfvo.core.interfaces.ProjectManagement projectManagement;
 
@@ -79,6 +80,7 @@ public class UserManagement implements org.openbaton.nfvo.core.interfaces.UserMa
 
     user.setPassword(BCrypt.hashpw(user.getPassword(), BCrypt.gensalt(12)));
     customUserDetailsService.createUser(user);
+    authorizationCache.invalidatePrincipal(user.getUsername());
     return user;
   }
 
@@ -86,6 +88,7 @@ public class UserManagement implements org.openbaton.nfvo.core.interfaces.UserMa
   public void delete(User user) {
     log.debug("Deleting user: " + user);
     customUserDetailsService.deleteUser(user.getUsername());
+    authorizationCache.invalidatePrincipal(user.getUsername());
   }
 
   @Override
@@ -122,6 +125,7 @@ public class UserManagement implements org.openbaton.nfvo.core.interfaces.UserMa
       }
     }
     customUserDetailsService.updateUser(userToUpdate);
+    authorizationCache.invalidatePrincipal(userToUpdate.getUsername());
     return userToUpdate;
   }
 
@@ -174,6 +178,7 @@ public class UserManagement implements org.openbaton.nfvo.core.interfaces.UserMa
     }
     user.setPassword(BCrypt.hashpw(newPwd, BCrypt.gensalt(12)));
     customUserDetailsService.updateUser(user);
+    authorizationCache.invalidatePrincipal(user.getUsername());
     return user;
   }
 
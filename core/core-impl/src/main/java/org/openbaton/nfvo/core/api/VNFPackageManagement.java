@@ -23,13 +23,14 @@ import com.google.gson.JsonSyntaxException;
 import com.networknt.schema.ValidationMessage;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -39,11 +40,12 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
-import org.apache.commons.compress.archivers.ArchiveStreamFactory;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
 import org.openbaton.catalogue.mano.descriptor.VNFComponent;
@@ -75,8 +77,11 @@ import org.openbaton.exceptions.PluginException;
 import org.openbaton.exceptions.VNFPackageFormatException;
 import org.openbaton.exceptions.VimException;
 import org.openbaton.exceptions.WrongAction;
+import org.openbaton.nfvo.common.utils.blob.ScriptStore;
+import org.openbaton.nfvo.common.utils.lock.StripedLockManager;
 import org.openbaton.nfvo.common.utils.schema.SchemaValidator;
 import org.openbaton.nfvo.core.interfaces.VnfPlacementManagement;
+import org.openbaton.nfvo.core.utils.ArchiveUtils;
 import org.openbaton.nfvo.core.utils.CheckVNFDescriptor;
 import org.openbaton.nfvo.core.utils.CheckVNFPackage;
 import org.openbaton.nfvo.core.utils.NSDUtils;
@@ -131,6 +136,8 @@ public class VNFPackageManagement
   @Autowired private VNFPackageMetadataRepository vnfPackageMetadataRepository;
 
   @Autowired private org.openbaton.nfvo.core.interfaces.VimManagement vimManagement;
+  @Autowired private StripedLockManager stripedLockManager;
+  @Autowired private ScriptStore scriptStore;
   private static ReentrantLock lock = new ReentrantLock();
 
   public boolean isCascadeDelete() {
@@ -142,13 +149,29 @@ public class VNFPackageManagement
   }
 
   @Override
-  public synchronized VirtualNetworkFunctionDescriptor onboard(byte[] pack, String projectId)
+  public VirtualNetworkFunctionDescriptor onboard(byte[] pack, String projectId)
+      throws IOException, VimException, NotFoundException, PluginException, IncompatibleVNFPackage,
+          AlreadyExistingException, NetworkServiceIntegrityException, BadRequestException,
+          InterruptedException, BadFormatException, ExecutionException {
+    return onboard(new ByteArrayInputStream(pack), projectId);
+  }
+
+  @Override
+  public VirtualNetworkFunctionDescriptor onboard(InputStream pack, String projectId)
+      throws IOException, VimException, NotFoundException, PluginException, IncompatibleVNFPackage,
+          AlreadyExistingException, NetworkServiceIntegrityException, BadRequestException,
+          InterruptedException, BadFormatException, ExecutionException {
+    try (ScriptStore.Staging staging = scriptStore.stage(this::isPayloadReferenced)) {
+      return onboard(pack, projectId, staging);
+    }
+  }
+
+  private VirtualNetworkFunctionDescriptor onboard(
+      InputStream pack, String projectId, ScriptStore.Staging staging)
       throws IOException, VimException, NotFoundException, PluginException, IncompatibleVNFPackage,
           AlreadyExistingException, NetworkServiceIntegrityException, BadRequestException,
           InterruptedException, BadFormatException, ExecutionException {
     log.info("Onboarding VNF Package...");
-    for (BaseVimInstance vimInstance : vimInstanceRepository.findByProjectId(projectId))
-      vimManagement.refresh(vimInstance, false).get();
     VNFPackage vnfPackage = new VNFPackage();
     vnfPackage.setScripts(new HashSet<>());
     Map<String, Object> metadata = null;
@@ -156,11 +179,9 @@ public class VNFPackageManagement
     byte[] imageFile = null;
     NFVImage image = new NFVImage();
 
-    InputStream tarStream;
     ArchiveInputStream myTarFile;
     try {
-      tarStream = new ByteArrayInputStream(pack);
-      myTarFile = new ArchiveStreamFactory().createArchiveInputStream("tar", tarStream);
+      myTarFile = ArchiveUtils.openTar(pack);
     } catch (ArchiveException e) {
       e.printStackTrace();
       throw new IOException();
@@ -172,9 +193,8 @@ public class VNFPackageManagement
         /* Get the name of the file */
         if (entry.isFile() && !entry.getName().startsWith("./._")) {
           log.debug("file inside tar: " + entry.getName());
-          byte[] content = new byte[(int) entry.getSize()];
-          myTarFile.read(content, 0, content.length);
           if (entry.getName().equalsIgnoreCase("metadata.yaml")) {
+            byte[] content = ArchiveUtils.readEntry(myTarFile);
             YamlJsonParser yaml = new YamlJsonParser();
             try {
               metadata = yaml.parseMap(new String(content));
@@ -188,19 +208,9 @@ public class VNFPackageManagement
           } else if (!entry.getName().startsWith("scripts/") && entry.getName().endsWith(".json")) {
             //this must be the vnfd
             //and has to be onboarded in the catalogue
-            String json = new String(content);
+            String json = new String(ArchiveUtils.readEntry(myTarFile));
             log.trace("Content of json is: " + json);
-            Set<ValidationMessage> errors =
-                SchemaValidator.validateSchema(
-                    VirtualNetworkFunctionDescriptor.class.getCanonicalName(), json);
-            if (errors.size() > 0) {
-              StringBuilder builder = new StringBuilder();
-              for (ValidationMessage s : errors) {
-                String message = s.getMessage();
-                builder.append(message).append(", ");
-              }
-              throw new BadFormatException(builder.toString());
-            }
+            validateVnfd(json);
             try {
               virtualNetworkFunctionDescriptor =
                   mapper.fromJson(json, VirtualNetworkFunctionDescriptor.class);
@@ -240,7 +250,6 @@ public class VNFPackageManagement
           } else if (entry.getName().endsWith(".img")) {
             //this must be the image
             //and has to be upladed to the RIGHT vim
-            imageFile = content;
             log.debug("imageFile is: " + entry.getName());
             throw new VimException(
                 "Uploading an image file from the VNFPackage is not supported at this moment. Please use the image link"
@@ -248,7 +257,7 @@ public class VNFPackageManagement
           } else if (entry.getName().startsWith("scripts/")) {
             Script script = new Script();
             script.setName(entry.getName().substring(8));
-            script.setPayload(content);
+            staging.add(script, myTarFile);
             vnfPackage.getScripts().add(script);
           }
         }
@@ -258,6 +267,10 @@ public class VNFPackageManagement
       throw new BadFormatException("The file seems not to be a tar file: " + e.getMessage());
     }
 
+    myTarFile.close();
+
+    // the images known by the vims are needed only once the package was read successfully
+    refreshVimInstances(projectId);
     handleImage(
         vnfPackage,
         imageFile,
@@ -268,19 +281,10 @@ public class VNFPackageManagement
         projectId);
 
     vnfPackage.setImage(image);
-    myTarFile.close();
     if (virtualNetworkFunctionDescriptor != null) {
       virtualNetworkFunctionDescriptor.setProjectId(projectId);
     } else throw new BadFormatException("Missing VNFD in package");
     vnfPackage.setProjectId(projectId);
-    for (VirtualNetworkFunctionDescriptor vnfd : vnfdRepository.findByProjectId(projectId)) {
-      if (vnfd.getVendor().equals(virtualNetworkFunctionDescriptor.getVendor())
-          && vnfd.getName().equals(virtualNetworkFunctionDescriptor.getName())
-          && vnfd.getHbVersion().equals(virtualNetworkFunctionDescriptor.getHbVersion())) {
-        throw new AlreadyExistingException(
-            "A VNFD with this vendor, name and version is already existing");
-      }
-    }
 
     try {
       nsdUtils.checkIntegrity(virtualNetworkFunctionDescriptor);
@@ -293,9 +297,30 @@ public class VNFPackageManagement
           e);
     }
 
-    vnfPackage = vnfPackageRepository.save(vnfPackage);
-    virtualNetworkFunctionDescriptor.setVnfPackageLocation(vnfPackage.getId());
-    virtualNetworkFunctionDescriptor = vnfdRepository.save(virtualNetworkFunctionDescriptor);
+    Lock packageLock =
+        lockPackage(
+            projectId,
+            virtualNetworkFunctionDescriptor.getVendor(),
+            virtualNetworkFunctionDescriptor.getName(),
+            null);
+    try {
+      for (VirtualNetworkFunctionDescriptor vnfd : vnfdRepository.findByProjectId(projectId)) {
+        if (vnfd.getVendor().equals(virtualNetworkFunctionDescriptor.getVendor())
+            && vnfd.getName().equals(virtualNetworkFunctionDescriptor.getName())
+            && vnfd.getHbVersion().equals(virtualNetworkFunctionDescriptor.getHbVersion())) {
+          throw new AlreadyExistingException(
+              "A VNFD with this vendor, name and version is already existing");
+        }
+      }
+
+      staging.commit(vnfPackage.getScripts());
+      vnfPackage = vnfPackageRepository.save(vnfPackage);
+      staging.saved();
+      virtualNetworkFunctionDescriptor.setVnfPackageLocation(vnfPackage.getId());
+      virtualNetworkFunctionDescriptor = vnfdRepository.save(virtualNetworkFunctionDescriptor);
+    } finally {
+      packageLock.unlock();
+    }
     log.trace("Persisted " + virtualNetworkFunctionDescriptor);
     log.trace(
         "Onboarded VNFPackage ("
@@ -305,12 +330,44 @@ public class VNFPackageManagement
   }
 
   @Override
-  public synchronized VirtualNetworkFunctionDescriptor add(
+  public VirtualNetworkFunctionDescriptor add(
       byte[] pack, boolean isImageIncluded, String projectId, boolean fromMarketPlace)
       throws IOException, VimException, NotFoundException, PluginException, ExistingVNFPackage,
           DescriptorWrongFormat, VNFPackageFormatException, IncompatibleVNFPackage,
           BadRequestException, AlreadyExistingException, NetworkServiceIntegrityException,
           InterruptedException, BadFormatException, ExecutionException {
+    return add(new ByteArrayInputStream(pack), isImageIncluded, projectId, fromMarketPlace);
+  }
+
+  /**
+   * Onboards the VNF Package read from the stream. The package is spooled to a temporary file, so
+   * that it can be checked and then read entry by entry without being held in memory.
+   */
+  @Override
+  public VirtualNetworkFunctionDescriptor add(
+      InputStream pack, boolean isImageIncluded, String projectId, boolean fromMarketPlace)
+      throws IOException, VimException, NotFoundException, PluginException, ExistingVNFPackage,
+          DescriptorWrongFormat, VNFPackageFormatException, IncompatibleVNFPackage,
+          BadRequestException, AlreadyExistingException, NetworkServiceIntegrityException,
+          InterruptedException, BadFormatException, ExecutionException {
+    Path spooled = ArchiveUtils.spool(pack, "vnf-package-");
+    try (ScriptStore.Staging staging = scriptStore.stage(this::isPayloadReferenced)) {
+      return add(spooled, isImageIncluded, projectId, fromMarketPlace, staging);
+    } finally {
+      ArchiveUtils.delete(spooled);
+    }
+  }
+
+  private VirtualNetworkFunctionDescriptor add(
+      Path pack,
+      boolean isImageIncluded,
+      String projectId,
+      boolean fromMarketPlace,
+      ScriptStore.Staging staging)
+      throws IOException, VimException, NotFoundException, PluginException, ExistingVNFPackage,
+          DescriptorWrongFormat, VNFPackageFormatException, IncompatibleVNFPackage,
+          BadRequestException, AlreadyExistingException, NetworkServiceIntegrityException,
+          InterruptedException, BadFormatException, ExecutionException {
 
     CheckVNFPackage.checkStructure(pack, isImageIncluded, fromMarketPlace);
 
@@ -323,17 +380,13 @@ public class VNFPackageManagement
     Map<String, Object> imageDetails = null;
     Map<String, Object> metadata = null;
 
-    try (ArchiveInputStream tarFile =
-        new ArchiveStreamFactory()
-            .createArchiveInputStream("tar", new ByteArrayInputStream(pack))) {
+    try (ArchiveInputStream tarFile = ArchiveUtils.openTar(pack)) {
       TarArchiveEntry entry;
       // Here there are almost no checks whether keys exists or not, since the check has been done in the CheckVNFPackage class
       while ((entry = (TarArchiveEntry) tarFile.getNextEntry()) != null) {
         if (entry.isFile() && !entry.getName().startsWith("./._")) {
-          byte[] content = new byte[(int) entry.getSize()];
-          tarFile.read(content, 0, content.length);
           if (entry.getName().equalsIgnoreCase("metadata.yaml")) {
-            metadata = Utils.getMapFromYamlFile(content);
+            metadata = Utils.getMapFromYamlFile(ArchiveUtils.readEntry(tarFile));
             vnfPackage.setName((String) metadata.get("name"));
 
             vnfPackageMetadata.setName((String) metadata.get("name"));
@@ -441,7 +494,7 @@ public class VNFPackageManagement
             }
           } else if (!entry.getName().startsWith("scripts/") && entry.getName().endsWith(".json")) {
             //this must be the vnfd
-            String json = new String(content);
+            String json = new String(ArchiveUtils.readEntry(tarFile));
             CheckVNFDescriptor.checkIntegrity(json);
 
             virtualNetworkFunctionDescriptor =
@@ -469,7 +522,7 @@ public class VNFPackageManagement
           } else if (entry.getName().startsWith("scripts/")) {
             Script script = new Script();
             script.setName(entry.getName().substring(8));
-            script.setPayload(content);
+            staging.add(script, tarFile);
             if (vnfPackage.getScripts() == null) vnfPackage.setScripts(new HashSet<Script>());
             vnfPackage.getScripts().add(script);
           }
@@ -483,19 +536,14 @@ public class VNFPackageManagement
       throw new VNFPackageFormatException(
           "Error reading the VNF package, ensure the archive is not corrupted", e);
     }
-    lock.lock();
-    try {
-      handleImage(
-          vnfPackage,
-          null,
-          virtualNetworkFunctionDescriptor,
-          metadata,
-          image,
-          imageDetails,
-          projectId);
-    } finally {
-      lock.unlock();
-    }
+    handleImage(
+        vnfPackage,
+        null,
+        virtualNetworkFunctionDescriptor,
+        metadata,
+        image,
+        imageDetails,
+        projectId);
     if (virtualNetworkFunctionDescriptor == null)
       throw new BadFormatException("Missing VNFD in pacakge");
 
@@ -525,39 +573,50 @@ public class VNFPackageManagement
 
     virtualNetworkFunctionDescriptor.setProjectId(projectId);
     vnfPackage.setProjectId(projectId);
-    // check if package already exists
+    nsdUtils.checkIntegrity(virtualNetworkFunctionDescriptor);
 
-    Iterable<VNFPackageMetadata> vnfPackageMetadataIterable =
-        query(
-            vnfPackageMetadata.getName(),
+    // check if package already exists, the lock keeps the same package from being added twice
+    Lock packageLock =
+        lockPackage(
+            projectId,
             vnfPackageMetadata.getVendor(),
-            vnfPackageMetadata.getVersion(),
-            vnfPackageMetadata.getNfvoVersion(),
-            vnfPackageMetadata.getVnfmType(),
-            vnfPackageMetadata.getOsId(),
-            vnfPackageMetadata.getOsVersion(),
-            vnfPackageMetadata.getOsArchitecture(),
-            vnfPackageMetadata.getTag(),
-            vnfPackageMetadata.getProjectId());
-    if (vnfPackageMetadataIterable != null && vnfPackageMetadataIterable.iterator().hasNext()) {
-      for (VNFPackageMetadata vnfpm : vnfPackageMetadataIterable)
-        log.trace("Already existing: " + vnfpm);
-      throw new ExistingVNFPackage("VNF package already exists.");
-    }
-
-    nsdUtils.checkIntegrity(virtualNetworkFunctionDescriptor);
+            vnfPackageMetadata.getName(),
+            vnfPackageMetadata.getVersion());
+    try {
+      Iterable<VNFPackageMetadata> vnfPackageMetadataIterable =
+          query(
+              vnfPackageMetadata.getName(),
+              vnfPackageMetadata.getVendor(),
+              vnfPackageMetadata.getVersion(),
+              vnfPackageMetadata.getNfvoVersion(),
+              vnfPackageMetadata.getVnfmType(),
+              vnfPackageMetadata.getOsId(),
+              vnfPackageMetadata.getOsVersion(),
+              vnfPackageMetadata.getOsArchitecture(),
+              vnfPackageMetadata.getTag(),
+              vnfPackageMetadata.getProjectId());
+      if (vnfPackageMetadataIterable != null && vnfPackageMetadataIterable.iterator().hasNext()) {
+        for (VNFPackageMetadata vnfpm : vnfPackageMetadataIterable)
+          log.trace("Already existing: " + vnfpm);
+        throw new ExistingVNFPackage("VNF package already exists.");
+      }
 
-    /* Done in the nsdCheckutils */
-    vnfPackage = vnfPackageRepository.save(vnfPackage);
-    log.trace("Persisted " + vnfPackage);
-    vnfPackageMetadataRepository.setVNFPackageId(vnfPackage.getId());
-
-    virtualNetworkFunctionDescriptor.setVnfPackageLocation(vnfPackage.getId());
-    SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-    virtualNetworkFunctionDescriptor.setCreatedAt(format.format(new Date()));
-    virtualNetworkFunctionDescriptor.setUpdatedAt(format.format(new Date()));
-    virtualNetworkFunctionDescriptor = setIPConfigurations(virtualNetworkFunctionDescriptor);
-    virtualNetworkFunctionDescriptor = vnfdRepository.save(virtualNetworkFunctionDescriptor);
+      /* Done in the nsdCheckutils */
+      staging.commit(vnfPackage.getScripts());
+      vnfPackage = vnfPackageRepository.save(vnfPackage);
+      staging.saved();
+      log.trace("Persisted " + vnfPackage);
+      vnfPackageMetadataRepository.setVNFPackageId(vnfPackage.getId());
+
+      virtualNetworkFunctionDescriptor.setVnfPackageLocation(vnfPackage.getId());
+      SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
+      virtualNetworkFunctionDescriptor.setCreatedAt(format.format(new Date()));
+      virtualNetworkFunctionDescriptor.setUpdatedAt(format.format(new Date()));
+      virtualNetworkFunctionDescriptor = setIPConfigurations(virtualNetworkFunctionDescriptor);
+      virtualNetworkFunctionDescriptor = vnfdRepository.save(virtualNetworkFunctionDescriptor);
+    } finally {
+      packageLock.unlock();
+    }
     log.trace("Persisted " + virtualNetworkFunctionDescriptor);
     log.trace(
         "Onboarded VNFPackage ("
@@ -566,6 +625,25 @@ public class VNFPackageManagement
     return virtualNetworkFunctionDescriptor;
   }
 
+  /**
+   * Locks the packages with the given vendor, name and version in the project, so that different
+   * packages are onboarded in parallel while the same one cannot be added twice.
+   */
+  private Lock lockPackage(String projectId, String vendor, String name, String version) {
+    return stripedLockManager.lock(
+        "vnf-package:" + projectId + ":" + vendor + ":" + name + ":" + version);
+  }
+
+  /** Refreshes all the vim instances of the project in parallel. */
+  private void refreshVimInstances(String projectId)
+      throws InterruptedException, ExecutionException, VimException, PluginException, IOException,
+          BadRequestException, AlreadyExistingException {
+    List<Future<BaseVimInstance>> refreshes = new ArrayList<>();
+    for (BaseVimInstance vimInstance : vimInstanceRepository.findByProjectId(projectId))
+      refreshes.add(vimManagement.refresh(vimInstance, false));
+    for (Future<BaseVimInstance> refresh : refreshes) refresh.get();
+  }
+
   private VirtualNetworkFunctionDescriptor setIPConfigurations(
       VirtualNetworkFunctionDescriptor virtualNetworkFunctionDescriptor) {
     // If the VNF manager is not the fixed-host then skip this part
@@ -787,6 +865,32 @@ public class VNFPackageManagement
       String projectId)
       throws NotFoundException, PluginException, VimException, BadRequestException, IOException,
           AlreadyExistingException, InterruptedException, ExecutionException {
+    // packages may be onboarded concurrently, the image lookup and upload is done one at a time
+    lock.lock();
+    try {
+      doHandleImage(
+          vnfPackage,
+          imageFile,
+          virtualNetworkFunctionDescriptor,
+          metadata,
+          image,
+          imageDetails,
+          projectId);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void doHandleImage(
+      VNFPackage vnfPackage,
+      byte[] imageFile,
+      VirtualNetworkFunctionDescriptor virtualNetworkFunctionDescriptor,
+      Map<String, Object> metadata,
+      NFVImage image,
+      Map<String, Object> imageDetails,
+      String projectId)
+      throws NotFoundException, PluginException, VimException, BadRequestException, IOException,
+          AlreadyExistingException, InterruptedException, ExecutionException {
     if (metadata == null) {
       throw new NotFoundException("VNFPackageManagement: Not found Metadata.yaml");
     }
@@ -1057,20 +1161,19 @@ public class VNFPackageManagement
       throw new BadFormatException("The provided link " + link + " is not a valid URL.");
     }
 
-    byte[] packageOnboard;
-    try (InputStream in = new BufferedInputStream(packageLink.openStream());
-        ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-      byte[] bytes = new byte[1024];
-      int n;
-      while (-1 != (n = in.read(bytes))) {
-        out.write(bytes, 0, n);
-      }
-      packageOnboard = out.toByteArray();
+    try (InputStream in = new BufferedInputStream(packageLink.openStream())) {
+      return onboardFromMarket(in, projectId);
     }
-    log.debug("Downloaded " + packageOnboard.length + " bytes");
+  }
+
+  @Override
+  public VirtualNetworkFunctionDescriptor onboardFromMarket(InputStream pack, String projectId)
+      throws IOException, AlreadyExistingException, IncompatibleVNFPackage, VimException,
+          NotFoundException, PluginException, NetworkServiceIntegrityException, BadRequestException,
+          InterruptedException, EntityUnreachableException, BadFormatException {
     VirtualNetworkFunctionDescriptor vnfd;
     try {
-      vnfd = add(packageOnboard, false, projectId, true);
+      vnfd = add(pack, false, projectId, true);
     } catch (ExistingVNFPackage
         | DescriptorWrongFormat
         | VNFPackageFormatException
@@ -1091,20 +1194,9 @@ public class VNFPackageManagement
     log.debug("Onboard from Package Repository, this is the download link: " + link);
     URL packageLink = new URL(link);
 
-    InputStream in = new BufferedInputStream(packageLink.openStream());
-    ByteArrayOutputStream out = new ByteArrayOutputStream();
-    byte[] bytes = new byte[1024];
-    int n;
-    while (-1 != (n = in.read(bytes))) {
-      out.write(bytes, 0, n);
-    }
-    out.close();
-    in.close();
-    byte[] packageOnboard = out.toByteArray();
-    log.debug("Downloaded " + packageOnboard.length + " bytes");
     VirtualNetworkFunctionDescriptor vnfd;
-    try {
-      vnfd = add(packageOnboard, false, projectId, false);
+    try (InputStream in = new BufferedInputStream(packageLink.openStream())) {
+      vnfd = add(in, false, projectId, false);
     } catch (ExistingVNFPackage
         | DescriptorWrongFormat
         | BadFormatException
@@ -1237,7 +1329,26 @@ public class VNFPackageManagement
         }
       }
     }
-    vnfPackageRepository.delete(id);
+    removePackage(vnfPackage);
+  }
+
+  @Override
+  public void removePackage(String id) {
+    VNFPackage vnfPackage = vnfPackageRepository.findFirstById(id);
+    if (vnfPackage != null) {
+      removePackage(vnfPackage);
+    }
+  }
+
+  private void removePackage(VNFPackage vnfPackage) {
+    vnfPackageRepository.delete(vnfPackage.getId());
+    if (vnfPackage.getScripts() != null) {
+      for (Script script : vnfPackage.getScripts()) {
+        if (script.getPayloadChecksum() != null) {
+          releasePayload(script.getPayloadChecksum());
+        }
+      }
+    }
   }
 
   private boolean vnfdBelongsToNSD(
@@ -1252,15 +1363,65 @@ public class VNFPackageManagement
     return false;
   }
 
+  /**
+   * Only the reference of the script changes, the new payload is stored once in the blob store and
+   * the old one is removed if no other script uses it.
+   */
   @Override
   public Script updateScript(Script script, String vnfPackageId)
-      throws NotFoundException, BadFormatException, ExecutionException, InterruptedException {
-
-    script = scriptRepository.save(script);
+      throws NotFoundException, BadFormatException, ExecutionException, InterruptedException,
+          IOException {
+    String oldChecksum = script.getPayloadChecksum();
+    byte[] payload = script.getPayload();
+    try (ScriptStore.Staging staging = scriptStore.stage(this::isPayloadReferenced)) {
+      staging.add(script);
+      staging.commit(Collections.singleton(script));
+      script = scriptRepository.save(script);
+      staging.saved();
+    }
+    script.setPayload(payload);
+    if (oldChecksum != null && !oldChecksum.equals(script.getPayloadChecksum())) {
+      releasePayload(oldChecksum);
+    }
     vnfmManager.updateScript(script, vnfPackageId);
     return script;
   }
 
+  @Override
+  public byte[] getScriptPayload(Script script) throws IOException {
+    if (script.getPayload() != null) {
+      return script.getPayload();
+    }
+    return scriptStore.read(script);
+  }
+
+  /**
+   * Validates the VNFD of a package against the schema generated from {@link
+   * VirtualNetworkFunctionDescriptor}, the same schema the REST API validates VNFDs against.
+   */
+  private void validateVnfd(String json)
+      throws BadFormatException, BadRequestException, IOException {
+    Set<ValidationMessage> errors =
+        SchemaValidator.validateSchema(VirtualNetworkFunctionDescriptor.class, json);
+    if (errors.size() > 0) {
+      StringBuilder builder = new StringBuilder();
+      for (ValidationMessage s : errors) {
+        String message = s.getMessage();
+        builder.append(message).append(", ");
+      }
+      throw new BadFormatException(builder.toString());
+    }
+  }
+
+  /** Removes the payload from the blob store if no script references it anymore. */
+  private void releasePayload(String payloadChecksum) {
+    scriptStore.release(payloadChecksum, this::isPayloadReferenced);
+  }
+
+  private boolean isPayloadReferenced(String payloadChecksum) {
+    return scriptRepository.countByPayloadChecksum(payloadChecksum) > 0;
+  }
+
   @Override
   public Iterable<VNFPackage> queryByProjectId(String projectId) {
     return vnfPackageRepository.findByProjectId(projectId);
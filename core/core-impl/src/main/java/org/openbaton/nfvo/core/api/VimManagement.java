@@ -26,6 +26,7 @@ import java.net.URL;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -36,6 +37,7 @@ import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
 import org.openbaton.catalogue.mano.record.VirtualLinkRecord;
 import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
 import org.openbaton.catalogue.nfvo.images.BaseNfvImage;
+import org.openbaton.catalogue.nfvo.networks.BaseNetwork;
 import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
 import org.openbaton.catalogue.nfvo.viminstances.OpenstackVimInstance;
 import org.openbaton.exceptions.BadRequestException;
@@ -43,6 +45,9 @@ import org.openbaton.exceptions.EntityUnreachableException;
 import org.openbaton.exceptions.NotFoundException;
 import org.openbaton.exceptions.PluginException;
 import org.openbaton.exceptions.VimException;
+import org.openbaton.nfvo.common.utils.viminstance.VimInventoryIndex;
+import org.openbaton.nfvo.core.core.QuotaLedger;
+import org.openbaton.nfvo.core.utils.VimInventorySynchronizer;
 import org.openbaton.nfvo.repositories.ImageRepository;
 import org.openbaton.nfvo.repositories.VNFDRepository;
 import org.openbaton.nfvo.repositories.VNFRRepository;
@@ -71,9 +76,11 @@ public class VimManagement implements org.openbaton.nfvo.core.interfaces.VimMana
   @Autowired private ImageRepository imageRepository;
   @Autowired private VNFDRepository vnfdRepository;
   @Autowired private VNFRRepository vnfrRepository;
+  @Autowired private QuotaLedger quotaLedger;
 
   private static Map<String, Long> lastUpdateVim = new ConcurrentHashMap<>();
   private static Map<String, Object> lockMap = new HashMap<>();
+  private final VimInventorySynchronizer inventorySynchronizer = new VimInventorySynchronizer();
 
   private final Logger log = LoggerFactory.getLogger(this.getClass());
 
@@ -92,7 +99,7 @@ public class VimManagement implements org.openbaton.nfvo.core.interfaces.VimMana
   private long refreshCacheTimeout;
 
   @Override
-  @Async
+  @Async("vimExecutor")
   public Future<BaseVimInstance> add(BaseVimInstance vimInstance, String projectId)
       throws VimException, PluginException, IOException, BadRequestException {
     validateVimInstance(vimInstance, projectId);
@@ -109,7 +116,7 @@ public class VimManagement implements org.openbaton.nfvo.core.interfaces.VimMana
       throw new NotFoundException("Vim Instance with id " + id + " was not found");
     }
     if (checkForVimInVnfr) {
-      for (VirtualNetworkFunctionRecord vnfr : vnfrRepository.findByProjectId(projectId)) {
+      for (VirtualNetworkFunctionRecord vnfr : vnfrRepository.findWithVduByProjectId(projectId)) {
         for (VirtualDeploymentUnit vdu : vnfr.getVdu()) {
           if (vdu.getVimInstanceName().contains(vimInstance.getName())) {
             throw new BadRequestException(
@@ -119,10 +126,11 @@ public class VimManagement implements org.openbaton.nfvo.core.interfaces.VimMana
       }
     }
     vimRepository.delete(vimInstance);
+    VimInventoryIndex.invalidate(vimInstance.getId());
   }
 
   @Override
-  @Async
+  @Async("vimExecutor")
   public Future<BaseVimInstance> update(BaseVimInstance vimInstance, String id, String projectId)
       throws VimException, PluginException, IOException, BadRequestException, NotFoundException {
     validateVimInstance(vimInstance, "");
@@ -130,7 +138,8 @@ public class VimManagement implements org.openbaton.nfvo.core.interfaces.VimMana
     if (vimInstanceOld == null)
       throw new NotFoundException("VIM Instance with ID " + id + " not found.");
     if (!vimInstanceOld.getName().equals(vimInstance.getName())) {
-      for (VirtualNetworkFunctionDescriptor vnfd : vnfdRepository.findByProjectId(projectId)) {
+      for (VirtualNetworkFunctionDescriptor vnfd :
+          vnfdRepository.findWithVduByProjectId(projectId)) {
         for (VirtualDeploymentUnit vdu : vnfd.getVdu()) {
           if (vdu.getVimInstanceName().contains(vimInstanceOld.getName())) {
             vdu.getVimInstanceName().remove(vimInstanceOld.getName());
@@ -138,7 +147,7 @@ public class VimManagement implements org.openbaton.nfvo.core.interfaces.VimMana
           }
         }
       }
-      for (VirtualNetworkFunctionRecord vnfr : vnfrRepository.findByProjectId(projectId)) {
+      for (VirtualNetworkFunctionRecord vnfr : vnfrRepository.findWithVduByProjectId(projectId)) {
         for (VirtualDeploymentUnit vdu : vnfr.getVdu()) {
           if (vdu.getVimInstanceName().contains(vimInstanceOld.getName())) {
             vdu.getVimInstanceName().remove(vimInstanceOld.getName());
@@ -159,7 +168,7 @@ public class VimManagement implements org.openbaton.nfvo.core.interfaces.VimMana
   }
 
   @Override
-  @Async
+  @Async("vimExecutor")
   public Future<BaseVimInstance> refresh(BaseVimInstance vimInstance, boolean force)
       throws VimException, PluginException, IOException {
 
@@ -186,20 +195,53 @@ public class VimManagement implements org.openbaton.nfvo.core.interfaces.VimMana
     }
 
     log.info("Refreshing vim");
-    String key = String.format("%s%s", vimInstance.getName(), vimInstance.getProjectId());
-    Object lock;
-    synchronized (lockMap) {
-      lock = lockMap.computeIfAbsent(key, k -> new Object());
-    }
-    synchronized (lock) {
-      vimInstance = vimBroker.getVim(vimInstance.getType()).refresh(vimInstance);
-      vimInstance = vimRepository.save(vimInstance);
+    synchronized (getLock(vimInstance)) {
+      BaseVimInstance fetched = vimBroker.getVim(vimInstance.getType()).refresh(vimInstance);
+      BaseVimInstance stored =
+          vimInstance.getId() != null ? vimRepository.findFirstById(vimInstance.getId()) : null;
+      if (stored == null
+          || fetched == null
+          || stored.getClass() != fetched.getClass()
+          || inventorySynchronizer.synchronize(stored, fetched)) {
+        vimInstance = vimRepository.save(fetched);
+        VimInventoryIndex.invalidate(vimInstance.getId());
+      } else {
+        log.debug("Nothing changed on vim " + stored.getName());
+        vimInstance = stored;
+      }
     }
 
+    // the quota left may have changed as well, fetch it again at the next reservation
+    quotaLedger.invalidate(vimInstance.getId());
     lastUpdateVim.put(vimInstance.getId(), (new Date()).getTime());
     return new AsyncResult<>(vimInstance);
   }
 
+  @Override
+  public BaseVimInstance refreshNetworks(BaseVimInstance vimInstance, Set<String> names)
+      throws VimException, PluginException {
+    log.debug("Refreshing networks " + names + " of vim " + vimInstance.getName());
+    synchronized (getLock(vimInstance)) {
+      BaseVimInstance stored = vimRepository.findFirstById(vimInstance.getId());
+      List<BaseNetwork> fetched = vimBroker.getVim(stored.getType()).queryNetwork(stored);
+      if (inventorySynchronizer.synchronizeNetworks(
+          stored,
+          fetched,
+          network -> names.contains(network.getName()) || names.contains(network.getExtId()))) {
+        stored = vimRepository.save(stored);
+        VimInventoryIndex.invalidate(stored.getId());
+      }
+      return stored;
+    }
+  }
+
+  private static Object getLock(BaseVimInstance vimInstance) {
+    String key = String.format("%s%s", vimInstance.getName(), vimInstance.getProjectId());
+    synchronized (lockMap) {
+      return lockMap.computeIfAbsent(key, k -> new Object());
+    }
+  }
+
   /**
    * Adds a new NFVImage to the VimInstance with id
    *
@@ -329,7 +371,7 @@ public class VimManagement implements org.openbaton.nfvo.core.interfaces.VimMana
     return new HashSet<>(vimBroker.getVim(vimInstance.getType()).queryImages(vimInstance));
   }
 
-  @Async
+  @Async("vimExecutor")
   @Override
   public Future<Void> deleteNetwork(VirtualLinkRecord vlr)
       throws PluginException, NotFoundException, VimException {
@@ -337,19 +379,12 @@ public class VimManagement implements org.openbaton.nfvo.core.interfaces.VimMana
     if (vimInstance == null)
       throw new NotFoundException(
           String.format("VimInstance with it %s not found", vlr.getVim_id()));
+    BaseNetwork network = VimInventoryIndex.of(vimInstance).findNetworkByExtId(vlr.getExtId());
+    if (network == null)
+      throw new NotFoundException(String.format("Network with it %s not found", vlr.getExtId()));
     vimBroker
         .getVim(vimInstance.getType())
-        .delete(
-            vimInstance,
-            vimInstance
-                .getNetworks()
-                .parallelStream()
-                .filter(n -> n.getExtId().equals(vlr.getExtId()))
-                .findFirst()
-                .orElseThrow(
-                    () ->
-                        new NotFoundException(
-                            String.format("Network with it %s not found", vlr.getExtId()))));
+        .delete(vimInstance, network);
     return new AsyncResult<>(null);
   }
 
@@ -28,7 +28,6 @@ import org.openbaton.exceptions.NotFoundException;
 import org.openbaton.nfvo.core.utils.NSDUtils;
 import org.openbaton.nfvo.repositories.NetworkServiceDescriptorRepository;
 import org.openbaton.nfvo.repositories.VNFDRepository;
-import org.openbaton.nfvo.repositories.VnfPackageRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,7 +44,7 @@ public class VirtualNetworkFunctionManagement
     implements org.openbaton.nfvo.core.interfaces.VirtualNetworkFunctionManagement {
 
   @Autowired private VNFDRepository vnfdRepository;
-  @Autowired private VnfPackageRepository vnfPackageRepository;
+  @Autowired private VNFPackageManagement vnfPackageManagement;
   private final Logger log = LoggerFactory.getLogger(this.getClass());
   @Autowired private NSDUtils nsdUtils;
 
@@ -110,7 +109,8 @@ public class VirtualNetworkFunctionManagement
         log.info(
             "Removing VNF Package with id: "
                 + virtualNetworkFunctionDescriptor.getVnfPackageLocation());
-        vnfPackageRepository.delete(virtualNetworkFunctionDescriptor.getVnfPackageLocation());
+        vnfPackageManagement.removePackage(
+            virtualNetworkFunctionDescriptor.getVnfPackageLocation());
       } else {
         log.debug(
             "No VNFPackage is referenced by VNFD " + virtualNetworkFunctionDescriptor.getId());
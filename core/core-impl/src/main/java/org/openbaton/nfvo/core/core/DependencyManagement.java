@@ -85,7 +85,7 @@ public class DependencyManagement
           InterruptedException {
     log.debug("Provision dependencies for " + virtualNetworkFunctionRecord.getName());
     NetworkServiceRecord nsr =
-        nsrRepository.findFirstById(virtualNetworkFunctionRecord.getParent_ns_id());
+        nsrRepository.findWithDependenciesById(virtualNetworkFunctionRecord.getParent_ns_id());
     int dep = 0;
 
     Set<VNFRecordDependency> vnfRecordDependencies = nsr.getVnf_dependency();
@@ -97,7 +97,7 @@ public class DependencyManagement
         Set<String> notInitIds =
             getNotInitializedVnfrSource(vnfRecordDependency.getIdType().keySet(), nsr);
         if (!notInitIds.isEmpty()) {
-          dependencyQueuer.waitForVNFR(vnfRecordDependency.getId(), notInitIds);
+          dependencyQueuer.waitForVNFR(nsr.getId(), vnfRecordDependency.getId(), notInitIds);
           log.debug(
               "Found "
                   + notInitIds.size()
@@ -341,7 +341,7 @@ public class DependencyManagement
   public VNFRecordDependency getDependencyForAVNFRecordTarget(
       VirtualNetworkFunctionRecord virtualNetworkFunctionRecord) {
     NetworkServiceRecord nsr =
-        nsrRepository.findFirstById(virtualNetworkFunctionRecord.getParent_ns_id());
+        nsrRepository.findWithDependenciesById(virtualNetworkFunctionRecord.getParent_ns_id());
     if (nsr.getStatus().ordinal() != Status.ERROR.ordinal()) {
       Set<VNFRecordDependency> vnfRecordDependencies = nsr.getVnf_dependency();
 
@@ -361,7 +361,7 @@ public class DependencyManagement
       VirtualNetworkFunctionRecord virtualNetworkFunctionRecord) {
     List<VNFRecordDependency> res = new ArrayList<>();
     NetworkServiceRecord nsr =
-        nsrRepository.findFirstById(virtualNetworkFunctionRecord.getParent_ns_id());
+        nsrRepository.findWithDependenciesById(virtualNetworkFunctionRecord.getParent_ns_id());
     if (nsr.getStatus().ordinal() != Status.ERROR.ordinal()) {
       Set<VNFRecordDependency> vnfRecordDependencies = nsr.getVnf_dependency();
 
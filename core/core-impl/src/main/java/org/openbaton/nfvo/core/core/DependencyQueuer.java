@@ -22,8 +22,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import javax.annotation.PostConstruct;
 import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
@@ -53,85 +53,168 @@ public class DependencyQueuer implements org.openbaton.nfvo.core.interfaces.Depe
 
   private final Logger log = LoggerFactory.getLogger(this.getClass());
 
-  private Map<String, Set<String>> queues;
+  /**
+   * The waiting dependencies partitioned by NSR id. A partition is only modified inside {@link
+   * Map#compute} of its NSR, so different NSRs do not contend with each other.
+   */
+  private Map<String, NsrQueue> queues;
 
   @PostConstruct
   private void init() {
-    this.queues = new HashMap<>();
+    this.queues = new ConcurrentHashMap<>();
   }
 
   @Override
-  public synchronized void waitForVNFR(String targetDependencyId, Set<String> sourceIds) {
-    queues.computeIfAbsent(targetDependencyId, k -> new HashSet<>());
+  public void waitForVNFR(String nsrId, String targetDependencyId, Set<String> sourceIds) {
     log.debug("Adding to the queue: " + sourceIds + ", dependency: " + targetDependencyId);
-    for (String name : sourceIds) queues.get(targetDependencyId).add(name);
+    queues.compute(
+        nsrId,
+        (id, queue) -> {
+          if (queue == null) {
+            queue = new NsrQueue();
+          }
+          queue.add(targetDependencyId, sourceIds);
+          return queue;
+        });
   }
 
   /**
-   * Check all dependencies that are waiting in in the map queues for the source vnfr to get
-   * instantiated. If the vnfr that got ready was the last source in a waiting dependency send a
-   * modify message to the target vnfr.
+   * Check the dependencies of the NSR that are waiting for the source vnfr to get instantiated. If
+   * the vnfr that got ready was the last source in a waiting dependency send a modify message to
+   * the target vnfr.
    */
   @Override
-  public synchronized void releaseVNFR(String vnfrSourceName, NetworkServiceRecord nsrFather)
+  public void releaseVNFR(String vnfrSourceName, NetworkServiceRecord nsrFather)
       throws NotFoundException, BadFormatException, ExecutionException, InterruptedException {
-    List<String> dependencyIdToBeRemoved = new ArrayList<>();
     log.debug("Doing release for VNFR id: " + vnfrSourceName);
-    for (Entry<String, Set<String>> entry : queues.entrySet()) {
-      String dependencyId = entry.getKey();
-      Set<String> sourceList = entry.getValue();
-      log.debug(
-          "Dependency "
-              + dependencyId
-              + " contains "
-              + sourceList.size()
-              + " dependencies: "
-              + sourceList);
-      if (sourceList.contains(vnfrSourceName + nsrFather.getId())) {
-        sourceList.remove(vnfrSourceName + nsrFather.getId());
-        if (sourceList.isEmpty()) {
-
-          VNFRecordDependency vnfRecordDependency =
-              vnfrDependencyRepository.findFirstById(dependencyId);
-
-          log.debug("Found VNFRecordDependency: " + vnfRecordDependency);
-
-          //get the vnfr target by its name
-          VirtualNetworkFunctionRecord target =
-              vnfrRepository.findFirstById(
-                  nsrFather
-                      .getVnfr()
-                      .stream()
-                      .filter(vnfr -> vnfr.getName().equals(vnfRecordDependency.getTarget()))
-                      .findFirst()
-                      .orElseThrow(
-                          () ->
-                              new NotFoundException(
-                                  String.format(
-                                      "No VNFR found with name %s",
-                                      vnfRecordDependency.getTarget())))
-                      .getId());
-
-          log.info("Found target of relation: " + target.getName());
-          if (nsrFather.getStatus().ordinal() != Status.ERROR.ordinal()) {
-            log.debug("Sending MODIFY to " + target.getName());
-            OrVnfmGenericMessage orVnfmGenericMessage =
-                new OrVnfmGenericMessage(target, Action.MODIFY);
-            orVnfmGenericMessage.setVnfrd(vnfRecordDependency);
-            vnfStateHandler.sendMessageToVNFR(target, orVnfmGenericMessage);
-            dependencyIdToBeRemoved.add(dependencyId);
+    String sourceId = vnfrSourceName + nsrFather.getId();
+    List<String> readyDependencyIds = new ArrayList<>();
+    queues.computeIfPresent(
+        nsrFather.getId(),
+        (id, queue) -> {
+          readyDependencyIds.addAll(queue.release(sourceId));
+          return queue;
+        });
+    if (readyDependencyIds.isEmpty()) {
+      return;
+    }
+
+    Map<String, String> vnfrIdsByName = new HashMap<>();
+    for (VirtualNetworkFunctionRecord vnfr : nsrFather.getVnfr()) {
+      vnfrIdsByName.putIfAbsent(vnfr.getName(), vnfr.getId());
+    }
+
+    // a dependency leaves the queue only once its MODIFY was sent, the ones not sent because of a
+    // failure are sent again with the next release of a source of the NSR
+    int sent = 0;
+    try {
+      for (String dependencyId : readyDependencyIds) {
+        sendModify(dependencyId, vnfrIdsByName, nsrFather);
+        finish(nsrFather.getId(), dependencyId, true);
+        sent++;
+      }
+    } finally {
+      for (String dependencyId : readyDependencyIds.subList(sent, readyDependencyIds.size())) {
+        finish(nsrFather.getId(), dependencyId, false);
+      }
+    }
+  }
+
+  private void sendModify(
+      String dependencyId, Map<String, String> vnfrIdsByName, NetworkServiceRecord nsrFather)
+      throws NotFoundException, BadFormatException, ExecutionException, InterruptedException {
+    VNFRecordDependency vnfRecordDependency = vnfrDependencyRepository.findFirstById(dependencyId);
+
+    log.debug("Found VNFRecordDependency: " + vnfRecordDependency);
+
+    //get the vnfr target by its name
+    String targetId = vnfrIdsByName.get(vnfRecordDependency.getTarget());
+    if (targetId == null) {
+      throw new NotFoundException(
+          String.format("No VNFR found with name %s", vnfRecordDependency.getTarget()));
+    }
+    VirtualNetworkFunctionRecord target = vnfrRepository.findFirstById(targetId);
+
+    log.info("Found target of relation: " + target.getName());
+    if (nsrFather.getStatus().ordinal() != Status.ERROR.ordinal()) {
+      log.debug("Sending MODIFY to " + target.getName());
+      OrVnfmGenericMessage orVnfmGenericMessage = new OrVnfmGenericMessage(target, Action.MODIFY);
+      orVnfmGenericMessage.setVnfrd(vnfRecordDependency);
+      vnfStateHandler.sendMessageToVNFR(target, orVnfmGenericMessage);
+    }
+  }
+
+  /**
+   * Removes the dependency from the queue if its MODIFY was sent, otherwise makes it ready to be
+   * sent again.
+   */
+  private void finish(String nsrId, String dependencyId, boolean sent) {
+    queues.computeIfPresent(
+        nsrId,
+        (id, queue) -> {
+          if (sent) {
+            queue.remove(dependencyId);
+          } else {
+            queue.retry(dependencyId);
           }
-        }
+          return queue.isEmpty() ? null : queue;
+        });
+  }
+
+  /**
+   * The dependencies of one NSR waiting for their sources, with a reverse index from each source
+   * to the dependencies waiting for it. A dependency without sources left stays in the queue,
+   * first as ready and then as being sent, until its MODIFY was sent.
+   */
+  private static class NsrQueue {
+    private final Map<String, Set<String>> sourcesByDependency = new HashMap<>();
+    private final Map<String, Set<String>> dependenciesBySource = new HashMap<>();
+    private final Set<String> ready = new HashSet<>();
+    private final Set<String> sending = new HashSet<>();
+
+    private void add(String dependencyId, Set<String> sourceIds) {
+      sourcesByDependency.computeIfAbsent(dependencyId, k -> new HashSet<>()).addAll(sourceIds);
+      if (!sourceIds.isEmpty()) {
+        ready.remove(dependencyId);
+      }
+      for (String sourceId : sourceIds) {
+        dependenciesBySource.computeIfAbsent(sourceId, k -> new HashSet<>()).add(dependencyId);
       }
     }
 
-    for (String depIdToRem : dependencyIdToBeRemoved) {
-      for (String depId : queues.keySet()) {
-        if (depIdToRem.equals(depId)) {
-          queues.remove(depId);
-          break;
+    /**
+     * Removes the source and returns the dependencies that do not wait for anything anymore and
+     * are not being sent already, they are marked as being sent.
+     */
+    private List<String> release(String sourceId) {
+      Set<String> dependencyIds = dependenciesBySource.remove(sourceId);
+      if (dependencyIds != null) {
+        for (String dependencyId : dependencyIds) {
+          Set<String> sourceIds = sourcesByDependency.get(dependencyId);
+          if (sourceIds != null && sourceIds.remove(sourceId) && sourceIds.isEmpty()) {
+            ready.add(dependencyId);
+          }
         }
       }
+      List<String> toSend = new ArrayList<>(ready);
+      sending.addAll(ready);
+      ready.clear();
+      return toSend;
+    }
+
+    private void remove(String dependencyId) {
+      sending.remove(dependencyId);
+      sourcesByDependency.remove(dependencyId);
+    }
+
+    private void retry(String dependencyId) {
+      if (sending.remove(dependencyId)) {
+        ready.add(dependencyId);
+      }
+    }
+
+    private boolean isEmpty() {
+      return sourcesByDependency.isEmpty();
     }
   }
 }
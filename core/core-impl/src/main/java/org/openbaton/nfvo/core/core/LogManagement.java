@@ -27,6 +27,7 @@ import org.openbaton.catalogue.nfvo.messages.VnfmOrLogMessage;
 import org.openbaton.exceptions.BadFormatException;
 import org.openbaton.exceptions.NotFoundException;
 import org.openbaton.nfvo.repositories.NetworkServiceRecordRepository;
+import org.openbaton.nfvo.repositories.VNFRRepository;
 import org.openbaton.vnfm.interfaces.manager.VnfmManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,15 +39,19 @@ import org.springframework.stereotype.Service;
 public class LogManagement implements org.openbaton.nfvo.core.interfaces.LogManagement {
 
   @Autowired private NetworkServiceRecordRepository networkServiceRecordRepository;
+  @Autowired private VNFRRepository vnfrRepository;
   @Autowired private VnfmManager vnfmManager;
   private final Logger log = LoggerFactory.getLogger(this.getClass());
 
   @Override
   public VnfmOrLogMessage getLog(String nsrId, String vnfrName, String hostname)
       throws NotFoundException, InterruptedException, BadFormatException, ExecutionException {
-    for (VirtualNetworkFunctionRecord virtualNetworkFunctionRecord :
-        networkServiceRecordRepository.findFirstById(nsrId).getVnfr()) {
-      if (virtualNetworkFunctionRecord.getName().equals(vnfrName)) {
+    for (VirtualNetworkFunctionRecord vnfr :
+        networkServiceRecordRepository.findWithVnfrById(nsrId).getVnfr()) {
+      if (vnfr.getName().equals(vnfrName)) {
+        // the VNFR is sent to the VNFM, load it with all its collections
+        VirtualNetworkFunctionRecord virtualNetworkFunctionRecord =
+            vnfrRepository.findFirstById(vnfr.getId());
         for (VirtualDeploymentUnit virtualDeploymentUnit : virtualNetworkFunctionRecord.getVdu()) {
           for (VNFCInstance vnfcInstance : virtualDeploymentUnit.getVnfc_instance()) {
             if (hostname.equals(vnfcInstance.getHostname())) {
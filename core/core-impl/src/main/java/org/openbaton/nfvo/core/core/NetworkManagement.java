@@ -52,7 +52,7 @@ public class NetworkManagement implements org.openbaton.nfvo.core.interfaces.Net
   @Autowired private VimManagement vimInstanceRepository;
 
   @Override
-  public synchronized BaseNetwork add(BaseVimInstance vimInstance, BaseNetwork network)
+  public BaseNetwork add(BaseVimInstance vimInstance, BaseNetwork network)
       throws VimException, PluginException, BadRequestException, IOException,
           AlreadyExistingException, ExecutionException, InterruptedException {
     log.info("Creating network " + network.getName() + " on vim " + vimInstance.getName());
@@ -92,8 +92,6 @@ public class NetworkManagement implements org.openbaton.nfvo.core.interfaces.Net
     network = vim.add(vimInstance, network);
     //Create Network in NetworkRepository
     network = networkRepository.save(network);
-    //Add network to VimInstance
-    vimInstance.addNetwork(network);
     log.info("Created Network " + network.getName());
     log.debug("Network details: " + network);
     return network;
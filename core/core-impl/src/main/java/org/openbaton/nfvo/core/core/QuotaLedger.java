@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.core.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openbaton.catalogue.nfvo.Quota;
+import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
+import org.openbaton.exceptions.PluginException;
+import org.openbaton.exceptions.VimException;
+import org.openbaton.nfvo.vim_interfaces.vim.VimBroker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps, for every vim instance, the quota left as last reported by the vim and the resources
+ * reserved by the granted VNFRs that the vim does not know about yet. Reservations are checked and
+ * applied atomically, so concurrent grants can not both take the same resources.
+ *
+ * <p>The quota left is fetched again from the vim when it is older than the refresh interval or
+ * when a reservation does not fit anymore. A reservation is dropped when it is released, or at the
+ * first refresh after its resources were allocated, since from then on the vim counts them.
+ */
+@Service
+public class QuotaLedger implements PublicMetrics {
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  @Autowired private VimBroker vimBroker;
+
+  @Value("${nfvo.quota.ledger.refresh:60}")
+  private int refreshInterval;
+
+  @Value("${nfvo.quota.ledger.reservation.timeout:3600}")
+  private int reservationTimeout;
+
+  private final Map<String, VimQuota> quotas = new ConcurrentHashMap<>();
+
+  private final AtomicLong reservations = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong refreshes = new AtomicLong();
+
+  /**
+   * Reserves the resources on the vim instance, replacing the previous reservation with the same
+   * id.
+   *
+   * @throws VimException if the resources left on the vim instance are not enough
+   */
+  public void reserve(
+      BaseVimInstance vimInstance, String reservationId, int instances, int cores, int ram)
+      throws VimException, PluginException {
+    VimQuota vimQuota = quotas.computeIfAbsent(vimInstance.getId(), k -> new VimQuota());
+    synchronized (vimQuota) {
+      boolean refreshed = false;
+      if (vimQuota.isStale()) {
+        refresh(vimQuota, vimInstance);
+        refreshed = true;
+      }
+      Reservation previous = vimQuota.reservations.remove(reservationId);
+      Reservation reservation = new Reservation(instances, cores, ram);
+      if (!vimQuota.fits(reservation) && !refreshed) {
+        // the vim may have freed resources the NFVO does not know about
+        refresh(vimQuota, vimInstance);
+      }
+      if (!vimQuota.fits(reservation)) {
+        if (previous != null) {
+          vimQuota.reservations.put(reservationId, previous);
+        }
+        rejected.incrementAndGet();
+        throw new VimException(
+            "Not enough resources left on VimInstance "
+                + vimInstance.getName()
+                + ": "
+                + vimQuota.getLeft());
+      }
+      vimQuota.reservations.put(reservationId, reservation);
+      reservations.incrementAndGet();
+      log.debug(
+          "Reserved "
+              + reservation
+              + " on VimInstance "
+              + vimInstance.getName()
+              + ", left: "
+              + vimQuota.getLeft());
+    }
+  }
+
+  /** Marks the reservation as allocated on the vim, it is dropped at the next refresh. */
+  public void confirm(String reservationId) {
+    for (VimQuota vimQuota : quotas.values()) {
+      synchronized (vimQuota) {
+        Reservation reservation = vimQuota.reservations.get(reservationId);
+        if (reservation != null && reservation.allocatedAt == 0) {
+          reservation.allocatedAt = System.currentTimeMillis();
+        }
+      }
+    }
+  }
+
+  /** Gives back the resources of the reservation, used when they were not or no more allocated. */
+  public void release(String reservationId) {
+    for (VimQuota vimQuota : quotas.values()) {
+      synchronized (vimQuota) {
+        if (vimQuota.reservations.remove(reservationId) != null) {
+          log.debug("Released reservation " + reservationId);
+        }
+      }
+    }
+  }
+
+  /** Forces the next reservation on the vim instance to fetch the quota left again. */
+  public void invalidate(String vimInstanceId) {
+    VimQuota vimQuota = quotas.get(vimInstanceId);
+    if (vimQuota != null) {
+      synchronized (vimQuota) {
+        vimQuota.refreshedAt = 0;
+      }
+    }
+  }
+
+  private void refresh(VimQuota vimQuota, BaseVimInstance vimInstance)
+      throws VimException, PluginException {
+    long start = System.currentTimeMillis();
+    vimQuota.left = vimBroker.getLeftQuota(vimInstance);
+    vimQuota.refreshedAt = start;
+    refreshes.incrementAndGet();
+    Iterator<Reservation> iterator = vimQuota.reservations.values().iterator();
+    while (iterator.hasNext()) {
+      Reservation reservation = iterator.next();
+      if ((reservation.allocatedAt != 0 && reservation.allocatedAt < start)
+          || reservation.reservedAt + reservationTimeout * 1000L < start) {
+        iterator.remove();
+      }
+    }
+    log.debug("Quota left on VimInstance " + vimInstance.getName() + " is " + vimQuota.left);
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    int pending = 0;
+    for (VimQuota vimQuota : quotas.values()) {
+      synchronized (vimQuota) {
+        pending += vimQuota.reservations.size();
+      }
+    }
+    Collection<Metric<?>> metrics = new ArrayList<>();
+    metrics.add(new Metric<>("nfvo.quota.reservations", reservations.get()));
+    metrics.add(new Metric<>("nfvo.quota.reservations.pending", pending));
+    metrics.add(new Metric<>("nfvo.quota.rejected", rejected.get()));
+    metrics.add(new Metric<>("nfvo.quota.refreshes", refreshes.get()));
+    return metrics;
+  }
+
+  private class VimQuota {
+    private Quota left;
+    private long refreshedAt;
+    private final Map<String, Reservation> reservations = new HashMap<>();
+
+    private boolean isStale() {
+      return left == null || refreshedAt + refreshInterval * 1000L <= System.currentTimeMillis();
+    }
+
+    private boolean fits(Reservation reservation) {
+      Quota quota = getLeft();
+      return quota.getInstances() >= reservation.instances
+          && quota.getCores() >= reservation.cores
+          && quota.getRam() >= reservation.ram;
+    }
+
+    /** Returns the quota left once the reservations are taken into account. */
+    private Quota getLeft() {
+      Quota quota = new Quota();
+      quota.setTenant(left.getTenant());
+      quota.setKeyPairs(left.getKeyPairs());
+      quota.setFloatingIps(left.getFloatingIps());
+      long instances = left.getInstances();
+      long cores = left.getCores();
+      long ram = left.getRam();
+      for (Reservation reservation : reservations.values()) {
+        instances -= reservation.instances;
+        cores -= reservation.cores;
+        ram -= reservation.ram;
+      }
+      quota.setInstances((int) Math.max(instances, Integer.MIN_VALUE));
+      quota.setCores((int) Math.max(cores, Integer.MIN_VALUE));
+      quota.setRam((int) Math.max(ram, Integer.MIN_VALUE));
+      return quota;
+    }
+  }
+
+  private static class Reservation {
+    private final int instances;
+    private final int cores;
+    private final int ram;
+    private final long reservedAt = System.currentTimeMillis();
+    private long allocatedAt;
+
+    private Reservation(int instances, int cores, int ram) {
+      this.instances = instances;
+      this.cores = cores;
+      this.ram = ram;
+    }
+
+    @Override
+    public String toString() {
+      return instances + " instances, " + cores + " cores, " + ram + " MB of ram";
+    }
+  }
+}
@@ -47,10 +47,12 @@ import org.openbaton.nfvo.vim_interfaces.vim.VimBroker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Scope;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.AsyncResult;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 /** Created by lto on 11/06/15. */
@@ -69,8 +71,12 @@ public class ResourceManagement implements org.openbaton.nfvo.core.interfaces.Re
   @Autowired private VNFDRepository vnfdRepository;
   @Autowired private KeyRepository keyRepository;
 
+  @Autowired
+  @Qualifier("vimExecutor")
+  private ThreadPoolTaskExecutor vimExecutor;
+
   @Override
-  @Async
+  @Async("vnfmExecutor")
   public Future<List<String>> allocate(
       VirtualDeploymentUnit virtualDeploymentUnit,
       VirtualNetworkFunctionRecord virtualNetworkFunctionRecord,
@@ -78,7 +84,6 @@ public class ResourceManagement implements org.openbaton.nfvo.core.interfaces.Re
       String userdata,
       Set<Key> keys)
       throws VimException, ExecutionException, InterruptedException, PluginException {
-    List<Future<VNFCInstance>> instances = new ArrayList<>();
     org.openbaton.nfvo.vim_interfaces.vim.Vim vim = vimBroker.getVim(vimInstance.getType());
     log.debug("Executing allocate with Vim: " + vim.getClass().getSimpleName());
     log.debug("NAME: " + virtualNetworkFunctionRecord.getName());
@@ -89,8 +94,10 @@ public class ResourceManagement implements org.openbaton.nfvo.core.interfaces.Re
 
     createFlavorIfNotExisting(vimInstance, virtualNetworkFunctionRecord);
 
-    for (VNFComponent component : virtualDeploymentUnit.getVnfc()) {
-      log.trace("UserData is: " + userdata);
+    List<VNFComponent> components = new ArrayList<>(virtualDeploymentUnit.getVnfc());
+    List<Map<String, String>> componentFloatingIps = new ArrayList<>();
+    log.trace("UserData is: " + userdata);
+    for (VNFComponent component : components) {
       Map<String, String> floatingIps = new HashMap<>();
       for (VNFDConnectionPoint connectionPoint : component.getConnection_point()) {
         if (connectionPoint.getFloatingIp() != null)
@@ -98,17 +105,17 @@ public class ResourceManagement implements org.openbaton.nfvo.core.interfaces.Re
               connectionPoint.getVirtual_link_reference(), connectionPoint.getFloatingIp());
       }
       log.info("FloatingIp chosen are: " + floatingIps);
-      Future<VNFCInstance> added =
-          vim.allocate(
-              vimInstance,
-              virtualDeploymentUnit,
-              virtualNetworkFunctionRecord,
-              component,
-              userdata,
-              floatingIps,
-              keys);
-      instances.add(added);
+      componentFloatingIps.add(floatingIps);
     }
+    List<Future<VNFCInstance>> instances =
+        vim.allocate(
+            vimInstance,
+            virtualDeploymentUnit,
+            virtualNetworkFunctionRecord,
+            components,
+            userdata,
+            componentFloatingIps,
+            keys);
     List<String> ids = new ArrayList<>();
     for (Future<VNFCInstance> futureInstance : instances) {
       VNFCInstance instance = futureInstance.get();
@@ -182,7 +189,7 @@ public class ResourceManagement implements org.openbaton.nfvo.core.interfaces.Re
   public void operate(VirtualDeploymentUnit vdu, String operation) {}
 
   @Override
-  @Async
+  @Async("vnfmExecutor")
   public Future<Void> release(
       VirtualDeploymentUnit virtualDeploymentUnit, VNFCInstance vnfcInstance)
       throws VimException, ExecutionException, InterruptedException, PluginException {
@@ -208,7 +215,7 @@ public class ResourceManagement implements org.openbaton.nfvo.core.interfaces.Re
   public void releaseReservation(VirtualDeploymentUnit vdu) {}
 
   @Override
-  @Async
+  @Async("vnfmExecutor")
   public Future<VNFCInstance> allocate(
       VirtualDeploymentUnit virtualDeploymentUnit,
       VirtualNetworkFunctionRecord virtualNetworkFunctionRecord,
@@ -217,8 +224,7 @@ public class ResourceManagement implements org.openbaton.nfvo.core.interfaces.Re
       String userdata)
       throws InterruptedException, ExecutionException, PluginException, VimException,
           VimDriverException {
-    org.openbaton.nfvo.vim_interfaces.resource_management.ResourceManagement vim;
-    vim = vimBroker.getVim(vimInstance.getType());
+    org.openbaton.nfvo.vim_interfaces.vim.Vim vim = vimBroker.getVim(vimInstance.getType());
     log.debug("Executing allocate with Vim: " + vim.getClass().getSimpleName());
     log.debug("NAME: " + virtualNetworkFunctionRecord.getName());
     log.debug("ID: " + virtualDeploymentUnit.getId());
@@ -228,7 +234,9 @@ public class ResourceManagement implements org.openbaton.nfvo.core.interfaces.Re
     // TODO retrive nsr->getKeys->keyRepository->getKeys
     Set<Key> keys = new HashSet<>();
     for (String keyName :
-        nsrRepository.findFirstById(virtualNetworkFunctionRecord.getParent_ns_id()).getKeyNames()) {
+        nsrRepository
+            .findWithKeyNamesById(virtualNetworkFunctionRecord.getParent_ns_id())
+            .getKeyNames()) {
       keys.add(keyRepository.findKey(virtualNetworkFunctionRecord.getProjectId(), keyName));
     }
     VNFCInstance vnfc =
@@ -256,6 +264,116 @@ public class ResourceManagement implements org.openbaton.nfvo.core.interfaces.Re
     return new AsyncResult<>(vnfc);
   }
 
+  @Override
+  @Async("vnfmExecutor")
+  public Future<List<VNFCInstance>> allocate(
+      VirtualDeploymentUnit virtualDeploymentUnit,
+      VirtualNetworkFunctionRecord virtualNetworkFunctionRecord,
+      List<VNFComponent> components,
+      BaseVimInstance vimInstance,
+      String userdata)
+      throws InterruptedException, ExecutionException, PluginException, VimException {
+    org.openbaton.nfvo.vim_interfaces.vim.Vim vim = vimBroker.getVim(vimInstance.getType());
+    log.debug("Executing allocate with Vim: " + vim.getClass().getSimpleName());
+    log.debug("NAME: " + virtualNetworkFunctionRecord.getName());
+    log.debug("ID: " + virtualDeploymentUnit.getId());
+
+    createFlavorIfNotExisting(vimInstance, virtualNetworkFunctionRecord);
+
+    Set<Key> keys = new HashSet<>();
+    for (String keyName :
+        nsrRepository
+            .findWithKeyNamesById(virtualNetworkFunctionRecord.getParent_ns_id())
+            .getKeyNames()) {
+      keys.add(keyRepository.findKey(virtualNetworkFunctionRecord.getProjectId(), keyName));
+    }
+
+    log.trace("UserData is: " + userdata);
+    List<Map<String, String>> componentFloatingIps = new ArrayList<>();
+    for (VNFComponent component : components) {
+      Map<String, String> floatinIps = new HashMap<>();
+      for (VNFDConnectionPoint connectionPoint : component.getConnection_point()) {
+        floatinIps.put(
+            connectionPoint.getVirtual_link_reference(), connectionPoint.getFloatingIp());
+      }
+      log.info("FloatingIp chosen are: " + floatinIps);
+      componentFloatingIps.add(floatinIps);
+    }
+    List<Future<VNFCInstance>> futures;
+    if (vim.isBatchLaunchSupported()) {
+      futures =
+          vim.allocate(
+              vimInstance,
+              virtualDeploymentUnit,
+              virtualNetworkFunctionRecord,
+              components,
+              userdata,
+              componentFloatingIps,
+              keys);
+    } else {
+      // the driver launches one VM per call, so launch them all at the same time
+      futures = new ArrayList<>();
+      for (int i = 0; i < components.size(); i++) {
+        VNFComponent component = components.get(i);
+        Map<String, String> floatingIps = componentFloatingIps.get(i);
+        futures.add(
+            vimExecutor.submit(
+                () ->
+                    getResult(
+                        vim.allocate(
+                            vimInstance,
+                            virtualDeploymentUnit,
+                            virtualNetworkFunctionRecord,
+                            component,
+                            userdata,
+                            floatingIps,
+                            keys))));
+      }
+    }
+
+    // keep the instances launched successfully even if others failed, then report all the failed
+    // ones so that their VMs can be released
+    List<VNFCInstance> vnfcInstances = new ArrayList<>();
+    List<VNFCInstance> failedInstances = new ArrayList<>();
+    ExecutionException failure = null;
+    for (int i = 0; i < futures.size(); i++) {
+      VNFCInstance added;
+      try {
+        added = futures.get(i).get();
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e;
+        }
+        if (e.getCause() instanceof VimException) {
+          failedInstances.addAll(((VimException) e.getCause()).getVnfcInstances());
+        }
+        continue;
+      }
+      virtualDeploymentUnit.getVnfc_instance().add(added);
+      vnfcInstances.add(added);
+      if (!componentFloatingIps.get(i).isEmpty() && added.getFloatingIps().isEmpty())
+        log.warn("NFVO wasn't able to associate FloatingIPs. Is there enough available?");
+      log.debug("Launched VM with id: " + added.getVc_id());
+    }
+    if (failure != null) {
+      if (failure.getCause() instanceof VimException) {
+        VimException vimException = (VimException) failure.getCause();
+        vimException.setVnfcInstances(failedInstances);
+        if (vimException.getVirtualDeploymentUnit() == null) {
+          vimException.setVirtualDeploymentUnit(virtualDeploymentUnit);
+        }
+        throw vimException;
+      }
+      throw failure;
+    }
+    log.info(
+        "Finished deploying "
+            + vnfcInstances.size()
+            + " VMs of VDU "
+            + virtualDeploymentUnit.getName());
+    return new AsyncResult<>(vnfcInstances);
+  }
+
   public void createFlavorIfNotExisting(
       BaseVimInstance vimInstance, VirtualNetworkFunctionRecord virtualNetworkFunctionRecord)
       throws VimException, PluginException {
@@ -283,7 +401,8 @@ public class ResourceManagement implements org.openbaton.nfvo.core.interfaces.Re
                 + vimInstance.getName()
                 + ". Creating it... ");
         VirtualNetworkFunctionDescriptor vnfd =
-            vnfdRepository.findOne(virtualNetworkFunctionRecord.getDescriptor_reference());
+            vnfdRepository.findWithDeploymentFlavourById(
+                virtualNetworkFunctionRecord.getDescriptor_reference());
         for (VNFDeploymentFlavour vnfDeploymentFlavour : vnfd.getDeployment_flavour()) {
           if (vnfDeploymentFlavour
               .getFlavour_key()
@@ -314,4 +433,16 @@ public class ResourceManagement implements org.openbaton.nfvo.core.interfaces.Re
       log.warn("Flavor creation is supported for OpenStack only at the moment");
     }
   }
+
+  /** Waits for the launch, failing with the exception of the launch itself. */
+  private static VNFCInstance getResult(Future<VNFCInstance> launch) throws Exception {
+    try {
+      return launch.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      }
+      throw e;
+    }
+  }
 }
@@ -23,10 +23,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.openbaton.catalogue.mano.common.DeploymentFlavour;
-import org.openbaton.catalogue.mano.descriptor.VNFComponent;
 import org.openbaton.catalogue.mano.descriptor.VirtualDeploymentUnit;
 import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
-import org.openbaton.catalogue.nfvo.Quota;
 import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
 import org.openbaton.catalogue.nfvo.viminstances.OpenstackVimInstance;
 import org.openbaton.exceptions.PluginException;
@@ -50,6 +48,7 @@ public class VNFLifecycleOperationGranting
   private final Logger log = LoggerFactory.getLogger(this.getClass());
   @Autowired private VimBroker vimBroker;
   @Autowired private VimRepository vimInstanceRepository;
+  @Autowired private QuotaLedger quotaLedger;
 
   @Value("${nfvo.quota.check:true}")
   private boolean isQuotaCheckEnabled;
@@ -96,11 +95,14 @@ public class VNFLifecycleOperationGranting
 
     //Check if enough resources are available for the deployment
     log.debug("Checking if enough resources are available on the defined VimInstance.");
+    //VNFCInstances to create on each VimInstance chosen so far, which are reserved for the VNFR
+    Map<BaseVimInstance, Integer> reservedOnVimInstances = new HashMap<>();
     for (VirtualDeploymentUnit virtualDeploymentUnit : virtualNetworkFunctionRecord.getVdu()) {
       BaseVimInstance vimInstanceChosen =
           pickVimInstance(
-              virtualDeploymentUnit.getVimInstanceName(),
+              virtualDeploymentUnit,
               countVDUsOnVimInstances,
+              reservedOnVimInstances,
               virtualNetworkFunctionRecord);
       if (vimInstanceChosen != null) {
         log.info(
@@ -114,10 +116,12 @@ public class VNFLifecycleOperationGranting
   }
 
   private BaseVimInstance pickVimInstance(
-      Collection<String> vimInstanceNames,
+      VirtualDeploymentUnit virtualDeploymentUnit,
       HashMap<BaseVimInstance, Integer> countVDUsOnVimInstances,
+      Map<BaseVimInstance, Integer> reservedOnVimInstances,
       VirtualNetworkFunctionRecord virtualNetworkFunctionRecord)
       throws VimException, PluginException {
+    Collection<String> vimInstanceNames = virtualDeploymentUnit.getVimInstanceName();
     List<BaseVimInstance> vimInstances = null;
     if (countVDUsOnVimInstances.isEmpty()) {
       vimInstances =
@@ -135,11 +139,17 @@ public class VNFLifecycleOperationGranting
               break;
             }
           }
+          //The reservation on the VimInstance covers the VDUs placed there before and this one
+          int instances =
+              reservedOnVimInstances.getOrDefault(vimInstance, 0)
+                  + countVnfcToCreate(virtualDeploymentUnit);
           try {
-            return checkQuotaOnVimInstance(virtualNetworkFunctionRecord, vimInstance);
+            reserve(virtualNetworkFunctionRecord, vimInstance, instances);
           } catch (VimException e) {
             continue;
           }
+          reservedOnVimInstances.put(vimInstance, instances);
+          return vimInstance;
         }
       } catch (Exception e) {
         if (log.isDebugEnabled()) log.error(e.getMessage(), e);
@@ -164,10 +174,32 @@ public class VNFLifecycleOperationGranting
   public BaseVimInstance checkQuotaOnVimInstance(
       VirtualNetworkFunctionRecord virtualNetworkFunctionRecord, BaseVimInstance vimInstance)
       throws VimException, PluginException {
-    if (vimInstance instanceof OpenstackVimInstance) {
-      Quota leftQuota = vimBroker.getLeftQuota(vimInstance);
-      log.debug("Left Quota on VimInstance " + vimInstance.getName() + " at start is " + leftQuota);
+    //All the VNFCInstances still to create are deployed on the given VimInstance
+    int instances = 0;
+    for (VirtualDeploymentUnit virtualDeploymentUnit : virtualNetworkFunctionRecord.getVdu()) {
+      instances += countVnfcToCreate(virtualDeploymentUnit);
+    }
+    reserve(virtualNetworkFunctionRecord, vimInstance, instances);
+    return vimInstance;
+  }
+
+  /** Returns the number of VNFCInstances of the VDU that are not deployed yet. */
+  private static int countVnfcToCreate(VirtualDeploymentUnit virtualDeploymentUnit) {
+    return Math.max(
+        virtualDeploymentUnit.getVnfc().size() - virtualDeploymentUnit.getVnfc_instance().size(),
+        0);
+  }
 
+  /**
+   * Reserves the resources of the VNFCInstances on the VimInstance, replacing what was reserved
+   * there for the VNFR before.
+   */
+  private void reserve(
+      VirtualNetworkFunctionRecord virtualNetworkFunctionRecord,
+      BaseVimInstance vimInstance,
+      int nc)
+      throws VimException, PluginException {
+    if (vimInstance instanceof OpenstackVimInstance) {
       //Fetch the Flavor for getting allocated resources needed
       DeploymentFlavour flavor = null;
       for (DeploymentFlavour currentFlavor : ((OpenstackVimInstance) vimInstance).getFlavours()) {
@@ -181,36 +213,35 @@ public class VNFLifecycleOperationGranting
       if (flavor == null)
         throw new VimException(
             "deployment flavor object is null, it means that there is no PoP supporting the deployment flavour selected");
-      //Subtract needed resources from the left resources
-      int nc = 0;
-
-      for (VirtualDeploymentUnit virtualDeploymentUnit : virtualNetworkFunctionRecord.getVdu()) {
-        for (VNFComponent ignored : virtualDeploymentUnit.getVnfc()) {
-          nc++;
-        }
-      }
 
-      for (int i = 1; i <= nc; i++) {
-        leftQuota.setInstances(leftQuota.getInstances() - 1);
-        leftQuota.setCores(leftQuota.getCores() - flavor.getVcpus());
-        leftQuota.setRam(leftQuota.getRam() - flavor.getRam());
-        log.debug(
-            "Left Quota on VimInstance "
-                + vimInstance.getName()
-                + " after considering VDU is "
-                + leftQuota);
-      }
-
-      //If one value is negative, it is not possible to deploy the VNFR on (at least on one VimInstance) -> return false
-      if (leftQuota.getInstances() < 0 || leftQuota.getRam() < 0 || leftQuota.getCores() < 0) {
+      //Reserve the needed resources, fails if one of the left values would become negative
+      try {
+        quotaLedger.reserve(
+            vimInstance,
+            virtualNetworkFunctionRecord.getId(),
+            nc,
+            nc * flavor.getVcpus(),
+            nc * flavor.getRam());
+      } catch (VimException e) {
         log.error(
             "Not enough resources are available to deploy VNFR "
-                + virtualNetworkFunctionRecord.getName());
+                + virtualNetworkFunctionRecord.getName()
+                + ": "
+                + e.getMessage());
         throw new VimException(
             "Not enough resources are available to deploy VNFR "
                 + virtualNetworkFunctionRecord.getName());
       }
     }
-    return vimInstance;
+  }
+
+  @Override
+  public void confirmReservation(VirtualNetworkFunctionRecord virtualNetworkFunctionRecord) {
+    quotaLedger.confirm(virtualNetworkFunctionRecord.getId());
+  }
+
+  @Override
+  public void releaseReservation(VirtualNetworkFunctionRecord virtualNetworkFunctionRecord) {
+    quotaLedger.release(virtualNetworkFunctionRecord.getId());
   }
 }
@@ -20,14 +20,17 @@ package org.openbaton.nfvo.core.events;
 /** Created by lto on 03/06/15. */
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
-import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.openbaton.catalogue.nfvo.ApplicationEventNFVO;
+import org.openbaton.catalogue.nfvo.EndpointType;
 import org.openbaton.catalogue.nfvo.EventEndpoint;
 import org.openbaton.catalogue.util.BaseEntity;
 import org.openbaton.exceptions.MissingParameterException;
 import org.openbaton.exceptions.NotFoundException;
 import org.openbaton.nfvo.common.internal.model.EventNFVO;
+import org.openbaton.nfvo.core.events.senders.EventDelivery;
 import org.openbaton.nfvo.core.interfaces.EventSender;
 import org.openbaton.nfvo.repositories.EventEndpointRepository;
 import org.slf4j.Logger;
@@ -51,9 +54,14 @@ class EventDispatcher
 
   private final Logger log = LoggerFactory.getLogger(this.getClass());
   private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+  private final Gson eventGson = new Gson();
   @Autowired private EventEndpointRepository eventEndpointRepository;
   @Autowired private ConfigurableApplicationContext context;
   @Autowired private org.openbaton.nfvo.core.interfaces.EventManagement eventManagement;
+  @Autowired private EventSubscriptionRegistry subscriptionRegistry;
+  @Autowired private EventDelivery eventDelivery;
+
+  private final Map<EndpointType, EventSender> senders = new ConcurrentHashMap<>();
 
   @Override
   public EventEndpoint register(String endpoint_json) throws MissingParameterException {
@@ -69,32 +77,26 @@ class EventDispatcher
   }
 
   private boolean endpointAlreadyExists(EventEndpoint endpoint) {
-    Iterable<EventEndpoint> endpoints = eventEndpointRepository.findAll();
-
-    for (EventEndpoint currentEndpoint : endpoints) {
-      if (currentEndpoint.equals(endpoint)) {
-        log.info("Such Endpoint already registered: " + currentEndpoint);
-        return true;
-      }
+    EventEndpoint registered = subscriptionRegistry.findEqual(endpoint);
+    if (registered != null) {
+      log.info("Such Endpoint already registered: " + registered);
+      return true;
     }
     return false;
   }
 
   private EventEndpoint getEndpointAlreadyRegistered(EventEndpoint endpoint) {
-    Iterable<EventEndpoint> endpoints = eventEndpointRepository.findAll();
-
-    for (EventEndpoint currentEndpoint : endpoints) {
-      if (currentEndpoint.equals(endpoint)) {
-        return currentEndpoint;
-      }
+    EventEndpoint registered = subscriptionRegistry.findEqual(endpoint);
+    if (registered == null) {
+      log.error("This endpoint is not already registered: " + endpoint);
     }
-    log.error("This endpoint is not already registered: " + endpoint);
-    return null;
+    return registered;
   }
 
   private EventEndpoint saveEventEndpoint(EventEndpoint endpoint) {
 
     EventEndpoint save = eventEndpointRepository.save(endpoint);
+    subscriptionRegistry.add(save);
     log.info("Registered event endpoint" + save);
 
     eventManagement.removeUnreachableEndpoints();
@@ -113,47 +115,32 @@ class EventDispatcher
     log.trace("dispatching event to the world!!!");
     log.trace("event is: " + event);
 
-    Iterable<EventEndpoint> endpoints = eventEndpointRepository.findAll();
-
+    ApplicationEventNFVO applicationEvent = event.getEventNFVO();
+    BaseEntity entity = (BaseEntity) applicationEvent.getPayload();
+    Collection<EventEndpoint> endpoints =
+        subscriptionRegistry.find(applicationEvent.getAction(), entity);
+    if (endpoints.isEmpty()) {
+      return;
+    }
+    String body =
+        "{\"action\":\""
+            + applicationEvent.getAction()
+            + "\",\"payload\":"
+            + eventGson.toJson(applicationEvent.getPayload())
+            + "}";
     for (EventEndpoint endpoint : endpoints) {
-      log.trace("Checking endpoint: " + endpoint);
-      BaseEntity entity = (BaseEntity) event.getEventNFVO().getPayload();
-      if (endpoint.getProjectId().equals("*")
-          || endpoint.getProjectId().equals(entity.getProjectId())) {
-        if (endpoint.getEvent().ordinal() == event.getEventNFVO().getAction().ordinal()) {
-          if (endpoint.getVirtualNetworkFunctionId() != null
-              && !endpoint.getVirtualNetworkFunctionId().equals("")) {
-            if (event.getEventNFVO().getPayload() instanceof VirtualNetworkFunctionRecord) {
-              VirtualNetworkFunctionRecord virtualNetworkFunctionRecord =
-                  (VirtualNetworkFunctionRecord) event.getEventNFVO().getPayload();
-              if (virtualNetworkFunctionRecord
-                  .getId()
-                  .equals(endpoint.getVirtualNetworkFunctionId())) {
-                sendEvent(endpoint, event.getEventNFVO());
-              }
-            }
-          } else if (endpoint.getNetworkServiceId() != null
-              && !endpoint.getNetworkServiceId().equals("")) {
-            if (event.getEventNFVO().getPayload() instanceof NetworkServiceRecord) {
-              NetworkServiceRecord networkServiceRecord =
-                  (NetworkServiceRecord) event.getEventNFVO().getPayload();
-              if (networkServiceRecord.getId().equals(endpoint.getNetworkServiceId())) {
-                sendEvent(endpoint, event.getEventNFVO());
-              }
-            }
-          } else {
-            sendEvent(endpoint, event.getEventNFVO());
-          }
-        }
-      }
+      log.trace("Sending to endpoint: " + endpoint);
+      sendEvent(endpoint, applicationEvent, body);
     }
   }
 
-  private void sendEvent(EventEndpoint endpoint, ApplicationEventNFVO event) {
+  private void sendEvent(EventEndpoint endpoint, ApplicationEventNFVO event, String body) {
     EventSender sender =
-        (EventSender) context.getBean(endpoint.getType().toString().toLowerCase() + "EventSender");
+        senders.computeIfAbsent(
+            endpoint.getType(),
+            type -> (EventSender) context.getBean(type.toString().toLowerCase() + "EventSender"));
     log.trace("Sender is: " + sender.getClass().getSimpleName());
-    sender.send(endpoint, event);
+    sender.send(endpoint, event, body);
   }
 
   @Override
@@ -163,5 +150,7 @@ class EventDispatcher
     if (endpoint == null) throw new NotFoundException("No event found with ID " + id);
     log.info("Removing EventEndpoint with id: " + id);
     eventEndpointRepository.delete(id);
+    subscriptionRegistry.remove(id);
+    eventDelivery.forget(id);
   }
 }
@@ -27,6 +27,7 @@ import org.openbaton.catalogue.nfvo.EndpointType;
 import org.openbaton.catalogue.nfvo.EventEndpoint;
 import org.openbaton.exceptions.NotFoundException;
 import org.openbaton.nfvo.common.utils.rabbit.RabbitManager;
+import org.openbaton.nfvo.core.events.senders.EventDelivery;
 import org.openbaton.nfvo.repositories.EventEndpointRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +49,8 @@ public class EventManagement implements org.openbaton.nfvo.core.interfaces.Event
   private String brokerIp;
 
   @Autowired private EventEndpointRepository eventEndpointRepository;
+  @Autowired private EventSubscriptionRegistry subscriptionRegistry;
+  @Autowired private EventDelivery eventDelivery;
 
   private final Logger log = LoggerFactory.getLogger(this.getClass());
 
@@ -73,7 +76,7 @@ public class EventManagement implements org.openbaton.nfvo.core.interfaces.Event
   }
 
   @Override
-  @Async
+  @Async("housekeepingExecutor")
   public Future<Void> removeUnreachableEndpoints() {
     log.debug("Checking for unreachable events");
     Iterable<EventEndpoint> eventEndpoints = eventEndpointRepository.findAll();
@@ -83,8 +86,7 @@ public class EventManagement implements org.openbaton.nfvo.core.interfaces.Event
         try {
           URL url = new URL(eventEndpoint.getEndpoint());
           if (!pingHost(url.getHost(), url.getPort(), 3000)) {
-            log.warn("Event endpoint " + eventEndpoint + " is not there anymore.");
-            eventEndpointRepository.delete(eventEndpoint.getId());
+            removeEndpoint(eventEndpoint);
           }
         } catch (MalformedURLException e) {
           e.printStackTrace();
@@ -94,8 +96,7 @@ public class EventManagement implements org.openbaton.nfvo.core.interfaces.Event
           if (!RabbitManager.getQueues(
                   brokerIp.trim(), username, password, virtualHost, managementPort)
               .contains(eventEndpoint.getEndpoint())) {
-            log.warn("Event endpoint " + eventEndpoint + " is not there anymore.");
-            eventEndpointRepository.delete(eventEndpoint.getId());
+            removeEndpoint(eventEndpoint);
           }
         } catch (IOException e) {
           log.error("Error while retrieving queues: " + e.getLocalizedMessage());
@@ -105,6 +106,14 @@ public class EventManagement implements org.openbaton.nfvo.core.interfaces.Event
     return new AsyncResult<>(null);
   }
 
+  /** Removes the endpoint together with its subscriptions and its delivery queue. */
+  private void removeEndpoint(EventEndpoint eventEndpoint) {
+    log.warn("Event endpoint " + eventEndpoint + " is not there anymore.");
+    eventEndpointRepository.delete(eventEndpoint.getId());
+    subscriptionRegistry.remove(eventEndpoint.getId());
+    eventDelivery.forget(eventEndpoint.getId());
+  }
+
   @Override
   public Iterable<EventEndpoint> query(String projectId) {
     return eventEndpointRepository.findByProjectId(projectId);
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.core.events;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+import org.openbaton.catalogue.nfvo.Action;
+import org.openbaton.catalogue.nfvo.EventEndpoint;
+import org.openbaton.catalogue.util.BaseEntity;
+import org.openbaton.nfvo.repositories.EventEndpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the registered event endpoints in memory, indexed by action, project and the NSR or VNFR
+ * they are subscribed to. Dispatching an event only looks up the few buckets that can match it
+ * instead of reading all the endpoints from the database.
+ *
+ * <p>The index is loaded from the database on first use and afterwards kept up to date by {@link
+ * #add(EventEndpoint)} and {@link #remove(String)}, so every change to the stored endpoints has to
+ * go through them.
+ */
+@Service
+class EventSubscriptionRegistry {
+
+  private static final String ANY_PROJECT = "*";
+  private static final String ANY_TARGET = "";
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  @Autowired private EventEndpointRepository eventEndpointRepository;
+
+  private final Map<List<String>, Map<String, EventEndpoint>> subscriptions =
+      new ConcurrentHashMap<>();
+  private final Map<String, List<String>> keysById = new ConcurrentHashMap<>();
+  private volatile boolean loaded = false;
+
+  /** Returns the endpoints subscribed to the action of the event on its payload. */
+  public Collection<EventEndpoint> find(Action action, BaseEntity payload) {
+    load();
+    List<String> targets = new ArrayList<>();
+    targets.add(ANY_TARGET);
+    if (payload instanceof VirtualNetworkFunctionRecord) {
+      targets.add(vnfrTarget(payload.getId()));
+    } else if (payload instanceof NetworkServiceRecord) {
+      targets.add(nsrTarget(payload.getId()));
+    }
+    List<String> projects = new ArrayList<>();
+    projects.add(ANY_PROJECT);
+    if (payload.getProjectId() != null && !payload.getProjectId().equals(ANY_PROJECT)) {
+      projects.add(payload.getProjectId());
+    }
+
+    List<EventEndpoint> endpoints = new ArrayList<>();
+    for (String projectId : projects) {
+      for (String target : targets) {
+        Map<String, EventEndpoint> bucket = subscriptions.get(key(action, projectId, target));
+        if (bucket != null) {
+          endpoints.addAll(bucket.values());
+        }
+      }
+    }
+    return endpoints;
+  }
+
+  /** Returns the registered endpoint equal to the given one, or null if there is none. */
+  public EventEndpoint findEqual(EventEndpoint endpoint) {
+    load();
+    Map<String, EventEndpoint> bucket = subscriptions.get(key(endpoint));
+    if (bucket != null) {
+      for (EventEndpoint registered : bucket.values()) {
+        if (registered.equals(endpoint)) {
+          return registered;
+        }
+      }
+    }
+    return null;
+  }
+
+  /** Adds the endpoint, which must be already saved, to the index. */
+  public synchronized void add(EventEndpoint endpoint) {
+    load();
+    index(endpoint);
+  }
+
+  /** Removes the endpoint with the given id from the index. */
+  public synchronized void remove(String id) {
+    List<String> key = keysById.remove(id);
+    if (key != null) {
+      Map<String, EventEndpoint> bucket = subscriptions.get(key);
+      if (bucket != null) {
+        bucket.remove(id);
+        if (bucket.isEmpty()) {
+          subscriptions.remove(key);
+        }
+      }
+    }
+  }
+
+  private void load() {
+    if (loaded) {
+      return;
+    }
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      int count = 0;
+      for (EventEndpoint endpoint : eventEndpointRepository.findAll()) {
+        index(endpoint);
+        count++;
+      }
+      log.debug("Loaded " + count + " event endpoints");
+      loaded = true;
+    }
+  }
+
+  private void index(EventEndpoint endpoint) {
+    List<String> key = key(endpoint);
+    List<String> previous = keysById.put(endpoint.getId(), key);
+    if (previous != null && !previous.equals(key)) {
+      Map<String, EventEndpoint> bucket = subscriptions.get(previous);
+      if (bucket != null) {
+        bucket.remove(endpoint.getId());
+      }
+    }
+    subscriptions
+        .computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+        .put(endpoint.getId(), endpoint);
+  }
+
+  /**
+   * An endpoint with a VNFR id only receives events about that VNFR, otherwise one with a NSR id
+   * only receives events about that NSR, otherwise it receives the events about everything.
+   */
+  private static List<String> key(EventEndpoint endpoint) {
+    String target = ANY_TARGET;
+    if (endpoint.getVirtualNetworkFunctionId() != null
+        && !endpoint.getVirtualNetworkFunctionId().equals("")) {
+      target = vnfrTarget(endpoint.getVirtualNetworkFunctionId());
+    } else if (endpoint.getNetworkServiceId() != null
+        && !endpoint.getNetworkServiceId().equals("")) {
+      target = nsrTarget(endpoint.getNetworkServiceId());
+    }
+    return key(endpoint.getEvent(), endpoint.getProjectId(), target);
+  }
+
+  private static List<String> key(Action action, String projectId, String target) {
+    return Arrays.asList(action.name(), projectId, target);
+  }
+
+  private static String vnfrTarget(String vnfrId) {
+    return "vnfr:" + vnfrId;
+  }
+
+  private static String nsrTarget(String nsrId) {
+    return "nsr:" + nsrId;
+  }
+}
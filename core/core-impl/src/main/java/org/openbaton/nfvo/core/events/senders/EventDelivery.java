@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.core.events.senders;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openbaton.catalogue.nfvo.EventEndpoint;
+import org.openbaton.nfvo.common.utils.scheduler.DelayedTaskScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Delivers the events to the endpoints through one bounded queue per endpoint. At most one task
+ * per endpoint runs on the event executor at a time, taking up to a batch of events from the queue,
+ * so a slow or unreachable endpoint only delays its own events. Failed deliveries are retried with
+ * an exponential backoff, waiting on the {@link DelayedTaskScheduler} without holding a thread;
+ * events are dropped when the queue of the endpoint is full or the retries are exhausted.
+ */
+@Service
+public class EventDelivery implements PublicMetrics {
+
+  /** Sends a batch of serialized events to an endpoint, throwing if it was not delivered. */
+  public interface Transport {
+    void deliver(EventEndpoint endpoint, List<String> bodies) throws Exception;
+  }
+
+  /** Batches delivered by a task before the endpoint is handed over to a new task. */
+  private static final int BATCHES_PER_TASK = 10;
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  @Value("${nfvo.events.delivery.queue.size:1000}")
+  private int queueSize;
+
+  @Value("${nfvo.events.delivery.batch.size:1}")
+  private int batchSize;
+
+  @Value("${nfvo.events.delivery.retries:5}")
+  private int retries;
+
+  @Value("${nfvo.events.delivery.backoff:1000}")
+  private long backoff;
+
+  @Value("${nfvo.events.delivery.backoff.max:60000}")
+  private long maxBackoff;
+
+  @Autowired
+  @Qualifier("eventExecutor")
+  private ThreadPoolTaskExecutor eventExecutor;
+
+  @Autowired private DelayedTaskScheduler delayedTaskScheduler;
+
+  private final Map<String, EndpointQueue> queues = new ConcurrentHashMap<>();
+
+  /** Queues the serialized event for the endpoint and returns immediately. */
+  public void enqueue(EventEndpoint endpoint, String body, Transport transport) {
+    EndpointQueue queue =
+        queues.computeIfAbsent(endpoint.getId(), id -> new EndpointQueue(endpoint, transport));
+    if (!queue.events.offer(body)) {
+      queue.dropped.incrementAndGet();
+      log.warn("Event queue of endpoint " + endpoint.getName() + " is full, dropping event");
+      return;
+    }
+    queue.queued.incrementAndGet();
+    drainLater(queue);
+  }
+
+  /** Drops the queue of an endpoint that was unregistered, the events still queued are lost. */
+  public void forget(String endpointId) {
+    EndpointQueue queue = queues.remove(endpointId);
+    if (queue != null) {
+      queue.events.clear();
+    }
+  }
+
+  private void drainLater(EndpointQueue queue) {
+    if (!queue.events.isEmpty() && queue.draining.compareAndSet(false, true)) {
+      try {
+        eventExecutor.execute(() -> drain(queue, null, 1));
+      } catch (RejectedExecutionException e) {
+        queue.draining.set(false);
+        log.error("Not able to deliver events to " + queue.endpoint.getName() + ": " + e);
+      }
+    }
+  }
+
+  /**
+   * Delivers the batch being retried, if any, then the next batches of the queue, at most {@link
+   * #BATCHES_PER_TASK} in total so that a busy endpoint does not keep the thread. Unless a retry
+   * was scheduled, the endpoint is released at the end and a new task is submitted if events are
+   * left.
+   */
+  private void drain(EndpointQueue queue, List<String> retried, int attempt) {
+    boolean retrying = false;
+    try {
+      List<String> batch = retried;
+      for (int i = 0; i < BATCHES_PER_TASK; i++) {
+        if (queues.get(queue.endpoint.getId()) != queue) {
+          log.debug("Endpoint " + queue.endpoint.getName() + " was removed, dropping its events");
+          return;
+        }
+        if (batch == null) {
+          batch = new ArrayList<>();
+          queue.events.drainTo(batch, Math.max(batchSize, 1));
+          if (batch.isEmpty()) {
+            return;
+          }
+          attempt = 1;
+        }
+        if (!deliver(queue, batch, attempt)) {
+          retrying = true;
+          return;
+        }
+        batch = null;
+      }
+    } finally {
+      if (!retrying) {
+        queue.draining.set(false);
+        // events may be left or have been queued after the queue was found empty
+        drainLater(queue);
+      }
+    }
+  }
+
+  /** Returns false if the delivery failed and a retry was scheduled. */
+  private boolean deliver(EndpointQueue queue, List<String> batch, int attempt) {
+    try {
+      queue.transport.deliver(queue.endpoint, batch);
+      queue.delivered.addAndGet(batch.size());
+      return true;
+    } catch (Exception e) {
+      if (attempt > retries) {
+        queue.failed.addAndGet(batch.size());
+        log.warn(
+            "Impossible to deliver "
+                + batch.size()
+                + " events to endpoint "
+                + queue.endpoint.getName()
+                + " at "
+                + queue.endpoint.getEndpoint()
+                + " after "
+                + attempt
+                + " attempts: "
+                + e.getMessage());
+        return true;
+      }
+      queue.retried.incrementAndGet();
+      long delay = Math.min(backoff << Math.min(attempt - 1, 30), maxBackoff);
+      log.debug(
+          "Delivery to endpoint "
+              + queue.endpoint.getName()
+              + " failed, retrying in "
+              + delay
+              + " ms: "
+              + e.getMessage());
+      delayedTaskScheduler.schedule(
+          () -> retryLater(queue, batch, attempt + 1), delay, TimeUnit.MILLISECONDS);
+      return false;
+    }
+  }
+
+  private void retryLater(EndpointQueue queue, List<String> batch, int attempt) {
+    try {
+      eventExecutor.execute(() -> drain(queue, batch, attempt));
+    } catch (RejectedExecutionException e) {
+      queue.failed.addAndGet(batch.size());
+      queue.draining.set(false);
+      log.error("Not able to deliver events to " + queue.endpoint.getName() + ": " + e);
+    }
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    Collection<Metric<?>> metrics = new ArrayList<>();
+    for (EndpointQueue queue : queues.values()) {
+      String prefix = "nfvo.events.delivery." + queue.endpoint.getName() + ".";
+      metrics.add(new Metric<>(prefix + "queued", queue.queued.get()));
+      metrics.add(new Metric<>(prefix + "delivered", queue.delivered.get()));
+      metrics.add(new Metric<>(prefix + "retried", queue.retried.get()));
+      metrics.add(new Metric<>(prefix + "failed", queue.failed.get()));
+      metrics.add(new Metric<>(prefix + "dropped", queue.dropped.get()));
+      metrics.add(new Metric<>(prefix + "pending", queue.events.size()));
+    }
+    return metrics;
+  }
+
+  private class EndpointQueue {
+    private final EventEndpoint endpoint;
+    private final Transport transport;
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>(Math.max(queueSize, 1));
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private EndpointQueue(EventEndpoint endpoint, Transport transport) {
+      this.endpoint = endpoint;
+      this.transport = transport;
+    }
+  }
+}
@@ -17,7 +17,7 @@
 
 package org.openbaton.nfvo.core.events.senders;
 
-import com.google.gson.Gson;
+import java.util.List;
 import java.util.concurrent.Future;
 import org.openbaton.catalogue.nfvo.ApplicationEventNFVO;
 import org.openbaton.catalogue.nfvo.EventEndpoint;
@@ -27,7 +27,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.stereotype.Service;
 
@@ -37,23 +36,21 @@ import org.springframework.stereotype.Service;
 public class RabbitEventSender implements EventSender {
 
   @Autowired private RabbitTemplate rabbitTemplate;
+  @Autowired private EventDelivery eventDelivery;
   private final Logger log = LoggerFactory.getLogger(this.getClass());
 
   @Override
-  @Async
-  public Future<Void> send(EventEndpoint endpoint, final ApplicationEventNFVO event) {
-
+  public Future<Void> send(EventEndpoint endpoint, ApplicationEventNFVO event, String body) {
     log.debug("Sending message: " + event + " to endpoint: " + endpoint);
     log.info("Sending message: " + event.getAction() + " to endpoint: " + endpoint.getName());
-    final String json =
-        "{\"action\":\""
-            + event.getAction()
-            + "\",\"payload\":"
-            + new Gson().toJson(event.getPayload())
-            + "}";
-    log.trace("Event body is: " + json);
-    rabbitTemplate.convertAndSend(endpoint.getEndpoint(), json);
-
+    eventDelivery.enqueue(endpoint, body, this::deliver);
     return new AsyncResult<>(null);
   }
+
+  private void deliver(EventEndpoint endpoint, List<String> bodies) {
+    for (String body : bodies) {
+      log.trace("Event body is: " + body);
+      rabbitTemplate.convertAndSend(endpoint.getEndpoint(), body);
+    }
+  }
 }
@@ -17,64 +17,109 @@
 
 package org.openbaton.nfvo.core.events.senders;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.Future;
-import org.apache.http.HttpResponse;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
 import org.openbaton.catalogue.nfvo.ApplicationEventNFVO;
 import org.openbaton.catalogue.nfvo.EventEndpoint;
 import org.openbaton.nfvo.core.interfaces.EventSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.stereotype.Service;
 
+/**
+ * Posts the events to the REST endpoints over a pool of keep-alive connections. When more than one
+ * event is delivered at once (nfvo.events.delivery.batch.size greater than 1) they are posted as a
+ * JSON array.
+ */
 @Service
 @Scope
 public class RestEventSender implements EventSender {
 
   private final Logger log = LoggerFactory.getLogger(this.getClass());
 
+  @Value("${nfvo.events.rest.connections:100}")
+  private int maxConnections;
+
+  @Value("${nfvo.events.rest.connections.per.endpoint:5}")
+  private int maxConnectionsPerEndpoint;
+
+  @Value("${nfvo.events.rest.timeout:5000}")
+  private int timeout;
+
+  @Autowired private EventDelivery eventDelivery;
+
+  private CloseableHttpClient httpClient;
+
+  @PostConstruct
+  private void init() {
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(maxConnections);
+    connectionManager.setDefaultMaxPerRoute(maxConnectionsPerEndpoint);
+    RequestConfig requestConfig =
+        RequestConfig.custom()
+            .setConnectTimeout(timeout)
+            .setConnectionRequestTimeout(timeout)
+            .setSocketTimeout(timeout)
+            .build();
+    httpClient =
+        HttpClientBuilder.create()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .build();
+  }
+
+  @PreDestroy
+  private void destroy() throws IOException {
+    httpClient.close();
+  }
+
   @Override
-  @Async
-  public Future<Void> send(EventEndpoint endpoint, ApplicationEventNFVO event) {
+  public Future<Void> send(EventEndpoint endpoint, ApplicationEventNFVO event, String body) {
     log.debug("Sending message: " + event + " to endpoint: " + endpoint);
-    try (CloseableHttpClient httpClient = HttpClientBuilder.create().build()) {
-      Gson mapper = new GsonBuilder().create();
-      String json =
-          "{\"action\":\""
-              + event.getAction()
-              + "\",\"payload\":"
-              + mapper.toJson(event.getPayload())
-              + "}";
+    eventDelivery.enqueue(endpoint, body, this::deliver);
+    return new AsyncResult<>(null);
+  }
 
-      log.trace("body is: " + json);
+  private void deliver(EventEndpoint endpoint, List<String> bodies) throws IOException {
+    String json = bodies.size() == 1 ? bodies.get(0) : "[" + String.join(",", bodies) + "]";
+    log.trace("body is: " + json);
 
-      log.trace("Invoking POST on URL: " + endpoint.getEndpoint());
-      HttpPost request = new HttpPost(endpoint.getEndpoint());
-      request.addHeader("content-type", "application/json");
-      request.addHeader("accept", "application/json");
-      StringEntity params = new StringEntity(json);
-      request.setEntity(params);
-      HttpResponse response = httpClient.execute(request);
+    log.trace("Invoking POST on URL: " + endpoint.getEndpoint());
+    HttpPost request = new HttpPost(endpoint.getEndpoint());
+    request.addHeader("accept", "application/json");
+    request.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+    try (CloseableHttpResponse response = httpClient.execute(request)) {
+      // the entity has to be consumed for the connection to go back to the pool
+      EntityUtils.consume(response.getEntity());
+      int status = response.getStatusLine().getStatusCode();
       log.trace(
           String.format(
-              "Response status is [%d]: %s",
-              response.getStatusLine().getStatusCode(),
-              response.getStatusLine().getReasonPhrase()));
-    } catch (Exception ignored) {
-      log.warn(
-          "Impossible to reach the endpoint with name: "
-              + endpoint.getName()
-              + " via rest POST at url:"
-              + endpoint.getEndpoint());
+              "Response status is [%d]: %s", status, response.getStatusLine().getReasonPhrase()));
+      if (status >= 300) {
+        throw new IOException(
+            "Endpoint "
+                + endpoint.getName()
+                + " answered with status "
+                + status
+                + " "
+                + response.getStatusLine().getReasonPhrase());
+      }
     }
-    return new AsyncResult<>(null);
   }
 }
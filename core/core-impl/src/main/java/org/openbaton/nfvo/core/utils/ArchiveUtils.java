@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.core.utils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.utils.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Helpers to process uploaded archives without holding them in memory: the upload is spooled to a
+ * temporary file that can be walked more than once, and only the entries that are needed are read.
+ */
+public class ArchiveUtils {
+
+  private static final Logger log = LoggerFactory.getLogger(ArchiveUtils.class);
+
+  /**
+   * Copies the stream to a temporary file, the caller has to delete it with {@link #delete(Path)}.
+   */
+  public static Path spool(InputStream in, String prefix) throws IOException {
+    Path file = Files.createTempFile(prefix, ".tmp");
+    try {
+      long size = Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+      log.debug("Spooled " + size + " bytes to " + file);
+    } catch (IOException e) {
+      delete(file);
+      throw e;
+    }
+    return file;
+  }
+
+  public static void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Not able to delete temporary file " + file + ": " + e.getMessage());
+    }
+  }
+
+  public static ArchiveInputStream openTar(Path file) throws IOException, ArchiveException {
+    return openTar(new BufferedInputStream(Files.newInputStream(file)));
+  }
+
+  public static ArchiveInputStream openTar(InputStream in) throws ArchiveException {
+    return new ArchiveStreamFactory().createArchiveInputStream("tar", in);
+  }
+
+  /** Reads the whole current entry of the archive. */
+  public static byte[] readEntry(ArchiveInputStream archive) throws IOException {
+    return IOUtils.toByteArray(archive);
+  }
+}
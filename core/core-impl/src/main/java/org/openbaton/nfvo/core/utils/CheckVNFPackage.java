@@ -1,13 +1,13 @@
 package org.openbaton.nfvo.core.utils;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
-import org.apache.commons.compress.archivers.ArchiveStreamFactory;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.openbaton.exceptions.IncompatibleVNFPackage;
 import org.openbaton.exceptions.NotFoundException;
@@ -79,32 +79,46 @@ public class CheckVNFPackage {
     }
   }
 
-  public static void checkStructure(byte[] archive, boolean imageIncluded, boolean fromMarketPlace)
+  /** Checks the structure of a VNF Package spooled to a file, reading only the metadata. */
+  public static void checkStructure(Path archive, boolean imageIncluded, boolean fromMarketPlace)
       throws VNFPackageFormatException {
+    try {
+      if (Files.size(archive) == 0) throw new VNFPackageFormatException("VnfPackage null or empty");
+    } catch (IOException e) {
+      throw new VNFPackageFormatException("Error reading the VNF package: " + e.getMessage(), e);
+    }
+
+    try (ArchiveInputStream tarFile = ArchiveUtils.openTar(archive)) {
+      checkStructure(tarFile, imageIncluded, fromMarketPlace);
+    } catch (ArchiveException e) {
+      throw new VNFPackageFormatException(
+          "Error opening the VNF package, ensure the extension is .tar and the archive is not corrupted",
+          e);
+    } catch (IOException e) {
+      throw new VNFPackageFormatException(
+          "Error reading the VNF package, ensure the archive is not corrupted", e);
+    }
+  }
 
-    if (archive == null || archive.length == 0)
-      throw new VNFPackageFormatException("VnfPackage null or empty");
+  private static void checkStructure(
+      ArchiveInputStream tarFile, boolean imageIncluded, boolean fromMarketPlace)
+      throws VNFPackageFormatException {
 
     boolean vnfdFound = false;
     boolean metadataFound = false;
 
-    try (ArchiveInputStream tarFile =
-        new ArchiveStreamFactory()
-            .createArchiveInputStream("tar", new ByteArrayInputStream(archive))) {
+    try {
       TarArchiveEntry entry;
       while ((entry = (TarArchiveEntry) tarFile.getNextEntry()) != null) {
         if (entry.isFile() && !entry.getName().startsWith("./._")) {
           log.debug("file inside tar: " + entry.getName());
 
-          byte[] content = new byte[(int) entry.getSize()];
-          tarFile.read(content, 0, content.length);
-
           if (entry.getName().equalsIgnoreCase("metadata.yaml")) {
             metadataFound = true;
 
             Map<String, Object> metadata;
             try {
-              metadata = Utils.getMapFromYamlFile(content);
+              metadata = Utils.getMapFromYamlFile(ArchiveUtils.readEntry(tarFile));
             } catch (IOException ioe) {
               throw new VNFPackageFormatException(
                   "Error reading the Metadata.yaml file: " + ioe.getMessage(), ioe);
@@ -199,8 +213,6 @@ public class CheckVNFPackage {
           } else if (!entry.getName().startsWith("scripts/") && entry.getName().endsWith(".json")) {
             //this must be the vnfd
             vnfdFound = true;
-            String json = new String(content);
-            log.trace("Content of vnfd is: " + json);
 
           } else if (entry.getName().endsWith(".img")) {
             throw new VNFPackageFormatException(
@@ -208,10 +220,6 @@ public class CheckVNFPackage {
           }
         }
       }
-    } catch (ArchiveException e) {
-      throw new VNFPackageFormatException(
-          "Error opening the VNF package, ensure the extension is .tar and the archive is not corrupted",
-          e);
     } catch (IOException e) {
       throw new VNFPackageFormatException(
           "Error reading the VNF package, ensure the archive is not corrupted", e);
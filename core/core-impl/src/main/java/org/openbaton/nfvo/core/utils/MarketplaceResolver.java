@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.core.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import javax.annotation.PostConstruct;
+import org.openbaton.exceptions.NotFoundException;
+import org.openbaton.nfvo.common.utils.lock.StripedLockManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Looks up and downloads VNF packages from the marketplace, all the packages of a request in
+ * parallel. The downloaded packages are kept in a local cache together with their ETag, so a
+ * package already downloaded is only revalidated, and still used when the marketplace cannot be
+ * reached. The packages not used for a while, or the least recently used ones once the cache is
+ * too large, are removed after each download.
+ */
+@Service
+public class MarketplaceResolver {
+
+  /** Milliseconds a package is kept in the cache after it was used, whatever the limits. */
+  private static final long EVICTION_GRACE = TimeUnit.MINUTES.toMillis(10);
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  @Value("${nfvo.marketplace.ip:marketplace.openbaton.org}")
+  private String marketIp;
+
+  @Value("${nfvo.marketplace.port:8082}")
+  private int marketPort;
+
+  @Value("${nfvo.marketplace.timeout:10000}")
+  private int timeout;
+
+  @Value("${nfvo.marketplace.cache.dir:${nfvo.data.dir:/tmp/openbaton}/marketplace-cache}")
+  private String cacheDir;
+
+  /** Days after which a package not used anymore is removed from the cache. */
+  @Value("${nfvo.marketplace.cache.max-age:30}")
+  private int cacheMaxAge;
+
+  /** Megabytes the cached packages may take. */
+  @Value("${nfvo.marketplace.cache.max-size:1024}")
+  private long cacheMaxSize;
+
+  @Autowired
+  @Qualifier("marketplaceExecutor")
+  private ThreadPoolTaskExecutor marketplaceExecutor;
+
+  @Autowired private StripedLockManager stripedLockManager;
+
+  private Path cache;
+
+  @PostConstruct
+  private void init() throws IOException {
+    cache = Paths.get(cacheDir).toAbsolutePath();
+    Files.createDirectories(cache);
+  }
+
+  /**
+   * Checks which of the packages are available on the marketplace.
+   *
+   * @param ids the ids of the packages in the format vendor/name/version
+   * @return the ids of the packages that are not available
+   */
+  public List<String> findMissing(Collection<String> ids) throws InterruptedException {
+    Map<String, Future<Boolean>> checks = new LinkedHashMap<>();
+    for (String id : ids) {
+      // a cached package is used also when the marketplace cannot be reached
+      if (Files.exists(getCachedPath(id))) {
+        continue;
+      }
+      checks.put(id, marketplaceExecutor.submit(() -> isAvailable(id)));
+    }
+    List<String> missing = new ArrayList<>();
+    for (Map.Entry<String, Future<Boolean>> check : checks.entrySet()) {
+      try {
+        if (!check.getValue().get()) {
+          missing.add(check.getKey());
+        }
+      } catch (ExecutionException e) {
+        log.warn("Marketplace could not be reached: " + e.getCause().getMessage());
+        missing.add(check.getKey());
+      }
+    }
+    return missing;
+  }
+
+  /**
+   * Downloads the packages, or revalidates the ones already in the cache.
+   *
+   * @param ids the ids of the packages in the format vendor/name/version
+   * @return the files of the packages in the cache, by id
+   */
+  public Map<String, Path> download(Collection<String> ids)
+      throws IOException, NotFoundException, InterruptedException {
+    Map<String, Future<Path>> downloads = new LinkedHashMap<>();
+    for (String id : ids) {
+      downloads.put(id, marketplaceExecutor.submit(() -> fetch(id)));
+    }
+    Map<String, Path> packages = new LinkedHashMap<>();
+    for (Map.Entry<String, Future<Path>> download : downloads.entrySet()) {
+      try {
+        packages.put(download.getKey(), download.getValue().get());
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof NotFoundException) {
+          throw (NotFoundException) e.getCause();
+        }
+        throw new IOException(
+            "Not able to download the package " + download.getKey() + " from the marketplace",
+            e.getCause());
+      }
+    }
+    evict(packages.values());
+    return packages;
+  }
+
+  public String getPackageLink(String id) {
+    return "http://" + marketIp + ":" + marketPort + "/api/v1/vnf-packages/" + id;
+  }
+
+  private boolean isAvailable(String id) throws IOException {
+    HttpURLConnection connection = open(getPackageLink(id));
+    try {
+      return connection.getResponseCode() == HttpURLConnection.HTTP_OK;
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  private Path fetch(String id) throws IOException, NotFoundException {
+    Path cached = getCachedPath(id);
+    Path etagFile = getEtagPath(cached);
+
+    // the same package may be requested by several onboardings at the same time
+    Lock lock = stripedLockManager.lock(getLockKey(id));
+    try {
+      String etag = null;
+      if (Files.exists(cached) && Files.exists(etagFile)) {
+        etag = new String(Files.readAllBytes(etagFile), StandardCharsets.UTF_8);
+      }
+      HttpURLConnection connection;
+      int response;
+      try {
+        connection = open(getPackageLink(id) + "/tar");
+        if (etag != null) {
+          connection.setRequestProperty("If-None-Match", etag);
+        }
+        response = connection.getResponseCode();
+      } catch (IOException e) {
+        if (Files.exists(cached)) {
+          log.warn("Marketplace could not be reached, using the cached package " + id);
+          return use(cached);
+        }
+        throw e;
+      }
+      try {
+        if (response == HttpURLConnection.HTTP_NOT_MODIFIED) {
+          log.debug("Package " + id + " did not change on the marketplace");
+          return use(cached);
+        }
+        if (response != HttpURLConnection.HTTP_OK) {
+          throw new NotFoundException(
+              "Not able to download the package " + id + " from the marketplace: " + response);
+        }
+        log.info("Downloading package " + id + " from the marketplace");
+        Path tmp = Files.createTempFile(cache, "download-", ".tmp");
+        try {
+          try (InputStream in = connection.getInputStream()) {
+            Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+          }
+          Files.move(tmp, cached, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+          Files.deleteIfExists(tmp);
+        }
+        String newEtag = connection.getHeaderField("ETag");
+        if (newEtag != null) {
+          Files.write(etagFile, newEtag.getBytes(StandardCharsets.UTF_8));
+        } else {
+          Files.deleteIfExists(etagFile);
+        }
+        return use(cached);
+      } finally {
+        connection.disconnect();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Marks the cached package as used now, so that it is removed from the cache last. */
+  private static Path use(Path cached) throws IOException {
+    Files.setLastModifiedTime(cached, FileTime.fromMillis(System.currentTimeMillis()));
+    return cached;
+  }
+
+  /**
+   * Removes the packages not used for longer than the maximum age, then the least recently used
+   * ones while the cache is larger than the maximum size. The given packages, just returned to the
+   * caller, and the ones used in the last minutes, which may be about to be onboarded, are kept.
+   */
+  private void evict(Collection<Path> inUse) {
+    List<Path> packages = new ArrayList<>();
+    Map<Path, Long> lastUsed = new HashMap<>();
+    long size = 0;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(cache, "*.tar")) {
+      for (Path file : files) {
+        packages.add(file);
+        lastUsed.put(file, Files.getLastModifiedTime(file).toMillis());
+        size += Files.size(file);
+      }
+    } catch (IOException e) {
+      log.warn("Not able to list the cached packages: " + e.getMessage());
+      return;
+    }
+    packages.sort(Comparator.comparing(lastUsed::get));
+
+    long now = System.currentTimeMillis();
+    long maxSize = cacheMaxSize * 1024 * 1024;
+    for (Path file : packages) {
+      boolean expired = now - lastUsed.get(file) > TimeUnit.DAYS.toMillis(cacheMaxAge);
+      if (!expired && size <= maxSize) {
+        break;
+      }
+      if (now - lastUsed.get(file) < EVICTION_GRACE || inUse.contains(file)) {
+        continue;
+      }
+      String fileName = file.getFileName().toString();
+      String id;
+      try {
+        id = URLDecoder.decode(fileName.substring(0, fileName.length() - 4), "UTF-8");
+      } catch (UnsupportedEncodingException e) {
+        throw new IllegalStateException(e);
+      }
+      Lock lock = stripedLockManager.lock(getLockKey(id));
+      try {
+        // skip the package if it was used since it was listed
+        if (Files.getLastModifiedTime(file).toMillis() == lastUsed.get(file)) {
+          long fileSize = Files.size(file);
+          Files.delete(file);
+          Files.deleteIfExists(getEtagPath(file));
+          size -= fileSize;
+          log.debug("Removed package " + id + " from the marketplace cache");
+        }
+      } catch (IOException e) {
+        log.warn("Not able to remove the cached package " + id + ": " + e.getMessage());
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private Path getCachedPath(String id) {
+    try {
+      return cache.resolve(URLEncoder.encode(id, "UTF-8") + ".tar");
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Path getEtagPath(Path cached) {
+    String fileName = cached.getFileName().toString();
+    return cached.resolveSibling(fileName.substring(0, fileName.length() - 4) + ".etag");
+  }
+
+  private static String getLockKey(String id) {
+    return "marketplace:" + id;
+  }
+
+  private HttpURLConnection open(String link) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) new URL(link).openConnection();
+    connection.setRequestMethod("GET");
+    connection.setConnectTimeout(timeout);
+    connection.setReadTimeout(timeout);
+    return connection;
+  }
+}
@@ -17,9 +17,6 @@
 
 package org.openbaton.nfvo.core.utils;
 
-import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -76,16 +73,11 @@ public class NSDUtils {
   @Autowired private VnfPackageRepository vnfPackageRepository;
   @Autowired private VimRepository vimInstanceRepository;
   @Autowired private VNFDRepository vnfdRepository;
+  @Autowired private MarketplaceResolver marketplaceResolver;
 
   @Value("${nfvo.integrity.nsd.checks:in-all-vims}")
   private String inAllVims;
 
-  @Value("${nfvo.marketplace.ip:marketplace.openbaton.org}")
-  private String marketIp;
-
-  @Value("${nfvo.marketplace.port:8082}")
-  private int marketPort;
-
   private String ordered;
 
   private static final Pattern PATTERN =
@@ -134,7 +126,7 @@ public class NSDUtils {
   /** Fetching vnfd already existing in thr DB based on the id */
   public List<String> fetchExistingVnfd(
       NetworkServiceDescriptor networkServiceDescriptor, String projectId)
-      throws NotFoundException {
+      throws NotFoundException, InterruptedException {
     Set<VirtualNetworkFunctionDescriptor> vnfdAdd = new HashSet<>();
     Set<VirtualNetworkFunctionDescriptor> vnfdRemove = new HashSet<>();
     List<String> marketIds = new ArrayList<>();
@@ -167,38 +159,8 @@ public class NSDUtils {
                     projectId, id_split[0], id_split[1], id_split[2]);
             log.trace("VNFD fetched: " + vnfdNew);
             if (vnfdNew == null) {
-
-              int response = 404;
-              // Check if package is available on the marketplace
-              try {
-                URL u =
-                    new URL(
-                        "http://"
-                            + marketIp
-                            + ":"
-                            + marketPort
-                            + "/api/v1/vnf-packages/"
-                            + vnfd.getId());
-                HttpURLConnection huc = (HttpURLConnection) u.openConnection();
-                huc.setRequestMethod("GET");
-                huc.connect();
-                response = huc.getResponseCode();
-                huc.disconnect();
-              } catch (IOException e) {
-                log.warn("Marketplace could not be reached!");
-              }
-              if (response == 200) {
-                log.info("Package found on the marketplace. Downloading now.");
-                // Download package from marketplace!!!
-                marketIds.add(vnfd.getId());
-              } else {
-                throw new NotFoundException(
-                    "Not found VNFD with ID: "
-                        + vnfd.getId()
-                        + ". Did you try to create a new VNFD instead of using an already "
-                        + "existing one? In this case you should not have specified the VNFD's"
-                        + " ID at all");
-              }
+              // checked on the marketplace below, all together
+              marketIds.add(vnfd.getId());
             } else {
               vnfdAdd.add(vnfdNew);
             }
@@ -214,6 +176,18 @@ public class NSDUtils {
         }
       }
     }
+    if (!marketIds.isEmpty()) {
+      List<String> missing = marketplaceResolver.findMissing(marketIds);
+      if (!missing.isEmpty()) {
+        throw new NotFoundException(
+            "Not found VNFD with ID: "
+                + missing.get(0)
+                + ". Did you try to create a new VNFD instead of using an already "
+                + "existing one? In this case you should not have specified the VNFD's"
+                + " ID at all");
+      }
+      log.info("Packages " + marketIds + " found on the marketplace");
+    }
     networkServiceDescriptor.getVnfd().removeAll(vnfdRemove);
     networkServiceDescriptor.getVnfd().addAll(vnfdAdd);
     return marketIds;
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.core.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.openbaton.catalogue.keys.PopKeypair;
+import org.openbaton.catalogue.mano.common.DeploymentFlavour;
+import org.openbaton.catalogue.nfvo.images.BaseNfvImage;
+import org.openbaton.catalogue.nfvo.networks.BaseNetwork;
+import org.openbaton.catalogue.nfvo.networks.Network;
+import org.openbaton.catalogue.nfvo.networks.Subnet;
+import org.openbaton.catalogue.nfvo.viminstances.AvailabilityZone;
+import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
+import org.openbaton.catalogue.nfvo.viminstances.OpenstackVimInstance;
+import org.openbaton.catalogue.util.BaseEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes the difference between the resources of a vim instance as stored and as just fetched
+ * from the driver. Resources are matched by their external id (by name for zones and keys): the
+ * unchanged ones are kept as stored, the changed ones get the id and version of the stored ones so
+ * they are updated in place, the others are inserted or deleted. Like this a refresh that finds
+ * nothing new does not write anything.
+ */
+public class VimInventorySynchronizer {
+
+  /** Fields that are set by the NFVO and never by the driver. */
+  private static final Set<String> IGNORED_FIELDS =
+      new HashSet<>(Arrays.asList("id", "hbVersion", "projectId", "networkId"));
+
+  /** Fields of the vim instance compared resource by resource. */
+  private static final Set<String> INVENTORY_FIELDS =
+      new HashSet<>(
+          Arrays.asList("images", "networks", "flavours", "zones", "keys", "inventoryVersion"));
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final Gson gson = new Gson();
+
+  /**
+   * Prepares the fetched vim instance to be saved over the stored one.
+   *
+   * @param stored the vim instance as stored in the database
+   * @param fetched the vim instance returned by the driver, modified in place
+   * @return true if anything changed and the fetched vim instance has to be saved
+   */
+  public boolean synchronize(BaseVimInstance stored, BaseVimInstance fetched) {
+    Delta delta = new Delta();
+
+    fetched.setId(stored.getId());
+    fetched.setHbVersion(stored.getHbVersion());
+
+    List<BaseNfvImage> images =
+        merge(stored.getImages(), fetched.getImages(), BaseNfvImage::getExtId, delta);
+    replace(fetched.getImages(), images, fetched::removeAllImages, fetched::addAllImages);
+
+    List<BaseNetwork> networks =
+        merge(stored.getNetworks(), fetched.getNetworks(), BaseNetwork::getExtId, delta);
+    replace(fetched.getNetworks(), networks, fetched::removeAllNetworks, fetched::addAllNetworks);
+
+    if (stored instanceof OpenstackVimInstance) {
+      OpenstackVimInstance storedOpenstack = (OpenstackVimInstance) stored;
+      OpenstackVimInstance fetchedOpenstack = (OpenstackVimInstance) fetched;
+      if (fetchedOpenstack.getFlavours() != null) {
+        fetchedOpenstack.setFlavours(
+            new HashSet<>(
+                merge(
+                    storedOpenstack.getFlavours(),
+                    fetchedOpenstack.getFlavours(),
+                    DeploymentFlavour::getExtId,
+                    delta)));
+      }
+      if (fetchedOpenstack.getZones() != null) {
+        fetchedOpenstack.setZones(
+            new HashSet<>(
+                merge(
+                    storedOpenstack.getZones(),
+                    fetchedOpenstack.getZones(),
+                    AvailabilityZone::getName,
+                    delta)));
+      }
+      if (fetchedOpenstack.getKeys() != null) {
+        fetchedOpenstack.setKeys(
+            new HashSet<>(
+                merge(
+                    storedOpenstack.getKeys(),
+                    fetchedOpenstack.getKeys(),
+                    PopKeypair::getName,
+                    delta)));
+      }
+    }
+
+    boolean vimChanged = !sameContent(stored, fetched, INVENTORY_FIELDS);
+    long version = stored.getInventoryVersion() != null ? stored.getInventoryVersion() : 0;
+    fetched.setInventoryVersion(delta.isEmpty() ? version : version + 1);
+
+    log.debug(
+        "Refresh of vim "
+            + stored.getName()
+            + ": "
+            + delta
+            + (vimChanged ? ", vim instance changed" : "")
+            + ", inventory version "
+            + fetched.getInventoryVersion());
+    return vimChanged || !delta.isEmpty();
+  }
+
+  /**
+   * Applies to the stored vim instance the networks just fetched from the driver, considering only
+   * the networks, stored or fetched, accepted by the filter. The other resources of the vim
+   * instance are left as they are.
+   *
+   * @param stored the vim instance as stored in the database, modified in place
+   * @param fetched the networks returned by the driver
+   * @param affected the networks to synchronize
+   * @return true if any network changed and the stored vim instance has to be saved
+   */
+  public boolean synchronizeNetworks(
+      BaseVimInstance stored,
+      Collection<? extends BaseNetwork> fetched,
+      Predicate<BaseNetwork> affected) {
+    Delta delta = new Delta();
+    List<BaseNetwork> storedNetworks =
+        stored.getNetworks() == null
+            ? new ArrayList<>()
+            : stored.getNetworks().stream().filter(affected).collect(Collectors.toList());
+    List<BaseNetwork> fetchedNetworks =
+        fetched.stream().filter(affected).collect(Collectors.toList());
+    List<BaseNetwork> networks =
+        merge(storedNetworks, fetchedNetworks, BaseNetwork::getExtId, delta);
+    if (delta.isEmpty()) {
+      return false;
+    }
+    stored.removeAllNetworks(storedNetworks);
+    stored.addAllNetworks(networks);
+    long version = stored.getInventoryVersion() != null ? stored.getInventoryVersion() : 0;
+    stored.setInventoryVersion(version + 1);
+    log.debug(
+        "Refresh of the networks of vim "
+            + stored.getName()
+            + ": "
+            + delta
+            + ", inventory version "
+            + stored.getInventoryVersion());
+    return true;
+  }
+
+  /**
+   * Returns the resources to store: the stored ones where nothing changed, otherwise the fetched
+   * ones, with the identity of the stored ones if they exist.
+   */
+  private <T extends BaseEntity> List<T> merge(
+      Collection<? extends T> stored,
+      Collection<? extends T> fetched,
+      Function<T, String> key,
+      Delta delta) {
+    Map<String, T> storedByKey = new HashMap<>();
+    if (stored != null) {
+      for (T resource : stored) {
+        storedByKey.put(key.apply(resource), resource);
+      }
+    }
+    List<T> result = new ArrayList<>();
+    int matched = 0;
+    for (T resource : fetched != null ? fetched : new ArrayList<T>()) {
+      T storedResource = storedByKey.get(key.apply(resource));
+      if (storedResource == null) {
+        delta.inserted++;
+        result.add(resource);
+        continue;
+      }
+      matched++;
+      if (sameContent(storedResource, resource, Collections.emptySet())) {
+        result.add(storedResource);
+      } else {
+        delta.updated++;
+        adopt(storedResource, resource);
+        result.add(resource);
+      }
+    }
+    delta.deleted += storedByKey.size() - matched;
+    return result;
+  }
+
+  /** Gives the fetched resource the identity of the stored one, so it is updated in place. */
+  private void adopt(BaseEntity stored, BaseEntity fetched) {
+    fetched.setId(stored.getId());
+    fetched.setHbVersion(stored.getHbVersion());
+    fetched.setProjectId(stored.getProjectId());
+    if (stored instanceof Network && fetched instanceof Network) {
+      Set<Subnet> storedSubnets = ((Network) stored).getSubnets();
+      Set<Subnet> fetchedSubnets = ((Network) fetched).getSubnets();
+      if (storedSubnets != null && fetchedSubnets != null) {
+        Map<String, Subnet> storedByExtId = new HashMap<>();
+        for (Subnet subnet : storedSubnets) {
+          storedByExtId.put(subnet.getExtId(), subnet);
+        }
+        for (Subnet subnet : fetchedSubnets) {
+          Subnet storedSubnet = storedByExtId.get(subnet.getExtId());
+          if (storedSubnet != null) {
+            adopt(storedSubnet, subnet);
+            subnet.setNetworkId(storedSubnet.getNetworkId());
+          }
+        }
+      }
+    }
+  }
+
+  private <T> void replace(
+      Set<? extends T> current,
+      List<T> resources,
+      Consumer<Collection<T>> removeAll,
+      Consumer<Collection<T>> addAll) {
+    if (current == null) {
+      return;
+    }
+    removeAll.accept(new ArrayList<>(current));
+    addAll.accept(resources);
+  }
+
+  private boolean sameContent(Object stored, Object fetched, Set<String> ignoredFields) {
+    JsonElement storedJson = strip(gson.toJsonTree(stored), ignoredFields);
+    JsonElement fetchedJson = strip(gson.toJsonTree(fetched), ignoredFields);
+    return Objects.equals(storedJson, fetchedJson);
+  }
+
+  private JsonElement strip(JsonElement element, Set<String> ignoredFields) {
+    if (element.isJsonObject()) {
+      JsonObject stripped = new JsonObject();
+      for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+        if (!IGNORED_FIELDS.contains(entry.getKey()) && !ignoredFields.contains(entry.getKey())) {
+          stripped.add(entry.getKey(), strip(entry.getValue(), Collections.emptySet()));
+        }
+      }
+      return stripped;
+    }
+    if (element.isJsonArray()) {
+      // sets are serialized in iteration order, which is not stable
+      List<String> items = new ArrayList<>();
+      for (JsonElement item : element.getAsJsonArray()) {
+        items.add(strip(item, Collections.emptySet()).toString());
+      }
+      Collections.sort(items);
+      JsonArray sorted = new JsonArray();
+      for (String item : items) {
+        sorted.add(new JsonPrimitive(item));
+      }
+      return sorted;
+    }
+    return element;
+  }
+
+  private static class Delta {
+    private int inserted;
+    private int updated;
+    private int deleted;
+
+    private boolean isEmpty() {
+      return inserted == 0 && updated == 0 && deleted == 0;
+    }
+
+    @Override
+    public String toString() {
+      return inserted + " resources added, " + updated + " updated, " + deleted + " removed";
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.openbaton.nfvo.core.test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashSet;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.mano.record.Status;
+import org.openbaton.catalogue.mano.record.VNFRecordDependency;
+import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+import org.openbaton.catalogue.nfvo.messages.Interfaces.NFVMessage;
+import org.openbaton.nfvo.core.core.DependencyQueuer;
+import org.openbaton.nfvo.repositories.VNFRDependencyRepository;
+import org.openbaton.nfvo.repositories.VNFRRepository;
+import org.openbaton.vnfm.interfaces.state.VnfStateHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class DependencyQueuerClassSuiteTest {
+
+  private VnfStateHandler vnfStateHandler;
+
+  private DependencyQueuer dependencyQueuer;
+
+  private NetworkServiceRecord nsr;
+
+  private VirtualNetworkFunctionRecord target;
+
+  @Before
+  public void init() {
+    target = new VirtualNetworkFunctionRecord();
+    target.setId("target_id");
+    target.setName("target");
+    nsr = new NetworkServiceRecord();
+    nsr.setId("nsr_id");
+    nsr.setStatus(Status.NULL);
+    nsr.setVnfr(new HashSet<>(Collections.singleton(target)));
+
+    VNFRecordDependency dependency = new VNFRecordDependency();
+    dependency.setId("dependency_id");
+    dependency.setTarget("target");
+    VNFRDependencyRepository vnfrDependencyRepository = mock(VNFRDependencyRepository.class);
+    when(vnfrDependencyRepository.findFirstById("dependency_id")).thenReturn(dependency);
+    VNFRRepository vnfrRepository = mock(VNFRRepository.class);
+    when(vnfrRepository.findFirstById("target_id")).thenReturn(target);
+    vnfStateHandler = mock(VnfStateHandler.class);
+
+    dependencyQueuer = new DependencyQueuer();
+    ReflectionTestUtils.setField(
+        dependencyQueuer, "vnfrDependencyRepository", vnfrDependencyRepository);
+    ReflectionTestUtils.setField(dependencyQueuer, "vnfrRepository", vnfrRepository);
+    ReflectionTestUtils.setField(dependencyQueuer, "vnfStateHandler", vnfStateHandler);
+    ReflectionTestUtils.invokeMethod(dependencyQueuer, "init");
+  }
+
+  @Test
+  public void dependencyKeptWhenModifyFailsTest() throws Exception {
+    dependencyQueuer.waitForVNFR(
+        "nsr_id", "dependency_id", new HashSet<>(Collections.singleton("source1nsr_id")));
+    dependencyQueuer.waitForVNFR(
+        "nsr_id", "other_dependency_id", new HashSet<>(Collections.singleton("source2nsr_id")));
+    when(vnfStateHandler.sendMessageToVNFR(
+            any(VirtualNetworkFunctionRecord.class), any(NFVMessage.class)))
+        .thenThrow(new IllegalStateException("broker down"))
+        .thenReturn(null);
+
+    try {
+      dependencyQueuer.releaseVNFR("source1", nsr);
+      Assert.fail("the failed MODIFY must be reported");
+    } catch (IllegalStateException expected) {
+    }
+
+    // the dependency was kept and is sent again with the next release, then it leaves the queue
+    dependencyQueuer.releaseVNFR("source1", nsr);
+    dependencyQueuer.releaseVNFR("source1", nsr);
+    verify(vnfStateHandler, times(2))
+        .sendMessageToVNFR(any(VirtualNetworkFunctionRecord.class), any(NFVMessage.class));
+  }
+}
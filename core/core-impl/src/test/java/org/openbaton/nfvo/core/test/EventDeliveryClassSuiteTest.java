@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.openbaton.nfvo.core.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openbaton.catalogue.nfvo.EventEndpoint;
+import org.openbaton.nfvo.common.utils.scheduler.DelayedTaskScheduler;
+import org.openbaton.nfvo.core.events.senders.EventDelivery;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class EventDeliveryClassSuiteTest {
+
+  private ThreadPoolTaskExecutor eventExecutor;
+
+  private DelayedTaskScheduler delayedTaskScheduler;
+
+  private EventDelivery eventDelivery;
+
+  private EventEndpoint endpoint;
+
+  @Before
+  public void init() {
+    eventExecutor = new ThreadPoolTaskExecutor();
+    eventExecutor.setCorePoolSize(2);
+    eventExecutor.initialize();
+    delayedTaskScheduler = new DelayedTaskScheduler();
+    ReflectionTestUtils.setField(delayedTaskScheduler, "threads", 1);
+    ReflectionTestUtils.invokeMethod(delayedTaskScheduler, "init");
+
+    eventDelivery = new EventDelivery();
+    ReflectionTestUtils.setField(eventDelivery, "eventExecutor", eventExecutor);
+    ReflectionTestUtils.setField(eventDelivery, "delayedTaskScheduler", delayedTaskScheduler);
+    ReflectionTestUtils.setField(eventDelivery, "queueSize", 100000);
+    ReflectionTestUtils.setField(eventDelivery, "batchSize", 1);
+    ReflectionTestUtils.setField(eventDelivery, "retries", 2);
+    ReflectionTestUtils.setField(eventDelivery, "backoff", 1L);
+    ReflectionTestUtils.setField(eventDelivery, "maxBackoff", 10L);
+
+    endpoint = new EventEndpoint();
+    endpoint.setId("endpoint_id");
+    endpoint.setName("endpoint");
+    endpoint.setEndpoint("http://localhost/events");
+  }
+
+  @After
+  public void shutdown() {
+    eventExecutor.shutdown();
+    ReflectionTestUtils.invokeMethod(delayedTaskScheduler, "destroy");
+  }
+
+  @Test
+  public void eventDeliveryLongQueueTest() throws InterruptedException {
+    int events = 50000;
+    List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch done = new CountDownLatch(events);
+    EventDelivery.Transport transport =
+        (endpoint, bodies) -> {
+          delivered.addAll(bodies);
+          bodies.forEach(body -> done.countDown());
+        };
+
+    for (int i = 0; i < events; i++) {
+      eventDelivery.enqueue(endpoint, "event_" + i, transport);
+    }
+
+    Assert.assertTrue(done.await(60, TimeUnit.SECONDS));
+    for (int i = 0; i < events; i++) {
+      Assert.assertEquals("event_" + i, delivered.get(i));
+    }
+    awaitMetric("delivered", events);
+  }
+
+  @Test
+  public void eventDeliveryRetryTest() throws InterruptedException {
+    AtomicInteger attempts = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(1);
+    EventDelivery.Transport transport =
+        (endpoint, bodies) -> {
+          if (bodies.contains("retried") && attempts.incrementAndGet() < 3) {
+            throw new Exception("endpoint not reachable");
+          }
+          if (bodies.contains("given_up")) {
+            throw new Exception("endpoint not reachable");
+          }
+          if (bodies.contains("last")) {
+            done.countDown();
+          }
+        };
+
+    eventDelivery.enqueue(endpoint, "retried", transport);
+    eventDelivery.enqueue(endpoint, "given_up", transport);
+    eventDelivery.enqueue(endpoint, "last", transport);
+
+    Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+    awaitMetric("delivered", 2);
+    Assert.assertEquals(3, attempts.get());
+    // two retries of the first event, two of the second before giving up
+    Assert.assertEquals(4, metric("retried"));
+    Assert.assertEquals(1, metric("failed"));
+  }
+
+  @Test
+  public void eventDeliveryEndpointRemovalTest() throws InterruptedException {
+    CountDownLatch delivering = new CountDownLatch(1);
+    CountDownLatch removed = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    EventDelivery.Transport transport =
+        (endpoint, bodies) -> {
+          calls.incrementAndGet();
+          delivering.countDown();
+          removed.await();
+          throw new Exception("endpoint not reachable");
+        };
+
+    eventDelivery.enqueue(endpoint, "event_1", transport);
+    eventDelivery.enqueue(endpoint, "event_2", transport);
+    Assert.assertTrue(delivering.await(10, TimeUnit.SECONDS));
+    eventDelivery.forget(endpoint.getId());
+    removed.countDown();
+
+    // neither the failed event is retried nor the queued one delivered
+    Thread.sleep(200);
+    Assert.assertEquals(1, calls.get());
+    Assert.assertTrue(eventDelivery.metrics().isEmpty());
+  }
+
+  /** Waits for the metric, which is updated after the transport returns. */
+  private void awaitMetric(String name, long expected) throws InterruptedException {
+    for (int i = 0; i < 100 && metric(name) != expected; i++) {
+      Thread.sleep(50);
+    }
+    Assert.assertEquals(expected, metric(name));
+  }
+
+  private long metric(String name) {
+    for (Metric<?> metric : eventDelivery.metrics()) {
+      if (metric.getName().equals("nfvo.events.delivery.endpoint." + name)) {
+        return metric.getValue().longValue();
+      }
+    }
+    throw new IllegalArgumentException("No metric " + name);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.openbaton.nfvo.core.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openbaton.nfvo.common.utils.blob.BlobStore.StagedBlob;
+import org.openbaton.nfvo.common.utils.blob.FileSystemBlobStore;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class FileSystemBlobStoreClassSuiteTest {
+
+  private static final byte[] CONTENT = "#!/bin/bash\necho hello".getBytes(StandardCharsets.UTF_8);
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private FileSystemBlobStore blobStore;
+
+  @Before
+  public void init() throws Exception {
+    blobStore = createBlobStore(folder.getRoot());
+  }
+
+  static FileSystemBlobStore createBlobStore(File root) {
+    FileSystemBlobStore blobStore = new FileSystemBlobStore();
+    ReflectionTestUtils.setField(blobStore, "blobDir", root.getAbsolutePath());
+    ReflectionTestUtils.invokeMethod(blobStore, "init");
+    return blobStore;
+  }
+
+  @Test
+  public void putSameContentOnceTest() throws Exception {
+    String key = blobStore.put(CONTENT);
+
+    Assert.assertEquals(key, blobStore.put(new ByteArrayInputStream(CONTENT)));
+    Assert.assertEquals(64, key.length());
+    Assert.assertArrayEquals(CONTENT, blobStore.get(key));
+    Assert.assertEquals(1, countFiles(folder.getRoot().toPath().resolve(key.substring(0, 2)), ""));
+    Assert.assertEquals(0, countTmpFiles());
+  }
+
+  @Test
+  public void stagedBlobReadableOnlyOnceCommittedTest() throws Exception {
+    StagedBlob blob = blobStore.stage(new ByteArrayInputStream(CONTENT));
+
+    Assert.assertFalse(blobStore.exists(blob.getKey()));
+    blob.commit();
+    Assert.assertTrue(blobStore.exists(blob.getKey()));
+    Assert.assertArrayEquals(CONTENT, blobStore.get(blob.getKey()));
+    Assert.assertEquals(0, countTmpFiles());
+  }
+
+  @Test
+  public void stagedBlobDiscardedTest() throws Exception {
+    StagedBlob blob = blobStore.stage(new ByteArrayInputStream(CONTENT));
+    blob.discard();
+
+    Assert.assertFalse(blobStore.exists(blob.getKey()));
+    Assert.assertEquals(0, countTmpFiles());
+  }
+
+  @Test
+  public void leftoverTmpFilesRemovedTest() throws Exception {
+    blobStore.stage(new ByteArrayInputStream(CONTENT));
+    Assert.assertEquals(1, countTmpFiles());
+
+    createBlobStore(folder.getRoot());
+
+    Assert.assertEquals(0, countTmpFiles());
+  }
+
+  @Test
+  public void deleteTest() throws Exception {
+    String key = blobStore.put(CONTENT);
+    blobStore.delete(key);
+
+    Assert.assertFalse(blobStore.exists(key));
+  }
+
+  private long countTmpFiles() throws Exception {
+    return countFiles(folder.getRoot().toPath(), ".tmp");
+  }
+
+  private static long countFiles(Path dir, String suffix) throws Exception {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.filter(path -> path.getFileName().toString().endsWith(suffix)).count();
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.openbaton.nfvo.core.test;
+
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openbaton.nfvo.common.utils.lock.StripedLockManager;
+import org.openbaton.nfvo.core.utils.MarketplaceResolver;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class MarketplaceResolverClassSuiteTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private ThreadPoolTaskExecutor marketplaceExecutor;
+
+  private MarketplaceResolver marketplaceResolver;
+
+  @Before
+  public void init() throws Exception {
+    marketplaceExecutor = new ThreadPoolTaskExecutor();
+    marketplaceExecutor.setCorePoolSize(2);
+    marketplaceExecutor.initialize();
+    StripedLockManager stripedLockManager = new StripedLockManager();
+    ReflectionTestUtils.setField(stripedLockManager, "stripes", 16);
+    ReflectionTestUtils.invokeMethod(stripedLockManager, "init");
+
+    marketplaceResolver = new MarketplaceResolver();
+    // nothing listens on a port just released, so the marketplace cannot be reached
+    try (ServerSocket socket = new ServerSocket(0)) {
+      ReflectionTestUtils.setField(marketplaceResolver, "marketPort", socket.getLocalPort());
+    }
+    ReflectionTestUtils.setField(marketplaceResolver, "marketIp", "localhost");
+    ReflectionTestUtils.setField(marketplaceResolver, "timeout", 1000);
+    ReflectionTestUtils.setField(marketplaceResolver, "cacheDir", folder.getRoot().getPath());
+    ReflectionTestUtils.setField(marketplaceResolver, "cacheMaxAge", 30);
+    ReflectionTestUtils.setField(marketplaceResolver, "cacheMaxSize", 1024L);
+    ReflectionTestUtils.setField(marketplaceResolver, "marketplaceExecutor", marketplaceExecutor);
+    ReflectionTestUtils.setField(marketplaceResolver, "stripedLockManager", stripedLockManager);
+    ReflectionTestUtils.invokeMethod(marketplaceResolver, "init");
+  }
+
+  @After
+  public void shutdown() {
+    marketplaceExecutor.shutdown();
+  }
+
+  @Test
+  public void findMissingUsesCacheTest() throws Exception {
+    createCachedPackage("vendor/cached/1.0", 0, 0);
+
+    Assert.assertEquals(
+        Collections.singletonList("vendor/uncached/1.0"),
+        marketplaceResolver.findMissing(Arrays.asList("vendor/cached/1.0", "vendor/uncached/1.0")));
+  }
+
+  @Test
+  public void evictExpiredPackagesTest() throws Exception {
+    Path expired = createCachedPackage("vendor/expired/1.0", 0, 31);
+    Path recent = createCachedPackage("vendor/recent/1.0", 0, 1);
+
+    evict(Collections.emptyList());
+
+    Assert.assertFalse(Files.exists(expired));
+    Assert.assertFalse(Files.exists(getEtagPath(expired)));
+    Assert.assertTrue(Files.exists(recent));
+  }
+
+  @Test
+  public void evictLeastRecentlyUsedPackagesTest() throws Exception {
+    ReflectionTestUtils.setField(marketplaceResolver, "cacheMaxSize", 1L);
+    Path oldest = createCachedPackage("vendor/oldest/1.0", 512 * 1024, 3);
+    Path older = createCachedPackage("vendor/older/1.0", 512 * 1024, 2);
+    Path newer = createCachedPackage("vendor/newer/1.0", 512 * 1024, 1);
+    Path inUse = createCachedPackage("vendor/in-use/1.0", 512 * 1024, 4);
+
+    evict(Collections.singletonList(inUse));
+
+    Assert.assertFalse(Files.exists(oldest));
+    Assert.assertFalse(Files.exists(older));
+    Assert.assertTrue(Files.exists(newer));
+    Assert.assertTrue(Files.exists(inUse));
+  }
+
+  @Test
+  public void evictKeepsJustUsedPackagesTest() throws Exception {
+    ReflectionTestUtils.setField(marketplaceResolver, "cacheMaxSize", 0L);
+    Path justUsed = createCachedPackage("vendor/just-used/1.0", 1024, 0);
+
+    evict(Collections.emptyList());
+
+    Assert.assertTrue(Files.exists(justUsed));
+  }
+
+  private void evict(Collection<Path> inUse) {
+    ReflectionTestUtils.invokeMethod(marketplaceResolver, "evict", inUse);
+  }
+
+  private Path createCachedPackage(String id, int size, int daysUnused) throws Exception {
+    Path cached = ReflectionTestUtils.invokeMethod(marketplaceResolver, "getCachedPath", id);
+    Files.write(cached, new byte[size]);
+    Files.write(getEtagPath(cached), "\"etag\"".getBytes());
+    long lastUsed = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(daysUnused);
+    Files.setLastModifiedTime(cached, FileTime.fromMillis(lastUsed));
+    return cached;
+  }
+
+  private static Path getEtagPath(Path cached) {
+    String fileName = cached.getFileName().toString();
+    return cached.resolveSibling(fileName.replace(".tar", ".etag"));
+  }
+}
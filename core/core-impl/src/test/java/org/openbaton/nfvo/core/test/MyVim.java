@@ -19,9 +19,12 @@ package org.openbaton.nfvo.core.test;
 
 import static org.mockito.Mockito.mock;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.Future;
 import org.openbaton.catalogue.mano.common.DeploymentFlavour;
 import org.openbaton.catalogue.mano.descriptor.VNFComponent;
@@ -39,6 +42,7 @@ import org.openbaton.catalogue.security.Key;
 import org.openbaton.exceptions.VimException;
 import org.openbaton.nfvo.vim_interfaces.vim.Vim;
 import org.openbaton.vim.drivers.VimDriverCaller;
+import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.stereotype.Service;
 
 /** Created by lto on 26/11/15. */
@@ -135,7 +139,46 @@ public class MyVim extends Vim {
       Map<String, String> floatingIps,
       Set<Key> keys)
       throws VimException {
-    return null;
+    VNFCInstance vnfcInstance = new VNFCInstance();
+    vnfcInstance.setHostname(
+        virtualNetworkFunctionRecord.getName() + "-" + ((int) (Math.random() * 10000000)));
+    vnfcInstance.setVc_id(UUID.randomUUID().toString());
+    vnfcInstance.setVim_id(vimInstance.getId());
+    vnfcInstance.setVnfComponent(vnfComponent);
+    vnfcInstance.setState("ACTIVE");
+    vnfcInstance.setIps(new HashSet<>());
+    vnfcInstance.setFloatingIps(new HashSet<>());
+    return new AsyncResult<>(vnfcInstance);
+  }
+
+  @Override
+  public boolean isBatchLaunchSupported() {
+    return true;
+  }
+
+  @Override
+  public List<Future<VNFCInstance>> allocate(
+      BaseVimInstance vimInstance,
+      VirtualDeploymentUnit vdu,
+      VirtualNetworkFunctionRecord virtualNetworkFunctionRecord,
+      List<VNFComponent> vnfComponents,
+      String userdata,
+      List<Map<String, String>> floatingIps,
+      Set<Key> keys)
+      throws VimException {
+    List<Future<VNFCInstance>> instances = new ArrayList<>();
+    for (int i = 0; i < vnfComponents.size(); i++) {
+      instances.add(
+          allocate(
+              vimInstance,
+              vdu,
+              virtualNetworkFunctionRecord,
+              vnfComponents.get(i),
+              userdata,
+              floatingIps.get(i),
+              keys));
+    }
+    return instances;
   }
 
   @Override
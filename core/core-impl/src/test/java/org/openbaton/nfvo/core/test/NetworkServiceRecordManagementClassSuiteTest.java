@@ -423,7 +423,8 @@ public class NetworkServiceRecordManagementClassSuiteTest {
   public void nsrManagementUpdateTest() throws NotFoundException {
     final NetworkServiceRecord nsd_exp = createNetworkServiceRecord();
     when(nsrRepository.findOne(nsd_exp.getId())).thenReturn(nsd_exp);
-    when(nsrRepository.findFirstByIdAndProjectId(nsd_exp.getId(), projectId)).thenReturn(nsd_exp);
+    when(nsrRepository.findWithDetailsByIdAndProjectId(nsd_exp.getId(), projectId))
+        .thenReturn(nsd_exp);
     NetworkServiceRecord new_nsr = createNetworkServiceRecord();
     new_nsr.setName("UpdatedName");
     nsrManagement.update(new_nsr, nsd_exp.getId(), projectId);
@@ -433,7 +434,8 @@ public class NetworkServiceRecordManagementClassSuiteTest {
 
   private void assertEqualsNSR(NetworkServiceRecord nsr_exp)
       throws NoResultException, NotFoundException {
-    when(nsrRepository.findFirstByIdAndProjectId(nsr_exp.getId(), projectId)).thenReturn(nsr_exp);
+    when(nsrRepository.findWithDetailsByIdAndProjectId(nsr_exp.getId(), projectId))
+        .thenReturn(nsr_exp);
     NetworkServiceRecord networkServiceRecord = nsrManagement.query(nsr_exp.getId(), projectId);
     Assert.assertEquals(nsr_exp.getId(), networkServiceRecord.getId());
     Assert.assertEquals(nsr_exp.getName(), networkServiceRecord.getName());
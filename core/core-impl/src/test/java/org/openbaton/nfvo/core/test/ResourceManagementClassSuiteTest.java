@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.openbaton.nfvo.core.test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anySet;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.openbaton.nfvo.core.test.TestUtils.createVimInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openbaton.catalogue.mano.descriptor.VNFComponent;
+import org.openbaton.catalogue.mano.descriptor.VirtualDeploymentUnit;
+import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.mano.record.VNFCInstance;
+import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
+import org.openbaton.exceptions.VimException;
+import org.openbaton.nfvo.core.core.ResourceManagement;
+import org.openbaton.nfvo.repositories.KeyRepository;
+import org.openbaton.nfvo.repositories.NetworkServiceRecordRepository;
+import org.openbaton.nfvo.repositories.VNFDRepository;
+import org.openbaton.nfvo.vim_interfaces.vim.Vim;
+import org.openbaton.nfvo.vim_interfaces.vim.VimBroker;
+import org.springframework.scheduling.annotation.AsyncResult;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@SuppressWarnings({"unsafe", "unchecked"})
+public class ResourceManagementClassSuiteTest {
+
+  @Mock private VimBroker vimBroker;
+
+  @Mock private NetworkServiceRecordRepository nsrRepository;
+
+  @Mock private VNFDRepository vnfdRepository;
+
+  @Mock private KeyRepository keyRepository;
+
+  @InjectMocks private ResourceManagement resourceManagement;
+
+  private ThreadPoolTaskExecutor vimExecutor;
+
+  @Before
+  public void init() {
+    MockitoAnnotations.initMocks(this);
+    vimExecutor = new ThreadPoolTaskExecutor();
+    vimExecutor.setCorePoolSize(4);
+    vimExecutor.initialize();
+    ReflectionTestUtils.setField(resourceManagement, "vimExecutor", vimExecutor);
+    NetworkServiceRecord nsr = new NetworkServiceRecord();
+    nsr.setKeyNames(new HashSet<>());
+    when(nsrRepository.findWithKeyNamesById(anyString())).thenReturn(nsr);
+  }
+
+  @Test
+  public void resourceManagementAllocateBatchTest() throws Exception {
+    when(vimBroker.getVim(anyString())).thenReturn(new MyVim());
+    VirtualDeploymentUnit vdu = createVDU();
+    List<VNFComponent> components = Arrays.asList(createVNFComponent(), createVNFComponent());
+
+    List<VNFCInstance> vnfcInstances =
+        resourceManagement.allocate(vdu, createVNFR(), components, createVimInstance(), "").get();
+
+    Assert.assertEquals(2, vnfcInstances.size());
+    Assert.assertEquals(new HashSet<>(vnfcInstances), vdu.getVnfc_instance());
+  }
+
+  @After
+  public void shutdown() {
+    vimExecutor.shutdown();
+  }
+
+  @Test
+  public void resourceManagementAllocateConcurrentTest() throws Exception {
+    VirtualDeploymentUnit vdu = createVDU();
+    VNFCInstance failed = createVNFCInstance("failed");
+    // each launch waits for the other one, so they only complete if they run at the same time
+    CountDownLatch launching = new CountDownLatch(2);
+    Vim vim = mock(Vim.class);
+    when(vim.allocate(
+            any(BaseVimInstance.class),
+            any(VirtualDeploymentUnit.class),
+            any(VirtualNetworkFunctionRecord.class),
+            any(VNFComponent.class),
+            anyString(),
+            anyMap(),
+            anySet()))
+        .thenAnswer(
+            invocation -> {
+              launching.countDown();
+              Assert.assertTrue(launching.await(10, TimeUnit.SECONDS));
+              return new AsyncResult<>(createVNFCInstance("launched"));
+            })
+        .thenAnswer(
+            invocation -> {
+              launching.countDown();
+              Assert.assertTrue(launching.await(10, TimeUnit.SECONDS));
+              return AsyncResult.forExecutionException(
+                  new VimException("error", null, vdu, failed));
+            });
+    when(vimBroker.getVim(anyString())).thenReturn(vim);
+    List<VNFComponent> components = Arrays.asList(createVNFComponent(), createVNFComponent());
+
+    try {
+      resourceManagement.allocate(vdu, createVNFR(), components, createVimInstance(), "");
+      Assert.fail("The failed launch was not reported");
+    } catch (VimException e) {
+      Assert.assertEquals(Collections.singletonList(failed), e.getVnfcInstances());
+    }
+    Assert.assertEquals(1, vdu.getVnfc_instance().size());
+    verify(vim, never())
+        .allocate(
+            any(BaseVimInstance.class),
+            any(VirtualDeploymentUnit.class),
+            any(VirtualNetworkFunctionRecord.class),
+            anyList(),
+            anyString(),
+            anyList(),
+            anySet());
+  }
+
+  @Test
+  public void resourceManagementAllocateBatchFailureTest() throws Exception {
+    VirtualDeploymentUnit vdu = createVDU();
+    VNFCInstance launched = createVNFCInstance("launched");
+    VNFCInstance failed1 = createVNFCInstance("failed_1");
+    VNFCInstance failed2 = createVNFCInstance("failed_2");
+    List<Future<VNFCInstance>> futures = new ArrayList<>();
+    futures.add(new AsyncResult<>(launched));
+    futures.add(AsyncResult.forExecutionException(new VimException("error", null, vdu, failed1)));
+    futures.add(AsyncResult.forExecutionException(new VimException("error", null, vdu, failed2)));
+    Vim vim = mock(Vim.class);
+    when(vim.isBatchLaunchSupported()).thenReturn(true);
+    when(vim.allocate(
+            any(BaseVimInstance.class),
+            any(VirtualDeploymentUnit.class),
+            any(VirtualNetworkFunctionRecord.class),
+            anyList(),
+            anyString(),
+            anyList(),
+            anySet()))
+        .thenReturn(futures);
+    when(vimBroker.getVim(anyString())).thenReturn(vim);
+    List<VNFComponent> components =
+        Arrays.asList(createVNFComponent(), createVNFComponent(), createVNFComponent());
+
+    try {
+      resourceManagement.allocate(vdu, createVNFR(), components, createVimInstance(), "");
+      Assert.fail("The failed launches were not reported");
+    } catch (VimException e) {
+      Assert.assertEquals(
+          new HashSet<>(Arrays.asList(failed1, failed2)), new HashSet<>(e.getVnfcInstances()));
+      Assert.assertSame(vdu, e.getVirtualDeploymentUnit());
+    }
+    Assert.assertEquals(1, vdu.getVnfc_instance().size());
+    Assert.assertTrue(vdu.getVnfc_instance().contains(launched));
+  }
+
+  private VirtualDeploymentUnit createVDU() {
+    VirtualDeploymentUnit vdu = new VirtualDeploymentUnit();
+    vdu.setName("vdu");
+    vdu.setVnfc_instance(new HashSet<>());
+    return vdu;
+  }
+
+  private VirtualNetworkFunctionRecord createVNFR() {
+    VirtualNetworkFunctionRecord vnfr = new VirtualNetworkFunctionRecord();
+    vnfr.setName("vnfr");
+    vnfr.setParent_ns_id("nsr_id");
+    // a flavour of the vim instance of TestUtils, so that none is created
+    vnfr.setDeployment_flavour_key("flavor_name");
+    return vnfr;
+  }
+
+  private VNFComponent createVNFComponent() {
+    VNFComponent vnfComponent = new VNFComponent();
+    vnfComponent.setConnection_point(new HashSet<>());
+    return vnfComponent;
+  }
+
+  private VNFCInstance createVNFCInstance(String vcId) {
+    VNFCInstance vnfcInstance = new VNFCInstance();
+    vnfcInstance.setVc_id(vcId);
+    vnfcInstance.setHostname(vcId);
+    vnfcInstance.setFloatingIps(new HashSet<>());
+    return vnfcInstance;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.openbaton.nfvo.core.test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openbaton.catalogue.nfvo.Script;
+import org.openbaton.nfvo.common.utils.blob.FileSystemBlobStore;
+import org.openbaton.nfvo.common.utils.blob.ScriptStore;
+import org.openbaton.nfvo.common.utils.lock.StripedLockManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ScriptStoreClassSuiteTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private FileSystemBlobStore blobStore;
+
+  private ScriptStore scriptStore;
+
+  @Before
+  public void init() {
+    blobStore = FileSystemBlobStoreClassSuiteTest.createBlobStore(folder.getRoot());
+    StripedLockManager stripedLockManager = new StripedLockManager();
+    ReflectionTestUtils.setField(stripedLockManager, "stripes", 16);
+    ReflectionTestUtils.invokeMethod(stripedLockManager, "init");
+    scriptStore = new ScriptStore();
+    ReflectionTestUtils.setField(scriptStore, "blobStore", blobStore);
+    ReflectionTestUtils.setField(scriptStore, "stripedLockManager", stripedLockManager);
+  }
+
+  @Test
+  public void savedScriptPayloadKeptTest() throws Exception {
+    Script script = createScript("install.sh", "echo install");
+    try (ScriptStore.Staging staging = scriptStore.stage(checksum -> false)) {
+      staging.add(script);
+      Assert.assertFalse(blobStore.exists(script.getPayloadChecksum()));
+      staging.commit(Collections.singleton(script));
+      staging.saved();
+    }
+
+    Assert.assertArrayEquals(script.getPayload(), scriptStore.read(script));
+  }
+
+  @Test
+  public void unsavedScriptPayloadRemovedTest() throws Exception {
+    Script committed = createScript("install.sh", "echo install");
+    Script dropped = createScript("configure.sh", "echo configure");
+    try (ScriptStore.Staging staging = scriptStore.stage(checksum -> false)) {
+      staging.add(committed);
+      staging.add(dropped, new ByteArrayInputStream(dropped.getPayload()));
+      staging.commit(Collections.singleton(committed));
+      Assert.assertTrue(blobStore.exists(committed.getPayloadChecksum()));
+    }
+
+    Assert.assertFalse(blobStore.exists(committed.getPayloadChecksum()));
+    Assert.assertFalse(blobStore.exists(dropped.getPayloadChecksum()));
+  }
+
+  @Test
+  public void unsavedScriptPayloadStillReferencedKeptTest() throws Exception {
+    Script script = createScript("install.sh", "echo install");
+    String checksum = blobStore.put(script.getPayload());
+    try (ScriptStore.Staging staging = scriptStore.stage(checksum::equals)) {
+      staging.add(script);
+      staging.commit(Collections.singleton(script));
+    }
+
+    Assert.assertTrue(blobStore.exists(checksum));
+  }
+
+  @Test
+  public void pinnedPayloadNotReleasedTest() throws Exception {
+    Script script = createScript("install.sh", "echo install");
+    try (ScriptStore.Staging staging = scriptStore.stage(checksum -> false)) {
+      staging.add(script);
+      staging.commit(Collections.singleton(script));
+      // e.g. another package with the same script was removed before this one is saved
+      scriptStore.release(script.getPayloadChecksum(), checksum -> false);
+      Assert.assertTrue(blobStore.exists(script.getPayloadChecksum()));
+      staging.saved();
+    }
+    Assert.assertTrue(blobStore.exists(script.getPayloadChecksum()));
+
+    scriptStore.release(script.getPayloadChecksum(), checksum -> true);
+    Assert.assertTrue(blobStore.exists(script.getPayloadChecksum()));
+    scriptStore.release(script.getPayloadChecksum(), checksum -> false);
+    Assert.assertFalse(blobStore.exists(script.getPayloadChecksum()));
+  }
+
+  private static Script createScript(String name, String content) {
+    Script script = new Script();
+    script.setName(name);
+    script.setPayload(content.getBytes(StandardCharsets.UTF_8));
+    return script;
+  }
+}
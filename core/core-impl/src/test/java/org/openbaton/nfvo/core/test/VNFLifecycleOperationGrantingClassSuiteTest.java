@@ -42,9 +42,11 @@ import org.openbaton.catalogue.mano.descriptor.VNFComponent;
 import org.openbaton.catalogue.mano.descriptor.VirtualDeploymentUnit;
 import org.openbaton.catalogue.mano.record.VNFCInstance;
 import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+import org.openbaton.catalogue.nfvo.Quota;
 import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
 import org.openbaton.exceptions.PluginException;
 import org.openbaton.exceptions.VimException;
+import org.openbaton.nfvo.core.core.QuotaLedger;
 import org.openbaton.nfvo.core.core.VNFLifecycleOperationGranting;
 import org.openbaton.nfvo.repositories.VimRepository;
 import org.openbaton.nfvo.vim_interfaces.vim.VimBroker;
@@ -68,9 +70,16 @@ public class VNFLifecycleOperationGrantingClassSuiteTest {
   @Mock private VimRepository vimInstanceRepository;
   @Mock private VimBroker vimBroker;
 
+  private QuotaLedger quotaLedger;
+
   @Before
   public void init() {
     MockitoAnnotations.initMocks(this);
+    quotaLedger = new QuotaLedger();
+    ReflectionTestUtils.setField(quotaLedger, "vimBroker", vimBroker);
+    ReflectionTestUtils.setField(quotaLedger, "refreshInterval", 60);
+    ReflectionTestUtils.setField(quotaLedger, "reservationTimeout", 3600);
+    ReflectionTestUtils.setField(vnfLifecycleOperationGranting, "quotaLedger", quotaLedger);
     ReflectionTestUtils.setField(vnfLifecycleOperationGranting, "isQuotaCheckEnabled", true);
     ReflectionTestUtils.setField(
         vnfLifecycleOperationGranting, "failingQuotaCheckOnException", true);
@@ -90,11 +99,64 @@ public class VNFLifecycleOperationGrantingClassSuiteTest {
     log.debug(granted.size() + " == " + vnfr.getVdu().size());
     Assert.assertTrue(granted.size() == vnfr.getVdu().size());
 
+    // the quota of the vim changed outside of the NFVO
     when(vimBroker.getLeftQuota(any(BaseVimInstance.class))).thenReturn(createMinQuota());
+    vnfLifecycleOperationGranting.releaseReservation(vnfr);
+    quotaLedger.invalidate(createVimInstance().getId());
     granted = vnfLifecycleOperationGranting.grantLifecycleOperation(vnfr);
     Assert.assertFalse(granted.size() == vnfr.getVdu().size());
   }
 
+  @Test
+  public void vnfLifecycleOperationGrantingReservationTest() throws VimException, PluginException {
+    VirtualNetworkFunctionRecord first = createVirtualNetworkFunctionRecord();
+    first.setId("first_vnfr_id");
+    VirtualNetworkFunctionRecord second = createVirtualNetworkFunctionRecord();
+    second.setId("second_vnfr_id");
+
+    when(vimInstanceRepository.findByProjectIdAndName(anyString(), anyString()))
+        .thenReturn(createVimInstance());
+    // each of the three VDUs has one of its two VNFCs still to create
+    Quota quota = createMaxQuota();
+    quota.setInstances(3);
+    when(vimBroker.getLeftQuota(any(BaseVimInstance.class))).thenReturn(quota);
+
+    Map<String, BaseVimInstance> granted =
+        vnfLifecycleOperationGranting.grantLifecycleOperation(first);
+    Assert.assertEquals(first.getVdu().size(), granted.size());
+
+    // the vim still reports the same quota left, but the first VNFR took it all
+    granted = vnfLifecycleOperationGranting.grantLifecycleOperation(second);
+    Assert.assertTrue(granted.isEmpty());
+
+    vnfLifecycleOperationGranting.releaseReservation(first);
+    granted = vnfLifecycleOperationGranting.grantLifecycleOperation(second);
+    Assert.assertEquals(second.getVdu().size(), granted.size());
+  }
+
+  @Test
+  public void vnfLifecycleOperationGrantingScaleOutTest() throws VimException, PluginException {
+    VirtualNetworkFunctionRecord first = createVirtualNetworkFunctionRecord();
+    first.setId("first_vnfr_id");
+    VirtualNetworkFunctionRecord second = createVirtualNetworkFunctionRecord();
+    second.setId("second_vnfr_id");
+    BaseVimInstance vimInstance = createVimInstance();
+
+    Quota quota = createMaxQuota();
+    quota.setInstances(4);
+    when(vimBroker.getLeftQuota(any(BaseVimInstance.class))).thenReturn(quota);
+
+    // the running VNFC instances are already counted by the vim
+    Assert.assertSame(
+        vimInstance, vnfLifecycleOperationGranting.checkQuotaOnVimInstance(first, vimInstance));
+    try {
+      vnfLifecycleOperationGranting.checkQuotaOnVimInstance(second, vimInstance);
+      Assert.fail("the first VNFR left only one instance");
+    } catch (VimException expected) {
+      // the quota is reserved for the first VNFR
+    }
+  }
+
   private VirtualNetworkFunctionRecord createVirtualNetworkFunctionRecord() {
     VirtualNetworkFunctionRecord virtualNetworkFunctionRecord = new VirtualNetworkFunctionRecord();
     virtualNetworkFunctionRecord.setMonitoring_parameter(
@@ -21,11 +21,19 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.openbaton.nfvo.core.test.TestUtils.createVimInstance;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import org.junit.Assert;
 import org.junit.Before;
@@ -35,7 +43,10 @@ import org.junit.rules.ExpectedException;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.openbaton.catalogue.mano.record.VirtualLinkRecord;
+import org.openbaton.catalogue.nfvo.images.BaseNfvImage;
 import org.openbaton.catalogue.nfvo.images.NFVImage;
+import org.openbaton.catalogue.nfvo.networks.BaseNetwork;
 import org.openbaton.catalogue.nfvo.networks.Network;
 import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
 import org.openbaton.catalogue.nfvo.viminstances.OpenstackVimInstance;
@@ -44,6 +55,7 @@ import org.openbaton.exceptions.NotFoundException;
 import org.openbaton.exceptions.PluginException;
 import org.openbaton.exceptions.VimException;
 import org.openbaton.nfvo.core.api.VimManagement;
+import org.openbaton.nfvo.core.core.QuotaLedger;
 import org.openbaton.nfvo.repositories.ImageRepository;
 import org.openbaton.nfvo.repositories.NetworkRepository;
 import org.openbaton.nfvo.repositories.VNFDRepository;
@@ -73,6 +85,8 @@ public class VimManagementClassSuiteTest {
 
   @Mock private VNFRRepository vnfrRepository;
 
+  @Mock private QuotaLedger quotaLedger;
+
   private final Logger log = LoggerFactory.getLogger(ApplicationTest.class);
 
   @InjectMocks private VimManagement vimManagement;
@@ -116,8 +130,8 @@ public class VimManagementClassSuiteTest {
     vimInstance_new.setTenant("UpdatedTenant");
     vimInstance_new.setUsername("UpdatedUsername");
     when(vimRepository.save(any(BaseVimInstance.class))).thenReturn(vimInstance_new);
-    when(vnfdRepository.findByProjectId(anyString())).thenReturn(new ArrayList<>());
-    when(vnfrRepository.findByProjectId(anyString())).thenReturn(new ArrayList<>());
+    when(vnfdRepository.findWithVduByProjectId(anyString())).thenReturn(new ArrayList<>());
+    when(vnfrRepository.findWithVduByProjectId(anyString())).thenReturn(new ArrayList<>());
 
     vimInstanceExp =
         (OpenstackVimInstance)
@@ -141,6 +155,135 @@ public class VimManagementClassSuiteTest {
     Assert.assertEquals(vimInstanceExp.getNetworks().size(), 1);
   }
 
+  @Test
+  public void vimManagementRefreshWithoutChangesTest()
+      throws VimException, PluginException, IOException, ExecutionException, InterruptedException {
+    initMocks();
+    OpenstackVimInstance stored = createVimInstance();
+    when(vimRepository.findFirstById(stored.getId())).thenReturn(stored);
+    when(vimBroker.getVim(anyString()).refresh(any(BaseVimInstance.class)))
+        .thenReturn(createVimInstance());
+
+    BaseVimInstance refreshed = vimManagement.refresh(createVimInstance(), true).get();
+
+    verify(vimRepository, never()).save(any(BaseVimInstance.class));
+    Assert.assertSame(stored, refreshed);
+    verify(quotaLedger).invalidate(stored.getId());
+  }
+
+  @Test
+  public void vimManagementRefreshWithChangesTest()
+      throws VimException, PluginException, IOException, ExecutionException, InterruptedException {
+    initMocks();
+    OpenstackVimInstance stored = createVimInstance();
+    for (BaseNfvImage image : stored.getImages()) {
+      image.setId("id_" + image.getExtId());
+    }
+    when(vimRepository.findFirstById(stored.getId())).thenReturn(stored);
+    OpenstackVimInstance fetched = createVimInstance();
+    for (BaseNfvImage image : fetched.getImages()) {
+      if (image.getExtId().equals("ext_id_2")) {
+        ((NFVImage) image).setName("image_name_2");
+      }
+    }
+    Network network = new Network();
+    network.setExtId("ext_id_new");
+    network.setName("new_network");
+    fetched.getNetworks().add(network);
+    when(vimBroker.getVim(anyString()).refresh(any(BaseVimInstance.class))).thenReturn(fetched);
+    when(vimRepository.save(any(BaseVimInstance.class))).thenReturn(fetched);
+
+    vimManagement.refresh(createVimInstance(), true).get();
+
+    verify(vimRepository, times(1)).save(fetched);
+    Assert.assertEquals(1L, (long) fetched.getInventoryVersion());
+    Assert.assertEquals(2, fetched.getNetworks().size());
+    for (BaseNfvImage image : fetched.getImages()) {
+      Assert.assertEquals("id_" + image.getExtId(), image.getId());
+    }
+  }
+
+  @Test
+  public void vimManagementRefreshNetworksWithoutChangesTest()
+      throws VimException, PluginException {
+    initMocks();
+    OpenstackVimInstance stored = createVimInstance();
+    when(vimRepository.findFirstById(stored.getId())).thenReturn(stored);
+    List<BaseNetwork> fetched = new ArrayList<>(createVimInstance().getNetworks());
+    fetched.add(createNetwork("other_ext_id", "other_network"));
+    when(vimBroker.getVim(anyString()).queryNetwork(any(BaseVimInstance.class)))
+        .thenReturn(fetched);
+
+    BaseVimInstance refreshed =
+        vimManagement.refreshNetworks(stored, Collections.singleton("network_name"));
+
+    verify(vimRepository, never()).save(any(BaseVimInstance.class));
+    Assert.assertSame(stored, refreshed);
+    Assert.assertEquals(1, refreshed.getNetworks().size());
+  }
+
+  @Test
+  public void vimManagementRefreshNetworksWithChangesTest()
+      throws VimException, PluginException {
+    initMocks();
+    OpenstackVimInstance stored = createVimInstance();
+    stored.addNetwork(createNetwork("untouched_ext_id", "untouched_network"));
+    when(vimRepository.findFirstById(stored.getId())).thenReturn(stored);
+    when(vimRepository.save(any(BaseVimInstance.class))).thenAnswer(i -> i.getArguments()[0]);
+    List<BaseNetwork> fetched = new ArrayList<>();
+    Network changed = createNetwork("ext_id", "network_name");
+    changed.setExternal(true);
+    fetched.add(changed);
+    fetched.add(createNetwork("new_ext_id", "new_network"));
+    fetched.add(createNetwork("other_ext_id", "other_network"));
+    when(vimBroker.getVim(anyString()).queryNetwork(any(BaseVimInstance.class)))
+        .thenReturn(fetched);
+
+    BaseVimInstance refreshed =
+        vimManagement.refreshNetworks(
+            stored, new HashSet<>(Arrays.asList("network_name", "new_network")));
+
+    verify(vimRepository, times(1)).save(stored);
+    Set<String> names = new HashSet<>();
+    for (BaseNetwork network : refreshed.getNetworks()) {
+      names.add(network.getName());
+      if (network.getName().equals("network_name")) {
+        Assert.assertTrue(((Network) network).getExternal());
+      }
+    }
+    Assert.assertEquals(
+        new HashSet<>(Arrays.asList("network_name", "new_network", "untouched_network")), names);
+    Assert.assertEquals(1L, (long) refreshed.getInventoryVersion());
+  }
+
+  private Network createNetwork(String extId, String name) {
+    Network network = new Network();
+    network.setExtId(extId);
+    network.setName(name);
+    return network;
+  }
+
+  @Test
+  public void vimManagementDeleteNetworkTest()
+      throws VimException, PluginException, NotFoundException, ExecutionException,
+          InterruptedException {
+    initMocks();
+    OpenstackVimInstance vimInstance = createVimInstance();
+    when(vimRepository.findFirstById(vimInstance.getId())).thenReturn(vimInstance);
+    VirtualLinkRecord vlr = new VirtualLinkRecord();
+    vlr.setVim_id(vimInstance.getId());
+    vlr.setExtId("ext_id");
+
+    vimManagement.deleteNetwork(vlr).get();
+
+    verify(vimBroker.getVim(anyString()), times(1))
+        .delete(vimInstance, vimInstance.getNetworks().iterator().next());
+
+    vlr.setExtId("unknown_ext_id");
+    exception.expect(NotFoundException.class);
+    vimManagement.deleteNetwork(vlr);
+  }
+
   @Test
   public void nfvImageManagementAddTest()
       throws VimException, PluginException, IOException, BadRequestException, ExecutionException,
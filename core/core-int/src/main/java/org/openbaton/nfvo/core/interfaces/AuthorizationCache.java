@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.core.interfaces;
+
+import java.util.List;
+import org.openbaton.catalogue.security.BaseUser;
+import org.openbaton.catalogue.security.Project;
+import org.openbaton.exceptions.NotFoundException;
+
+/**
+ * Keeps in memory the users, services and projects needed to authorize the API requests. The
+ * management of users, services and projects invalidates the entries it changes.
+ */
+public interface AuthorizationCache {
+
+  /** Returns the user, or the service if there is no user, with the given name. */
+  BaseUser queryPrincipal(String name) throws NotFoundException;
+
+  /** Returns the project with the given id, or null if it does not exist. */
+  Project queryProject(String id);
+
+  /** Returns the project with the given name, or null if it does not exist. */
+  Project queryProjectByName(String name);
+
+  List<Project> queryProjects();
+
+  void invalidatePrincipal(String name);
+
+  void invalidatePrincipals();
+
+  void invalidateProjects();
+}
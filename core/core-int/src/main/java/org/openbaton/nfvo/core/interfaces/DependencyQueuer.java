@@ -25,7 +25,7 @@ import org.openbaton.exceptions.NotFoundException;
 
 /** Created by lto on 19/08/15. */
 public interface DependencyQueuer {
-  void waitForVNFR(String targetDependencyId, Set<String> sourceNames);
+  void waitForVNFR(String nsrId, String targetDependencyId, Set<String> sourceNames);
 
   void releaseVNFR(String vnfrId, NetworkServiceRecord nsr)
       throws NotFoundException, BadFormatException, ExecutionException, InterruptedException;
@@ -23,5 +23,11 @@ import org.openbaton.catalogue.nfvo.EventEndpoint;
 
 /** Created by lto on 01/07/15. */
 public interface EventSender {
-  Future<Void> send(EventEndpoint endpoint, ApplicationEventNFVO event);
+
+  /**
+   * Queues the event for delivery to the endpoint and returns without waiting for it.
+   *
+   * @param body the event as JSON, serialized once and shared by all the endpoints it is sent to
+   */
+  Future<Void> send(EventEndpoint endpoint, ApplicationEventNFVO event, String body);
 }
@@ -30,7 +30,11 @@ import org.openbaton.exceptions.VimException;
 /** Created by mpa on 30/04/15. */
 public interface NetworkManagement {
 
-  /** This operation allows adding new VNF software images to the image repository. */
+  /**
+   * Creates the network on the vim instance and stores it. The vim instance itself is not
+   * modified, so that several networks can be created on it in parallel: refresh its networks
+   * afterwards to see the new ones.
+   */
   BaseNetwork add(BaseVimInstance vimInstance, BaseNetwork network)
       throws VimException, PluginException, BadRequestException, IOException,
           AlreadyExistingException, ExecutionException, InterruptedException;
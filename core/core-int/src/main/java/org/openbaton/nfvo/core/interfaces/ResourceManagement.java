@@ -118,4 +118,17 @@ public interface ResourceManagement {
       String userdata)
       throws InterruptedException, ExecutionException, PluginException, VimException,
           VimDriverException;
+
+  /**
+   * Allocates the given VNFComponents of the VDU at once, launching their VMs with a single call to
+   * the vim driver when the driver supports it. The VNFCInstances launched successfully are added
+   * to the VDU even if the launch of others failed.
+   */
+  Future<List<VNFCInstance>> allocate(
+      VirtualDeploymentUnit vdu,
+      VirtualNetworkFunctionRecord virtualNetworkFunctionRecord,
+      List<VNFComponent> components,
+      BaseVimInstance vimInstance,
+      String userdata)
+      throws InterruptedException, ExecutionException, PluginException, VimException;
 }
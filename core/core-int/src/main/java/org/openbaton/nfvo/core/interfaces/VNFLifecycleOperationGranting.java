@@ -37,4 +37,13 @@ public interface VNFLifecycleOperationGranting {
   BaseVimInstance checkQuotaOnVimInstance(
       VirtualNetworkFunctionRecord virtualNetworkFunctionRecord, BaseVimInstance vimInstance)
       throws VimException, PluginException;
+
+  /**
+   * Marks the resources reserved for the VNFR as allocated on the vim instances, so that they are
+   * not counted twice once the vim reports them.
+   */
+  void confirmReservation(VirtualNetworkFunctionRecord virtualNetworkFunctionRecord);
+
+  /** Gives back the resources reserved for the VNFR by a grant. */
+  void releaseReservation(VirtualNetworkFunctionRecord virtualNetworkFunctionRecord);
 }
@@ -18,6 +18,7 @@
 package org.openbaton.nfvo.core.interfaces;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
@@ -49,6 +50,15 @@ public interface VNFPackageManagement {
           AlreadyExistingException, NetworkServiceIntegrityException, BadRequestException,
           InterruptedException, EntityUnreachableException, BadFormatException, ExecutionException;
 
+  /**
+   * Like {@link #onboard(byte[], String)}, reading the VNF Package from the stream without holding
+   * it in memory.
+   */
+  VirtualNetworkFunctionDescriptor onboard(InputStream pack, String projectId)
+      throws IOException, VimException, NotFoundException, PluginException, IncompatibleVNFPackage,
+          AlreadyExistingException, NetworkServiceIntegrityException, BadRequestException,
+          InterruptedException, EntityUnreachableException, BadFormatException, ExecutionException;
+
   /** This operation allows submitting and validating the VNF Package from the marketplace. */
   /**
    * This operation handles reading the Metadata of the VNF Package
@@ -73,6 +83,18 @@ public interface VNFPackageManagement {
           NetworkServiceIntegrityException, EntityUnreachableException, InterruptedException,
           BadFormatException, ExecutionException;
 
+  /**
+   * Like {@link #add(byte[], boolean, String, boolean)}, reading the VNF Package from the stream
+   * without holding it in memory.
+   */
+  VirtualNetworkFunctionDescriptor add(
+      InputStream pack, boolean isImageIncluded, String projectId, boolean fromMarketPlace)
+      throws IOException, VimException, NotFoundException, SQLException, PluginException,
+          ExistingVNFPackage, DescriptorWrongFormat, VNFPackageFormatException,
+          IncompatibleVNFPackage, BadRequestException, AlreadyExistingException,
+          NetworkServiceIntegrityException, EntityUnreachableException, InterruptedException,
+          BadFormatException, ExecutionException;
+
   /**
    * This operation handles the data about the image of the vnf package
    *
@@ -107,6 +129,12 @@ public interface VNFPackageManagement {
           NotFoundException, PluginException, NetworkServiceIntegrityException, BadRequestException,
           InterruptedException, EntityUnreachableException, BadFormatException;
 
+  /** Like {@link #onboardFromMarket(String, String)}, for a package already downloaded. */
+  VirtualNetworkFunctionDescriptor onboardFromMarket(InputStream pack, String projectId)
+      throws IOException, AlreadyExistingException, IncompatibleVNFPackage, VimException,
+          NotFoundException, PluginException, NetworkServiceIntegrityException, BadRequestException,
+          InterruptedException, EntityUnreachableException, BadFormatException;
+
   /**
    * This operation allows submitting and validating the VNF Package from the Package Repository.
    *
@@ -151,8 +179,22 @@ public interface VNFPackageManagement {
   /** This operation is used to remove a disabled VNF Package. */
   void delete(String id, String projectId) throws WrongAction;
 
+  /**
+   * Removes the VNF Package, once its VNFDs were removed, together with the script payloads that no
+   * other script uses.
+   */
+  void removePackage(String id);
+
+  /**
+   * Replaces the payload of the script with the one set on it and sends the script to the VNFMs of
+   * the VNFRs created from the package.
+   */
   Script updateScript(Script script, String vnfPackageId)
-      throws NotFoundException, BadFormatException, ExecutionException, InterruptedException;
+      throws NotFoundException, BadFormatException, ExecutionException, InterruptedException,
+          IOException;
+
+  /** Reads the payload of the script from the blob store. */
+  byte[] getScriptPayload(Script script) throws IOException;
 
   Iterable<VNFPackage> queryByProjectId(String projectId);
 }
@@ -54,6 +54,17 @@ public interface VimManagement {
       throws VimException, PluginException, IOException, BadRequestException,
           AlreadyExistingException;
 
+  /**
+   * Refreshes only the networks of the vim instance whose name or external id is in the given set,
+   * leaving the rest of the stored vim instance untouched.
+   *
+   * @param vimInstance the vim instance to refresh
+   * @param names the names or external ids of the networks to refresh
+   * @return the stored vim instance with the refreshed networks
+   */
+  BaseVimInstance refreshNetworks(BaseVimInstance vimInstance, Set<String> names)
+      throws VimException, PluginException;
+
   /**
    * Adds a new NFVImage to the VimInstance with id
    *
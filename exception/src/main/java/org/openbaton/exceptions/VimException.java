@@ -17,6 +17,8 @@
 
 package org.openbaton.exceptions;
 
+import java.util.Collections;
+import java.util.List;
 import org.openbaton.catalogue.mano.descriptor.VirtualDeploymentUnit;
 import org.openbaton.catalogue.mano.record.VNFCInstance;
 
@@ -34,6 +36,8 @@ public class VimException extends Exception {
 
   private VirtualDeploymentUnit virtualDeploymentUnit;
 
+  private List<VNFCInstance> vnfcInstances;
+
   public VimException(String s) {
     super(s);
   }
@@ -63,4 +67,21 @@ public class VimException extends Exception {
   public void setVnfcInstance(VNFCInstance vnfcInstance) {
     this.vnfcInstance = vnfcInstance;
   }
+
+  /**
+   * Returns the VNFCInstances of all the VMs not deployed correctly, which are more than one when
+   * several VMs were launched at once.
+   */
+  public List<VNFCInstance> getVnfcInstances() {
+    if (vnfcInstances != null) {
+      return vnfcInstances;
+    }
+    return vnfcInstance != null
+        ? Collections.singletonList(vnfcInstance)
+        : Collections.<VNFCInstance>emptyList();
+  }
+
+  public void setVnfcInstances(List<VNFCInstance> vnfcInstances) {
+    this.vnfcInstances = vnfcInstances;
+  }
 }
@@ -6,18 +6,24 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurerSupport;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /** Created by mob on 09/02/2017. */
 /*
 This class enable the entire application to use methods annotated with @Async
-The Executor, which will be used, can be configured here.
+The Executors, which will be used, can be configured here. There is one bounded executor per kind
+of work, selected with @Async("<name>"):
+ - vnfmExecutor: VNFM tasks and messages, also the default for @Async without a name
+ - vimExecutor: calls to the VIM drivers
+ - eventExecutor: delivery of events to the subscribers
+ - housekeepingExecutor: periodic and delayed background work
+ - marketplaceExecutor: lookups and downloads of packages from the marketplace
+ - toscaExecutor: conversion of the VNFs of the TOSCA templates
  */
 @Configuration
 @EnableAsync
 public class AsyncExecutorConfig extends AsyncConfigurerSupport {
 
-  @Value("${nfvo.vmanager.executor.maxpoolsize:-1}")
+  @Value("${nfvo.vmanager.executor.maxpoolsize:200}")
   private int maxPoolSize;
 
   @Value("${nfvo.vmanager.executor.corepoolsize:1}")
@@ -29,17 +35,118 @@ public class AsyncExecutorConfig extends AsyncConfigurerSupport {
   @Value("${nfvo.vmanager.executor.keepalive:60}")
   private int keepAliveSeconds;
 
+  @Value("${nfvo.executor.vim.corepoolsize:10}")
+  private int vimCorePoolSize;
+
+  @Value("${nfvo.executor.vim.maxpoolsize:100}")
+  private int vimMaxPoolSize;
+
+  @Value("${nfvo.executor.vim.queuecapacity:1000}")
+  private int vimQueueCapacity;
+
+  @Value("${nfvo.executor.event.corepoolsize:5}")
+  private int eventCorePoolSize;
+
+  @Value("${nfvo.executor.event.maxpoolsize:20}")
+  private int eventMaxPoolSize;
+
+  @Value("${nfvo.executor.event.queuecapacity:1000}")
+  private int eventQueueCapacity;
+
+  @Value("${nfvo.executor.housekeeping.corepoolsize:2}")
+  private int housekeepingCorePoolSize;
+
+  @Value("${nfvo.executor.housekeeping.maxpoolsize:10}")
+  private int housekeepingMaxPoolSize;
+
+  @Value("${nfvo.executor.housekeeping.queuecapacity:500}")
+  private int housekeepingQueueCapacity;
+
+  @Value("${nfvo.executor.marketplace.corepoolsize:5}")
+  private int marketplaceCorePoolSize;
+
+  @Value("${nfvo.executor.marketplace.maxpoolsize:20}")
+  private int marketplaceMaxPoolSize;
+
+  @Value("${nfvo.executor.marketplace.queuecapacity:0}")
+  private int marketplaceQueueCapacity;
+
+  @Value("${nfvo.executor.tosca.corepoolsize:2}")
+  private int toscaCorePoolSize;
+
+  @Value("${nfvo.executor.tosca.maxpoolsize:8}")
+  private int toscaMaxPoolSize;
+
+  @Value("${nfvo.executor.tosca.queuecapacity:0}")
+  private int toscaQueueCapacity;
+
+  /** Runs the tasks of all the executors on virtual threads, needs Java 21 or later. */
+  @Value("${nfvo.executor.virtualthreads:false}")
+  private boolean virtualThreads;
+
+  @Value("${nfvo.executor.virtualthreads.maxpoolsize:10000}")
+  private int virtualThreadsMaxPoolSize;
+
   @Override
-  @Bean
   public Executor getAsyncExecutor() {
-    if (maxPoolSize < 0) maxPoolSize = Integer.MAX_VALUE;
-    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-    executor.setCorePoolSize(corePoolSize);
-    executor.setQueueCapacity(queueCapacity);
-    executor.setMaxPoolSize(maxPoolSize);
-    executor.setKeepAliveSeconds(keepAliveSeconds);
-    executor.setThreadNamePrefix("OpenBatonAsyncTask-");
-    executor.initialize();
+    return vnfmExecutor();
+  }
+
+  /**
+   * VNFM tasks wait for the results of other tasks running on this executor (e.g. a task waiting
+   * for the allocation of its resources), so tasks should not be queued behind the waiting ones:
+   * keep the queue capacity at 0 and let the calling thread run the task when all the threads are
+   * busy.
+   */
+  @Bean
+  public BoundedTaskExecutor vnfmExecutor() {
+    return create("vnfm", corePoolSize, maxPoolSize, queueCapacity);
+  }
+
+  @Bean
+  public BoundedTaskExecutor vimExecutor() {
+    return create("vim", vimCorePoolSize, vimMaxPoolSize, vimQueueCapacity);
+  }
+
+  @Bean
+  public BoundedTaskExecutor eventExecutor() {
+    return create("event", eventCorePoolSize, eventMaxPoolSize, eventQueueCapacity);
+  }
+
+  @Bean
+  public BoundedTaskExecutor housekeepingExecutor() {
+    return create(
+        "housekeeping",
+        housekeepingCorePoolSize,
+        housekeepingMaxPoolSize,
+        housekeepingQueueCapacity);
+  }
+
+  @Bean
+  public BoundedTaskExecutor marketplaceExecutor() {
+    return create(
+        "marketplace",
+        marketplaceCorePoolSize,
+        marketplaceMaxPoolSize,
+        marketplaceQueueCapacity);
+  }
+
+  /**
+   * The conversion only uses the CPU, so a few threads are enough; with no queue the parsing thread
+   * converts the VNFs itself when they are all busy.
+   */
+  @Bean
+  public BoundedTaskExecutor toscaExecutor() {
+    return create("tosca", toscaCorePoolSize, toscaMaxPoolSize, toscaQueueCapacity);
+  }
+
+  private BoundedTaskExecutor create(
+      String name, int corePoolSize, int maxPoolSize, int queueCapacity) {
+    BoundedTaskExecutor executor =
+        new BoundedTaskExecutor(name, corePoolSize, maxPoolSize, queueCapacity, keepAliveSeconds);
+    if (virtualThreads) {
+      executor.useVirtualThreads(virtualThreadsMaxPoolSize);
+    }
     return executor;
   }
 
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.system;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * ThreadPoolTaskExecutor with a bounded number of threads and a bounded queue. When both are full
+ * the task is run by the submitting thread, which slows the producer down instead of creating more
+ * threads. The active, queued and rejected (i.e. run by the caller) counts are exposed as metrics
+ * named nfvo.executor.&lt;name&gt;.*
+ */
+public class BoundedTaskExecutor extends ThreadPoolTaskExecutor implements PublicMetrics {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final String name;
+  private final AtomicLong rejected = new AtomicLong();
+
+  public BoundedTaskExecutor(
+      String name, int corePoolSize, int maxPoolSize, int queueCapacity, int keepAliveSeconds) {
+    this.name = name;
+    setCorePoolSize(corePoolSize);
+    setMaxPoolSize(Math.max(corePoolSize, maxPoolSize));
+    setQueueCapacity(queueCapacity);
+    setKeepAliveSeconds(keepAliveSeconds);
+    setThreadNamePrefix("OpenBaton-" + name + "-");
+    setRejectedExecutionHandler(this::rejected);
+  }
+
+  /**
+   * Runs every task on its own virtual thread, up to maxThreads at the same time, instead of on
+   * pooled platform threads. Blocked tasks then cost little memory, so the executor can allow far
+   * more tasks in flight. Virtual threads exist since Java 21, on older runtimes the executor keeps
+   * using platform threads.
+   *
+   * @return true if virtual threads are used
+   */
+  public boolean useVirtualThreads(int maxThreads) {
+    ThreadFactory threadFactory = virtualThreadFactory("OpenBaton-" + name + "-virtual-");
+    if (threadFactory == null) {
+      log.warn(
+          "Virtual threads are not supported by this Java runtime, executor "
+              + name
+              + " uses platform threads");
+      return false;
+    }
+    setThreadFactory(threadFactory);
+    setMaxPoolSize(Math.max(getCorePoolSize(), maxThreads));
+    // a new thread costs less than waiting in the queue
+    setQueueCapacity(0);
+    log.debug("Executor " + name + " runs its tasks on virtual threads");
+    return true;
+  }
+
+  /**
+   * Returns a factory of virtual threads, or null if the runtime does not support them. Looked up
+   * by reflection as the code is compiled for Java 8.
+   */
+  static ThreadFactory virtualThreadFactory(String prefix) {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builder =
+          builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private void rejected(Runnable task, ThreadPoolExecutor executor) {
+    if (executor.isShutdown()) {
+      throw new RejectedExecutionException("Executor " + name + " is shut down");
+    }
+    if (rejected.incrementAndGet() % 100 == 1) {
+      log.warn(
+          "Executor "
+              + name
+              + " is saturated ("
+              + executor.getActiveCount()
+              + " active, "
+              + executor.getQueue().size()
+              + " queued), running the task in the calling thread");
+    }
+    task.run();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getRejectedCount() {
+    return rejected.get();
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    Collection<Metric<?>> metrics = new ArrayList<>();
+    String prefix = "nfvo.executor." + name + ".";
+    metrics.add(new Metric<>(prefix + "active", getActiveCount()));
+    metrics.add(new Metric<>(prefix + "pool.size", getPoolSize()));
+    metrics.add(new Metric<>(prefix + "queued", getThreadPoolExecutor().getQueue().size()));
+    metrics.add(new Metric<>(prefix + "rejected", rejected.get()));
+    return metrics;
+  }
+}
@@ -27,6 +27,7 @@ import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.listener.ConditionalRejectingErrorHandler;
@@ -53,6 +54,7 @@ public class RabbitConfiguration {
   static final String queueName_vnfmCoreActionsReply = "vnfm.nfvo.actions.reply";
   static final String queueName_eventRegister = "nfvo.event.register";
   static final String queueName_eventUnregister = "nfvo.event.unregister";
+  static final String queueName_nfvoVnfmActionsReply = "nfvo.vnfm.actions.reply";
 
   @Value("${nfvo.rabbitmq.autodelete:true}")
   private boolean autodelete;
@@ -141,6 +143,11 @@ public class RabbitConfiguration {
     return new Queue(queueName_vnfmCoreActionsReply, durable, exclusive, autodelete);
   }
 
+  @Bean
+  Queue queue_nfvoVnfmActionsReply() {
+    return new Queue(queueName_nfvoVnfmActionsReply, false, false, true);
+  }
+
   @Bean
   TopicExchange exchange() {
     return new TopicExchange("openbaton-exchange");
@@ -314,6 +321,27 @@ public class RabbitConfiguration {
     return container;
   }
 
+  /**
+   * ***************************
+   *
+   * <p>Defining Request/Reply templates
+   *
+   * <p>***************************
+   */
+  /**
+   * Template used for sending commands to the VNFMs. All the answers arrive on one reply queue and
+   * are matched to the pending request by correlation id, so no thread waits for them. The reply
+   * timeout is applied per action by the sender.
+   */
+  @Bean
+  AsyncRabbitTemplate vnfmAsyncRabbitTemplate(ConnectionFactory connectionFactory) {
+    AsyncRabbitTemplate asyncRabbitTemplate =
+        new AsyncRabbitTemplate(
+            connectionFactory, "openbaton-exchange", "", queueName_nfvoVnfmActionsReply);
+    asyncRabbitTemplate.setReceiveTimeout(0);
+    return asyncRabbitTemplate;
+  }
+
   /**
    * Extension of Spring-AMQP's {@link ConditionalRejectingErrorHandler.DefaultExceptionStrategy}.
    * It regards a {@link JsonSyntaxException}, which may appear while demarshalling a message from a
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.system;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.openbaton.nfvo.common.utils.blob.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves the script payloads stored in the database by older versions into the {@link BlobStore}.
+ * The old payload column is left in place by the schema update, once a payload is moved it is
+ * cleared so that it is not moved again.
+ */
+@Service
+@Order(value = Ordered.HIGHEST_PRECEDENCE)
+class ScriptPayloadMigration implements CommandLineRunner {
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+
+  @Autowired private DataSource dataSource;
+  @Autowired private BlobStore blobStore;
+
+  @Override
+  public void run(String... args) throws Exception {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    AtomicInteger migrated = new AtomicInteger();
+    try {
+      jdbcTemplate.query(
+          "SELECT id, payload FROM script WHERE payload IS NOT NULL",
+          (ResultSet resultSet) -> {
+            try {
+              String checksum = blobStore.put(resultSet.getBinaryStream("payload"));
+              jdbcTemplate.update(
+                  "UPDATE script SET payload_checksum = ?, payload = NULL WHERE id = ?",
+                  checksum,
+                  resultSet.getString("id"));
+              migrated.incrementAndGet();
+            } catch (IOException e) {
+              throw new SQLException("Not able to store the payload of a script", e);
+            }
+          });
+    } catch (BadSqlGrammarException e) {
+      // the database was created without the old payload column, nothing to migrate
+      log.trace("No script payloads to migrate: " + e.getMessage());
+      return;
+    } catch (DataAccessException e) {
+      log.warn("Not able to move the script payloads to the blob store: " + e.getMessage());
+      return;
+    }
+    if (migrated.get() > 0) {
+      log.info("Moved " + migrated.get() + " script payloads to the blob store");
+    }
+  }
+}
@@ -0,0 +1,3 @@
+ALTER TABLE openstack_vim_instance ADD inventory_version bigint DEFAULT 0;
+ALTER TABLE docker_vim_instance ADD inventory_version bigint DEFAULT 0;
+ALTER TABLE generic_vim_instance ADD inventory_version bigint DEFAULT 0;
@@ -0,0 +1 @@
+ALTER TABLE script ADD payload_checksum varchar(255);
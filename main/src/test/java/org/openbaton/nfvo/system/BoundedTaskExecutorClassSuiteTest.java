@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.system;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Runs a simulated deployment of VNFCs on platform and on virtual threads: every VNFC is an
+ * orchestration task on the VNFM executor waiting for an allocation on the VIM executor, which
+ * blocks as a call to a VIM driver does. The virtual thread run is skipped on runtimes older than
+ * Java 21.
+ */
+public class BoundedTaskExecutorClassSuiteTest {
+
+  private static final int VNFCS = 200;
+  private static final long DRIVER_CALL_MILLIS = 5;
+
+  @Test
+  public void saturatedExecutorRunsTaskInCallerTest() throws Exception {
+    BoundedTaskExecutor executor = new BoundedTaskExecutor("test", 1, 1, 0, 30);
+    executor.initialize();
+    CountDownLatch busy = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      executor.execute(
+          () -> {
+            busy.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+      assertTrue(busy.await(1, TimeUnit.MINUTES));
+
+      List<Thread> runners = new ArrayList<>();
+      executor.execute(() -> runners.add(Thread.currentThread()));
+      assertSame(Thread.currentThread(), runners.get(0));
+      assertEquals(1, executor.getRejectedCount());
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void shutDownExecutorRejectsTaskTest() {
+    BoundedTaskExecutor executor = new BoundedTaskExecutor("test", 1, 1, 0, 30);
+    executor.initialize();
+    executor.shutdown();
+    executor.execute(() -> {});
+  }
+
+  @Test
+  public void platformThreadsDeploymentTest() throws Exception {
+    deploy(false);
+  }
+
+  @Test
+  public void virtualThreadsDeploymentTest() throws Exception {
+    deploy(true);
+  }
+
+  private void deploy(boolean virtual) throws Exception {
+    BoundedTaskExecutor vnfmExecutor = new BoundedTaskExecutor("vnfm", 30, 200, 0, 30);
+    BoundedTaskExecutor vimExecutor = new BoundedTaskExecutor("vim", 10, 100, 1000, 30);
+    if (virtual) {
+      Assume.assumeTrue(vnfmExecutor.useVirtualThreads(10000));
+      vimExecutor.useVirtualThreads(10000);
+    }
+    vnfmExecutor.initialize();
+    vimExecutor.initialize();
+    try {
+      List<Future<String>> deployments = new ArrayList<>();
+      for (int i = 0; i < VNFCS; i++) {
+        String vnfcName = "vnfc-" + i;
+        deployments.add(
+            vnfmExecutor.submit(() -> vimExecutor.submit(() -> allocate(vnfcName)).get()));
+      }
+      for (int i = 0; i < VNFCS; i++) {
+        assertEquals("vnfc-" + i, deployments.get(i).get(1, TimeUnit.MINUTES));
+      }
+      if (virtual) {
+        // with virtual threads no task has to wait for a thread, none is run by the caller
+        assertEquals(0, vnfmExecutor.getRejectedCount());
+        assertEquals(0, vimExecutor.getRejectedCount());
+      }
+    } finally {
+      vnfmExecutor.shutdown();
+      vimExecutor.shutdown();
+    }
+  }
+
+  private String allocate(String vnfcName) throws InterruptedException {
+    Thread.sleep(DRIVER_CALL_MILLIS);
+    return vnfcName;
+  }
+}
@@ -25,10 +25,9 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Type;
 import java.util.Collection;
-import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import org.apache.commons.codec.binary.Base64;
 import org.openbaton.catalogue.nfvo.PluginMessage;
@@ -42,19 +41,15 @@ import org.openbaton.nfvo.common.configuration.NfvoGsonDeserializerImage;
 import org.openbaton.nfvo.common.configuration.NfvoGsonDeserializerNetwork;
 import org.openbaton.nfvo.common.configuration.NfvoGsonDeserializerVimInstance;
 import org.openbaton.nfvo.common.configuration.NfvoGsonSerializerVimInstance;
-import org.openbaton.nfvo.common.utils.rabbit.RabbitManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class PluginCaller {
 
   private final String pluginId;
-  private final String brokerIp;
-  private final String username;
-  private final String password;
-  private final String virtualHost;
   private final long timeout;
-  private ConnectionFactory factory;
+  private final PluginRegistry pluginRegistry;
+  private final PluginChannelPool channelPool;
   private Gson gson =
       new GsonBuilder()
           .registerTypeHierarchyAdapter(byte[].class, new ByteArrayToBase64TypeAdapter())
@@ -66,8 +61,6 @@ public class PluginCaller {
           .create();
   private Logger log = LoggerFactory.getLogger(this.getClass());
 
-  private int managementPort;
-
   private static class ByteArrayToBase64TypeAdapter
       implements JsonSerializer<byte[]>, JsonDeserializer<byte[]> {
     public byte[] deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
@@ -102,15 +95,11 @@ public class PluginCaller {
       int managementPort,
       long timeout)
       throws IOException, TimeoutException, NotFoundException {
-    this.pluginId =
-        getFullPluginId(pluginId, brokerIp, username, password, virtualHost, managementPort);
-    this.managementPort = managementPort;
-    this.brokerIp = brokerIp;
-    this.username = username;
-    this.password = password;
-    this.virtualHost = virtualHost;
+    this.pluginRegistry =
+        PluginRegistry.getInstance(brokerIp, username, password, virtualHost, managementPort);
+    this.pluginId = getFullPluginId(pluginId);
     this.timeout = timeout;
-    factory = new ConnectionFactory();
+    ConnectionFactory factory = new ConnectionFactory();
     factory.setHost(brokerIp);
     if (username != null) {
       factory.setUsername(username);
@@ -130,67 +119,68 @@ public class PluginCaller {
     if (virtualHost != null && !"".equals(virtualHost)) {
       factory.setVirtualHost(virtualHost);
     }
+    channelPool = PluginChannelPool.getInstance(factory, PluginChannelPool.DEFAULT_POOL_SIZE);
   }
 
-  private String getFullPluginId(
-      String pluginId,
-      String brokerIp,
-      String username,
-      String password,
-      String virtualHost,
-      int port)
-      throws IOException, NotFoundException {
-    List<String> queues = RabbitManager.getQueues(brokerIp, username, password, virtualHost, port);
-    for (String queue : queues) {
-      if (queue.startsWith(pluginId)) {
-        return queue;
-      }
+  private String getFullPluginId(String pluginId) throws IOException, NotFoundException {
+    String fullPluginId = pluginRegistry.findPluginId(pluginId);
+    if (fullPluginId == null) {
+      throw new NotFoundException(
+          "no plugin found with name: " + pluginId + " into queues: " + pluginRegistry.getQueues());
     }
-    throw new NotFoundException(
-        "no plugin found with name: " + pluginId + " into queues: " + queues);
+    return fullPluginId;
+  }
+
+  /** Returns how long, in milliseconds, a call waits for the answer of the plugin. */
+  public long getTimeout() {
+    return timeout;
   }
 
   public Serializable executeRPC(String methodName, Collection<Serializable> args, Type returnType)
       throws IOException, InterruptedException, PluginException {
+    return executeRPC(methodName, args, returnType, timeout);
+  }
 
-    try (Connection connection = factory.newConnection()) {
-      Channel channel = connection.createChannel();
-      String replyQueueName = channel.queueDeclare().getQueue();
-      String exchange = "openbaton-exchange";
-      channel.queueBind(replyQueueName, exchange, replyQueueName);
-      String corrId = UUID.randomUUID().toString();
-      BasicProperties props = new Builder().correlationId(corrId).replyTo(replyQueueName).build();
+  /**
+   * Calls the method of the plugin waiting for the answer at most the given timeout instead of the
+   * one of this caller, for calls that are expected to last longer.
+   *
+   * @param timeout the milliseconds to wait for the answer, 0 to wait forever
+   */
+  public Serializable executeRPC(
+      String methodName, Collection<Serializable> args, Type returnType, long timeout)
+      throws IOException, InterruptedException, PluginException {
+
+    String corrId = UUID.randomUUID().toString();
+    try {
+      BlockingQueue<String> response = channelPool.registerReply(corrId);
+      BasicProperties props =
+          new Builder().correlationId(corrId).replyTo(channelPool.getReplyQueueName()).build();
 
       PluginMessage pluginMessage = new PluginMessage();
       pluginMessage.setMethodName(methodName);
       pluginMessage.setParameters(args);
 
       String message = gson.toJson(pluginMessage);
-      channel.basicPublish(exchange, pluginId, props, message.getBytes());
-
-      final BlockingQueue<String> response = new ArrayBlockingQueue<String>(1);
-
-      channel.basicConsume(
-          replyQueueName,
-          true,
-          new DefaultConsumer(channel) {
-            @Override
-            public void handleDelivery(
-                String consumerTag, Envelope envelope, BasicProperties properties, byte[] body)
-                throws IOException {
-              if (properties.getCorrelationId().equals(corrId)) {
-                response.offer(new String(body, "UTF-8"));
-              }
-            }
-          });
+      channelPool.publish(pluginId, props, message.getBytes());
 
       //Check if plugin is still up
-      if (!RabbitManager.getQueues(brokerIp, username, password, virtualHost, managementPort)
-          .contains(pluginId)) {
+      if (!pluginRegistry.isPresent(pluginId)) {
         throw new PluginException("Plugin with id: " + pluginId + " not existing anymore...");
       }
       if (returnType != null) {
-        String res = response.take();
+        String res =
+            timeout > 0 ? response.poll(timeout, TimeUnit.MILLISECONDS) : response.take();
+        if (res == null) {
+          throw new PluginException(
+              "Plugin with id: "
+                  + pluginId
+                  + " did not answer to "
+                  + methodName
+                  + " within "
+                  + timeout
+                  + " milliseconds");
+        }
         JsonObject jsonObject = gson.fromJson(res, JsonObject.class);
 
         JsonElement exceptionJson = jsonObject.get("exception");
@@ -223,7 +213,6 @@ public class PluginCaller {
                 "Got Vim Driver Exception with server: "
                     + ((VimDriverException) pluginException.getCause()).getServer());
           } catch (Exception ignored) {
-            channel.queueDelete(replyQueueName);
             pluginException =
                 new PluginException(
                     gson.fromJson(exceptionJson.getAsJsonObject(), Throwable.class));
@@ -231,14 +220,12 @@ public class PluginCaller {
           throw pluginException;
         }
       } else {
-        try {
-          channel.queueDelete(replyQueueName);
-        } catch (Exception ignored) {
-        }
         return null;
       }
     } catch (TimeoutException e) {
       throw new PluginException("Could not open a connection after timeout.");
+    } finally {
+      channelPool.unregisterReply(corrId);
     }
   }
 }
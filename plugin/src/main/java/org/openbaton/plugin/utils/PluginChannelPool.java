@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.plugin.utils;
+
+import com.rabbitmq.client.AMQP.BasicProperties;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import com.rabbitmq.client.DefaultConsumer;
+import com.rabbitmq.client.Envelope;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shares one AMQP connection, a bounded pool of publishing channels and a single reply queue
+ * between all the {@link PluginCaller}s talking to the same broker. Replies are dispatched to the
+ * waiting caller by correlation id, so concurrent RPCs do not need a connection or a queue each.
+ */
+public class PluginChannelPool {
+
+  public static final int DEFAULT_POOL_SIZE = 10;
+
+  private static final String EXCHANGE = "openbaton-exchange";
+
+  private static final Map<String, PluginChannelPool> pools = new ConcurrentHashMap<>();
+
+  private static Logger log = LoggerFactory.getLogger(PluginChannelPool.class);
+
+  private final ConnectionFactory factory;
+  private final int size;
+  private final BlockingQueue<Channel> idleChannels;
+  private final Semaphore permits;
+  private final Map<String, BlockingQueue<String>> pendingReplies = new ConcurrentHashMap<>();
+
+  private Connection connection;
+  private Channel replyChannel;
+  private String replyQueueName;
+
+  private PluginChannelPool(ConnectionFactory factory, int size) {
+    this.factory = factory;
+    this.size = size;
+    this.idleChannels = new ArrayBlockingQueue<>(size);
+    this.permits = new Semaphore(size, true);
+  }
+
+  /**
+   * Returns the pool for the broker the factory points to, creating it on first use. Callers
+   * pointing to the same broker, virtual host and user share the same pool.
+   */
+  public static PluginChannelPool getInstance(ConnectionFactory factory, int size) {
+    String key =
+        factory.getUsername()
+            + "@"
+            + factory.getHost()
+            + ":"
+            + factory.getPort()
+            + factory.getVirtualHost();
+    return pools.computeIfAbsent(key, k -> new PluginChannelPool(factory, size));
+  }
+
+  public String getReplyQueueName() throws IOException, TimeoutException {
+    ensureReplyConsumer();
+    return replyQueueName;
+  }
+
+  /**
+   * Registers a pending RPC and returns the queue its reply will be put into. The registration
+   * must be removed with {@link #unregisterReply(String)} once the reply arrived or the call gave
+   * up.
+   */
+  public BlockingQueue<String> registerReply(String correlationId) {
+    BlockingQueue<String> response = new ArrayBlockingQueue<>(1);
+    pendingReplies.put(correlationId, response);
+    return response;
+  }
+
+  public void unregisterReply(String correlationId) {
+    pendingReplies.remove(correlationId);
+  }
+
+  /** Publishes the message on a pooled channel, waiting for a free one if all are busy. */
+  public void publish(String routingKey, BasicProperties props, byte[] body)
+      throws IOException, TimeoutException, InterruptedException {
+    permits.acquire();
+    Channel channel = null;
+    try {
+      channel = borrowChannel();
+      channel.basicPublish(EXCHANGE, routingKey, props, body);
+    } catch (IOException | RuntimeException e) {
+      discard(channel);
+      channel = null;
+      throw e;
+    } finally {
+      if (channel != null) {
+        idleChannels.offer(channel);
+      }
+      permits.release();
+    }
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public int getPendingReplies() {
+    return pendingReplies.size();
+  }
+
+  public int getAvailableChannels() {
+    return permits.availablePermits();
+  }
+
+  private Channel borrowChannel() throws IOException, TimeoutException {
+    Channel channel;
+    while ((channel = idleChannels.poll()) != null) {
+      if (channel.isOpen()) {
+        return channel;
+      }
+    }
+    return getConnection().createChannel();
+  }
+
+  private void discard(Channel channel) {
+    if (channel != null && channel.isOpen()) {
+      try {
+        channel.close();
+      } catch (IOException | TimeoutException | RuntimeException e) {
+        log.trace("Not able to close channel: " + e.getMessage());
+      }
+    }
+  }
+
+  private synchronized Connection getConnection() throws IOException, TimeoutException {
+    if (connection == null || !connection.isOpen()) {
+      log.debug("Opening plugin connection to " + factory.getHost() + ":" + factory.getPort());
+      connection = factory.newConnection();
+    }
+    return connection;
+  }
+
+  private synchronized void ensureReplyConsumer() throws IOException, TimeoutException {
+    if (replyChannel != null && replyChannel.isOpen()) {
+      return;
+    }
+    replyChannel = getConnection().createChannel();
+    // client named, so that an automatically recovered connection declares it again
+    replyQueueName = "nfvo-plugin-reply." + UUID.randomUUID();
+    replyChannel.queueDeclare(replyQueueName, false, true, true, null);
+    replyChannel.queueBind(replyQueueName, EXCHANGE, replyQueueName);
+    replyChannel.basicConsume(
+        replyQueueName,
+        true,
+        new DefaultConsumer(replyChannel) {
+          @Override
+          public void handleDelivery(
+              String consumerTag, Envelope envelope, BasicProperties properties, byte[] body)
+              throws IOException {
+            String correlationId = properties.getCorrelationId();
+            BlockingQueue<String> response =
+                correlationId != null ? pendingReplies.get(correlationId) : null;
+            if (response != null) {
+              response.offer(new String(body, "UTF-8"));
+            } else {
+              log.debug("Dropping plugin answer with unknown correlation id: " + correlationId);
+            }
+          }
+        });
+    log.debug("Listening for plugin answers on queue " + replyQueueName);
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.plugin.utils;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.openbaton.nfvo.common.utils.rabbit.RabbitManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the set of plugin queues known to be present on a broker. The RabbitMQ management API is
+ * queried at most once per refresh interval; in between the set is kept up to date by the plugin
+ * register and unregister messages.
+ */
+public class PluginRegistry {
+
+  public static final long DEFAULT_REFRESH_INTERVAL = 30000;
+
+  /** Minimum age of the cached queues before a lookup miss is allowed to query the broker. */
+  private static final long MIN_REFRESH_INTERVAL = 1000;
+
+  private static final Map<String, PluginRegistry> registries = new ConcurrentHashMap<>();
+
+  private static Logger log = LoggerFactory.getLogger(PluginRegistry.class);
+
+  private final String brokerIp;
+  private final String username;
+  private final String password;
+  private final String virtualHost;
+  private final int managementPort;
+
+  private volatile Set<String> queues = Collections.emptySet();
+  private volatile long lastRefresh = 0;
+  private volatile long refreshInterval = DEFAULT_REFRESH_INTERVAL;
+
+  private PluginRegistry(
+      String brokerIp, String username, String password, String virtualHost, int managementPort) {
+    this.brokerIp = brokerIp;
+    this.username = username;
+    this.password = password;
+    this.virtualHost = virtualHost;
+    this.managementPort = managementPort;
+  }
+
+  public static PluginRegistry getInstance(
+      String brokerIp, String username, String password, String virtualHost, int managementPort) {
+    String key = username + "@" + brokerIp + ":" + managementPort + virtualHost;
+    return registries.computeIfAbsent(
+        key, k -> new PluginRegistry(brokerIp, username, password, virtualHost, managementPort));
+  }
+
+  /** Marks the plugin as present in every known registry, used when a plugin registers. */
+  public static void pluginRegistered(String pluginId) {
+    for (PluginRegistry registry : registries.values()) {
+      registry.add(pluginId);
+    }
+  }
+
+  /** Removes the plugin from every known registry, used when a plugin unregisters. */
+  public static void pluginUnregistered(String pluginId) {
+    for (PluginRegistry registry : registries.values()) {
+      registry.remove(pluginId);
+    }
+  }
+
+  public void setRefreshInterval(long refreshInterval) {
+    this.refreshInterval = refreshInterval;
+  }
+
+  public boolean isPresent(String pluginId) throws IOException {
+    if (getQueues().contains(pluginId)) {
+      return true;
+    }
+    refreshOnMiss();
+    return queues.contains(pluginId);
+  }
+
+  /** Returns the first queue starting with the given prefix, or null if there is none. */
+  public String findPluginId(String prefix) throws IOException {
+    String pluginId = find(getQueues(), prefix);
+    if (pluginId == null) {
+      refreshOnMiss();
+      pluginId = find(queues, prefix);
+    }
+    return pluginId;
+  }
+
+  public Set<String> getQueues() throws IOException {
+    if (System.currentTimeMillis() - lastRefresh > refreshInterval) {
+      refresh(refreshInterval);
+    }
+    return queues;
+  }
+
+  private void refreshOnMiss() throws IOException {
+    refresh(MIN_REFRESH_INTERVAL);
+  }
+
+  private synchronized void refresh(long maxAge) throws IOException {
+    // another thread may have refreshed while this one was waiting for the lock
+    if (System.currentTimeMillis() - lastRefresh <= maxAge) {
+      return;
+    }
+    log.trace("Refreshing plugin queues from the management API of " + brokerIp);
+    queues =
+        Collections.unmodifiableSet(
+            new LinkedHashSet<>(
+                RabbitManager.getQueues(
+                    brokerIp, username, password, virtualHost, managementPort)));
+    lastRefresh = System.currentTimeMillis();
+  }
+
+  private synchronized void add(String pluginId) {
+    Set<String> updated = new LinkedHashSet<>(queues);
+    updated.add(pluginId);
+    queues = Collections.unmodifiableSet(updated);
+  }
+
+  private synchronized void remove(String pluginId) {
+    Set<String> updated = new LinkedHashSet<>(queues);
+    updated.remove(pluginId);
+    queues = Collections.unmodifiableSet(updated);
+  }
+
+  private static String find(Set<String> queues, String prefix) {
+    for (String queue : queues) {
+      if (queue.startsWith(prefix)) {
+        return queue;
+      }
+    }
+    return null;
+  }
+}
@@ -17,13 +17,31 @@
 
 package org.openbaton.nfvo.repositories;
 
+import java.util.List;
 import org.openbaton.catalogue.security.HistoryEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 /** Created by lto on 17/10/16. */
 public interface HistoryEntityRepository extends CrudRepository<HistoryEntity, String> {
   HistoryEntity[] findByUsername(String username);
 
   HistoryEntity[] findAll(Sort sort);
+
+  /** Returns the latest entries, newest first, as many as the page size. */
+  List<HistoryEntity> findByOrderByTimestampDesc(Pageable pageable);
+
+  /**
+   * Deletes the entries older than the given timestamp with a single statement.
+   *
+   * @return the number of deleted entries
+   */
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM HistoryEntity h WHERE h.timestamp < ?1")
+  int deleteOlderThan(long timestamp);
 }
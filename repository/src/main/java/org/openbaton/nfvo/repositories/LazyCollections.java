@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.repositories;
+
+import org.hibernate.Hibernate;
+import org.openbaton.catalogue.mano.common.NFVEntityDescriptor;
+import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
+import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
+import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+
+/**
+ * Initializes the lazy collections of the records and descriptors, so that they can be used once
+ * the transaction that loaded them has ended. Must be called inside that transaction.
+ *
+ * <p>Only the collections declared lazy by the records and descriptors are loaded, one query per
+ * collection. The collections of the VNFRs of an NSR and of the VNFDs of an NSD are batch fetched
+ * for several entities at once, so the number of queries does not grow with their number.
+ */
+final class LazyCollections {
+
+  private LazyCollections() {}
+
+  static NetworkServiceRecord initialize(NetworkServiceRecord nsr) {
+    if (nsr == null) {
+      return null;
+    }
+    Hibernate.initialize(nsr.getAuto_scale_policy());
+    Hibernate.initialize(nsr.getConnection_point());
+    Hibernate.initialize(nsr.getMonitoring_parameter());
+    Hibernate.initialize(nsr.getVlr());
+    Hibernate.initialize(nsr.getVnf_dependency());
+    Hibernate.initialize(nsr.getLifecycle_event());
+    Hibernate.initialize(nsr.getVnffgr());
+    Hibernate.initialize(nsr.getPnfr());
+    Hibernate.initialize(nsr.getFaultManagementPolicy());
+    Hibernate.initialize(nsr.getLifecycle_event_history());
+    Hibernate.initialize(nsr.getKeyNames());
+    if (nsr.getVnfr() != null) {
+      for (VirtualNetworkFunctionRecord vnfr : nsr.getVnfr()) {
+        initialize(vnfr);
+      }
+    }
+    return nsr;
+  }
+
+  static VirtualNetworkFunctionRecord initialize(VirtualNetworkFunctionRecord vnfr) {
+    if (vnfr == null) {
+      return null;
+    }
+    Hibernate.initialize(vnfr.getAuto_scale_policy());
+    Hibernate.initialize(vnfr.getConnection_point());
+    Hibernate.initialize(vnfr.getLifecycle_event());
+    Hibernate.initialize(vnfr.getLifecycle_event_history());
+    Hibernate.initialize(vnfr.getMonitoring_parameter());
+    Hibernate.initialize(vnfr.getVdu());
+    Hibernate.initialize(vnfr.getVirtual_link());
+    Hibernate.initialize(vnfr.getConnected_external_virtual_link());
+    Hibernate.initialize(vnfr.getVnf_address());
+    Hibernate.initialize(vnfr.getNotification());
+    Hibernate.initialize(vnfr.getRuntime_policy_info());
+    return vnfr;
+  }
+
+  static NetworkServiceDescriptor initialize(NetworkServiceDescriptor nsd) {
+    if (nsd == null) {
+      return null;
+    }
+    initializeEntityDescriptor(nsd);
+    Hibernate.initialize(nsd.getVnf_dependency());
+    Hibernate.initialize(nsd.getPnfd());
+    if (nsd.getVnfd() != null) {
+      for (VirtualNetworkFunctionDescriptor vnfd : nsd.getVnfd()) {
+        initialize(vnfd);
+      }
+    }
+    return nsd;
+  }
+
+  static VirtualNetworkFunctionDescriptor initialize(VirtualNetworkFunctionDescriptor vnfd) {
+    if (vnfd == null) {
+      return null;
+    }
+    initializeEntityDescriptor(vnfd);
+    Hibernate.initialize(vnfd.getLifecycle_event());
+    Hibernate.initialize(vnfd.getVdu());
+    Hibernate.initialize(vnfd.getVirtual_link());
+    Hibernate.initialize(vnfd.getVdu_dependency());
+    Hibernate.initialize(vnfd.getDeployment_flavour());
+    Hibernate.initialize(vnfd.getManifest_file_security());
+    Hibernate.initialize(vnfd.getRequires());
+    Hibernate.initialize(vnfd.getProvides());
+    return vnfd;
+  }
+
+  private static void initializeEntityDescriptor(NFVEntityDescriptor descriptor) {
+    Hibernate.initialize(descriptor.getVnffgd());
+    Hibernate.initialize(descriptor.getVld());
+    Hibernate.initialize(descriptor.getMonitoring_parameter());
+    Hibernate.initialize(descriptor.getService_deployment_flavour());
+    Hibernate.initialize(descriptor.getAuto_scale_policy());
+    Hibernate.initialize(descriptor.getConnection_point());
+  }
+}
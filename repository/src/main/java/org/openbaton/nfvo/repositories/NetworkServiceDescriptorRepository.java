@@ -19,14 +19,18 @@ package org.openbaton.nfvo.repositories;
 
 import java.util.List;
 import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
 public interface NetworkServiceDescriptorRepository
     extends CrudRepository<NetworkServiceDescriptor, String>,
         NetworkServiceDescriptorRepositoryCustom {
-  NetworkServiceDescriptor findFirstById(String id);
+  List<NetworkServiceDescriptor> findByProjectId(String projectId);
 
-  NetworkServiceDescriptor findFirstByIdAndProjectId(String id, String projectId);
+  /** Loads the NSD if it belongs to the project, its collections are loaded when accessed. */
+  NetworkServiceDescriptor findByIdAndProjectId(String id, String projectId);
 
-  List<NetworkServiceDescriptor> findByProjectId(String projectId);
+  /** Returns the number of VNFDs of the NSD without loading them, 0 if there is no such NSD. */
+  @Query("SELECT COUNT(v) FROM NetworkServiceDescriptor n JOIN n.vnfd v WHERE n.id = ?1")
+  long countVnfdById(String id);
 }
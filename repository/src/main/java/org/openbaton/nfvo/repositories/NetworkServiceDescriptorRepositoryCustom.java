@@ -18,12 +18,19 @@
 package org.openbaton.nfvo.repositories;
 
 import org.openbaton.catalogue.mano.common.Security;
+import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
 import org.openbaton.catalogue.mano.descriptor.PhysicalNetworkFunctionDescriptor;
 import org.openbaton.catalogue.mano.descriptor.VNFDependency;
 import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
 
 public interface NetworkServiceDescriptorRepositoryCustom {
 
+  /** Loads the NSD with all its collections, so that it can be used after the transaction. */
+  NetworkServiceDescriptor findFirstById(String id);
+
+  /** Like {@link #findFirstById(String)}, null if the NSD belongs to another project. */
+  NetworkServiceDescriptor findFirstByIdAndProjectId(String id, String projectId);
+
   VirtualNetworkFunctionDescriptor addVnfd(VirtualNetworkFunctionDescriptor vnfd, String id);
 
   void deleteVnfd(String idNsd, String idVnfd);
@@ -40,13 +40,26 @@ public class NetworkServiceDescriptorRepositoryImpl
 
   @Autowired private PhysicalNetworkFunctionDescriptorRepository pnfDescriptorRepository;
 
+  @Override
+  @Transactional(readOnly = true)
+  public NetworkServiceDescriptor findFirstById(String id) {
+    return LazyCollections.initialize(networkServiceDescriptorRepository.findOne(id));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public NetworkServiceDescriptor findFirstByIdAndProjectId(String id, String projectId) {
+    return LazyCollections.initialize(
+        networkServiceDescriptorRepository.findByIdAndProjectId(id, projectId));
+  }
+
   @Override
   @Transactional
   public VirtualNetworkFunctionDescriptor addVnfd(
       VirtualNetworkFunctionDescriptor vnfd, String id) {
     vnfd = vnfdRepository.save(vnfd);
     SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findFirstById(id);
+    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findOne(id);
     nsd.setUpdatedAt(format.format(new Date()));
     nsd.getVnfd().add(vnfd);
     return vnfd;
@@ -57,7 +70,7 @@ public class NetworkServiceDescriptorRepositoryImpl
   public VNFDependency addVnfDependency(VNFDependency vnfd, String id) {
     vnfd = vnfDependencyRepository.save(vnfd);
     SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findFirstById(id);
+    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findOne(id);
     nsd.setUpdatedAt(format.format(new Date()));
     nsd.getVnf_dependency().add(vnfd);
     return vnfd;
@@ -69,7 +82,7 @@ public class NetworkServiceDescriptorRepositoryImpl
       PhysicalNetworkFunctionDescriptor pnfDescriptor, String id) {
     pnfDescriptor = pnfDescriptorRepository.save(pnfDescriptor);
     SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findFirstById(id);
+    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findOne(id);
     nsd.setUpdatedAt(format.format(new Date()));
     nsd.getPnfd().add(pnfDescriptor);
     return pnfDescriptor;
@@ -80,7 +93,7 @@ public class NetworkServiceDescriptorRepositoryImpl
   public Security addSecurity(String id, Security security) {
     security = securityRepository.save(security);
     SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findFirstById(id);
+    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findOne(id);
     nsd.setUpdatedAt(format.format(new Date()));
     nsd.setNsd_security(security);
     return security;
@@ -89,10 +102,10 @@ public class NetworkServiceDescriptorRepositoryImpl
   @Override
   @Transactional
   public void deleteSecurity(String id, String idS) {
-    Security s = networkServiceDescriptorRepository.findFirstById(id).getNsd_security();
+    Security s = networkServiceDescriptorRepository.findOne(id).getNsd_security();
     if (s.getId().equals(securityRepository.findOne(idS).getId())) {
       SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-      NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findFirstById(id);
+      NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findOne(id);
       nsd.setUpdatedAt(format.format(new Date()));
       nsd.setNsd_security(null);
       securityRepository.delete(idS);
@@ -103,7 +116,7 @@ public class NetworkServiceDescriptorRepositoryImpl
   @Transactional
   public void deletePhysicalNetworkFunctionDescriptor(String idNsd, String idPnf) {
     SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findFirstById(idNsd);
+    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findOne(idNsd);
     nsd.setUpdatedAt(format.format(new Date()));
     nsd.getPnfd().remove(pnfDescriptorRepository.findOne(idPnf));
     pnfDescriptorRepository.delete(idPnf);
@@ -113,7 +126,7 @@ public class NetworkServiceDescriptorRepositoryImpl
   @Transactional
   public void deleteVnfd(String idNsd, String idVnfd) {
     SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findFirstById(idNsd);
+    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findOne(idNsd);
     nsd.setUpdatedAt(format.format(new Date()));
     nsd.getVnfd().remove(vnfdRepository.findOne(idVnfd));
     vnfdRepository.delete(idVnfd);
@@ -123,7 +136,7 @@ public class NetworkServiceDescriptorRepositoryImpl
   @Transactional
   public void deleteVNFDependency(String idNsd, String idVnfd) {
     SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findFirstById(idNsd);
+    NetworkServiceDescriptor nsd = networkServiceDescriptorRepository.findOne(idNsd);
     nsd.setUpdatedAt(format.format(new Date()));
     nsd.getVnf_dependency().remove(vnfDependencyRepository.findOne(idVnfd));
     vnfDependencyRepository.delete(idVnfd);
@@ -19,14 +19,66 @@ package org.openbaton.nfvo.repositories;
 
 import java.util.List;
 import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.mano.record.Status;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 /** Created by mob on 03.09.15. */
 public interface NetworkServiceRecordRepository
     extends CrudRepository<NetworkServiceRecord, String>, NetworkServiceRecordRepositoryCustom {
-  NetworkServiceRecord findFirstById(String id);
+  List<NetworkServiceRecord> findByProjectId(String projectId);
 
-  NetworkServiceRecord findFirstByIdAndProjectId(String id, String projectId);
+  /** Loads the NSR if it belongs to the project, its collections are loaded when accessed. */
+  NetworkServiceRecord findByIdAndProjectId(String id, String projectId);
 
-  List<NetworkServiceRecord> findByProjectId(String projectId);
+  /** Loads the NSR together with its VNFRs, as needed to compute its status. */
+  @EntityGraph("NetworkServiceRecord.vnfr")
+  NetworkServiceRecord findWithVnfrById(String id);
+
+  /** Loads the NSR together with its VNFRs and VLRs, as returned by the detail view. */
+  @EntityGraph("NetworkServiceRecord.details")
+  NetworkServiceRecord findWithDetailsByIdAndProjectId(String id, String projectId);
+
+  /** Loads the NSR together with its VNFRs and their dependencies, as needed to resolve them. */
+  @EntityGraph("NetworkServiceRecord.dependencies")
+  NetworkServiceRecord findWithDependenciesById(String id);
+
+  /** Loads the NSR together with its key names, as needed to allocate resources. */
+  @EntityGraph("NetworkServiceRecord.allocate")
+  NetworkServiceRecord findWithKeyNamesById(String id);
+
+  /** Returns the project of the NSR without loading it, null if there is no such NSR. */
+  @Query("SELECT n.projectId FROM NetworkServiceRecord n WHERE n.id = ?1")
+  String findProjectIdById(String id);
+
+  /** Returns the version of the NSR without loading it, null if there is no such NSR. */
+  @Query("SELECT n.hbVersion FROM NetworkServiceRecord n WHERE n.id = ?1")
+  Integer findHbVersionById(String id);
+
+  /**
+   * Sets the status of the NSR without loading it and its components.
+   *
+   * @return the number of updated records, 0 if the NSR does not exist anymore
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE NetworkServiceRecord n SET n.status = ?2, n.updatedAt = ?3, n.hbVersion = n.hbVersion + 1 "
+          + "WHERE n.id = ?1")
+  int updateStatus(String id, Status status, String updatedAt);
+
+  /**
+   * Sets the task of the NSR without loading it and its components.
+   *
+   * @return the number of updated records, 0 if the NSR does not exist anymore
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE NetworkServiceRecord n SET n.task = ?2, n.updatedAt = ?3, n.hbVersion = n.hbVersion + 1 "
+          + "WHERE n.id = ?1")
+  int updateTask(String id, String task, String updatedAt);
 }
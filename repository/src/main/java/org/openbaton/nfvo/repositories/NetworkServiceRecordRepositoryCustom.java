@@ -25,6 +25,15 @@ import org.springframework.transaction.annotation.Transactional;
 /** Created by mob on 04.09.15. */
 public interface NetworkServiceRecordRepositoryCustom {
 
+  /**
+   * Loads the NSR with all its collections, so that it can be used after the transaction, for
+   * example when it is sent to a VNFM or published in an event.
+   */
+  NetworkServiceRecord findFirstById(String id);
+
+  /** Like {@link #findFirstById(String)}, null if the NSR belongs to another project. */
+  NetworkServiceRecord findFirstByIdAndProjectId(String id, String projectId);
+
   VirtualNetworkFunctionRecord addVnfr(VirtualNetworkFunctionRecord vnfr, String id);
 
   @Transactional
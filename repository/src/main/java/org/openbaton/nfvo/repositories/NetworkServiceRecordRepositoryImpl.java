@@ -34,12 +34,25 @@ public class NetworkServiceRecordRepositoryImpl implements NetworkServiceRecordR
 
   @Autowired private VNFRecordDependencyRepository vnfRecordDependencyRepository;
 
+  @Override
+  @Transactional(readOnly = true)
+  public NetworkServiceRecord findFirstById(String id) {
+    return LazyCollections.initialize(networkServiceRecordRepository.findOne(id));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public NetworkServiceRecord findFirstByIdAndProjectId(String id, String projectId) {
+    return LazyCollections.initialize(
+        networkServiceRecordRepository.findByIdAndProjectId(id, projectId));
+  }
+
   @Override
   @Transactional
   public VirtualNetworkFunctionRecord addVnfr(VirtualNetworkFunctionRecord vnfr, String id) {
     vnfr = vnfrRepository.save(vnfr);
     SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-    NetworkServiceRecord nsr = networkServiceRecordRepository.findFirstById(id);
+    NetworkServiceRecord nsr = networkServiceRecordRepository.findOne(id);
     nsr.setUpdatedAt(format.format(new Date()));
     nsr.getVnfr().add(vnfr);
     return vnfr;
@@ -56,10 +69,10 @@ public class NetworkServiceRecordRepositoryImpl implements NetworkServiceRecordR
   @Transactional
   public void deleteVNFRecord(String idNsr, String idVnfr) {
     SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-    NetworkServiceRecord nsr = networkServiceRecordRepository.findFirstById(idNsr);
+    NetworkServiceRecord nsr = networkServiceRecordRepository.findOne(idNsr);
     if (nsr != null) {
       nsr.setUpdatedAt(format.format(new Date()));
-      nsr.getVnfr().remove(vnfrRepository.findFirstById(idVnfr));
+      nsr.getVnfr().remove(vnfrRepository.findOne(idVnfr));
     }
     vnfrRepository.delete(idVnfr);
   }
@@ -68,7 +81,7 @@ public class NetworkServiceRecordRepositoryImpl implements NetworkServiceRecordR
   @Transactional
   public void deleteVNFDependency(String idNsr, String idVnfd) {
     SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-    NetworkServiceRecord nsr = networkServiceRecordRepository.findFirstById(idNsr);
+    NetworkServiceRecord nsr = networkServiceRecordRepository.findOne(idNsr);
     nsr.setUpdatedAt(format.format(new Date()));
     nsr.getVnf_dependency().remove(vnfRecordDependencyRepository.findFirstById(idVnfd));
     vnfRecordDependencyRepository.delete(idVnfd);
@@ -79,7 +92,7 @@ public class NetworkServiceRecordRepositoryImpl implements NetworkServiceRecordR
   public VNFRecordDependency addVnfRecordDependency(
       VNFRecordDependency vnfRecordDependencyd, String id) {
     SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-    NetworkServiceRecord nsr = networkServiceRecordRepository.findFirstById(id);
+    NetworkServiceRecord nsr = networkServiceRecordRepository.findOne(id);
     nsr.setUpdatedAt(format.format(new Date()));
     vnfRecordDependencyd = vnfRecordDependencyRepository.save(vnfRecordDependencyd);
     nsr.getVnf_dependency().add(vnfRecordDependencyd);
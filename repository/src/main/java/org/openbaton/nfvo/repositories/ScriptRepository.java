@@ -21,4 +21,7 @@ import org.openbaton.catalogue.nfvo.Script;
 import org.springframework.data.repository.CrudRepository;
 
 /** Created by lto on 21/01/16. */
-public interface ScriptRepository extends CrudRepository<Script, String> {}
+public interface ScriptRepository extends CrudRepository<Script, String> {
+
+  long countByPayloadChecksum(String payloadChecksum);
+}
@@ -19,19 +19,28 @@ package org.openbaton.nfvo.repositories;
 
 import java.util.List;
 import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.CrudRepository;
 
 /** Created by lto on 06/05/15. */
-public interface VNFDRepository extends CrudRepository<VirtualNetworkFunctionDescriptor, String> {
-  VirtualNetworkFunctionDescriptor findFirstById(String id);
-
+public interface VNFDRepository
+    extends CrudRepository<VirtualNetworkFunctionDescriptor, String>, VNFDRepositoryCustom {
   VirtualNetworkFunctionDescriptor findByVnfPackageLocationAndProjectId(
       String vnfPackageLocation, String projectId);
 
-  VirtualNetworkFunctionDescriptor findFirstByIdAndProjectId(String id, String projectId);
-
   List<VirtualNetworkFunctionDescriptor> findByProjectId(String id);
 
+  /** Loads the VNFD if it belongs to the project, its collections are loaded when accessed. */
+  VirtualNetworkFunctionDescriptor findByIdAndProjectId(String id, String projectId);
+
+  /** Loads the VNFD together with its deployment flavours, as needed to allocate resources. */
+  @EntityGraph("VirtualNetworkFunctionDescriptor.allocate")
+  VirtualNetworkFunctionDescriptor findWithDeploymentFlavourById(String id);
+
+  /** Loads the VNFDs of the project together with their VDUs. */
+  @EntityGraph("VirtualNetworkFunctionDescriptor.vdu")
+  List<VirtualNetworkFunctionDescriptor> findWithVduByProjectId(String projectId);
+
   VirtualNetworkFunctionDescriptor findFirstByProjectIdAndVendorAndNameAndVersion(
       String id, String vendor, String name, String version);
 }
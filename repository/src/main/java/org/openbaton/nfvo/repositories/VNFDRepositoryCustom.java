@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.repositories;
+
+import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
+
+public interface VNFDRepositoryCustom {
+
+  /** Loads the VNFD with all its collections, so that it can be used after the transaction. */
+  VirtualNetworkFunctionDescriptor findFirstById(String id);
+
+  /** Like {@link #findFirstById(String)}, null if the VNFD belongs to another project. */
+  VirtualNetworkFunctionDescriptor findFirstByIdAndProjectId(String id, String projectId);
+}
@@ -19,11 +19,22 @@ package org.openbaton.nfvo.repositories;
 
 import java.util.List;
 import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.CrudRepository;
 
 /** Created by lto on 06/05/15. */
-public interface VNFRRepository extends CrudRepository<VirtualNetworkFunctionRecord, String> {
-  VirtualNetworkFunctionRecord findFirstById(String id);
+public interface VNFRRepository
+    extends CrudRepository<VirtualNetworkFunctionRecord, String>, VNFRRepositoryCustom {
+  /** Loads the VNFR together with its VDUs, the other collections are loaded when accessed. */
+  @EntityGraph("VirtualNetworkFunctionRecord.vdu")
+  VirtualNetworkFunctionRecord findWithVduById(String id);
 
   List<VirtualNetworkFunctionRecord> findByProjectId(String id);
+
+  /** Loads the VNFRs created from the VNF package, their collections are loaded when accessed. */
+  List<VirtualNetworkFunctionRecord> findByPackageId(String packageId);
+
+  /** Loads the VNFRs of the project together with their VDUs. */
+  @EntityGraph("VirtualNetworkFunctionRecord.vdu")
+  List<VirtualNetworkFunctionRecord> findWithVduByProjectId(String projectId);
 }
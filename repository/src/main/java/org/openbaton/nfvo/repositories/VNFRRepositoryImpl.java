@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.repositories;
+
+import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+public class VNFRRepositoryImpl implements VNFRRepositoryCustom {
+
+  @Autowired private VNFRRepository vnfrRepository;
+
+  @Override
+  @Transactional(readOnly = true)
+  public VirtualNetworkFunctionRecord findFirstById(String id) {
+    return LazyCollections.initialize(vnfrRepository.findOne(id));
+  }
+}
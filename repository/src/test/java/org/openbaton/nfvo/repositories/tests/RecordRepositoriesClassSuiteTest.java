@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.repositories.tests;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.hibernate.Hibernate;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openbaton.catalogue.mano.common.VNFDeploymentFlavour;
+import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
+import org.openbaton.catalogue.mano.descriptor.VirtualDeploymentUnit;
+import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
+import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.mano.record.Status;
+import org.openbaton.catalogue.mano.record.VNFRecordDependency;
+import org.openbaton.catalogue.mano.record.VirtualLinkRecord;
+import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+import org.openbaton.nfvo.repositories.NetworkServiceDescriptorRepository;
+import org.openbaton.nfvo.repositories.NetworkServiceRecordRepository;
+import org.openbaton.nfvo.repositories.VNFDRepository;
+import org.openbaton.nfvo.repositories.VNFRRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Checks that the entity graphs, projections and counts of the record and descriptor repositories
+ * load what their callers read once the transaction has ended.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {RecordRepositoriesClassSuiteTest.JpaTestConfiguration.class})
+@TestPropertySource(properties = {"spring.jpa.hibernate.ddl-auto = create-drop"})
+public class RecordRepositoriesClassSuiteTest {
+
+  /** Only the JPA repositories, without the components of the other modules. */
+  @Configuration
+  @EnableAutoConfiguration
+  @EntityScan(basePackages = "org.openbaton.catalogue")
+  @EnableJpaRepositories(basePackageClasses = NetworkServiceRecordRepository.class)
+  static class JpaTestConfiguration {}
+
+  @Autowired private NetworkServiceRecordRepository nsrRepository;
+  @Autowired private NetworkServiceDescriptorRepository nsdRepository;
+  @Autowired private VNFRRepository vnfrRepository;
+  @Autowired private VNFDRepository vnfdRepository;
+
+  private NetworkServiceDescriptor nsd;
+  private NetworkServiceRecord nsr;
+
+  @Before
+  public void init() {
+    nsd = nsdRepository.save(createNetworkServiceDescriptor());
+    nsr = nsrRepository.save(createNetworkServiceRecord(nsd.getId()));
+    nsrRepository.addVnfr(createVirtualNetworkFunctionRecord(), nsr.getId());
+  }
+
+  @After
+  public void cleanup() {
+    nsrRepository.deleteAll();
+    vnfrRepository.deleteAll();
+    nsdRepository.deleteAll();
+  }
+
+  @Test
+  public void findWithVnfrByIdTest() {
+    NetworkServiceRecord found = nsrRepository.findWithVnfrById(nsr.getId());
+    Assert.assertTrue(Hibernate.isInitialized(found.getVnfr()));
+    Assert.assertEquals(1, found.getVnfr().size());
+    Assert.assertFalse(Hibernate.isInitialized(found.getVlr()));
+    Assert.assertNull(nsrRepository.findWithVnfrById("missing"));
+  }
+
+  @Test
+  public void findWithDetailsByIdAndProjectIdTest() {
+    NetworkServiceRecord found = nsrRepository.findWithDetailsByIdAndProjectId(nsr.getId(), "p1");
+    Assert.assertTrue(Hibernate.isInitialized(found.getVnfr()));
+    Assert.assertTrue(Hibernate.isInitialized(found.getVlr()));
+    Assert.assertEquals(1, found.getVlr().size());
+    Assert.assertFalse(Hibernate.isInitialized(found.getKeyNames()));
+    Assert.assertNull(nsrRepository.findWithDetailsByIdAndProjectId(nsr.getId(), "p2"));
+  }
+
+  @Test
+  public void findProjectIdByIdTest() {
+    Assert.assertEquals("p1", nsrRepository.findProjectIdById(nsr.getId()));
+    Assert.assertNull(nsrRepository.findProjectIdById("missing"));
+  }
+
+  @Test
+  public void findHbVersionByIdTest() {
+    Integer version = nsrRepository.findHbVersionById(nsr.getId());
+    Assert.assertEquals(nsrRepository.findOne(nsr.getId()).getHbVersion(), version);
+    nsrRepository.updateStatus(nsr.getId(), Status.ACTIVE, "now");
+    Assert.assertEquals(version + 1, (int) nsrRepository.findHbVersionById(nsr.getId()));
+    Assert.assertNull(nsrRepository.findHbVersionById("missing"));
+  }
+
+  @Test
+  public void countVnfdByIdTest() {
+    Assert.assertEquals(1, nsdRepository.countVnfdById(nsd.getId()));
+    Assert.assertEquals(0, nsdRepository.countVnfdById("missing"));
+  }
+
+  @Test
+  public void findWithDependenciesAndKeyNamesByIdTest() {
+    NetworkServiceRecord found = nsrRepository.findWithDependenciesById(nsr.getId());
+    Assert.assertEquals(1, found.getVnfr().size());
+    Assert.assertEquals("target", found.getVnf_dependency().iterator().next().getTarget());
+
+    found = nsrRepository.findWithKeyNamesById(nsr.getId());
+    Assert.assertEquals(Collections.singleton("key"), found.getKeyNames());
+    Assert.assertFalse(Hibernate.isInitialized(found.getVnfr()));
+  }
+
+  @Test
+  public void findWithVduTest() {
+    String vnfdId = nsd.getVnfd().iterator().next().getId();
+    Assert.assertEquals(
+        1, vnfdRepository.findWithDeploymentFlavourById(vnfdId).getDeployment_flavour().size());
+    Assert.assertEquals(1, vnfdRepository.findWithVduByProjectId("p1").get(0).getVdu().size());
+    Assert.assertEquals(1, vnfrRepository.findWithVduByProjectId("p1").get(0).getVdu().size());
+    Assert.assertTrue(vnfrRepository.findWithVduByProjectId("p2").isEmpty());
+  }
+
+  @Test
+  public void findFirstByIdTest() {
+    NetworkServiceRecord found = nsrRepository.findFirstById(nsr.getId());
+    Assert.assertEquals(1, found.getVlr().size());
+    Assert.assertEquals(Collections.singleton("key"), found.getKeyNames());
+    VirtualNetworkFunctionRecord vnfr = found.getVnfr().iterator().next();
+    Assert.assertEquals(1, vnfr.getVdu().size());
+    Assert.assertTrue(Hibernate.isInitialized(vnfr.getLifecycle_event()));
+
+    Assert.assertNotNull(vnfrRepository.findFirstById(vnfr.getId()).getVdu());
+  }
+
+  @Test
+  public void findFirstByIdAndProjectIdTest() {
+    Assert.assertNotNull(nsrRepository.findFirstByIdAndProjectId(nsr.getId(), "p1"));
+    Assert.assertNull(nsrRepository.findFirstByIdAndProjectId(nsr.getId(), "p2"));
+    NetworkServiceDescriptor found = nsdRepository.findFirstByIdAndProjectId(nsd.getId(), "p1");
+    VirtualNetworkFunctionDescriptor vnfd = found.getVnfd().iterator().next();
+    Assert.assertEquals(1, vnfd.getDeployment_flavour().size());
+    Assert.assertNull(nsdRepository.findFirstByIdAndProjectId(nsd.getId(), "p2"));
+    Assert.assertNotNull(vnfdRepository.findFirstByIdAndProjectId(vnfd.getId(), "p1"));
+    Assert.assertNull(vnfdRepository.findFirstByIdAndProjectId(vnfd.getId(), "p2"));
+  }
+
+  @Test
+  public void findByPackageIdTest() {
+    Assert.assertEquals(1, vnfrRepository.findByPackageId("package").size());
+    Assert.assertTrue(vnfrRepository.findByPackageId("other").isEmpty());
+  }
+
+  private NetworkServiceDescriptor createNetworkServiceDescriptor() {
+    VNFDeploymentFlavour flavour = new VNFDeploymentFlavour();
+    flavour.setFlavour_key("m1.small");
+    VirtualNetworkFunctionDescriptor vnfd = new VirtualNetworkFunctionDescriptor();
+    vnfd.setName("vnfd");
+    vnfd.setVendor("test");
+    vnfd.setVersion("1.0");
+    vnfd.setType("server");
+    vnfd.setProjectId("p1");
+    vnfd.setVdu(new HashSet<>(Collections.singleton(createVirtualDeploymentUnit())));
+    vnfd.setDeployment_flavour(new HashSet<>(Collections.singleton(flavour)));
+
+    NetworkServiceDescriptor nsd = new NetworkServiceDescriptor();
+    nsd.setName("nsd");
+    nsd.setVendor("test");
+    nsd.setVersion("1.0");
+    nsd.setProjectId("p1");
+    nsd.setVnfd(new HashSet<>(Collections.singleton(vnfd)));
+    return nsd;
+  }
+
+  private NetworkServiceRecord createNetworkServiceRecord(String nsdId) {
+    Map<String, String> idType = new HashMap<>();
+    idType.put("source", "server");
+    VNFRecordDependency dependency = new VNFRecordDependency();
+    dependency.setTarget("target");
+    dependency.setIdType(idType);
+
+    Set<String> keyNames = new HashSet<>();
+    keyNames.add("key");
+
+    NetworkServiceRecord nsr = new NetworkServiceRecord();
+    nsr.setName("nsr");
+    nsr.setProjectId("p1");
+    nsr.setDescriptor_reference(nsdId);
+    nsr.setVnfr(new HashSet<>());
+    nsr.setVlr(new HashSet<>(Collections.singleton(new VirtualLinkRecord())));
+    nsr.setVnf_dependency(new HashSet<>(Collections.singleton(dependency)));
+    nsr.setKeyNames(keyNames);
+    return nsr;
+  }
+
+  private VirtualNetworkFunctionRecord createVirtualNetworkFunctionRecord() {
+    VirtualNetworkFunctionRecord vnfr = new VirtualNetworkFunctionRecord();
+    vnfr.setName("target");
+    vnfr.setProjectId("p1");
+    vnfr.setPackageId("package");
+    vnfr.setVdu(new HashSet<>(Collections.singleton(createVirtualDeploymentUnit())));
+    vnfr.setLifecycle_event(new HashSet<>());
+    return vnfr;
+  }
+
+  private VirtualDeploymentUnit createVirtualDeploymentUnit() {
+    VirtualDeploymentUnit vdu = new VirtualDeploymentUnit();
+    vdu.setVimInstanceName(new HashSet<>(Collections.singleton("vim")));
+    return vdu;
+  }
+}
@@ -21,9 +21,10 @@ import java.io.*;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
-import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.validator.routines.UrlValidator;
 import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
 import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
@@ -32,7 +33,9 @@ import org.openbaton.catalogue.nfvo.VNFPackage;
 import org.openbaton.catalogue.nfvo.images.BaseNfvImage;
 import org.openbaton.catalogue.nfvo.images.NFVImage;
 import org.openbaton.exceptions.*;
+import org.openbaton.nfvo.common.utils.blob.ScriptStore;
 import org.openbaton.nfvo.core.interfaces.VNFPackageManagement;
+import org.openbaton.nfvo.repositories.ScriptRepository;
 import org.openbaton.nfvo.repositories.VNFDRepository;
 import org.openbaton.nfvo.repositories.VnfPackageRepository;
 import org.openbaton.tosca.templates.NSDTemplate;
@@ -41,10 +44,17 @@ import org.openbaton.utils.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.yaml.snakeyaml.Yaml;
 
-/** Created by rvl on 12.09.16. */
+/**
+ * Created by rvl on 12.09.16.
+ *
+ * <p>The parser keeps no state between two calls, so CSARs can be parsed concurrently. The entries
+ * of a CSAR are read as a stream: the scripts are staged in the blob store and kept only once their
+ * package is saved, only the templates and the metadata are kept in memory.
+ */
 @Service
 @SuppressWarnings({"unsafe", "unchecked"})
 public class CSARParser {
@@ -52,49 +62,54 @@ public class CSARParser {
   @Autowired private VNFDRepository vnfdRepository;
   @Autowired private VNFPackageManagement vnfPackageManagement;
   @Autowired private VnfPackageRepository vnfPackageRepository;
+  @Autowired private ScriptRepository scriptRepository;
+  @Autowired private ScriptStore scriptStore;
 
-  private final Logger log = LoggerFactory.getLogger(this.getClass());
+  /** Queue capacity 0: when all the threads are busy the VNFs are converted by the caller. */
+  @Autowired
+  @Qualifier("toscaExecutor")
+  private Executor converterExecutor;
 
-  private TOSCAParser toscaParser;
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
 
-  private Set<Script> scripts = new HashSet<>();
-  private ByteArrayOutputStream metadata;
-  private ByteArrayOutputStream template;
-  private ByteArrayOutputStream vnfMetadata;
-  private ArrayList<String> folderNames = new ArrayList<>();
+  private final TOSCAParser toscaParser;
 
   public CSARParser() {
     this.toscaParser = new TOSCAParser();
   }
 
-  private void readFiles(InputStream csar_file) throws IOException, NotFoundException {
+  /** The content of one CSAR. */
+  private static class Csar {
+    private byte[] metadata = new byte[0];
+    private byte[] template = new byte[0];
+    private byte[] vnfMetadata;
+    private final Set<Script> scripts = new HashSet<>();
+    private final Set<String> folderNames = new HashSet<>();
+  }
+
+  /**
+   * Reads the entries of the CSAR.
+   *
+   * @param staging where the scripts are staged, null to skip them
+   */
+  private Csar readFiles(InputStream csarFile, ScriptStore.Staging staging)
+      throws IOException, NotFoundException {
 
+    Csar csar = new Csar();
     ZipEntry entry;
-    this.scripts.clear();
-    this.folderNames.clear();
-    this.template = new ByteArrayOutputStream();
-    this.metadata = new ByteArrayOutputStream();
-    try (ZipInputStream zipStream = new ZipInputStream(csar_file)) {
+    try (ZipInputStream zipStream = new ZipInputStream(csarFile)) {
       while ((entry = zipStream.getNextEntry()) != null) {
 
         if (!entry.isDirectory()) {
-          ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-          int count;
-          byte[] buffer = new byte[1024];
-          while ((count = zipStream.read(buffer)) != -1) {
-            baos.write(buffer, 0, count);
-          }
-
           String fileName = entry.getName();
 
           if (fileName.toLowerCase().endsWith(".meta")) {
-            this.metadata = baos;
+            csar.metadata = IOUtils.toByteArray(zipStream);
           } else if (fileName.toLowerCase().endsWith(".yaml")) {
             if (fileName.toLowerCase().endsWith("metadata.yaml")) {
-              this.vnfMetadata = baos;
+              csar.vnfMetadata = IOUtils.toByteArray(zipStream);
             } else {
-              this.template = baos;
+              csar.template = IOUtils.toByteArray(zipStream);
             }
           } else {
 
@@ -102,68 +117,52 @@ public class CSARParser {
             String[] splittedName = fileName.split("/");
             if (splittedName.length > 2) {
               String scriptName = splittedName[1] + "!_!" + splittedName[splittedName.length - 1];
-              folderNames.add(splittedName[1]);
+              csar.folderNames.add(splittedName[1]);
               script.setName(scriptName);
 
             } else script.setName(splittedName[splittedName.length - 1]);
 
-            script.setPayload(baos.toByteArray());
-            this.scripts.add(script);
+            if (staging != null) {
+              staging.add(script, zipStream);
+            }
+            csar.scripts.add(script);
           }
         }
       }
     }
-    if (this.metadata == null) {
-      throw new NotFoundException("CSARParser: You have to include the TOSCA.meta");
-    }
-    if (this.vnfMetadata == null) {
+    if (csar.vnfMetadata == null) {
       throw new NotFoundException("CSARParser: You have to include the Metadata.yaml");
     }
-    if (this.template == null) {
-      throw new NotFoundException("CSARParser: No NSD or VNFD Template found");
-    }
-  }
-
-  private void readMetaData() throws IOException {
-    try (BufferedReader br =
-        new BufferedReader(
-            new InputStreamReader(new ByteArrayInputStream(this.metadata.toByteArray())))) {
-      String strLine;
-      String entryDefinition = "Entry-Definitions:";
-      while ((strLine = br.readLine()) != null) {
-
-        if (strLine.contains(entryDefinition)) {
-          strLine.substring(entryDefinition.length(), strLine.length());
-        }
-      }
-    }
+    return csar;
   }
 
   //TODO what is the need of such method? Only for testing purposes?
   public void parseVNFCSAR(String vnfd_csar) throws Exception {
 
     try (InputStream csar = new FileInputStream(vnfd_csar)) {
-      readFiles(csar);
+      VNFDTemplate VNFDTemplate = Utils.bytesToVNFDTemplate(readFiles(csar, null).template);
+      toscaParser.parseVNFDTemplate(VNFDTemplate);
     }
-    readMetaData();
-
-    VNFDTemplate VNFDTemplate = Utils.bytesToVNFDTemplate(this.template);
-    toscaParser.parseVNFDTemplate(VNFDTemplate);
   }
 
   public NetworkServiceDescriptor parseNSDCSAR(String nsd_csar) throws Exception {
 
     try (InputStream input = new FileInputStream(new File(nsd_csar))) {
-      readFiles(input);
+      return parseNSDCSAR(input);
     }
-    readMetaData();
-    NSDTemplate nsdTemplate = Utils.bytesToNSDTemplate(this.template);
-    return toscaParser.parseNSDTemplate(nsdTemplate);
+  }
+
+  /** Parses the NSD of the CSAR without onboarding anything, the scripts are skipped. */
+  public NetworkServiceDescriptor parseNSDCSAR(InputStream input) throws Exception {
+
+    NSDTemplate nsdTemplate = Utils.bytesToNSDTemplate(readFiles(input, null).template);
+    return toscaParser.parseNSDTemplate(nsdTemplate, converterExecutor);
   }
 
   private BaseNfvImage getImage(
       VNFPackage vnfPackage,
       VirtualNetworkFunctionDescriptor virtualNetworkFunctionDescriptor,
+      byte[] vnfMetadata,
       String projectId)
       throws NotFoundException, PluginException, VimException, IncompatibleVNFPackage,
           BadRequestException, IOException, AlreadyExistingException, BadFormatException,
@@ -175,7 +174,7 @@ public class CSARParser {
     byte[] imageFile = null;
 
     Yaml yaml = new Yaml();
-    metadata = yaml.loadAs(new String(this.vnfMetadata.toByteArray()), Map.class);
+    metadata = yaml.loadAs(new String(vnfMetadata), Map.class);
     //Get configuration for NFVImage
     imageDetails = vnfPackageManagement.handleMetadata(metadata, vnfPackage, imageDetails, image);
 
@@ -191,24 +190,27 @@ public class CSARParser {
     return image;
   }
 
-  private String saveVNFD(
+  private VirtualNetworkFunctionDescriptor saveVNFD(
       VirtualNetworkFunctionDescriptor vnfd,
       String projectId,
+      byte[] vnfMetadata,
       Set<Script> vnfScripts,
-      String scriptsLink)
+      String scriptsLink,
+      ScriptStore.Staging staging)
       throws PluginException, VimException, NotFoundException, IncompatibleVNFPackage,
           BadRequestException, IOException, AlreadyExistingException, InterruptedException,
           EntityUnreachableException, BadFormatException, ExecutionException {
 
     VNFPackage vnfPackage = new VNFPackage();
 
-    vnfPackage.setImage(getImage(vnfPackage, vnfd, projectId));
+    vnfPackage.setImage(getImage(vnfPackage, vnfd, vnfMetadata, projectId));
     if (vnfScripts != null) {
       vnfPackage.setScripts(vnfScripts);
     } else if (scriptsLink != null) vnfPackage.setScriptsLink(scriptsLink);
     vnfPackage.setName(vnfd.getName());
     vnfPackage.setProjectId(projectId);
 
+    staging.commit(vnfPackage.getScripts());
     VNFPackage savedPackage = vnfPackageRepository.save(vnfPackage);
 
     vnfd.setVnfPackageLocation(savedPackage.getId());
@@ -216,9 +218,7 @@ public class CSARParser {
     vnfd.setCreatedAt(format.format(new Date()));
     vnfd.setUpdatedAt(format.format(new Date()));
     vnfd.setProjectId(projectId);
-    vnfdRepository.save(vnfd);
-
-    return savedPackage.getId();
+    return vnfdRepository.save(vnfd);
   }
 
   /*
@@ -232,12 +232,31 @@ public class CSARParser {
           org.openbaton.tosca.exceptions.NotFoundException, BadRequestException,
           AlreadyExistingException, BadFormatException, InterruptedException,
           EntityUnreachableException, ExecutionException {
+    return onboardVNFD(new ByteArrayInputStream(bytes), projectId);
+  }
 
-    InputStream input = new ByteArrayInputStream(bytes);
+  public VirtualNetworkFunctionDescriptor onboardVNFD(InputStream input, String projectId)
+      throws NotFoundException, PluginException, VimException, IOException, IncompatibleVNFPackage,
+          org.openbaton.tosca.exceptions.NotFoundException, BadRequestException,
+          AlreadyExistingException, BadFormatException, InterruptedException,
+          EntityUnreachableException, ExecutionException {
+    try (ScriptStore.Staging staging = scriptStore.stage(this::isPayloadReferenced)) {
+      VirtualNetworkFunctionDescriptor vnfd = onboardVNFD(input, projectId, staging);
+      staging.saved();
+      return vnfd;
+    }
+  }
+
+  private VirtualNetworkFunctionDescriptor onboardVNFD(
+      InputStream input, String projectId, ScriptStore.Staging staging)
+      throws NotFoundException, PluginException, VimException, IOException, IncompatibleVNFPackage,
+          org.openbaton.tosca.exceptions.NotFoundException, BadRequestException,
+          AlreadyExistingException, BadFormatException, InterruptedException,
+          EntityUnreachableException, ExecutionException {
 
-    readFiles(input);
+    Csar csar = readFiles(input, staging);
 
-    VNFDTemplate vnfdt = Utils.bytesToVNFDTemplate(this.template);
+    VNFDTemplate vnfdt = Utils.bytesToVNFDTemplate(csar.template);
     VirtualNetworkFunctionDescriptor vnfd = toscaParser.parseVNFDTemplate(vnfdt);
 
     String scriptsLink = null;
@@ -245,11 +264,7 @@ public class CSARParser {
     if (urlValidator.isValid(vnfd.getVnfPackageLocation())) {
       scriptsLink = vnfd.getVnfPackageLocation();
     }
-    saveVNFD(vnfd, projectId, scripts, scriptsLink);
-
-    input.close();
-    this.template.close();
-    this.metadata.close();
+    saveVNFD(vnfd, projectId, csar.vnfMetadata, csar.scripts, scriptsLink, staging);
 
     return vnfd;
   }
@@ -259,19 +274,39 @@ public class CSARParser {
           org.openbaton.tosca.exceptions.NotFoundException, BadRequestException,
           AlreadyExistingException, BadFormatException, InterruptedException,
           EntityUnreachableException, ExecutionException {
+    return onboardNSD(new ByteArrayInputStream(bytes), projectId);
+  }
+
+  public NetworkServiceDescriptor onboardNSD(InputStream input, String projectId)
+      throws NotFoundException, PluginException, VimException, IOException, IncompatibleVNFPackage,
+          org.openbaton.tosca.exceptions.NotFoundException, BadRequestException,
+          AlreadyExistingException, BadFormatException, InterruptedException,
+          EntityUnreachableException, ExecutionException {
+    try (ScriptStore.Staging staging = scriptStore.stage(this::isPayloadReferenced)) {
+      NetworkServiceDescriptor nsd = onboardNSD(input, projectId, staging);
+      staging.saved();
+      return nsd;
+    }
+  }
+
+  private NetworkServiceDescriptor onboardNSD(
+      InputStream input, String projectId, ScriptStore.Staging staging)
+      throws NotFoundException, PluginException, VimException, IOException, IncompatibleVNFPackage,
+          org.openbaton.tosca.exceptions.NotFoundException, BadRequestException,
+          AlreadyExistingException, BadFormatException, InterruptedException,
+          EntityUnreachableException, ExecutionException {
 
-    InputStream input = new ByteArrayInputStream(bytes);
     ArrayList<String> ids = new ArrayList<>();
 
-    readFiles(input);
+    Csar csar = readFiles(input, staging);
 
-    NSDTemplate nsdTemplate = Utils.bytesToNSDTemplate(this.template);
-    NetworkServiceDescriptor nsd = toscaParser.parseNSDTemplate(nsdTemplate);
+    NSDTemplate nsdTemplate = Utils.bytesToNSDTemplate(csar.template);
+    NetworkServiceDescriptor nsd = toscaParser.parseNSDTemplate(nsdTemplate, converterExecutor);
 
     for (VirtualNetworkFunctionDescriptor vnfd : nsd.getVnfd()) {
       Set<Script> vnfScripts = null;
       String link = null;
-      if (!folderNames.contains(vnfd.getType())) {
+      if (!csar.folderNames.contains(vnfd.getType())) {
         UrlValidator urlValidator = new UrlValidator();
         if (urlValidator.isValid(vnfd.getVnfPackageLocation())) {
           link = vnfd.getVnfPackageLocation();
@@ -282,7 +317,7 @@ public class CSARParser {
                   + " and scripts link not valid");
       } else {
         vnfScripts = new HashSet<>();
-        for (Script script : scripts) {
+        for (Script script : csar.scripts) {
           String[] splitted_name = script.getName().split("!_!");
           log.debug(splitted_name[0]);
           log.debug(script.getName());
@@ -290,38 +325,29 @@ public class CSARParser {
           if (splitted_name.length == 2) {
             String folder_name = splitted_name[0];
             if (folder_name.equals(vnfd.getType())) {
+              // the payload is staged once, only the reference is copied
               Script s = new Script();
               s.setName(splitted_name[1]);
-              s.setPayload(script.getPayload());
+              s.setPayloadChecksum(script.getPayloadChecksum());
               vnfScripts.add(s);
             }
           }
         }
       }
-      ids.add(saveVNFD(vnfd, projectId, vnfScripts, link));
+      ids.add(saveVNFD(vnfd, projectId, csar.vnfMetadata, vnfScripts, link, staging).getId());
     }
     nsd.getVnfd().clear();
 
     for (String id : ids) {
-
-      String vnfdId = "";
-      Iterable<VirtualNetworkFunctionDescriptor> vnfds = vnfdRepository.findByProjectId(projectId);
-      for (VirtualNetworkFunctionDescriptor vnfd : vnfds) {
-        if (vnfd.getVnfPackageLocation().equals(id)) {
-
-          vnfdId = vnfd.getId();
-        }
-      }
-
       VirtualNetworkFunctionDescriptor vnfd = new VirtualNetworkFunctionDescriptor();
-      vnfd.setId(vnfdId);
+      vnfd.setId(id);
       nsd.getVnfd().add(vnfd);
     }
 
-    input.close();
-    this.template.close();
-    this.metadata.close();
-
     return nsd;
   }
+
+  private boolean isPayloadReferenced(String payloadChecksum) {
+    return scriptRepository.countByPayloadChecksum(payloadChecksum) > 0;
+  }
 }
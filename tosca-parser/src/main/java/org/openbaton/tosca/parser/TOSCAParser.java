@@ -18,6 +18,9 @@
 package org.openbaton.tosca.parser;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import org.openbaton.catalogue.mano.descriptor.InternalVirtualLink;
 import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
 import org.openbaton.catalogue.mano.descriptor.VNFComponent;
@@ -325,6 +328,19 @@ public class TOSCAParser {
    */
   public NetworkServiceDescriptor parseNSDTemplate(NSDTemplate nsdTemplate)
       throws NotFoundException {
+    return parseNSDTemplate(nsdTemplate, Runnable::run);
+  }
+
+  /**
+   * Parser of the NSD template, converting the VNF nodes on the executor. The VNF nodes only read
+   * the template, so they are converted in parallel.
+   *
+   * @param nsdTemplate
+   * @param executor
+   * @return
+   */
+  public NetworkServiceDescriptor parseNSDTemplate(NSDTemplate nsdTemplate, Executor executor)
+      throws NotFoundException {
 
     NetworkServiceDescriptor nsd = new NetworkServiceDescriptor();
 
@@ -336,12 +352,29 @@ public class TOSCAParser {
 
     // ADD VNFDS
 
+    List<CompletableFuture<VirtualNetworkFunctionDescriptor>> vnfs = new ArrayList<>();
     for (VNFNodeTemplate vnfNodeTemplate : nsdTemplate.getTopology_template().getVNFNodes()) {
+      vnfs.add(
+          CompletableFuture.supplyAsync(
+              () -> {
+                try {
+                  return parseVNFNode(vnfNodeTemplate, nsdTemplate.getTopology_template());
+                } catch (NotFoundException e) {
+                  throw new CompletionException(e);
+                }
+              },
+              executor));
+    }
 
-      VirtualNetworkFunctionDescriptor vnf =
-          parseVNFNode(vnfNodeTemplate, nsdTemplate.getTopology_template());
-
-      nsd.getVnfd().add(vnf);
+    for (CompletableFuture<VirtualNetworkFunctionDescriptor> vnf : vnfs) {
+      try {
+        nsd.getVnfd().add(vnf.join());
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof NotFoundException) {
+          throw (NotFoundException) e.getCause();
+        }
+        throw e;
+      }
     }
 
     // ADD VLS
@@ -18,7 +18,6 @@
 package org.openbaton.utils;
 
 import java.io.*;
-import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.openbaton.exceptions.BadFormatException;
 import org.openbaton.tosca.templates.NSDTemplate;
 import org.openbaton.tosca.templates.VNFDTemplate;
@@ -67,7 +66,7 @@ public final class Utils {
     return yaml.loadAs(someYaml, NSDTemplate.class);
   }
 
-  public static VNFDTemplate bytesToVNFDTemplate(ByteArrayOutputStream b) {
+  public static VNFDTemplate bytesToVNFDTemplate(byte[] b) {
 
     Constructor constructor = new Constructor(VNFDTemplate.class);
     TypeDescription projectDesc = new TypeDescription(VNFDTemplate.class);
@@ -75,10 +74,10 @@ public final class Utils {
     constructor.addTypeDescription(projectDesc);
 
     Yaml yaml = new Yaml(constructor);
-    return yaml.loadAs(new ByteArrayInputStream(b.toByteArray()), VNFDTemplate.class);
+    return yaml.loadAs(new ByteArrayInputStream(b), VNFDTemplate.class);
   }
 
-  public static NSDTemplate bytesToNSDTemplate(ByteArrayOutputStream b) throws BadFormatException {
+  public static NSDTemplate bytesToNSDTemplate(byte[] b) throws BadFormatException {
 
     Constructor constructor = new Constructor(NSDTemplate.class);
     TypeDescription projectDesc = new TypeDescription(NSDTemplate.class);
@@ -87,7 +86,7 @@ public final class Utils {
 
     Yaml yaml = new Yaml(constructor);
     try {
-      return yaml.loadAs(new ByteArrayInputStream(b.toByteArray()), NSDTemplate.class);
+      return yaml.loadAs(new ByteArrayInputStream(b), NSDTemplate.class);
     } catch (Exception e) {
       log.error(e.getLocalizedMessage());
       throw new BadFormatException(
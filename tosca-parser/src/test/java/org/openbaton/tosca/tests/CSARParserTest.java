@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.tosca.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
+import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
+import org.openbaton.tosca.parser.CSARParser;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Parses generated NSD CSARs, one at a time and concurrently on the same parser instance, with the
+ * VNFs converted on an executor like the toscaExecutor. The scripts of the CSARs are skipped.
+ */
+public class CSARParserTest {
+
+  private static final int CSARS = 50;
+  private static final int VNFS_PER_CSAR = 5;
+  private static final int THREADS = 8;
+
+  private ThreadPoolTaskExecutor toscaExecutor;
+
+  private final AtomicInteger conversions = new AtomicInteger();
+
+  private CSARParser parser;
+
+  @Before
+  public void init() {
+    toscaExecutor = new ThreadPoolTaskExecutor();
+    toscaExecutor.setCorePoolSize(2);
+    toscaExecutor.setMaxPoolSize(4);
+    toscaExecutor.setQueueCapacity(0);
+    toscaExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    toscaExecutor.initialize();
+    Executor converterExecutor =
+        task -> {
+          conversions.incrementAndGet();
+          toscaExecutor.execute(task);
+        };
+    parser = new CSARParser();
+    ReflectionTestUtils.setField(parser, "converterExecutor", converterExecutor);
+  }
+
+  @After
+  public void shutdown() {
+    toscaExecutor.shutdown();
+  }
+
+  @Test
+  public void parseNSDCSARTest() throws Exception {
+    assertParsed("ns-0", parser.parseNSDCSAR(new ByteArrayInputStream(createCsar("ns-0"))));
+    assertEquals(VNFS_PER_CSAR, conversions.get());
+  }
+
+  @Test
+  public void parseNSDCSARConcurrentlyTest() throws Exception {
+    List<byte[]> csars = new ArrayList<>();
+    for (int i = 0; i < CSARS; i++) {
+      csars.add(createCsar("ns-" + i));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<NetworkServiceDescriptor>> results = new ArrayList<>();
+      for (byte[] csar : csars) {
+        results.add(executor.submit(() -> parser.parseNSDCSAR(new ByteArrayInputStream(csar))));
+      }
+      for (int i = 0; i < CSARS; i++) {
+        assertParsed("ns-" + i, results.get(i).get(1, TimeUnit.MINUTES));
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(CSARS * VNFS_PER_CSAR, conversions.get());
+  }
+
+  private static void assertParsed(String name, NetworkServiceDescriptor nsd) {
+    assertEquals(name, nsd.getName());
+    Set<String> types = new HashSet<>();
+    for (VirtualNetworkFunctionDescriptor vnfd : nsd.getVnfd()) {
+      types.add(vnfd.getType());
+    }
+    Set<String> expected = new HashSet<>();
+    for (int i = 0; i < VNFS_PER_CSAR; i++) {
+      expected.add("type" + i);
+    }
+    assertEquals(expected, types);
+  }
+
+  private static byte[] createCsar(String name) throws IOException {
+    ByteArrayOutputStream csar = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(csar)) {
+      addEntry(
+          zip,
+          "TOSCA-Metadata/TOSCA.meta",
+          "TOSCA-Meta-File-Version: 1.0\nCSAR-Version: 1.1\n"
+              + "Entry-Definitions: Definitions/nsd.yaml\n");
+      addEntry(
+          zip,
+          "Metadata.yaml",
+          "name: " + name + "\nimage:\n  upload: false\n  names:\n    - ubuntu\n");
+      addEntry(zip, "Definitions/nsd.yaml", createTemplate(name));
+      for (int i = 0; i < VNFS_PER_CSAR; i++) {
+        addEntry(zip, "Scripts/type" + i + "/install.sh", "#!/bin/bash\necho " + name + "\n");
+      }
+    }
+    return csar.toByteArray();
+  }
+
+  private static void addEntry(ZipOutputStream zip, String name, String content)
+      throws IOException {
+    zip.putNextEntry(new ZipEntry(name));
+    zip.write(content.getBytes(StandardCharsets.UTF_8));
+    zip.closeEntry();
+  }
+
+  private static String createTemplate(String name) {
+    StringBuilder template = new StringBuilder();
+    template
+        .append("tosca_definitions_version: tosca_simple_profile_for_nfv_1_0\n")
+        .append("metadata:\n")
+        .append("  ID: ")
+        .append(name)
+        .append("\n  vendor: test\n  version: 1.0\n")
+        .append("topology_template:\n  node_templates:\n");
+    for (int i = 0; i < VNFS_PER_CSAR; i++) {
+      template
+          .append("    vnf")
+          .append(i)
+          .append(":\n      type: openbaton.type.VNF\n")
+          .append("      properties:\n")
+          .append("        vendor: test\n        version: 1.0\n")
+          .append("        endpoint: generic\n        type: type")
+          .append(i)
+          .append("\n        deploymentFlavour:\n          - flavour_key: m1.small\n")
+          .append("      requirements:\n        - vdu: VDU")
+          .append(i)
+          .append("\n        - virtualLink: private\n")
+          .append("      interfaces:\n        lifecycle:\n          INSTANTIATE:\n")
+          .append("            - install.sh\n")
+          .append("    VDU")
+          .append(i)
+          .append(":\n      type: tosca.nodes.nfv.VDU\n")
+          .append("      properties:\n        scale_in_out: 2\n")
+          .append("        vim_instance_name:\n          - vim-instance\n")
+          .append("      artifacts:\n        VDU")
+          .append(i)
+          .append("Image:\n          type: tosca.artifacts.Deployment.Image.VM\n")
+          .append("          file: ubuntu\n")
+          .append("    CP")
+          .append(i)
+          .append(":\n      type: tosca.nodes.nfv.CP\n")
+          .append("      requirements:\n        - virtualBinding: VDU")
+          .append(i)
+          .append("\n        - virtualLink: private\n");
+    }
+    template.append("    private:\n      type: tosca.nodes.nfv.VL\n");
+    return template.toString();
+  }
+}
@@ -30,6 +30,8 @@ import java.util.Set;
 import java.util.concurrent.TimeoutException;
 import org.openbaton.catalogue.mano.common.DeploymentFlavour;
 import org.openbaton.catalogue.mano.descriptor.VNFDConnectionPoint;
+import org.openbaton.catalogue.nfvo.LaunchRequest;
+import org.openbaton.catalogue.nfvo.LaunchResult;
 import org.openbaton.catalogue.nfvo.Quota;
 import org.openbaton.catalogue.nfvo.Server;
 import org.openbaton.catalogue.nfvo.images.BaseNfvImage;
@@ -59,6 +61,7 @@ import org.springframework.stereotype.Service;
 public class VimDriverCaller extends VimDriver {
 
   private PluginCaller pluginCaller;
+  private volatile boolean batchLaunchSupported;
   private Logger log = LoggerFactory.getLogger(this.getClass());
 
   public VimDriverCaller(
@@ -268,6 +271,60 @@ public class VimDriverCaller extends VimDriver {
     return (Server) res;
   }
 
+  /**
+   * Plugins cannot tell which calls they implement, so the batch launch is enabled per vim type by
+   * configuration (nfvo.vim.drivers.batch-launch.types).
+   */
+  @Override
+  public boolean isBatchLaunchSupported() {
+    return batchLaunchSupported;
+  }
+
+  public void setBatchLaunchSupported(boolean batchLaunchSupported) {
+    this.batchLaunchSupported = batchLaunchSupported;
+  }
+
+  /**
+   * Launches the instances with one RPC if the plugin supports it, otherwise with one
+   * launchInstanceAndWait RPC per instance. The batch RPC waits for the plugin timeout
+   * (nfvo.plugin.timeout) once per instance, as the single calls would.
+   */
+  @Override
+  public List<LaunchResult> launchInstancesAndWait(
+      BaseVimInstance vimInstance, List<LaunchRequest> requests, Set<Key> keys)
+      throws VimDriverException {
+    if (requests.isEmpty()) {
+      return new ArrayList<>();
+    }
+    if (!batchLaunchSupported) {
+      return super.launchInstancesAndWait(vimInstance, requests, keys);
+    }
+    long timeout = pluginCaller.getTimeout() * requests.size();
+    List<Serializable> params = new LinkedList<>();
+    params.add(vimInstance);
+    params.add(new ArrayList<>(requests));
+    params.add(keys != null ? new HashSet<>(keys) : new HashSet<Key>());
+    Type listType = new TypeToken<ArrayList<LaunchResult>>() {}.getType();
+    Serializable res;
+    try {
+      res = pluginCaller.executeRPC("launchInstancesAndWait", params, listType, timeout);
+    } catch (IOException | InterruptedException e) {
+      throw new VimDriverException(e.getMessage());
+    } catch (PluginException e) {
+      throw new VimDriverException(e.getMessage(), e.getCause());
+    }
+    List<LaunchResult> results = (List<LaunchResult>) res;
+    if (results == null || results.size() != requests.size()) {
+      throw new VimDriverException(
+          "Plugin answered launchInstancesAndWait with "
+              + (results == null ? 0 : results.size())
+              + " results for "
+              + requests.size()
+              + " instances");
+    }
+    return results;
+  }
+
   @Override
   public void deleteServerByIdAndWait(BaseVimInstance vimInstance, String id)
       throws VimDriverException {
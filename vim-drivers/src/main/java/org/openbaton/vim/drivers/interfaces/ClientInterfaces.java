@@ -17,11 +17,14 @@
 
 package org.openbaton.vim.drivers.interfaces;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.openbaton.catalogue.mano.common.DeploymentFlavour;
 import org.openbaton.catalogue.mano.descriptor.VNFDConnectionPoint;
+import org.openbaton.catalogue.nfvo.LaunchRequest;
+import org.openbaton.catalogue.nfvo.LaunchResult;
 import org.openbaton.catalogue.nfvo.Quota;
 import org.openbaton.catalogue.nfvo.Server;
 import org.openbaton.catalogue.nfvo.images.BaseNfvImage;
@@ -82,6 +85,58 @@ public interface ClientInterfaces {
       String s)
       throws VimDriverException;
 
+  /**
+   * Returns true if the driver launches several instances together in {@link
+   * #launchInstancesAndWait(BaseVimInstance, List, Set)}. Callers launch the instances of drivers
+   * without this capability concurrently, one launchInstanceAndWait per instance.
+   */
+  default boolean isBatchLaunchSupported() {
+    return false;
+  }
+
+  /**
+   * Launches several instances on the vim instance and waits for them, in one call. The default
+   * implementation launches them one after the other; drivers able to launch them together should
+   * override it together with {@link #isBatchLaunchSupported()}.
+   *
+   * @param vimInstance the vim instance on which to launch the instances
+   * @param requests the parameters of each instance
+   * @param keys the keys to add to every instance
+   * @return the result of every request, in the order of the requests
+   * @throws VimDriverException if the launch could not be attempted at all
+   */
+  default List<LaunchResult> launchInstancesAndWait(
+      BaseVimInstance vimInstance, List<LaunchRequest> requests, Set<Key> keys)
+      throws VimDriverException {
+    List<LaunchResult> results = new ArrayList<>();
+    for (LaunchRequest request : requests) {
+      try {
+        results.add(
+            new LaunchResult(
+                launchInstanceAndWait(
+                    vimInstance,
+                    request.getHostname(),
+                    request.getImage(),
+                    request.getFlavor(),
+                    request.getKeyPair(),
+                    request.getNetworks(),
+                    request.getSecurityGroups(),
+                    request.getUserData(),
+                    request.getFloatingIps(),
+                    keys),
+                null));
+      } catch (VimDriverException e) {
+        Server server = e.getServer();
+        if (e.getCause() instanceof VimDriverException) {
+          server = ((VimDriverException) e.getCause()).getServer();
+        }
+        String error = e.getMessage() != null ? e.getMessage() : e.toString();
+        results.add(new LaunchResult(server, error));
+      }
+    }
+    return results;
+  }
+
   void deleteServerByIdAndWait(BaseVimInstance vimInstance, String id) throws VimDriverException;
 
   BaseNetwork createNetwork(BaseVimInstance vimInstance, BaseNetwork network)
@@ -33,6 +33,8 @@ import org.openbaton.catalogue.mano.descriptor.VNFDConnectionPoint;
 import org.openbaton.catalogue.mano.descriptor.VirtualDeploymentUnit;
 import org.openbaton.catalogue.mano.record.VNFCInstance;
 import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+import org.openbaton.catalogue.nfvo.LaunchRequest;
+import org.openbaton.catalogue.nfvo.LaunchResult;
 import org.openbaton.catalogue.nfvo.Quota;
 import org.openbaton.catalogue.nfvo.Server;
 import org.openbaton.catalogue.nfvo.images.BaseNfvImage;
@@ -47,6 +49,7 @@ import org.openbaton.exceptions.PluginException;
 import org.openbaton.exceptions.VimDriverException;
 import org.openbaton.exceptions.VimException;
 import org.openbaton.nfvo.common.utils.viminstance.VimInstanceUtils;
+import org.openbaton.nfvo.common.utils.viminstance.VimInventoryIndex;
 import org.openbaton.nfvo.vim_interfaces.vim.Vim;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Scope;
@@ -800,19 +803,16 @@ public class GenericVIM extends Vim {
       throws VimException {
     log.debug(
         "Finding DeploymentFlavor with name: " + key + " on VimInstance " + vimInstance.getName());
-    for (DeploymentFlavour deploymentFlavour : vimInstance.getFlavours()) {
-      if (deploymentFlavour.getFlavour_key().equals(key)
-          || deploymentFlavour.getExtId().equals(key)
-          || deploymentFlavour.getId().equals(key)) {
-        log.info(
-            "Found DeploymentFlavour with ExtId: "
-                + deploymentFlavour.getExtId()
-                + " of DeploymentFlavour with name: "
-                + key
-                + " on VimInstance "
-                + vimInstance.getName());
-        return deploymentFlavour.getExtId();
-      }
+    DeploymentFlavour deploymentFlavour = VimInventoryIndex.of(vimInstance).findFlavour(key);
+    if (deploymentFlavour != null) {
+      log.info(
+          "Found DeploymentFlavour with ExtId: "
+              + deploymentFlavour.getExtId()
+              + " of DeploymentFlavour with name: "
+              + key
+              + " on VimInstance "
+              + vimInstance.getName());
+      return deploymentFlavour.getExtId();
     }
     log.error(
         "Not found DeploymentFlavour with name: "
@@ -901,7 +901,7 @@ public class GenericVIM extends Vim {
   }
 
   @Override
-  @Async
+  @Async("vimExecutor")
   public Future<Void> release(VNFCInstance vnfcInstance, BaseVimInstance vimInstance)
       throws VimException {
     log.debug(
@@ -1286,7 +1286,7 @@ public class GenericVIM extends Vim {
   }
 
   @Override
-  @Async
+  @Async("vimExecutor")
   public Future<VNFCInstance> allocate(
       BaseVimInstance vimInstance,
       VirtualDeploymentUnit vdu,
@@ -1296,6 +1296,121 @@ public class GenericVIM extends Vim {
       Map<String, String> floatingIps,
       Set<Key> keys)
       throws VimException {
+    LaunchRequest request =
+        prepareLaunch(vimInstance, vdu, vnfr, vnfComponent, userdata, floatingIps);
+    String hostname = request.getHostname();
+
+    Server server;
+    try {
+      server =
+          client.launchInstanceAndWait(
+              vimInstance,
+              hostname,
+              request.getImage(),
+              request.getFlavor(),
+              request.getKeyPair(),
+              request.getNetworks(),
+              request.getSecurityGroups(),
+              request.getUserData(),
+              floatingIps,
+              new HashSet<>(keys));
+    } catch (VimDriverException e) {
+      return new AsyncResult<>(
+          recoverFailedLaunch(vimInstance, vdu, vnfr, vnfComponent, hostname, floatingIps, e));
+    }
+    return new AsyncResult<>(
+        launched(vimInstance, vdu, vnfr, vnfComponent, hostname, floatingIps, server));
+  }
+
+  @Override
+  public List<Future<VNFCInstance>> allocate(
+      BaseVimInstance vimInstance,
+      VirtualDeploymentUnit vdu,
+      VirtualNetworkFunctionRecord vnfr,
+      List<VNFComponent> vnfComponents,
+      String userdata,
+      List<Map<String, String>> floatingIps,
+      Set<Key> keys)
+      throws VimException {
+    log.debug(
+        "Launching "
+            + vnfComponents.size()
+            + " VMs of VDU "
+            + vdu.getName()
+            + " on VimInstance: "
+            + vimInstance.getName());
+    List<LaunchRequest> requests = new ArrayList<>();
+    for (int i = 0; i < vnfComponents.size(); i++) {
+      requests.add(
+          prepareLaunch(
+              vimInstance, vdu, vnfr, vnfComponents.get(i), userdata, floatingIps.get(i)));
+    }
+
+    List<LaunchResult> results;
+    try {
+      results = client.launchInstancesAndWait(vimInstance, requests, new HashSet<>(keys));
+    } catch (VimDriverException e) {
+      log.error(
+          "Not launched VMs of VDU "
+              + vdu.getName()
+              + " on VimInstance "
+              + vimInstance.getName()
+              + ". Caused by: "
+              + e.getMessage());
+      // nothing is known about the single instances, each of them is recovered from the vim
+      results = new ArrayList<>();
+      for (int i = 0; i < requests.size(); i++) {
+        results.add(new LaunchResult(null, e.getMessage()));
+      }
+    }
+
+    List<Future<VNFCInstance>> instances = new ArrayList<>();
+    for (int i = 0; i < requests.size(); i++) {
+      VNFComponent vnfComponent = vnfComponents.get(i);
+      String hostname = requests.get(i).getHostname();
+      LaunchResult result = results.get(i);
+      try {
+        if (result.isFailed()) {
+          VimDriverException cause = new VimDriverException(result.getError());
+          cause.setServer(result.getServer());
+          instances.add(
+              new AsyncResult<>(
+                  recoverFailedLaunch(
+                      vimInstance,
+                      vdu,
+                      vnfr,
+                      vnfComponent,
+                      hostname,
+                      floatingIps.get(i),
+                      new VimDriverException(result.getError(), cause))));
+          continue;
+        }
+        instances.add(
+            new AsyncResult<>(
+                launched(
+                    vimInstance,
+                    vdu,
+                    vnfr,
+                    vnfComponent,
+                    hostname,
+                    floatingIps.get(i),
+                    result.getServer())));
+      } catch (VimException e) {
+        instances.add(AsyncResult.forExecutionException(e));
+      }
+    }
+    return instances;
+  }
+
+  /** Chooses image, flavour, hostname and networks of the VM to launch for the VNFComponent. */
+  private LaunchRequest prepareLaunch(
+      BaseVimInstance vimInstance,
+      VirtualDeploymentUnit vdu,
+      VirtualNetworkFunctionRecord vnfr,
+      VNFComponent vnfComponent,
+      String userdata,
+      Map<String, String> floatingIps)
+      throws VimException {
     log.debug("Launching new VM on VimInstance: " + vimInstance.getName());
     log.debug("VDU is : " + vdu.getName());
     log.debug("VNFR is : " + vnfr.getName());
@@ -1325,151 +1440,171 @@ public class GenericVIM extends Vim {
 
     Set<String> securityGroups = null;
 
-    Server server = null;
-    VNFCInstance vnfcInstance = null;
-    try {
-      if (image == null) throw new NullPointerException("image is null");
-      if (flavorExtId == null) throw new NullPointerException("flavorExtId is null");
-      String keyPair = "";
-      if (vimInstance instanceof OpenstackVimInstance) {
-        if (((OpenstackVimInstance) vimInstance).getKeyPair() == null) {
-          log.debug("vimInstance.getKeyPair() is null");
-          keyPair = "";
-        } else {
-          keyPair = ((OpenstackVimInstance) vimInstance).getKeyPair();
-        }
-      }
-      if (networks.isEmpty()) {
-        throw new NullPointerException("networks is empty");
+    if (image == null) throw new NullPointerException("image is null");
+    if (flavorExtId == null) throw new NullPointerException("flavorExtId is null");
+    String keyPair = "";
+    if (vimInstance instanceof OpenstackVimInstance) {
+      if (((OpenstackVimInstance) vimInstance).getKeyPair() == null) {
+        log.debug("vimInstance.getKeyPair() is null");
+        keyPair = "";
+      } else {
+        keyPair = ((OpenstackVimInstance) vimInstance).getKeyPair();
       }
-      if (vimInstance instanceof OpenstackVimInstance) {
-        if (((OpenstackVimInstance) vimInstance).getSecurityGroups() == null) {
-          securityGroups = new HashSet<>();
-        } else securityGroups = ((OpenstackVimInstance) vimInstance).getSecurityGroups();
-        if (vdu.getMetadata() != null && vdu.getMetadata().containsKey("az")) {
-          if (vimInstance.getMetadata() == null) vimInstance.setMetadata(new HashMap<>());
-          vimInstance.getMetadata().put("az", vdu.getMetadata().get("az"));
-        }
+    }
+    if (networks.isEmpty()) {
+      throw new NullPointerException("networks is empty");
+    }
+    if (vimInstance instanceof OpenstackVimInstance) {
+      if (((OpenstackVimInstance) vimInstance).getSecurityGroups() == null) {
+        securityGroups = new HashSet<>();
+      } else securityGroups = ((OpenstackVimInstance) vimInstance).getSecurityGroups();
+      if (vdu.getMetadata() != null && vdu.getMetadata().containsKey("az")) {
+        if (vimInstance.getMetadata() == null) vimInstance.setMetadata(new HashMap<>());
+        vimInstance.getMetadata().put("az", vdu.getMetadata().get("az"));
       }
-      log.debug("Using SecurityGroups: " + securityGroups);
-      log.debug(
-          "Launching VM with params: "
+    }
+    log.debug("Using SecurityGroups: " + securityGroups);
+    log.debug(
+        "Launching VM with params: "
+            + hostname
+            + " - "
+            + image
+            + " - "
+            + flavorExtId
+            + " - "
+            + keyPair
+            + " - "
+            + networks
+            + " - "
+            + securityGroups);
+
+    LaunchRequest request = new LaunchRequest();
+    request.setHostname(hostname);
+    request.setImage(image);
+    request.setFlavor(flavorExtId);
+    request.setKeyPair(keyPair);
+    request.setNetworks(vnfComponent.getConnection_point());
+    request.setSecurityGroups(securityGroups);
+    request.setUserData(userdata);
+    request.setFloatingIps(floatingIps);
+    return request;
+  }
+
+  /** Creates the VNFCInstance of a VM launched successfully. */
+  private VNFCInstance launched(
+      BaseVimInstance vimInstance,
+      VirtualDeploymentUnit vdu,
+      VirtualNetworkFunctionRecord vnfr,
+      VNFComponent vnfComponent,
+      String hostname,
+      Map<String, String> floatingIps,
+      Server server)
+      throws VimException {
+    log.debug(
+        "Launched VM with hostname "
+            + hostname
+            + " with ExtId "
+            + server.getExtId()
+            + " on VimInstance "
+            + vimInstance.getName());
+    VNFCInstance vnfcInstance;
+    try {
+      log.debug("Creating VNFCInstance based on the VM launched previously -> VM: " + server);
+      vnfcInstance =
+          getVnfcInstance(vimInstance, vnfComponent, hostname, server, vdu, floatingIps, vnfr);
+      //checkIntegrity(vnfr, vdu, vnfComponent, vnfcInstance, server);
+    } catch (VimDriverException | VimException e) {
+      throw new VimException(e);
+    }
+    log.info("Launched VNFCInstance: " + vnfcInstance + " on VimInstance " + vimInstance.getName());
+    return vnfcInstance;
+  }
+
+  /**
+   * Handles a VM that was not launched successfully: if the VM can be found on the vim without an
+   * error reported for it, its VNFCInstance is returned, otherwise an exception carrying the
+   * VNFCInstance as far as it is known is thrown.
+   */
+  private VNFCInstance recoverFailedLaunch(
+      BaseVimInstance vimInstance,
+      VirtualDeploymentUnit vdu,
+      VirtualNetworkFunctionRecord vnfr,
+      VNFComponent vnfComponent,
+      String hostname,
+      Map<String, String> floatingIps,
+      VimDriverException e)
+      throws VimException {
+    if (log.isDebugEnabled()) {
+      log.error(
+          "Not launched VM with hostname "
               + hostname
-              + " - "
-              + image
-              + " - "
-              + flavorExtId
-              + " - "
-              + keyPair
-              + " - "
-              + networks
-              + " - "
-              + securityGroups);
-      server =
-          client.launchInstanceAndWait(
-              vimInstance,
-              hostname,
-              image,
-              flavorExtId,
-              keyPair,
-              vnfComponent.getConnection_point(),
-              securityGroups,
-              userdata,
-              floatingIps,
-              new HashSet<>(keys));
-      log.debug(
-          "Launched VM with hostname "
+              + " successfully on VimInstance "
+              + vimInstance.getName()
+              + ". Caused by: "
+              + e.getMessage(),
+          e);
+    } else {
+      log.error(
+          "Not launched VM with hostname "
               + hostname
-              + " with ExtId "
-              + server.getExtId()
-              + " on VimInstance "
-              + vimInstance.getName());
-    } catch (VimDriverException e) {
-      if (log.isDebugEnabled()) {
-        log.error(
-            "Not launched VM with hostname "
-                + hostname
-                + " successfully on VimInstance "
-                + vimInstance.getName()
-                + ". Caused by: "
-                + e.getMessage(),
-            e);
-      } else {
-        log.error(
-            "Not launched VM with hostname "
-                + hostname
-                + " successfully on VimInstance "
-                + vimInstance.getName()
-                + ". Caused by: "
-                + e.getMessage());
-      }
-      VimDriverException vimDriverException = (VimDriverException) e.getCause();
-      if (vimDriverException != null && vimDriverException.getServer() != null) {
-        server = vimDriverException.getServer();
-        try {
-          vnfcInstance =
-              getVnfcInstance(vimInstance, vnfComponent, hostname, server, vdu, floatingIps, vnfr);
-        } catch (VimDriverException | VimException e1) {
-          throw new VimException(e);
-        }
-        throw new VimException(
-            "Not launched VM with hostname "
-                + hostname
-                + " successfully on VimInstance "
-                + vimInstance.getName()
-                + ". Caused by: "
-                + e.getMessage(),
-            e,
-            vdu,
-            vnfcInstance);
-      } else {
-        try {
-          log.warn(
-              "Exception thrown while deploying... Try to recover '"
-                  + hostname
-                  + "' from VIM directly");
-          vnfcInstance =
-              getVnfcInstance(vimInstance, vnfComponent, hostname, null, vdu, floatingIps, vnfr);
-          //checkIntegrity(vnfr, vdu, vnfComponent, vnfcInstance, null);
-        } catch (VimDriverException | VimException e1) {
-          if ((e1 instanceof VimException) && ((VimException) e1).getVnfcInstance() != null)
-            vnfcInstance = ((VimException) e1).getVnfcInstance();
-          else {
-            vnfcInstance = new VNFCInstance();
-            vnfcInstance.setHostname(hostname);
-            vnfcInstance.setVim_id(vimInstance.getId());
-            vnfcInstance.setVnfComponent(vnfComponent);
-            vnfcInstance.setVc_id("unknown");
-            vnfcInstance.setState("ERROR");
-            vnfcInstance.setIps(new HashSet<>());
-            vnfcInstance.setFloatingIps(new HashSet<>());
-          }
-          throw new VimException(
-              "Not launched VM with hostname "
-                  + hostname
-                  + " successfully on VimInstance "
-                  + vimInstance.getName()
-                  + ". Caused by: "
-                  + e.getMessage(),
-              e,
-              vdu,
-              vnfcInstance);
-        }
-      }
+              + " successfully on VimInstance "
+              + vimInstance.getName()
+              + ". Caused by: "
+              + e.getMessage());
     }
-    if (vnfcInstance == null) {
+    VNFCInstance vnfcInstance;
+    VimDriverException vimDriverException = (VimDriverException) e.getCause();
+    if (vimDriverException != null && vimDriverException.getServer() != null) {
+      Server server = vimDriverException.getServer();
       try {
-        log.debug("Creating VNFCInstance based on the VM launched previously -> VM: " + server);
         vnfcInstance =
             getVnfcInstance(vimInstance, vnfComponent, hostname, server, vdu, floatingIps, vnfr);
-        //checkIntegrity(vnfr, vdu, vnfComponent, vnfcInstance, server);
-      } catch (VimDriverException | VimException e) {
+      } catch (VimDriverException | VimException e1) {
         throw new VimException(e);
       }
+      throw new VimException(
+          "Not launched VM with hostname "
+              + hostname
+              + " successfully on VimInstance "
+              + vimInstance.getName()
+              + ". Caused by: "
+              + e.getMessage(),
+          e,
+          vdu,
+          vnfcInstance);
     }
-
-    log.info("Launched VNFCInstance: " + vnfcInstance + " on VimInstance " + vimInstance.getName());
-    return new AsyncResult<>(vnfcInstance);
+    try {
+      log.warn(
+          "Exception thrown while deploying... Try to recover '" + hostname + "' from VIM directly");
+      vnfcInstance =
+          getVnfcInstance(vimInstance, vnfComponent, hostname, null, vdu, floatingIps, vnfr);
+      //checkIntegrity(vnfr, vdu, vnfComponent, vnfcInstance, null);
+    } catch (VimDriverException | VimException e1) {
+      if ((e1 instanceof VimException) && ((VimException) e1).getVnfcInstance() != null)
+        vnfcInstance = ((VimException) e1).getVnfcInstance();
+      else {
+        vnfcInstance = new VNFCInstance();
+        vnfcInstance.setHostname(hostname);
+        vnfcInstance.setVim_id(vimInstance.getId());
+        vnfcInstance.setVnfComponent(vnfComponent);
+        vnfcInstance.setVc_id("unknown");
+        vnfcInstance.setState("ERROR");
+        vnfcInstance.setIps(new HashSet<>());
+        vnfcInstance.setFloatingIps(new HashSet<>());
+      }
+      throw new VimException(
+          "Not launched VM with hostname "
+              + hostname
+              + " successfully on VimInstance "
+              + vimInstance.getName()
+              + ". Caused by: "
+              + e.getMessage(),
+          e,
+          vdu,
+          vnfcInstance);
+    }
+    log.info("Recovered VNFCInstance: " + vnfcInstance + " on VimInstance " + vimInstance.getName());
+    return vnfcInstance;
   }
 
   private VNFCInstance getVnfcInstance(
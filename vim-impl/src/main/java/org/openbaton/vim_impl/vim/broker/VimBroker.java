@@ -17,8 +17,14 @@
 
 package org.openbaton.vim_impl.vim.broker;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.PostConstruct;
 import org.openbaton.catalogue.mano.common.DeploymentFlavour;
 import org.openbaton.catalogue.nfvo.Quota;
@@ -33,6 +39,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Scope;
@@ -42,7 +50,8 @@ import org.springframework.stereotype.Service;
 @Service
 @Scope
 @ConfigurationProperties
-public class VimBroker implements org.openbaton.nfvo.vim_interfaces.vim.VimBroker {
+public class VimBroker
+    implements org.openbaton.nfvo.vim_interfaces.vim.VimBroker, PublicMetrics {
 
   @Value("${nfvo.rabbit.management.port:15672}")
   private String managementPort;
@@ -110,6 +119,10 @@ public class VimBroker implements org.openbaton.nfvo.vim_interfaces.vim.VimBroke
   @Value("${nfvo.vim.drivers.allowInfiniteQuota:false}")
   private String allowInfiniteQuota;
 
+  /** Types of the vim drivers implementing launchInstancesAndWait. */
+  @Value("${nfvo.vim.drivers.batch-launch.types:}")
+  private String[] batchLaunchTypes;
+
   @Value("${spring.rabbitmq.port:5672}")
   private String port;
 
@@ -121,6 +134,10 @@ public class VimBroker implements org.openbaton.nfvo.vim_interfaces.vim.VimBroke
   @Autowired private ConfigurableApplicationContext context;
   private HashMap<String, ClientInterfaces> clientInterfaces;
 
+  private final Map<String, Vim> vims = new ConcurrentHashMap<>();
+  private final AtomicLong cacheHits = new AtomicLong();
+  private final AtomicLong cacheMisses = new AtomicLong();
+
   public String getAllowInfiniteQuota() {
     return allowInfiniteQuota;
   }
@@ -153,8 +170,50 @@ public class VimBroker implements org.openbaton.nfvo.vim_interfaces.vim.VimBroke
     return this.clientInterfaces.get(type);
   }
 
+  /**
+   * Returns the Vim for the given type, creating it only the first time it is requested. The
+   * cached instance is dropped when a plugin of the same type registers or unregisters.
+   */
   @Override
   public Vim getVim(String type) throws PluginException {
+    Vim vim = vims.get(type);
+    if (vim != null) {
+      cacheHits.incrementAndGet();
+      return vim;
+    }
+    cacheMisses.incrementAndGet();
+    vim = createVim(type);
+    Vim existing = vims.putIfAbsent(type, vim);
+    return existing != null ? existing : vim;
+  }
+
+  @Override
+  public void invalidateVims(String pluginId) {
+    if (!pluginId.startsWith("vim-drivers.")) {
+      return;
+    }
+    String type = pluginId.substring("vim-drivers.".length());
+    if (type.contains(".")) {
+      type = type.substring(0, type.indexOf("."));
+    }
+    log.debug("Dropping cached vims of type: " + type);
+    for (String key : vims.keySet()) {
+      if (key.equals(type) || key.startsWith(type + ".")) {
+        vims.remove(key);
+      }
+    }
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    Collection<Metric<?>> metrics = new ArrayList<>();
+    metrics.add(new Metric<>("vim.broker.cache.hits", cacheHits.get()));
+    metrics.add(new Metric<>("vim.broker.cache.misses", cacheMisses.get()));
+    metrics.add(new Metric<>("vim.broker.cache.size", vims.size()));
+    return metrics;
+  }
+
+  private Vim createVim(String type) throws PluginException {
     /* Needed only for test */
     try {
       port = String.valueOf(Integer.parseInt(port));
@@ -172,17 +231,22 @@ public class VimBroker implements org.openbaton.nfvo.vim_interfaces.vim.VimBroke
       type = split[0];
       pluginName = split[1];
     }
-    return new GenericVIM(
-        type,
-        rabbitUsername,
-        rabbitPassword,
-        brokerIp,
-        Integer.parseInt(port),
-        virtualHost,
-        this.managementPort,
-        context,
-        pluginName,
-        Integer.parseInt(pluginTimeout));
+    GenericVIM vim =
+        new GenericVIM(
+            type,
+            rabbitUsername,
+            rabbitPassword,
+            brokerIp,
+            Integer.parseInt(port),
+            virtualHost,
+            this.managementPort,
+            context,
+            pluginName,
+            Integer.parseInt(pluginTimeout));
+    if (vim.getClient() != null) {
+      vim.getClient().setBatchLaunchSupported(Arrays.asList(batchLaunchTypes).contains(type));
+    }
+    return vim;
   }
 
   @Override
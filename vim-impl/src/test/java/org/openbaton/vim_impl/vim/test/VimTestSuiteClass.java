@@ -18,16 +18,27 @@
 package org.openbaton.vim_impl.vim.test;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.anySet;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.lang.reflect.Type;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -48,6 +59,8 @@ import org.openbaton.catalogue.mano.record.Status;
 import org.openbaton.catalogue.mano.record.VNFCInstance;
 import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
 import org.openbaton.catalogue.nfvo.ImageStatus;
+import org.openbaton.catalogue.nfvo.LaunchRequest;
+import org.openbaton.catalogue.nfvo.LaunchResult;
 import org.openbaton.catalogue.nfvo.Server;
 import org.openbaton.catalogue.nfvo.images.NFVImage;
 import org.openbaton.catalogue.nfvo.networks.Network;
@@ -59,12 +72,14 @@ import org.openbaton.exceptions.VimDriverException;
 import org.openbaton.exceptions.VimException;
 import org.openbaton.nfvo.vim_interfaces.vim.Vim;
 import org.openbaton.nfvo.vim_interfaces.vim.VimBroker;
+import org.openbaton.plugin.utils.PluginCaller;
 import org.openbaton.plugin.utils.RabbitPluginBroker;
 import org.openbaton.vim.drivers.VimDriverCaller;
 import org.openbaton.vim_impl.vim.GenericVIM;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunnerDelegate;
+import org.powermock.reflect.Whitebox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -202,6 +217,122 @@ public class VimTestSuiteClass {
         new HashSet<Key>());
   }
 
+  @Test
+  public void testVimOpenstackBatch() throws VimDriverException, VimException {
+    VirtualDeploymentUnit vdu = createVDU();
+    VNFComponent vnfComponent = vdu.getVnfc().iterator().next();
+    when(vimDriverCaller.launchInstancesAndWait(any(BaseVimInstance.class), anyList(), anySet()))
+        .thenReturn(
+            Arrays.asList(
+                new LaunchResult(createServer("launched_id"), null),
+                new LaunchResult(createServer("failed_id"), "error")));
+
+    List<Future<VNFCInstance>> instances =
+        genericVIM.allocate(
+            createVIM(),
+            vdu,
+            createVNFR(),
+            Arrays.asList(vnfComponent, vnfComponent),
+            "",
+            Arrays.asList(new HashMap<>(), new HashMap<>()),
+            new HashSet<>());
+
+    Assert.assertEquals(2, instances.size());
+    try {
+      Assert.assertEquals("launched_id", instances.get(0).get().getVc_id());
+    } catch (ExecutionException | InterruptedException e) {
+      e.printStackTrace();
+      Assert.fail();
+    }
+    try {
+      instances.get(1).get();
+      Assert.fail("The failed launch was not reported");
+    } catch (ExecutionException | InterruptedException e) {
+      Assert.assertTrue(e.getCause() instanceof VimException);
+      Assert.assertEquals("failed_id", ((VimException) e.getCause()).getVnfcInstance().getVc_id());
+    }
+  }
+
+  @Test
+  public void testBatchLaunchFallback() throws Exception {
+    PluginCaller pluginCaller = mock(PluginCaller.class);
+    VimDriverCaller caller = createVimDriverCaller(pluginCaller);
+    List<LaunchRequest> requests = Arrays.asList(new LaunchRequest(), new LaunchRequest());
+
+    // a plugin not configured for the batch call is called once per instance
+    List<LaunchResult> results = caller.launchInstancesAndWait(createVIM(), requests, null);
+    Assert.assertEquals(2, results.size());
+    Assert.assertFalse(results.get(0).isFailed());
+    Assert.assertFalse(results.get(1).isFailed());
+    verify(pluginCaller, never())
+        .executeRPC(eq("launchInstancesAndWait"), anyCollection(), any(Type.class), anyLong());
+    verify(caller, times(2))
+        .launchInstanceAndWait(
+            any(BaseVimInstance.class),
+            anyString(),
+            anyString(),
+            anyString(),
+            anyString(),
+            anySet(),
+            anySet(),
+            anyString(),
+            anyMap(),
+            anySet());
+  }
+
+  @Test
+  public void testBatchLaunch() throws Exception {
+    PluginCaller pluginCaller = mock(PluginCaller.class);
+    when(pluginCaller.getTimeout()).thenReturn(1000L);
+    VimDriverCaller caller = createVimDriverCaller(pluginCaller);
+    Whitebox.setInternalState(caller, "batchLaunchSupported", true);
+    List<LaunchRequest> requests = Arrays.asList(new LaunchRequest(), new LaunchRequest());
+    when(pluginCaller.executeRPC(
+            eq("launchInstancesAndWait"), anyCollection(), any(Type.class), anyLong()))
+        .thenReturn(
+            new ArrayList<>(
+                Arrays.asList(
+                    new LaunchResult(createServer("id_1"), null),
+                    new LaunchResult(createServer("id_2"), null))));
+
+    Assert.assertEquals(2, caller.launchInstancesAndWait(createVIM(), requests, null).size());
+
+    // the batch call waits the plugin timeout once per instance
+    verify(pluginCaller, times(1))
+        .executeRPC(eq("launchInstancesAndWait"), anyCollection(), any(Type.class), eq(2000L));
+  }
+
+  /** A VimDriverCaller talking to the given PluginCaller, launching single instances directly. */
+  private VimDriverCaller createVimDriverCaller(PluginCaller pluginCaller)
+      throws VimDriverException {
+    VimDriverCaller caller = mock(VimDriverCaller.class);
+    Whitebox.setInternalState(caller, "pluginCaller", pluginCaller);
+    Whitebox.setInternalState(caller, "log", log);
+    when(caller.launchInstancesAndWait(any(BaseVimInstance.class), anyList(), anySet()))
+        .thenCallRealMethod();
+    when(caller.launchInstanceAndWait(
+            any(BaseVimInstance.class),
+            anyString(),
+            anyString(),
+            anyString(),
+            anyString(),
+            anySet(),
+            anySet(),
+            anyString(),
+            anyMap(),
+            anySet()))
+        .thenReturn(createServer("id"));
+    return caller;
+  }
+
+  private Server createServer(String extId) {
+    Server server = new Server();
+    server.setExtId(extId);
+    server.setIps(new HashMap<>());
+    server.setFloatingIps(new HashMap<>());
+    return server;
+  }
+
   private VirtualNetworkFunctionRecord createVNFR() {
     VirtualNetworkFunctionRecord vnfr = new VirtualNetworkFunctionRecord();
     vnfr.setName("testVnfr");
@@ -58,6 +58,33 @@ public interface ResourceManagement {
       Set<Key> keys)
       throws VimException;
 
+  /**
+   * Allocates the resources of several VNFComponents of the same VDU at once, launching all the VMs
+   * with a single call to the vim driver when the driver supports it.
+   *
+   * @param vimInstance the {@link BaseVimInstance} on which allocate the resources
+   * @param vdu the {@link VirtualDeploymentUnit}
+   * @param virtualNetworkFunctionRecord the {@link VirtualNetworkFunctionRecord}
+   * @param vnfComponents the {@link VNFComponent}s to deploy
+   * @param userdata the UserData to inject in the cloud init
+   * @param floatingIps the floating ips of every {@link VNFComponent}, in the same order, see
+   *     {@link #allocate(BaseVimInstance, VirtualDeploymentUnit, VirtualNetworkFunctionRecord,
+   *     VNFComponent, String, Map, Set)}
+   * @param keys the set of {@link Key} to add to the VMs
+   * @return one completed future per {@link VNFComponent}, in the same order, containing the
+   *     {@link VNFCInstance} deployed or the exception of its launch
+   * @throws VimException if the VMs could not be prepared
+   */
+  List<Future<VNFCInstance>> allocate(
+      BaseVimInstance vimInstance,
+      VirtualDeploymentUnit vdu,
+      VirtualNetworkFunctionRecord virtualNetworkFunctionRecord,
+      List<VNFComponent> vnfComponents,
+      String userdata,
+      List<Map<String, String>> floatingIps,
+      Set<Key> keys)
+      throws VimException;
+
   /**
    * This operation allows querying a virtualised resource, i.e. retrieve information about an
    * instantiated virtualised resource.
@@ -110,6 +110,14 @@ public abstract class Vim
     }
   }
 
+  /**
+   * Returns true if the driver launches the VMs of a VDU with one call, otherwise they should be
+   * allocated concurrently, one VNFComponent at a time.
+   */
+  public boolean isBatchLaunchSupported() {
+    return client != null && client.isBatchLaunchSupported();
+  }
+
   public VimDriverCaller getClient() {
     return client;
   }
@@ -33,6 +33,15 @@ public interface VimBroker {
 
   Vim getVim(String type) throws PluginException;
 
+  /**
+   * Drops the cached Vims served by the given plugin, so that they are created again on the next
+   * request.
+   *
+   * @param pluginId the id of the plugin that registered or unregistered (e.g.
+   *     vim-drivers.openstack.name)
+   */
+  void invalidateVims(String pluginId);
+
   //  Vim getVim(String type, int port) throws PluginException;
 
   //  Vim getVim(String type, String name, String port);
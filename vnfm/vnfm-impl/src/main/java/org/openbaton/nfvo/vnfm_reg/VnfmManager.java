@@ -31,6 +31,7 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
 import java.util.regex.Pattern;
 import javax.annotation.PostConstruct;
 import org.openbaton.catalogue.api.DeployNSRBody;
@@ -59,14 +60,14 @@ import org.openbaton.exceptions.PluginException;
 import org.openbaton.exceptions.VimException;
 import org.openbaton.nfvo.common.internal.model.EventFinishNFVO;
 import org.openbaton.nfvo.common.internal.model.EventNFVO;
+import org.openbaton.nfvo.common.utils.lock.StripedLockManager;
 import org.openbaton.nfvo.core.interfaces.VimManagement;
-import org.openbaton.nfvo.repositories.NetworkServiceDescriptorRepository;
 import org.openbaton.nfvo.repositories.NetworkServiceRecordRepository;
-import org.openbaton.nfvo.repositories.VNFDRepository;
 import org.openbaton.nfvo.repositories.VNFRRepository;
 import org.openbaton.nfvo.repositories.VimRepository;
 import org.openbaton.nfvo.repositories.VirtualLinkRecordRepository;
-import org.openbaton.nfvo.repositories.VnfPackageRepository;
+import org.openbaton.nfvo.vnfm_reg.state.NsrStatusAggregator;
+import org.openbaton.nfvo.vnfm_reg.state.NsrStatusAggregator.NsrStatus;
 import org.openbaton.vnfm.interfaces.manager.MessageGenerator;
 import org.openbaton.vnfm.interfaces.sender.VnfmSender;
 import org.openbaton.vnfm.interfaces.state.VnfStateHandler;
@@ -82,7 +83,6 @@ import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Scope;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
-import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.stereotype.Service;
@@ -101,15 +101,14 @@ public class VnfmManager
   private ApplicationEventPublisher publisher;
 
   @Autowired private NetworkServiceRecordRepository nsrRepository;
-  @Autowired private NetworkServiceDescriptorRepository nsdRepository;
-  @Autowired private VnfPackageRepository vnfPackageRepository;
   @Autowired private VnfStateHandler vnfStateHandler;
-  @Autowired private VNFDRepository vnfdRepository;
   @Autowired private VNFRRepository vnfrRepository;
   @Autowired private VimRepository vimInstanceRepository;
   @Autowired private MessageGenerator generator;
   @Autowired private VimManagement vimManagement;
   @Autowired private VirtualLinkRecordRepository vlrRepository;
+  @Autowired private StripedLockManager lockManager;
+  @Autowired private NsrStatusAggregator nsrStatusAggregator;
 
   @Value("${nfvo.start.ordered:false}")
   private boolean ordered;
@@ -204,134 +203,118 @@ public class VnfmManager
   }
 
   @Override
-  public synchronized void findAndSetNSRStatus(
-      VirtualNetworkFunctionRecord virtualNetworkFunctionRecord) {
+  public void findAndSetNSRStatus(VirtualNetworkFunctionRecord virtualNetworkFunctionRecord) {
 
     if (virtualNetworkFunctionRecord == null) {
       log.debug("The VNFR is Null!");
       return;
     }
 
-    Status status = Status.TERMINATED;
-    NetworkServiceRecord networkServiceRecord = null;
+    // only the status updates of the same NSR need to be serialized
+    Lock lock = lockManager.lock(getLockKey(virtualNetworkFunctionRecord));
+    try {
+      findAndSetNSRStatusLocked(virtualNetworkFunctionRecord);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the key used for locking the records of the NSR the VNFR belongs to. */
+  private static String getLockKey(VirtualNetworkFunctionRecord virtualNetworkFunctionRecord) {
+    return virtualNetworkFunctionRecord.getParent_ns_id() != null
+        ? virtualNetworkFunctionRecord.getParent_ns_id()
+        : virtualNetworkFunctionRecord.getId();
+  }
+
+  private void findAndSetNSRStatusLocked(
+      VirtualNetworkFunctionRecord virtualNetworkFunctionRecord) {
+    String nsrId = virtualNetworkFunctionRecord.getParent_ns_id();
+    log.debug("The nsr id is: " + nsrId);
+
+    // the status of the NSR is derived from the status changes of its VNFRs, the NSR is loaded
+    // only when it changed otherwise and when its status reaches ACTIVE or TERMINATED
+    NsrStatus nsrStatus = nsrStatusAggregator.get(nsrId);
+    if (nsrStatus == null) {
+      log.info("The Record was already deleted by a previous task");
+      vnfrRepository.delete(virtualNetworkFunctionRecord);
+      return;
+    }
+    nsrStatus.update(
+        virtualNetworkFunctionRecord.getId(), virtualNetworkFunctionRecord.getStatus());
+
+    if (virtualNetworkFunctionRecord.getStatus().ordinal() != Status.TERMINATED.ordinal()
+        && !nsrStatus.isComplete()) {
+      log.debug("Not all the VNFR have been created yet, it is useless to set the NSR status.");
+      return;
+    }
 
-    // this while loop is necessary because the NSR and it's components might have changed before the save call
-    // resulting in an OptimisticLockingFailureException
-    boolean foundAndSet = false;
-    while (!foundAndSet) {
-      try {
-        try {
-          log.debug("The nsr id is: " + virtualNetworkFunctionRecord.getParent_ns_id());
-          networkServiceRecord =
-              nsrRepository.findFirstById(virtualNetworkFunctionRecord.getParent_ns_id());
-          log.trace("Found NSR: " + networkServiceRecord);
-        } catch (Exception ignored) {
-          log.error("No NSR found with id " + virtualNetworkFunctionRecord.getParent_ns_id());
-          return;
-        }
-
-        try {
-          log.debug("looking for NSD with id: " + networkServiceRecord.getDescriptor_reference());
-          if (virtualNetworkFunctionRecord.getStatus().ordinal() != Status.TERMINATED.ordinal()
-              && nsdRepository
-                      .findFirstById(networkServiceRecord.getDescriptor_reference())
-                      .getVnfd()
-                      .size()
-                  != networkServiceRecord.getVnfr().size()) {
-            log.debug(
-                "Not all the VNFR have been created yet, it is useless to set the NSR status.");
-            return;
-          }
-        } catch (NullPointerException ignored) {
-          if (networkServiceRecord == null) {
-            log.info("The Record was already deleted by a previous task");
-            vnfrRepository.delete(virtualNetworkFunctionRecord);
-          } else {
-            log.warn("Descriptor was already removed, calculating the status anyway...");
-          }
-        }
-
-        if (networkServiceRecord == null) return;
-
-        log.debug("Checking the status of NSR: " + networkServiceRecord.getName());
-
-        for (VirtualNetworkFunctionRecord vnfr : networkServiceRecord.getVnfr()) {
-          log.debug("VNFR " + vnfr.getName() + " is in state: " + vnfr.getStatus());
-          if (status.ordinal() > vnfr.getStatus().ordinal()) {
-            status = vnfr.getStatus();
-          }
-        }
-
-        log.debug("Setting NSR status to: " + status);
-        networkServiceRecord.setStatus(status);
-        SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-        networkServiceRecord.setUpdatedAt(format.format(new Date()));
-        networkServiceRecord = nsrRepository.save(networkServiceRecord);
-        foundAndSet = true;
-      } catch (OptimisticLockingFailureException ignored) {
-        log.debug(
-            "OptimisticLockingFailureException during findAndSet. Don't worry we will try it again.");
-        status = Status.TERMINATED;
+    Status status = nsrStatus.getStatus();
+    NetworkServiceRecord networkServiceRecord = null;
+    if (status.ordinal() == Status.ACTIVE.ordinal()
+        || status.ordinal() == Status.TERMINATED.ordinal()) {
+      // these states trigger further actions, so double check them against the stored VNFRs
+      networkServiceRecord = nsrRepository.findWithVnfrById(nsrId);
+      if (networkServiceRecord == null) {
+        log.info("The Record was already deleted by a previous task");
+        nsrStatusAggregator.forget(nsrId);
+        return;
       }
+      nsrStatus = nsrStatusAggregator.load(networkServiceRecord);
+      status = nsrStatus.getStatus();
+    } else if (status == nsrStatus.getPersistedStatus()) {
+      log.debug("The status of NSR " + nsrId + " is still " + status);
+      return;
     }
-    log.debug("Now the status is: " + networkServiceRecord.getStatus());
-    if (status.ordinal() == Status.ACTIVE.ordinal()) {
 
-      boolean savedNsr;
-      do {
-        savedNsr = true;
-        networkServiceRecord = nsrRepository.findFirstById(networkServiceRecord.getId());
-        //Check if all vnfr have been received from the vnfm
-        boolean nsrFilledWithAllVnfr =
-            nsdRepository
-                    .findFirstById(networkServiceRecord.getDescriptor_reference())
-                    .getVnfd()
-                    .size()
-                == networkServiceRecord.getVnfr().size();
-        if (nsrFilledWithAllVnfr) {
-          if (networkServiceRecord.getTask() == null) {
-            networkServiceRecord.setTask("");
-          }
-
-          try {
-            SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
-            if (networkServiceRecord.getTask().contains("Scaling in")) {
-              networkServiceRecord.setTask("Scaled in");
-              networkServiceRecord.setUpdatedAt(format.format(new Date()));
-              networkServiceRecord = nsrRepository.save(networkServiceRecord);
-              publishEvent(
-                  Action.SCALE_IN, networkServiceRecord, networkServiceRecord.getProjectId());
-            } else if (networkServiceRecord.getTask().contains("Scaling out")) {
-              networkServiceRecord.setTask("Scaled out");
-              networkServiceRecord.setUpdatedAt(format.format(new Date()));
-              networkServiceRecord = nsrRepository.save(networkServiceRecord);
-              publishEvent(
-                  Action.SCALE_OUT, networkServiceRecord, networkServiceRecord.getProjectId());
-            } else if (networkServiceRecord.getTask().contains("Healing")) {
-              networkServiceRecord.setTask("Healed");
-              networkServiceRecord.setUpdatedAt(format.format(new Date()));
-              networkServiceRecord = nsrRepository.save(networkServiceRecord);
-              publishEvent(Action.HEAL, networkServiceRecord, networkServiceRecord.getProjectId());
-            } else {
-              networkServiceRecord.setTask("Onboarded");
-              networkServiceRecord.setUpdatedAt(format.format(new Date()));
-              networkServiceRecord = nsrRepository.save(networkServiceRecord);
-              publishEvent(
-                  Action.INSTANTIATE_FINISH,
-                  networkServiceRecord,
-                  networkServiceRecord.getProjectId());
-            }
-          } catch (OptimisticLockingFailureException e) {
-            log.error(
-                "FFFF OptimisticLockingFailureException while setting the task of the NSR. Don't worry we will try it"
-                    + " again.");
-            savedNsr = false;
-          }
-        } else {
-          log.debug("Nsr is ACTIVE but not all vnfr have been received");
-        }
-      } while (!savedNsr);
+    SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
+    String updatedAt = format.format(new Date());
+    log.debug("Setting NSR status to: " + status);
+    if (nsrRepository.updateStatus(nsrId, status, updatedAt) == 0) {
+      log.info("The Record was already deleted by a previous task");
+      nsrStatusAggregator.forget(nsrId);
+      return;
+    }
+    nsrStatus.setPersistedStatus(status);
+
+    if (status.ordinal() == Status.ACTIVE.ordinal()) {
+      //Check if all vnfr have been received from the vnfm
+      if (!nsrStatus.isComplete()) {
+        log.debug("Nsr is ACTIVE but not all vnfr have been received");
+        return;
+      }
+      String task = networkServiceRecord.getTask() == null ? "" : networkServiceRecord.getTask();
+      Action action;
+      if (task.contains("Scaling in")) {
+        task = "Scaled in";
+        action = Action.SCALE_IN;
+      } else if (task.contains("Scaling out")) {
+        task = "Scaled out";
+        action = Action.SCALE_OUT;
+      } else if (task.contains("Healing")) {
+        task = "Healed";
+        action = Action.HEAL;
+      } else {
+        task = "Onboarded";
+        action = Action.INSTANTIATE_FINISH;
+      }
+      nsrRepository.updateTask(nsrId, task, updatedAt);
+      nsrStatus.incrementVersion();
+      // the NSR is published, so load it with all its collections
+      networkServiceRecord = nsrRepository.findFirstById(nsrId);
+      if (networkServiceRecord == null) {
+        log.info("The Record was already deleted by a previous task");
+        nsrStatusAggregator.forget(nsrId);
+        return;
+      }
+      publishEvent(action, networkServiceRecord, networkServiceRecord.getProjectId());
     } else if (status.ordinal() == Status.TERMINATED.ordinal()) {
+      nsrStatusAggregator.forget(nsrId);
+      // the NSR is published and its VLRs are released, so load it with all its collections
+      networkServiceRecord = nsrRepository.findFirstById(nsrId);
+      if (networkServiceRecord == null) {
+        log.info("The Record was already deleted by a previous task");
+        return;
+      }
       publishEvent(
           Action.RELEASE_RESOURCES_FINISH,
           networkServiceRecord,
@@ -362,6 +345,11 @@ public class VnfmManager
     log.trace("Thread: " + Thread.currentThread().getId() + " finished findAndSet");
   }
 
+  @Override
+  public void resetNSRStatus(String nsrId) {
+    nsrStatusAggregator.forget(nsrId);
+  }
+
   private void publishEvent(Action action, Serializable payload, String projectId) {
     ApplicationEventNFVO event = new ApplicationEventNFVO(action, payload, projectId);
     EventNFVO eventNFVO = new EventNFVO(this);
@@ -371,7 +359,7 @@ public class VnfmManager
   }
 
   @Override
-  @Async
+  @Async("vnfmExecutor")
   public Future<Void> release(VirtualNetworkFunctionRecord virtualNetworkFunctionRecord)
       throws NotFoundException, BadFormatException, ExecutionException, InterruptedException {
     VnfmManagerEndpoint endpoint = generator.getVnfm(virtualNetworkFunctionRecord.getEndpoint());
@@ -394,12 +382,13 @@ public class VnfmManager
       throw new NotFoundException(e);
     }
 
-    vnfStateHandler.executeAction(vnfmSender.sendCommand(orVnfmGenericMessage, endpoint));
+    vnfStateHandler.executeAction(
+        orVnfmGenericMessage, vnfmSender.sendCommand(orVnfmGenericMessage, endpoint));
     return new AsyncResult<>(null);
   }
 
   @Override
-  @Async
+  @Async("vnfmExecutor")
   public Future<NFVMessage> requestLog(VirtualNetworkFunctionRecord vnfr, String hostname)
       throws NotFoundException, BadFormatException, ExecutionException, InterruptedException {
     VnfmManagerEndpoint endpoint = generator.getVnfm(vnfr.getEndpoint());
@@ -425,7 +414,7 @@ public class VnfmManager
   }
 
   @Override
-  @Async
+  @Async("vnfmExecutor")
   public Future<Void> addVnfc(
       VirtualNetworkFunctionRecord virtualNetworkFunctionRecord,
       VNFComponent component,
@@ -447,8 +436,7 @@ public class VnfmManager
     OrVnfmScalingMessage message = new OrVnfmScalingMessage();
     message.setAction(Action.SCALE_OUT);
     message.setVirtualNetworkFunctionRecord(virtualNetworkFunctionRecord);
-    message.setVnfPackage(
-        vnfPackageRepository.findFirstById(virtualNetworkFunctionRecord.getPackageId()));
+    message.setVnfPackage(generator.getVnfPackage(virtualNetworkFunctionRecord.getPackageId()));
     message.setComponent(component);
     message.setExtension(generator.getExtension());
     message.setDependency(dependency);
@@ -478,12 +466,12 @@ public class VnfmManager
       throw new NotFoundException(e);
     }
 
-    vnfStateHandler.executeAction(vnfmSender.sendCommand(message, endpoint));
+    vnfStateHandler.executeAction(message, vnfmSender.sendCommand(message, endpoint));
     return new AsyncResult<>(null);
   }
 
   @Override
-  @Async
+  @Async("vnfmExecutor")
   public Future<Void> removeVnfcDependency(
       VirtualNetworkFunctionRecord virtualNetworkFunctionRecord, VNFCInstance vnfcInstance)
       throws NotFoundException, BadFormatException, ExecutionException, InterruptedException {
@@ -510,7 +498,7 @@ public class VnfmManager
       throw new NotFoundException(e);
     }
 
-    vnfStateHandler.executeAction(vnfmSender.sendCommand(message, endpoint));
+    vnfStateHandler.executeAction(message, vnfmSender.sendCommand(message, endpoint));
     return new AsyncResult<>(null);
   }
 
@@ -520,16 +508,22 @@ public class VnfmManager
   }
 
   @Override
-  public synchronized void onApplicationEvent(EventFinishNFVO event) {
+  public void onApplicationEvent(EventFinishNFVO event) {
     VirtualNetworkFunctionRecord virtualNetworkFunctionRecord =
         event.getEventNFVO().getVirtualNetworkFunctionRecord();
-    publishEvent(
-        event.getEventNFVO().getAction(),
-        virtualNetworkFunctionRecord,
-        virtualNetworkFunctionRecord.getProjectId());
-    if ((event.getEventNFVO().getAction().ordinal() != Action.ALLOCATE_RESOURCES.ordinal())
-        && (event.getEventNFVO().getAction().ordinal() != Action.GRANT_OPERATION.ordinal())) {
-      findAndSetNSRStatus(virtualNetworkFunctionRecord);
+    // the events of the VNFRs of the same NSR are handled one at a time
+    Lock lock = lockManager.lock(getLockKey(virtualNetworkFunctionRecord));
+    try {
+      publishEvent(
+          event.getEventNFVO().getAction(),
+          virtualNetworkFunctionRecord,
+          virtualNetworkFunctionRecord.getProjectId());
+      if ((event.getEventNFVO().getAction().ordinal() != Action.ALLOCATE_RESOURCES.ordinal())
+          && (event.getEventNFVO().getAction().ordinal() != Action.GRANT_OPERATION.ordinal())) {
+        findAndSetNSRStatus(virtualNetworkFunctionRecord);
+      }
+    } finally {
+      lock.unlock();
     }
   }
 
@@ -550,18 +544,16 @@ public class VnfmManager
   public void updateScript(Script script, String vnfPackageId)
       throws NotFoundException, BadFormatException, ExecutionException, InterruptedException {
 
-    for (VirtualNetworkFunctionDescriptor vnfd : vnfdRepository.findAll()) {
-      if (vnfd.getVnfPackageLocation() != null
-          && vnfd.getVnfPackageLocation().equals(vnfPackageId)) {
-        for (VirtualNetworkFunctionRecord vnfr : vnfrRepository.findAll()) {
-          OrVnfmUpdateMessage orVnfmUpdateMessage = new OrVnfmUpdateMessage();
-          orVnfmUpdateMessage.setScript(script);
-          orVnfmUpdateMessage.setVnfr(vnfr);
-          if (vnfr.getPackageId().equals(vnfPackageId)) {
-            vnfStateHandler.sendMessageToVNFR(vnfr, orVnfmUpdateMessage);
-          }
-        }
+    for (VirtualNetworkFunctionRecord vnfr : vnfrRepository.findByPackageId(vnfPackageId)) {
+      // the VNFR is sent to the VNFM, load it with all its collections
+      vnfr = vnfrRepository.findFirstById(vnfr.getId());
+      if (vnfr == null) {
+        continue;
       }
+      OrVnfmUpdateMessage orVnfmUpdateMessage = new OrVnfmUpdateMessage();
+      orVnfmUpdateMessage.setScript(script);
+      orVnfmUpdateMessage.setVnfr(vnfr);
+      vnfStateHandler.sendMessageToVNFR(vnfr, orVnfmUpdateMessage);
     }
   }
 }
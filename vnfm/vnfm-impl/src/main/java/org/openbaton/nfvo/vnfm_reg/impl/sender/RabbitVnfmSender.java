@@ -19,37 +19,57 @@ package org.openbaton.nfvo.vnfm_reg.impl.sender;
 
 import com.google.gson.Gson;
 import java.nio.charset.StandardCharsets;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.openbaton.catalogue.nfvo.Endpoint;
 import org.openbaton.catalogue.nfvo.messages.Interfaces.NFVMessage;
 import org.openbaton.exceptions.BadFormatException;
+import org.openbaton.nfvo.common.utils.scheduler.DelayedTaskScheduler;
 import org.openbaton.vnfm.interfaces.sender.VnfmSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate.RabbitMessageFuture;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.AsyncResult;
-import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
 /** Created by lto on 03/06/15. */
 @Service
 @Scope
-@EnableAsync
 public class RabbitVnfmSender implements VnfmSender {
 
   @Autowired private Gson gson;
 
-  @Autowired private RabbitTemplate rabbitTemplate;
+  @Autowired private AsyncRabbitTemplate vnfmAsyncRabbitTemplate;
+
+  @Autowired private Environment environment;
+
+  /**
+   * Milliseconds to wait for the answer of a VNFM, 0 means forever. Can be overridden per action
+   * with nfvo.vnfm.reply.timeout.&lt;action&gt; (e.g. nfvo.vnfm.reply.timeout.instantiate).
+   */
+  @Value("${nfvo.vnfm.reply.timeout:0}")
+  private long replyTimeout;
+
+  @Autowired private DelayedTaskScheduler delayedTaskScheduler;
 
   private Logger log = LoggerFactory.getLogger(this.getClass());
 
+  /**
+   * Sends the message to the VNFM and returns immediately. The returned future is completed when
+   * the VNFM answers, or completed exceptionally when the configured timeout for the action
+   * elapses first.
+   */
   @Override
-  @Async
-  public Future<NFVMessage> sendCommand(final NFVMessage nfvMessage, final Endpoint endpoint)
-      throws BadFormatException {
+  public CompletableFuture<NFVMessage> sendCommand(
+      final NFVMessage nfvMessage, final Endpoint endpoint) throws BadFormatException {
     String destinationName = endpoint.getEndpoint();
     log.debug(
         "Sending NFVMessage with action: "
@@ -57,28 +77,60 @@ public class RabbitVnfmSender implements VnfmSender {
             + " to destination: "
             + destinationName);
     log.trace("nfvMessage is: " + nfvMessage);
-    String json = null;
+    String json;
     try {
       json = gson.toJson(nfvMessage);
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    rabbitTemplate.setReplyTimeout(-1);
-    Object receive =
-        rabbitTemplate.convertSendAndReceive("openbaton-exchange", destinationName, json);
-    log.trace("Received: " + receive);
-    String str;
-    if (receive instanceof byte[]) {
-      str = new String((byte[]) receive, StandardCharsets.UTF_8);
-    } else {
-      str = (String) receive;
-    }
-    NFVMessage result;
-    try {
-      result = gson.fromJson(str, NFVMessage.class);
     } catch (Exception e) {
       throw new BadFormatException(e);
     }
-    return new AsyncResult<>(result);
+    MessageProperties messageProperties = new MessageProperties();
+    messageProperties.setContentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+    messageProperties.setContentEncoding(StandardCharsets.UTF_8.name());
+    Message request = new Message(json.getBytes(StandardCharsets.UTF_8), messageProperties);
+
+    RabbitMessageFuture answer =
+        vnfmAsyncRabbitTemplate.sendAndReceive("openbaton-exchange", destinationName, request);
+
+    CompletableFuture<NFVMessage> result = new CompletableFuture<>();
+    answer.addCallback(
+        reply -> {
+          String str = new String(reply.getBody(), StandardCharsets.UTF_8);
+          log.trace("Received: " + str);
+          try {
+            result.complete(gson.fromJson(str, NFVMessage.class));
+          } catch (Exception e) {
+            result.completeExceptionally(new BadFormatException(e));
+          }
+        },
+        result::completeExceptionally);
+
+    long timeout = getReplyTimeout(nfvMessage);
+    if (timeout > 0) {
+      ScheduledFuture<?> timeoutTask =
+          delayedTaskScheduler.schedule(
+              () -> {
+                if (result.completeExceptionally(
+                    new TimeoutException(
+                        "No answer from "
+                            + destinationName
+                            + " to "
+                            + nfvMessage.getAction()
+                            + " after "
+                            + timeout
+                            + " milliseconds"))) {
+                  answer.cancel(true);
+                }
+              },
+              timeout,
+              TimeUnit.MILLISECONDS);
+      // drop the pending timeout as soon as the answer arrives
+      result.whenComplete((reply, throwable) -> timeoutTask.cancel(false));
+    }
+    return result;
+  }
+
+  private long getReplyTimeout(NFVMessage nfvMessage) {
+    String action = nfvMessage.getAction().toString().replace("_", "").toLowerCase();
+    return environment.getProperty("nfvo.vnfm.reply.timeout." + action, Long.class, replyTimeout);
   }
 }
@@ -1,5 +1,6 @@
 package org.openbaton.nfvo.vnfm_reg.state;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,6 +32,7 @@ import org.openbaton.catalogue.nfvo.messages.VnfmOrStartStopMessage;
 import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
 import org.openbaton.catalogue.security.Key;
 import org.openbaton.exceptions.NotFoundException;
+import org.openbaton.nfvo.common.utils.blob.ScriptStore;
 import org.openbaton.nfvo.repositories.ManagerCredentialsRepository;
 import org.openbaton.nfvo.repositories.VimRepository;
 import org.openbaton.nfvo.repositories.VnfPackageRepository;
@@ -62,6 +64,7 @@ public class MessageGenerator implements org.openbaton.vnfm.interfaces.manager.M
 
   @Autowired private VimRepository vimInstanceRepository;
   @Autowired private VnfPackageRepository vnfPackageRepository;
+  @Autowired private ScriptStore scriptStore;
   @Autowired private ManagerCredentialsRepository managerCredentialsRepository;
   @Autowired private ConfigurableApplicationContext context;
 
@@ -177,7 +180,7 @@ public class MessageGenerator implements org.openbaton.vnfm.interfaces.manager.M
       keys = new HashSet<>();
     }
     if (vnfd.getVnfPackageLocation() != null) {
-      VNFPackage vnfPackage = vnfPackageRepository.findFirstById(vnfd.getVnfPackageLocation());
+      VNFPackage vnfPackage = getVnfPackage(vnfd.getVnfPackageLocation());
       return new OrVnfmInstantiateMessage(
           vnfd,
           getDeploymentFlavour(vnfd),
@@ -253,6 +256,16 @@ public class MessageGenerator implements org.openbaton.vnfm.interfaces.manager.M
     return vnfmRegister.getVnfm(endpoint);
   }
 
+  @Override
+  public VNFPackage getVnfPackage(String id) throws NotFoundException {
+    try {
+      return scriptStore.load(vnfPackageRepository.findFirstById(id));
+    } catch (IOException e) {
+      throw new NotFoundException(
+          "Not able to read the scripts of VNF package " + id + ": " + e.getMessage());
+    }
+  }
+
   public VirtualNetworkFunctionRecord setupTask(
       NFVMessage nfvMessage, org.openbaton.vnfm.interfaces.tasks.AbstractTask task) {
     VirtualNetworkFunctionRecord virtualNetworkFunctionRecord;
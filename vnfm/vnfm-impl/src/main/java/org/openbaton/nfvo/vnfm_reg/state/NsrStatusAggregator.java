@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.nfvo.vnfm_reg.state;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.mano.record.Status;
+import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+import org.openbaton.nfvo.common.utils.lock.StripedLockManager;
+import org.openbaton.nfvo.repositories.NetworkServiceDescriptorRepository;
+import org.openbaton.nfvo.repositories.NetworkServiceRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps, for every NSR being processed, the last known status of its VNFRs and how many VNFRs are
+ * in each status. The status of the NSR is the lowest status of its VNFRs, so it can be computed
+ * from the counters without loading the NSR again for every VNFR status change.
+ *
+ * <p>The counters of a NSR are not synchronized, the callers must hold the lock of the NSR. They
+ * are rebuilt from the database when they are missing or when the version of the stored NSR shows
+ * that it was changed by someone else, and dropped once the NSR does not exist anymore. A change of
+ * the status of a VNFR that is not reported through the counters still has to be followed by
+ * {@link #forget(String)}.
+ */
+@Service
+public class NsrStatusAggregator {
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final Map<String, NsrStatus> nsrStatuses = new ConcurrentHashMap<>();
+
+  @Autowired private StripedLockManager lockManager;
+  @Autowired private NetworkServiceRecordRepository nsrRepository;
+  @Autowired private NetworkServiceDescriptorRepository nsdRepository;
+
+  /**
+   * Returns the counters of the NSR, rebuilt from the database if needed.
+   *
+   * @return the counters of the NSR, or null if the NSR does not exist anymore
+   */
+  public NsrStatus get(String nsrId) {
+    // only the version is read while the counters are up to date
+    Integer version = nsrRepository.findHbVersionById(nsrId);
+    if (version == null) {
+      nsrStatuses.remove(nsrId);
+      return null;
+    }
+    NsrStatus nsrStatus = nsrStatuses.get(nsrId);
+    if (nsrStatus != null && version == nsrStatus.version) {
+      return nsrStatus;
+    }
+    NetworkServiceRecord networkServiceRecord = nsrRepository.findWithVnfrById(nsrId);
+    if (networkServiceRecord == null) {
+      nsrStatuses.remove(nsrId);
+      return null;
+    }
+    return load(networkServiceRecord);
+  }
+
+  /**
+   * Rebuilds the counters of the NSR from its stored VNFRs.
+   *
+   * @param networkServiceRecord the NSR as stored in the database, with its VNFRs
+   * @return the new counters of the NSR
+   */
+  public NsrStatus load(NetworkServiceRecord networkServiceRecord) {
+    log.debug("looking for NSD with id: " + networkServiceRecord.getDescriptor_reference());
+    // a NSD has at least one VNFD, so no VNFD means that the NSD does not exist anymore
+    long vnfdCount = nsdRepository.countVnfdById(networkServiceRecord.getDescriptor_reference());
+    int expectedVnfrs = -1;
+    if (vnfdCount > 0) {
+      expectedVnfrs = (int) vnfdCount;
+    } else {
+      log.warn("Descriptor was already removed, calculating the status anyway...");
+    }
+    NsrStatus nsrStatus =
+        new NsrStatus(
+            expectedVnfrs, networkServiceRecord.getStatus(), networkServiceRecord.getHbVersion());
+    for (VirtualNetworkFunctionRecord vnfr : networkServiceRecord.getVnfr()) {
+      nsrStatus.update(vnfr.getId(), vnfr.getStatus());
+    }
+    nsrStatuses.put(networkServiceRecord.getId(), nsrStatus);
+    return nsrStatus;
+  }
+
+  /** Drops the counters of the NSR, waiting for the status update in progress if any. */
+  public void forget(String nsrId) {
+    if (nsrId == null) {
+      return;
+    }
+    Lock lock = lockManager.lock(nsrId);
+    try {
+      nsrStatuses.remove(nsrId);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public static class NsrStatus {
+    private final int expectedVnfrs;
+    private final Map<String, Status> vnfrStatuses = new HashMap<>();
+    private final EnumMap<Status, Integer> counters = new EnumMap<>(Status.class);
+    private Status persistedStatus;
+    private int version;
+
+    private NsrStatus(int expectedVnfrs, Status persistedStatus, Integer version) {
+      this.expectedVnfrs = expectedVnfrs;
+      this.persistedStatus = persistedStatus;
+      this.version = version != null ? version : 0;
+    }
+
+    /** Records the new status of the VNFR. */
+    public void update(String vnfrId, Status status) {
+      Status previous = vnfrStatuses.put(vnfrId, status);
+      if (previous != null) {
+        counters.merge(previous, -1, Integer::sum);
+      }
+      counters.merge(status, 1, Integer::sum);
+    }
+
+    /** Returns true when every VNFR of the NSR has reported its status at least once. */
+    public boolean isComplete() {
+      return expectedVnfrs < 0 || vnfrStatuses.size() >= expectedVnfrs;
+    }
+
+    /** Returns the lowest status among the VNFRs, TERMINATED if there is none. */
+    public Status getStatus() {
+      for (Map.Entry<Status, Integer> counter : counters.entrySet()) {
+        if (counter.getValue() > 0 && counter.getKey().ordinal() < Status.TERMINATED.ordinal()) {
+          return counter.getKey();
+        }
+      }
+      return Status.TERMINATED;
+    }
+
+    public Status getPersistedStatus() {
+      return persistedStatus;
+    }
+
+    /** Records the status written with an update query, which increments the NSR version. */
+    public void setPersistedStatus(Status persistedStatus) {
+      this.persistedStatus = persistedStatus;
+      version++;
+    }
+
+    /** Records another update query on the NSR, which increments its version. */
+    public void incrementVersion() {
+      version++;
+    }
+  }
+}
@@ -1,7 +1,11 @@
 package org.openbaton.nfvo.vnfm_reg.state;
 
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import org.openbaton.catalogue.api.DeployNSRBody;
@@ -9,13 +13,23 @@ import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
 import org.openbaton.catalogue.mano.descriptor.VirtualDeploymentUnit;
 import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
 import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.mano.record.Status;
 import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
 import org.openbaton.catalogue.nfvo.Action;
+import org.openbaton.catalogue.nfvo.ApplicationEventNFVO;
 import org.openbaton.catalogue.nfvo.VnfmManagerEndpoint;
 import org.openbaton.catalogue.nfvo.messages.Interfaces.NFVMessage;
+import org.openbaton.catalogue.nfvo.messages.OrVnfmGenericMessage;
+import org.openbaton.catalogue.nfvo.messages.OrVnfmHealVNFRequestMessage;
+import org.openbaton.catalogue.nfvo.messages.OrVnfmScalingMessage;
+import org.openbaton.catalogue.nfvo.messages.OrVnfmStartStopMessage;
+import org.openbaton.catalogue.nfvo.messages.OrVnfmUpdateMessage;
+import org.openbaton.catalogue.nfvo.messages.VnfmOrErrorMessage;
 import org.openbaton.exceptions.BadFormatException;
 import org.openbaton.exceptions.NotFoundException;
+import org.openbaton.nfvo.common.internal.model.EventNFVO;
 import org.openbaton.nfvo.repositories.NetworkServiceRecordRepository;
+import org.openbaton.nfvo.repositories.VNFRRepository;
 import org.openbaton.nfvo.vnfm_reg.tasks.ReleaseresourcesTask;
 import org.openbaton.nfvo.vnfm_reg.tasks.abstracts.AbstractTask;
 import org.openbaton.vnfm.interfaces.sender.VnfmSender;
@@ -23,6 +37,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.AsyncResult;
@@ -33,18 +50,25 @@ import org.springframework.stereotype.Service;
 /** Created by lto on 29.05.17. */
 @Service
 @EnableAsync
-public class VnfStateHandler implements org.openbaton.vnfm.interfaces.state.VnfStateHandler {
+public class VnfStateHandler
+    implements org.openbaton.vnfm.interfaces.state.VnfStateHandler,
+        ApplicationEventPublisherAware {
 
   private Logger log = LoggerFactory.getLogger(this.getClass());
 
   @Autowired private org.openbaton.vnfm.interfaces.manager.MessageGenerator generator;
   @Autowired private ConfigurableApplicationContext context;
   @Autowired private NetworkServiceRecordRepository nsrRepository;
+  @Autowired private VNFRRepository vnfrRepository;
+  @Autowired private NsrStatusAggregator nsrStatusAggregator;
+  private ApplicationEventPublisher publisher;
 
-  @Autowired private ThreadPoolTaskExecutor asyncExecutor;
+  @Autowired
+  @Qualifier("vnfmExecutor")
+  private ThreadPoolTaskExecutor asyncExecutor;
 
   @Override
-  @Async
+  @Async("vnfmExecutor")
   public Future<Void> handleVNF(
       NetworkServiceDescriptor networkServiceDescriptor,
       NetworkServiceRecord networkServiceRecord,
@@ -65,7 +89,8 @@ public class VnfStateHandler implements org.openbaton.vnfm.interfaces.state.VnfS
         generator.getNextMessage(vnfd, vduVimInstances, networkServiceRecord, body, monitoringIp);
     VnfmManagerEndpoint endpoint = generator.getEndpoint(vnfd);
     log.debug("----------Executing ACTION: " + message.getAction());
-    executeAction(vnfmSender.sendCommand(message, endpoint));
+    // no VNFR exists before the VNFM answers, so a missing answer puts the NSR in ERROR
+    executeAction(message, vnfmSender.sendCommand(message, endpoint), networkServiceRecord);
     log.info("Sent " + message.getAction() + " to VNF: " + vnfd.getName());
     return new AsyncResult<>(null);
   }
@@ -83,15 +108,43 @@ public class VnfStateHandler implements org.openbaton.vnfm.interfaces.state.VnfS
   }
 
   @Override
-  @Async
-  public Future<NFVMessage> executeAction(Future<NFVMessage> nfvMessageFuture)
+  public Future<NFVMessage> executeAction(NFVMessage command, Future<NFVMessage> answer)
       throws ExecutionException, InterruptedException {
+    return executeAction(command, answer, null);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Future<NFVMessage> executeAction(
+      NFVMessage command,
+      Future<NFVMessage> nfvMessageFuture,
+      NetworkServiceRecord networkServiceRecord)
+      throws ExecutionException, InterruptedException {
+    if (nfvMessageFuture instanceof CompletableFuture) {
+      // the answer is handled once it arrives, no thread is waiting for the VNFM meanwhile
+      return ((CompletableFuture<NFVMessage>) nfvMessageFuture)
+          .thenApplyAsync(
+              nfvMessage -> {
+                try {
+                  executeActionNotAsync(nfvMessage);
+                } catch (ExecutionException | InterruptedException e) {
+                  throw new CompletionException(e);
+                }
+                return nfvMessage;
+              },
+              asyncExecutor)
+          .whenComplete(
+              (nfvMessage, throwable) -> {
+                if (throwable != null) {
+                  handleFailedCommand(command, networkServiceRecord, throwable);
+                }
+              });
+    }
     NFVMessage nfvMessage = nfvMessageFuture.get();
     return executeActionNotAsync(nfvMessage);
   }
 
   @Override
-  @Async
+  @Async("vnfmExecutor")
   public Future<NFVMessage> executeAction(NFVMessage nfvMessage)
       throws ExecutionException, InterruptedException {
     return executeActionNotAsync(nfvMessage);
@@ -111,18 +164,15 @@ public class VnfStateHandler implements org.openbaton.vnfm.interfaces.state.VnfS
 
     if (virtualNetworkFunctionRecord != null) {
       if (virtualNetworkFunctionRecord.getParent_ns_id() != null) {
-        if (!nsrRepository.exists(virtualNetworkFunctionRecord.getParent_ns_id())) {
+        // only the project is needed, the NSR itself is not loaded
+        String projectId =
+            nsrRepository.findProjectIdById(virtualNetworkFunctionRecord.getParent_ns_id());
+        if (projectId == null) {
           return null;
         } else {
-          virtualNetworkFunctionRecord.setProjectId(
-              nsrRepository
-                  .findFirstById(virtualNetworkFunctionRecord.getParent_ns_id())
-                  .getProjectId());
+          virtualNetworkFunctionRecord.setProjectId(projectId);
           for (VirtualDeploymentUnit vdu : virtualNetworkFunctionRecord.getVdu()) {
-            vdu.setProjectId(
-                nsrRepository
-                    .findFirstById(virtualNetworkFunctionRecord.getParent_ns_id())
-                    .getProjectId());
+            vdu.setProjectId(projectId);
           }
         }
       }
@@ -149,6 +199,85 @@ public class VnfStateHandler implements org.openbaton.vnfm.interfaces.state.VnfS
     }
   }
 
+  /**
+   * Sets the VNFR the command refers to in ERROR, the same way as when the VNFM sends an ERROR
+   * message, or the NSR if there is no VNFR yet.
+   */
+  private void handleFailedCommand(
+      NFVMessage command, NetworkServiceRecord networkServiceRecord, Throwable throwable) {
+    Throwable cause =
+        throwable instanceof CompletionException && throwable.getCause() != null
+            ? throwable.getCause()
+            : throwable;
+    log.error(
+        "Not able to execute the answer of the VNFM to "
+            + command.getAction()
+            + ": "
+            + cause.getMessage());
+    if (command.getAction() == Action.ERROR) {
+      // the VNFR is in ERROR already, the VNFM was only notified about it
+      return;
+    }
+
+    VirtualNetworkFunctionRecord virtualNetworkFunctionRecord = getVnfr(command);
+    if (virtualNetworkFunctionRecord != null && virtualNetworkFunctionRecord.getId() != null) {
+      // the VNFR in the command may be outdated by now
+      virtualNetworkFunctionRecord =
+          vnfrRepository.findFirstById(virtualNetworkFunctionRecord.getId());
+      if (virtualNetworkFunctionRecord == null) {
+        log.info("The VNFR was already deleted, no need to set it in ERROR");
+        return;
+      }
+      VnfmOrErrorMessage errorMessage =
+          new VnfmOrErrorMessage(
+              cause instanceof Exception ? (Exception) cause : new Exception(cause),
+              virtualNetworkFunctionRecord,
+              virtualNetworkFunctionRecord.getParent_ns_id());
+      errorMessage.setAction(Action.ERROR);
+      try {
+        executeActionNotAsync(errorMessage);
+      } catch (ExecutionException | InterruptedException e) {
+        log.error(
+            "Not able to set VNFR " + virtualNetworkFunctionRecord.getName() + " in ERROR", e);
+      }
+    } else if (networkServiceRecord != null) {
+      setNsrError(networkServiceRecord);
+    }
+  }
+
+  private void setNsrError(NetworkServiceRecord networkServiceRecord) {
+    SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd 'at' HH:mm:ss z");
+    String updatedAt = format.format(new Date());
+    if (nsrRepository.updateStatus(networkServiceRecord.getId(), Status.ERROR, updatedAt) == 0) {
+      log.info("The NSR was already deleted, no need to set it in ERROR");
+      return;
+    }
+    nsrStatusAggregator.forget(networkServiceRecord.getId());
+    log.debug("Setting the NSR " + networkServiceRecord.getName() + " in state ERROR");
+    networkServiceRecord.setStatus(Status.ERROR);
+    networkServiceRecord.setUpdatedAt(updatedAt);
+    EventNFVO eventNFVO = new EventNFVO(this);
+    eventNFVO.setEventNFVO(
+        new ApplicationEventNFVO(
+            Action.ERROR, networkServiceRecord, networkServiceRecord.getProjectId()));
+    publisher.publishEvent(eventNFVO);
+  }
+
+  private VirtualNetworkFunctionRecord getVnfr(NFVMessage command) {
+    if (command instanceof OrVnfmGenericMessage) {
+      return ((OrVnfmGenericMessage) command).getVnfr();
+    } else if (command instanceof OrVnfmStartStopMessage) {
+      return ((OrVnfmStartStopMessage) command).getVirtualNetworkFunctionRecord();
+    } else if (command instanceof OrVnfmScalingMessage) {
+      return ((OrVnfmScalingMessage) command).getVirtualNetworkFunctionRecord();
+    } else if (command instanceof OrVnfmHealVNFRequestMessage) {
+      return ((OrVnfmHealVNFRequestMessage) command).getVirtualNetworkFunctionRecord();
+    } else if (command instanceof OrVnfmUpdateMessage) {
+      return ((OrVnfmUpdateMessage) command).getVnfr();
+    }
+    return null;
+  }
+
   @Override
   public void terminate(VirtualNetworkFunctionRecord virtualNetworkFunctionRecord) {
     ReleaseresourcesTask task = (ReleaseresourcesTask) context.getBean("releaseresourcesTask");
@@ -159,7 +288,7 @@ public class VnfStateHandler implements org.openbaton.vnfm.interfaces.state.VnfS
   }
 
   @Override
-  @Async
+  @Async("vnfmExecutor")
   public Future<Void> sendMessageToVNFR(
       VirtualNetworkFunctionRecord virtualNetworkFunctionRecordDest, NFVMessage nfvMessage)
       throws NotFoundException, BadFormatException, ExecutionException, InterruptedException {
@@ -185,7 +314,12 @@ public class VnfStateHandler implements org.openbaton.vnfm.interfaces.state.VnfS
             + nfvMessage.getAction()
             + " to "
             + virtualNetworkFunctionRecordDest.getName());
-    executeAction(vnfmSender.sendCommand(nfvMessage, endpoint));
+    executeAction(nfvMessage, vnfmSender.sendCommand(nfvMessage, endpoint));
     return new AsyncResult<>(null);
   }
+
+  @Override
+  public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+    this.publisher = applicationEventPublisher;
+  }
 }
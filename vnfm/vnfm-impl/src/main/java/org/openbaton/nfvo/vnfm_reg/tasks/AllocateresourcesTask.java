@@ -17,11 +17,11 @@
 
 package org.openbaton.nfvo.vnfm_reg.tasks;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Map;
 import java.util.Set;
 import org.openbaton.catalogue.mano.common.Event;
-import org.openbaton.catalogue.mano.descriptor.VNFComponent;
 import org.openbaton.catalogue.mano.descriptor.VirtualDeploymentUnit;
 import org.openbaton.catalogue.nfvo.Action;
 import org.openbaton.catalogue.nfvo.messages.Interfaces.NFVMessage;
@@ -29,6 +29,7 @@ import org.openbaton.catalogue.nfvo.messages.OrVnfmGenericMessage;
 import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
 import org.openbaton.catalogue.security.Key;
 import org.openbaton.nfvo.core.interfaces.ResourceManagement;
+import org.openbaton.nfvo.core.interfaces.VNFLifecycleOperationGranting;
 import org.openbaton.nfvo.repositories.VimRepository;
 import org.openbaton.nfvo.vnfm_reg.tasks.abstracts.AbstractTask;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,6 +41,7 @@ import org.springframework.stereotype.Service;
 @Scope("prototype")
 public class AllocateresourcesTask extends AbstractTask {
   @Autowired private ResourceManagement resourceManagement;
+  @Autowired private VNFLifecycleOperationGranting lifecycleOperationGranting;
   private Map<String, BaseVimInstance> vims;
   private String userData;
   @Autowired private VimRepository vimRepository;
@@ -68,27 +70,36 @@ public class AllocateresourcesTask extends AbstractTask {
 
     printOldAndNewHibernateVersion();
 
-    for (VirtualDeploymentUnit vdu : virtualNetworkFunctionRecord.getVdu()) {
-      BaseVimInstance vimInstance = vims.get(vdu.getId());
-      if (vimInstance == null) {
-        throw new NullPointerException(
-            "Our algorithms are too complex, even for us, this is what abnormal IQ means :(");
-      }
-      vimInstance = vimRepository.findFirstById(vimInstance.getId());
-      log.debug(
-          "Allocating VDU: "
-              + vdu.getName()
-              + " to vim instance: "
-              + vimInstance.getName()
-              + " - id: "
-              + vimInstance.getId());
+    try {
+      for (VirtualDeploymentUnit vdu : virtualNetworkFunctionRecord.getVdu()) {
+        BaseVimInstance vimInstance = vims.get(vdu.getId());
+        if (vimInstance == null) {
+          throw new NullPointerException(
+              "Our algorithms are too complex, even for us, this is what abnormal IQ means :(");
+        }
+        vimInstance = vimRepository.findFirstById(vimInstance.getId());
+        log.debug(
+            "Allocating VDU: "
+                + vdu.getName()
+                + " to vim instance: "
+                + vimInstance.getName()
+                + " - id: "
+                + vimInstance.getId());
 
-      for (VNFComponent vnfc : vdu.getVnfc()) {
         resourceManagement
-            .allocate(vdu, virtualNetworkFunctionRecord, vnfc, vimInstance, userData)
+            .allocate(
+                vdu,
+                virtualNetworkFunctionRecord,
+                new ArrayList<>(vdu.getVnfc()),
+                vimInstance,
+                userData)
             .get();
       }
+    } catch (Exception e) {
+      lifecycleOperationGranting.releaseReservation(virtualNetworkFunctionRecord);
+      throw e;
     }
+    lifecycleOperationGranting.confirmReservation(virtualNetworkFunctionRecord);
 
     setHistoryLifecycleEvent(new Date());
     saveVirtualNetworkFunctionRecord();
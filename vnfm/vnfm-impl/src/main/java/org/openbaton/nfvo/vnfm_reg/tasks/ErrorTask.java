@@ -22,7 +22,9 @@ import org.openbaton.catalogue.mano.common.Event;
 import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
 import org.openbaton.catalogue.mano.record.Status;
 import org.openbaton.catalogue.nfvo.messages.Interfaces.NFVMessage;
+import org.openbaton.nfvo.core.interfaces.VNFLifecycleOperationGranting;
 import org.openbaton.nfvo.vnfm_reg.tasks.abstracts.AbstractTask;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 
@@ -31,6 +33,8 @@ import org.springframework.stereotype.Service;
 @Scope("prototype")
 public class ErrorTask extends AbstractTask {
 
+  @Autowired private VNFLifecycleOperationGranting lifecycleOperationGranting;
+
   private Exception exception;
 
   public void setNsrId(String nsrId) {
@@ -82,16 +86,14 @@ public class ErrorTask extends AbstractTask {
     }
 
     if (virtualNetworkFunctionRecord != null) {
-      try {
-        log.trace(
-            "VNFR ("
-                + virtualNetworkFunctionRecord.getId()
-                + ") existing hibernate version is = "
-                + vnfrRepository
-                    .findFirstById(virtualNetworkFunctionRecord.getId())
-                    .getHbVersion());
-      } catch (Exception e) {
-        if (log.isDebugEnabled()) {
+      if (log.isTraceEnabled()) {
+        try {
+          log.trace(
+              "VNFR ("
+                  + virtualNetworkFunctionRecord.getId()
+                  + ") existing hibernate version is = "
+                  + vnfrRepository.findOne(virtualNetworkFunctionRecord.getId()).getHbVersion());
+        } catch (Exception e) {
           log.error(e.getMessage(), e);
         }
       }
@@ -106,6 +108,7 @@ public class ErrorTask extends AbstractTask {
       virtualNetworkFunctionRecord.setStatus(Status.ERROR);
       setHistoryLifecycleEvent(new Date());
       saveVirtualNetworkFunctionRecord();
+      lifecycleOperationGranting.releaseReservation(virtualNetworkFunctionRecord);
     } else {
       log.error(
           "Received Error from some VNFM. No VNFR was received, maybe the error came before the createVNFR? Check the"
@@ -115,6 +118,7 @@ public class ErrorTask extends AbstractTask {
       networkServiceRecord.setStatus(Status.ERROR);
       log.debug("Setting the NSR " + networkServiceRecord.getName() + " in state ERROR");
       networkServiceRecordRepository.save(networkServiceRecord);
+      vnfmManager.resetNSRStatus(nsrId);
     }
 
     return null;
@@ -17,11 +17,16 @@
 
 package org.openbaton.nfvo.vnfm_reg.tasks;
 
-import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import org.openbaton.catalogue.mano.common.Event;
 import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
 import org.openbaton.catalogue.mano.descriptor.VNFComponent;
@@ -37,10 +42,7 @@ import org.openbaton.catalogue.nfvo.messages.OrVnfmErrorMessage;
 import org.openbaton.catalogue.nfvo.messages.OrVnfmGrantLifecycleOperationMessage;
 import org.openbaton.catalogue.nfvo.networks.BaseNetwork;
 import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
-import org.openbaton.exceptions.AlreadyExistingException;
-import org.openbaton.exceptions.BadRequestException;
 import org.openbaton.exceptions.NotFoundException;
-import org.openbaton.exceptions.PluginException;
 import org.openbaton.exceptions.VimException;
 import org.openbaton.nfvo.common.utils.viminstance.VimInstanceUtils;
 import org.openbaton.nfvo.core.interfaces.NetworkManagement;
@@ -51,9 +53,11 @@ import org.openbaton.nfvo.repositories.NetworkServiceDescriptorRepository;
 import org.openbaton.nfvo.repositories.VirtualLinkRecordRepository;
 import org.openbaton.nfvo.vnfm_reg.tasks.abstracts.AbstractTask;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Scope;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -73,6 +77,10 @@ public class GrantoperationTask extends AbstractTask {
   private static Map<String, Object> lockMap = new HashMap<>();
   @Autowired private VirtualLinkRecordRepository vlrRepository;
 
+  @Autowired
+  @Qualifier("vimExecutor")
+  private ThreadPoolTaskExecutor vimExecutor;
+
   @Value("${nfvo.networks.dedicated:false}")
   private boolean dedicatedNetworks;
 
@@ -91,7 +99,7 @@ public class GrantoperationTask extends AbstractTask {
               + virtualNetworkFunctionRecord.getHbVersion());
 
       VirtualNetworkFunctionRecord existing =
-          vnfrRepository.findFirstById(virtualNetworkFunctionRecord.getId());
+          vnfrRepository.findWithVduById(virtualNetworkFunctionRecord.getId());
 
       virtualNetworkFunctionRecord
           .getVdu()
@@ -124,6 +132,7 @@ public class GrantoperationTask extends AbstractTask {
         performChecks(vimInstance, virtualDeploymentUnit);
         nfvMessage.getVduVim().put(virtualDeploymentUnit.getId(), vimInstance);
       }
+      reconcileNetworks(nfvMessage.getVduVim());
       nfvMessage.setVirtualNetworkFunctionRecord(virtualNetworkFunctionRecord);
       saveVirtualNetworkFunctionRecord();
       return nfvMessage;
@@ -155,6 +164,7 @@ public class GrantoperationTask extends AbstractTask {
                   .findFirst()
                   .orElseThrow(() -> new RuntimeException("That's impossible")));
         }
+        reconcileNetworks(vimInstancesChosen);
         log.info(
             "Finished task: GrantOperation on VNFR: " + virtualNetworkFunctionRecord.getName());
 
@@ -172,6 +182,7 @@ public class GrantoperationTask extends AbstractTask {
         return nfvMessage;
       } else {
         // there are not enough resources for deploying VNFR
+        lifecycleOperationGranting.releaseReservation(virtualNetworkFunctionRecord);
         log.error(
             "Not enough resources for deploying VNFR " + virtualNetworkFunctionRecord.getName());
         virtualNetworkFunctionRecord.setStatus(Status.ERROR);
@@ -186,8 +197,7 @@ public class GrantoperationTask extends AbstractTask {
 
   private void performChecks(
       BaseVimInstance vimInstance, VirtualDeploymentUnit virtualDeploymentUnit)
-      throws VimException, NotFoundException, BadRequestException, AlreadyExistingException,
-          IOException, InterruptedException, ExecutionException, PluginException {
+      throws VimException {
     // check images
     if (!vimInstance.getType().equals("test")) {
       log.debug(
@@ -204,102 +214,150 @@ public class GrantoperationTask extends AbstractTask {
                 "None of the images %s where found on the chosen vim instance %s",
                 virtualDeploymentUnit.getVm_image(), vimInstance.getName()));
     }
-    //check networks
+  }
 
-    String key = String.format("%s%s", vimInstance.getName(), vimInstance.getProjectId());
-    Object lock;
-    synchronized (lockMap) {
-      lock = lockMap.computeIfAbsent(key, k -> new Object());
+  /**
+   * Creates the networks of the NSR that are missing on the vim instances chosen for the VDUs and
+   * sets the network ids in the connection points of the VDUs. Only the networks of the virtual
+   * links are refreshed, once per vim instance, and the missing networks are created in parallel.
+   *
+   * @param vduVims the vim instance chosen for every VDU, by VDU id
+   */
+  private void reconcileNetworks(Map<String, BaseVimInstance> vduVims) throws Exception {
+    Map<String, BaseVimInstance> vims = new LinkedHashMap<>();
+    Map<String, List<VirtualDeploymentUnit>> vdusByVim = new HashMap<>();
+    for (VirtualDeploymentUnit vdu : virtualNetworkFunctionRecord.getVdu()) {
+      BaseVimInstance vimInstance = vduVims.get(vdu.getId());
+      if (vimInstance != null) {
+        vims.putIfAbsent(vimInstance.getId(), vimInstance);
+        vdusByVim.computeIfAbsent(vimInstance.getId(), k -> new ArrayList<>()).add(vdu);
+      }
     }
-    synchronized (lock) {
-      vimInstance = vimManagement.query(vimInstance.getId(), vimInstance.getProjectId());
-      vimInstance = vimManagement.refresh(vimInstance, true).get();
-      NetworkServiceRecord networkServiceRecord =
-          networkServiceRecordRepository.findFirstById(
-              virtualNetworkFunctionRecord.getParent_ns_id());
-      NetworkServiceDescriptor networkServiceDescriptor =
-          networkServiceDescriptorRepository.findFirstById(
-              networkServiceRecord.getDescriptor_reference());
 
-      VirtualNetworkFunctionDescriptor virtualNetworkFunctionDescriptor =
-          networkServiceDescriptor
-              .getVnfd()
-              .stream()
-              .filter(vnfd -> vnfd.getName().equals(virtualNetworkFunctionRecord.getName()))
-              .findFirst()
-              .orElseThrow(() -> new NotFoundException("That's impossible"));
+    NetworkServiceRecord networkServiceRecord =
+        networkServiceRecordRepository.findFirstById(
+            virtualNetworkFunctionRecord.getParent_ns_id());
+    NetworkServiceDescriptor networkServiceDescriptor =
+        networkServiceDescriptorRepository.findFirstById(
+            networkServiceRecord.getDescriptor_reference());
+    VirtualNetworkFunctionDescriptor virtualNetworkFunctionDescriptor =
+        networkServiceDescriptor
+            .getVnfd()
+            .stream()
+            .filter(vnfd -> vnfd.getName().equals(virtualNetworkFunctionRecord.getName()))
+            .findFirst()
+            .orElseThrow(() -> new NotFoundException("That's impossible"));
 
-      Exception[] ex = new Exception[1];
-      Map<String, BaseNetwork> networkToAdd = new HashMap<>();
-      BaseVimInstance finalVimInstance1 = vimInstance;
-      networkServiceRecord
-          .getVlr()
-          .stream()
-          .filter(
-              virtualLinkRecord -> {
-                for (BaseNetwork net : finalVimInstance1.getNetworks()) {
-                  if (VimInstanceUtils.isVLRExisting(virtualLinkRecord, net, dedicatedNetworks))
-                    return false;
-                }
-                return true;
-              })
-          .forEach(
-              virtualLinkRecord -> {
-                try {
-                  networkToAdd.put(
-                      virtualLinkRecord.getId(),
-                      VimInstanceUtils.createBaseNetwork(
-                          networkServiceDescriptor,
-                          virtualNetworkFunctionDescriptor,
-                          virtualLinkRecord.getName(),
-                          finalVimInstance1));
-                } catch (BadRequestException e) {
-                  e.printStackTrace();
-                  ex[0] = e;
-                }
-              });
-      if (ex[0] != null) {
-        throw (BadRequestException) ex[0];
+    for (BaseVimInstance vimInstance : vims.values()) {
+      String key = String.format("%s%s", vimInstance.getName(), vimInstance.getProjectId());
+      Object lock;
+      synchronized (lockMap) {
+        lock = lockMap.computeIfAbsent(key, k -> new Object());
       }
-      for (Map.Entry<String, BaseNetwork> entry : networkToAdd.entrySet()) {
-        BaseNetwork net = networkManagement.add(vimInstance, entry.getValue());
-        VirtualLinkRecord virtualLinkRecord =
-            networkServiceRecord
-                .getVlr()
-                .stream()
-                .filter(vlr -> vlr.getId().equals(entry.getKey()))
-                .findFirst()
-                .orElseThrow(() -> new NotFoundException("That's impossible"));
-        virtualLinkRecord.setExtId(net.getExtId());
-        virtualLinkRecord.setParent_ns(networkServiceRecord.getId());
-        virtualLinkRecord.setVim_id(vimInstance.getId());
-        virtualLinkRecord = vlrRepository.save(virtualLinkRecord);
-        for (VirtualDeploymentUnit vdu : virtualNetworkFunctionRecord.getVdu()) {
-          for (VNFComponent vnfComponent : vdu.getVnfc()) {
-            for (VNFDConnectionPoint vnfdConnectionPoint : vnfComponent.getConnection_point()) {
-              if (vnfdConnectionPoint
-                  .getVirtual_link_reference()
-                  .equals(virtualLinkRecord.getName())) {
-                vnfdConnectionPoint.setVirtual_link_reference_id(virtualLinkRecord.getExtId());
+      synchronized (lock) {
+        BaseVimInstance refreshed =
+            vimManagement.refreshNetworks(vimInstance, getNetworkNames(networkServiceRecord));
+        if (createMissingNetworks(
+            refreshed,
+            networkServiceRecord,
+            networkServiceDescriptor,
+            virtualNetworkFunctionDescriptor)) {
+          refreshed =
+              vimManagement.refreshNetworks(refreshed, getNetworkNames(networkServiceRecord));
+        }
+        for (VirtualDeploymentUnit vdu : vdusByVim.get(vimInstance.getId())) {
+          for (VNFComponent vnfc : vdu.getVnfc()) {
+            for (VNFDConnectionPoint vnfdConnectionPoint : vnfc.getConnection_point()) {
+              for (BaseNetwork network : refreshed.getNetworks()) {
+                if (VimInstanceUtils.isVNFDConnectionPointExisting(vnfdConnectionPoint, network)) {
+                  vnfdConnectionPoint.setVirtual_link_reference_id(network.getExtId());
+                  break;
+                }
               }
             }
           }
         }
+      }
+    }
+  }
 
-        saveVirtualNetworkFunctionRecord();
+  /** Returns the names and external ids of the networks used by the virtual links of the NSR. */
+  private Set<String> getNetworkNames(NetworkServiceRecord networkServiceRecord) {
+    Set<String> names = new HashSet<>();
+    for (VirtualLinkRecord virtualLinkRecord : networkServiceRecord.getVlr()) {
+      names.add(virtualLinkRecord.getName());
+      if (virtualLinkRecord.getExtId() != null) {
+        names.add(virtualLinkRecord.getExtId());
+      }
+    }
+    return names;
+  }
+
+  /**
+   * Creates in parallel the networks of the virtual links missing on the vim instance, which is
+   * only read meanwhile.
+   *
+   * @return true if any network was created
+   */
+  private boolean createMissingNetworks(
+      BaseVimInstance vimInstance,
+      NetworkServiceRecord networkServiceRecord,
+      NetworkServiceDescriptor networkServiceDescriptor,
+      VirtualNetworkFunctionDescriptor virtualNetworkFunctionDescriptor)
+      throws Exception {
+    Map<VirtualLinkRecord, BaseNetwork> networkToAdd = new LinkedHashMap<>();
+    for (VirtualLinkRecord virtualLinkRecord : networkServiceRecord.getVlr()) {
+      if (!VimInstanceUtils.isVLRExisting(virtualLinkRecord, vimInstance, dedicatedNetworks)) {
+        networkToAdd.put(
+            virtualLinkRecord,
+            VimInstanceUtils.createBaseNetwork(
+                networkServiceDescriptor,
+                virtualNetworkFunctionDescriptor,
+                virtualLinkRecord.getName(),
+                vimInstance));
+      }
+    }
+    if (networkToAdd.isEmpty()) {
+      return false;
+    }
+    log.debug(
+        "Creating " + networkToAdd.size() + " networks on vim instance " + vimInstance.getName());
+
+    Map<VirtualLinkRecord, Future<BaseNetwork>> created = new LinkedHashMap<>();
+    for (Map.Entry<VirtualLinkRecord, BaseNetwork> entry : networkToAdd.entrySet()) {
+      created.put(
+          entry.getKey(),
+          vimExecutor.submit(() -> networkManagement.add(vimInstance, entry.getValue())));
+    }
+    for (Map.Entry<VirtualLinkRecord, Future<BaseNetwork>> entry : created.entrySet()) {
+      BaseNetwork net;
+      try {
+        net = entry.getValue().get();
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof Exception) {
+          throw (Exception) e.getCause();
+        }
+        throw e;
       }
-      vimInstance = vimManagement.refresh(vimInstance, false).get();
-      for (VNFComponent vnfc : virtualDeploymentUnit.getVnfc()) {
-        for (VNFDConnectionPoint vnfdConnectionPoint : vnfc.getConnection_point()) {
-          for (BaseNetwork network : vimInstance.getNetworks()) {
-            if (VimInstanceUtils.isVNFDConnectionPointExisting(vnfdConnectionPoint, network)) {
-              vnfdConnectionPoint.setVirtual_link_reference_id(network.getExtId());
-              break;
+      VirtualLinkRecord virtualLinkRecord = entry.getKey();
+      virtualLinkRecord.setExtId(net.getExtId());
+      virtualLinkRecord.setParent_ns(networkServiceRecord.getId());
+      virtualLinkRecord.setVim_id(vimInstance.getId());
+      virtualLinkRecord = vlrRepository.save(virtualLinkRecord);
+      for (VirtualDeploymentUnit vdu : virtualNetworkFunctionRecord.getVdu()) {
+        for (VNFComponent vnfComponent : vdu.getVnfc()) {
+          for (VNFDConnectionPoint vnfdConnectionPoint : vnfComponent.getConnection_point()) {
+            if (vnfdConnectionPoint
+                .getVirtual_link_reference()
+                .equals(virtualLinkRecord.getName())) {
+              vnfdConnectionPoint.setVirtual_link_reference_id(virtualLinkRecord.getExtId());
             }
           }
         }
       }
     }
+    saveVirtualNetworkFunctionRecord();
+    return true;
   }
 
   @Override
@@ -208,6 +208,7 @@ public class HealTask extends AbstractTask {
       /* Setting the status of the VNF to INITIaLIZED so to send only one INSTANTIATE_FINISH */
       vnfrToNotify.setStatus(Status.INITIALIZED);
       vnfrToNotify = vnfrRepository.save(vnfrToNotify);
+      vnfmManager.resetNSRStatus(vnfrToNotify.getParent_ns_id());
       VnfmManagerEndpoint vnfmManagerEndpoint = vnfmRegister.getVnfm(vnfrToNotify.getEndpoint());
       VnfmSender vnfmSender = this.getVnfmSender(vnfmManagerEndpoint.getEndpointType());
 
@@ -215,7 +216,8 @@ public class HealTask extends AbstractTask {
       OrVnfmGenericMessage modifyMessage = new OrVnfmGenericMessage(vnfrToNotify, Action.MODIFY);
 
       modifyMessage.setVnfrd(dependency_new);
-      vnfStateHandler.executeAction(vnfmSender.sendCommand(modifyMessage, vnfmManagerEndpoint));
+      vnfStateHandler.executeAction(
+          modifyMessage, vnfmSender.sendCommand(modifyMessage, vnfmManagerEndpoint));
 
       log.debug("modify in message sent");
     }
@@ -33,6 +33,7 @@ import org.openbaton.exceptions.BadFormatException;
 import org.openbaton.exceptions.NotFoundException;
 import org.openbaton.nfvo.core.interfaces.DependencyManagement;
 import org.openbaton.nfvo.core.interfaces.DependencyQueuer;
+import org.openbaton.nfvo.core.interfaces.VNFLifecycleOperationGranting;
 import org.openbaton.nfvo.vnfm_reg.tasks.abstracts.AbstractTask;
 import org.openbaton.vnfm.interfaces.sender.VnfmSender;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -51,6 +52,8 @@ public class InstantiateTask extends AbstractTask {
   private String ordered;
   @Autowired private DependencyQueuer dependencyQueuer;
 
+  @Autowired private VNFLifecycleOperationGranting lifecycleOperationGranting;
+
   public String getOrdered() {
     return ordered;
   }
@@ -69,7 +72,7 @@ public class InstantiateTask extends AbstractTask {
             + " his nsr id father is:"
             + virtualNetworkFunctionRecord.getParent_ns_id());
     VirtualNetworkFunctionRecord existing =
-        vnfrRepository.findFirstById(virtualNetworkFunctionRecord.getId());
+        vnfrRepository.findWithVduById(virtualNetworkFunctionRecord.getId());
 
     virtualNetworkFunctionRecord
         .getVdu()
@@ -101,6 +104,8 @@ public class InstantiateTask extends AbstractTask {
       }
     }
 
+    // the VNFM allocated the resources of the VNFR in case the NFVO did not
+    lifecycleOperationGranting.confirmReservation(virtualNetworkFunctionRecord);
     dependencyManagement.fillDependecyParameters(virtualNetworkFunctionRecord);
     log.debug("Filled dependency parameters of " + virtualNetworkFunctionRecord.getName());
     setHistoryLifecycleEvent(new Date());
@@ -178,10 +183,12 @@ public class InstantiateTask extends AbstractTask {
     /*vnfmSender.sendCommand(
     new OrVnfmGenericMessage(virtualNetworkFunctionRecord, Action.START),
     vnfmRegister.getVnfm(virtualNetworkFunctionRecord.getEndpoint()));*/
+    OrVnfmStartStopMessage startMessage =
+        new OrVnfmStartStopMessage(virtualNetworkFunctionRecord, null, Action.START);
     vnfStateHandler.executeAction(
+        startMessage,
         vnfmSender.sendCommand(
-            new OrVnfmStartStopMessage(virtualNetworkFunctionRecord, null, Action.START),
-            vnfmRegister.getVnfm(virtualNetworkFunctionRecord.getEndpoint())));
+            startMessage, vnfmRegister.getVnfm(virtualNetworkFunctionRecord.getEndpoint())));
   }
 
   @Override
@@ -108,10 +108,12 @@ public class ModifyTask extends AbstractTask {
     /*vnfmSender.sendCommand(
     new OrVnfmGenericMessage(virtualNetworkFunctionRecord, Action.START),
     vnfmRegister.getVnfm(virtualNetworkFunctionRecord.getEndpoint()));*/
+    OrVnfmStartStopMessage startMessage =
+        new OrVnfmStartStopMessage(virtualNetworkFunctionRecord, null, Action.START);
     vnfStateHandler.executeAction(
+        startMessage,
         vnfmSender.sendCommand(
-            new OrVnfmStartStopMessage(virtualNetworkFunctionRecord, null, Action.START),
-            vnfmRegister.getVnfm(virtualNetworkFunctionRecord.getEndpoint())));
+            startMessage, vnfmRegister.getVnfm(virtualNetworkFunctionRecord.getEndpoint())));
   }
 
   @Override
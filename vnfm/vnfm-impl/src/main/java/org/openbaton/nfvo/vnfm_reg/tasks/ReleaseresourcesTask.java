@@ -23,6 +23,7 @@ import org.openbaton.catalogue.mano.descriptor.VirtualDeploymentUnit;
 import org.openbaton.catalogue.mano.record.VNFCInstance;
 import org.openbaton.catalogue.nfvo.messages.Interfaces.NFVMessage;
 import org.openbaton.nfvo.core.interfaces.ResourceManagement;
+import org.openbaton.nfvo.core.interfaces.VNFLifecycleOperationGranting;
 import org.openbaton.nfvo.vnfm_reg.tasks.abstracts.AbstractTask;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
@@ -34,6 +35,7 @@ import org.springframework.stereotype.Service;
 public class ReleaseresourcesTask extends AbstractTask {
 
   @Autowired private ResourceManagement resourceManagement;
+  @Autowired private VNFLifecycleOperationGranting lifecycleOperationGranting;
 
   @Override
   protected NFVMessage doWork() throws Exception {
@@ -54,6 +56,7 @@ public class ReleaseresourcesTask extends AbstractTask {
         this.resourceManagement.release(virtualDeploymentUnit, vnfcInstance);
       }
     }
+    lifecycleOperationGranting.releaseReservation(virtualNetworkFunctionRecord);
     setHistoryLifecycleEvent(new Date());
     saveVirtualNetworkFunctionRecord();
     return null;
@@ -245,6 +245,7 @@ public class ScaledTask extends AbstractTask {
                   + dependency);
 
           vnfStateHandler.executeAction(
+              message,
               vnfmSender.sendCommand(
                   message, vnfmRegister.getVnfm(virtualNetworkFunctionRecord.getEndpoint())));
         }
@@ -129,6 +129,7 @@ public class ScalingTask extends AbstractTask {
                   + future.get()
                   + " to VNFR "
                   + virtualNetworkFunctionRecord.getId());
+          lifecycleOperationGranting.confirmReservation(virtualNetworkFunctionRecord);
         } else if (vimInstance != null) {
           Future<VNFCInstance> future =
               resourceManagement.allocate(
@@ -138,7 +139,9 @@ public class ScalingTask extends AbstractTask {
                   + future.get()
                   + " to VNFR "
                   + virtualNetworkFunctionRecord.getId());
+          lifecycleOperationGranting.confirmReservation(virtualNetworkFunctionRecord);
         } else {
+          lifecycleOperationGranting.releaseReservation(virtualNetworkFunctionRecord);
           log.error(
               "Not enough resources on any of the PoPs in order to scale out. Please check your quota");
           log.error(
@@ -154,6 +157,7 @@ public class ScalingTask extends AbstractTask {
           return errorMessage;
         }
       } catch (ExecutionException exe) {
+        lifecycleOperationGranting.releaseReservation(virtualNetworkFunctionRecord);
         try {
           Throwable realException = exe.getCause();
           if (realException instanceof VimException) {
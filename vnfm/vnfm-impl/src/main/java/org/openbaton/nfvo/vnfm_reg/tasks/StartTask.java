@@ -64,7 +64,7 @@ public class StartTask extends AbstractTask {
   public NFVMessage doWork() throws Exception, BadFormatException {
     log.info("Started VNFR: " + virtualNetworkFunctionRecord.getName());
     VirtualNetworkFunctionRecord existing =
-        vnfrRepository.findFirstById(virtualNetworkFunctionRecord.getId());
+        vnfrRepository.findWithVduById(virtualNetworkFunctionRecord.getId());
     log.trace("VNFR existing hibernate version = " + existing.getHbVersion());
     log.trace("VNFR reiceived hibernate version = " + virtualNetworkFunctionRecord.getHbVersion());
 
@@ -131,10 +131,12 @@ public class StartTask extends AbstractTask {
     /*vnfmSender.sendCommand(
     new OrVnfmGenericMessage(virtualNetworkFunctionRecord, Action.START),
     vnfmRegister.getVnfm(virtualNetworkFunctionRecord.getEndpoint()));*/
+    OrVnfmStartStopMessage startMessage =
+        new OrVnfmStartStopMessage(virtualNetworkFunctionRecord, null, Action.START);
     vnfStateHandler.executeAction(
+        startMessage,
         vnfmSender.sendCommand(
-            new OrVnfmStartStopMessage(virtualNetworkFunctionRecord, null, Action.START),
-            vnfmRegister.getVnfm(virtualNetworkFunctionRecord.getEndpoint())));
+            startMessage, vnfmRegister.getVnfm(virtualNetworkFunctionRecord.getEndpoint())));
   }
 
   @Override
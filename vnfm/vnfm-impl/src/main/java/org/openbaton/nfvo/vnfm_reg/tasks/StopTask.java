@@ -62,7 +62,7 @@ public class StopTask extends AbstractTask {
   public NFVMessage doWork() throws Exception {
     log.info("Stopped VNFR: " + virtualNetworkFunctionRecord.getName());
     VirtualNetworkFunctionRecord existing =
-        vnfrRepository.findFirstById(virtualNetworkFunctionRecord.getId());
+        vnfrRepository.findWithVduById(virtualNetworkFunctionRecord.getId());
     log.trace("VNFR existing hibernate version = " + existing.getHbVersion());
     log.trace("VNFR reiceived hibernate version = " + virtualNetworkFunctionRecord.getHbVersion());
 
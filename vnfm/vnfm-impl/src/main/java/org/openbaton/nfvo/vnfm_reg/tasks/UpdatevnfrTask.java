@@ -59,7 +59,7 @@ public class UpdatevnfrTask extends AbstractTask {
             + " with ID: "
             + virtualNetworkFunctionRecord.getId());
     VirtualNetworkFunctionRecord virtualNetworkFunctionRecord_nfvo =
-        vnfrRepository.findOne(virtualNetworkFunctionRecord.getId());
+        vnfrRepository.findFirstById(virtualNetworkFunctionRecord.getId());
     //Updating VNFR
     virtualNetworkFunctionRecord_nfvo.setStatus(virtualNetworkFunctionRecord.getStatus());
     virtualNetworkFunctionRecord_nfvo.setName(virtualNetworkFunctionRecord.getName());
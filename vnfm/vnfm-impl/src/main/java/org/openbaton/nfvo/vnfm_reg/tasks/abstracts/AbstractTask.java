@@ -23,7 +23,7 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.Lock;
 import org.openbaton.catalogue.mano.common.Event;
 import org.openbaton.catalogue.mano.descriptor.VirtualDeploymentUnit;
 import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
@@ -43,6 +43,7 @@ import org.openbaton.exceptions.VimDriverException;
 import org.openbaton.exceptions.VimException;
 import org.openbaton.nfvo.common.internal.model.EventFinishNFVO;
 import org.openbaton.nfvo.common.internal.model.EventNFVO;
+import org.openbaton.nfvo.common.utils.lock.StripedLockManager;
 import org.openbaton.nfvo.repositories.NetworkServiceRecordRepository;
 import org.openbaton.nfvo.repositories.VNFRRepository;
 import org.openbaton.nfvo.vnfm_reg.VnfmRegister;
@@ -70,7 +71,6 @@ import org.springframework.stereotype.Service;
 public abstract class AbstractTask implements org.openbaton.vnfm.interfaces.tasks.AbstractTask {
   protected Logger log = LoggerFactory.getLogger(AbstractTask.class);
   private Action action;
-  protected static ReentrantLock lock = new ReentrantLock();
 
   protected abstract void setEvent();
 
@@ -92,10 +92,19 @@ public abstract class AbstractTask implements org.openbaton.vnfm.interfaces.task
   @Autowired protected VnfmManager vnfmManager;
   @Autowired protected NetworkServiceRecordRepository networkServiceRecordRepository;
   @Autowired private ConfigurableApplicationContext context;
+  @Autowired protected StripedLockManager lockManager;
   private ApplicationEventPublisher publisher;
 
+  /** Returns the key used for locking the records of the NSR this task's VNFR belongs to. */
+  protected String getLockKey() {
+    if (virtualNetworkFunctionRecord.getParent_ns_id() != null) {
+      return virtualNetworkFunctionRecord.getParent_ns_id();
+    }
+    return virtualNetworkFunctionRecord.getId();
+  }
+
   protected void saveVirtualNetworkFunctionRecord() {
-    lock.lock();
+    Lock lock = lockManager.lock(getLockKey());
     try {
       log.trace(
           "ACTION is: " + action + " and the VNFR id is: " + virtualNetworkFunctionRecord.getId());
@@ -156,14 +165,13 @@ public abstract class AbstractTask implements org.openbaton.vnfm.interfaces.task
         SimpleDateFormat format = new SimpleDateFormat("yyyy.MM.dd'-'HH:mm:ss:SSS'-'z");
         lifecycleEvent.setExecutedAt(format.format(new Date()));
         lifecycleEvent.setDescription(e.getCause().getMessage());
-        VNFCInstance vnfcInstance = ((VimException) e.getCause()).getVnfcInstance();
+        VimException vimException = (VimException) e.getCause();
 
-        if (vnfcInstance != null) {
+        for (VNFCInstance vnfcInstance : vimException.getVnfcInstances()) {
           log.info("The VM was not correctly deployed. ExtId is: " + vnfcInstance.getVc_id());
           log.debug("Details are: " + vnfcInstance);
           for (VirtualDeploymentUnit vdu : virtualNetworkFunctionRecord.getVdu()) {
-            if (vdu.getId()
-                .equals(((VimException) e.getCause()).getVirtualDeploymentUnit().getId())) {
+            if (vdu.getId().equals(vimException.getVirtualDeploymentUnit().getId())) {
               vdu.getVnfc_instance().add(vnfcInstance);
 
               log.debug("Found VDU and set vnfcInstance");
@@ -210,6 +218,7 @@ public abstract class AbstractTask implements org.openbaton.vnfm.interfaces.task
     virtualNetworkFunctionRecord.getLifecycle_event_history().add(lifecycleEvent);
     virtualNetworkFunctionRecord.setStatus(Status.ERROR);
     saveVirtualNetworkFunctionRecord();
+    vnfmManager.resetNSRStatus(virtualNetworkFunctionRecord.getParent_ns_id());
     return new OrVnfmErrorMessage(virtualNetworkFunctionRecord, e.getMessage());
   }
 
@@ -233,6 +242,7 @@ public abstract class AbstractTask implements org.openbaton.vnfm.interfaces.task
     NFVMessage message = new OrVnfmErrorMessage(virtualNetworkFunctionRecord, e.getMessage());
     try {
       vnfStateHandler.executeAction(
+          message,
           vnfmSender.sendCommand(
               message, vnfmRegister.getVnfm(virtualNetworkFunctionRecord.getEndpoint())));
     } catch (NotFoundException
@@ -254,16 +264,23 @@ public abstract class AbstractTask implements org.openbaton.vnfm.interfaces.task
 
     EventFinishEvent eventFinishEvent = new EventFinishEvent();
     eventFinishEvent.setAction(Action.ERROR);
-    virtualNetworkFunctionRecord.setStatus(Status.ERROR);
-    saveVirtualNetworkFunctionRecord();
-    log.info(
-        "Saved the VNFR "
-            + virtualNetworkFunctionRecord.getName()
-            + " with status error after an exception");
-    eventFinishEvent.setVirtualNetworkFunctionRecord(virtualNetworkFunctionRecord);
-    EventFinishNFVO event = new EventFinishNFVO(this);
-    event.setEventNFVO(eventFinishEvent);
-    this.publisher.publishEvent(event);
+    // the VNFR is saved and the NSR status updated without other VNFRs of the NSR in between
+    Lock lock = lockManager.lock(getLockKey());
+    try {
+      virtualNetworkFunctionRecord.setStatus(Status.ERROR);
+      saveVirtualNetworkFunctionRecord();
+      vnfmManager.resetNSRStatus(virtualNetworkFunctionRecord.getParent_ns_id());
+      log.info(
+          "Saved the VNFR "
+              + virtualNetworkFunctionRecord.getName()
+              + " with status error after an exception");
+      eventFinishEvent.setVirtualNetworkFunctionRecord(virtualNetworkFunctionRecord);
+      EventFinishNFVO event = new EventFinishNFVO(this);
+      event.setEventNFVO(eventFinishEvent);
+      this.publisher.publishEvent(event);
+    } finally {
+      lock.unlock();
+    }
   }
 
   protected abstract NFVMessage doWork() throws Exception, BadFormatException;
@@ -462,7 +479,7 @@ public abstract class AbstractTask implements org.openbaton.vnfm.interfaces.task
 
   protected void printOldAndNewHibernateVersion() {
     VirtualNetworkFunctionRecord existing =
-        vnfrRepository.findFirstById(virtualNetworkFunctionRecord.getId());
+        vnfrRepository.findWithVduById(virtualNetworkFunctionRecord.getId());
 
     log.trace(
         this.event
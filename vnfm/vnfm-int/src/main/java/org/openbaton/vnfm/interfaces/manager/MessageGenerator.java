@@ -7,6 +7,7 @@ import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
 import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
 import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
 import org.openbaton.catalogue.nfvo.EndpointType;
+import org.openbaton.catalogue.nfvo.VNFPackage;
 import org.openbaton.catalogue.nfvo.VnfmManagerEndpoint;
 import org.openbaton.catalogue.nfvo.messages.Interfaces.NFVMessage;
 import org.openbaton.catalogue.nfvo.messages.OrVnfmInstantiateMessage;
@@ -39,5 +40,8 @@ public interface MessageGenerator {
 
   VnfmManagerEndpoint getVnfm(String endpoint) throws NotFoundException;
 
+  /** Returns the VNF package with the payloads of its scripts, as they are sent to the VNFM. */
+  VNFPackage getVnfPackage(String id) throws NotFoundException;
+
   VirtualNetworkFunctionRecord setupTask(NFVMessage nfvMessage, AbstractTask task);
 }
@@ -69,6 +69,13 @@ public interface VnfmManager {
 
   void findAndSetNSRStatus(VirtualNetworkFunctionRecord virtualNetworkFunctionRecord);
 
+  /**
+   * Makes the next status update of the NSR read the NSR and its VNFRs from the database again.
+   * Has to be called after their status or the VNFRs of the NSR were changed in the database
+   * without {@link #findAndSetNSRStatus(VirtualNetworkFunctionRecord)}.
+   */
+  void resetNSRStatus(String nsrId);
+
   void removeVnfrName(String nsdId, String vnfrName);
 
   void updateScript(Script script, String vnfPackageId)
@@ -25,8 +25,11 @@ public interface VnfStateHandler {
       String monitoringIp)
       throws NotFoundException, BadFormatException, ExecutionException, InterruptedException;
 
-  @Async
-  Future<NFVMessage> executeAction(Future<NFVMessage> nfvMessage)
+  /**
+   * Executes the answer of the VNFM to the command. If the VNFM does not answer in time or the
+   * answer cannot be executed, the VNFR the command refers to is set to ERROR.
+   */
+  Future<NFVMessage> executeAction(NFVMessage command, Future<NFVMessage> answer)
       throws ExecutionException, InterruptedException;
 
   @Async